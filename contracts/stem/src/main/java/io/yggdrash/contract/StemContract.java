@@ -644,7 +644,7 @@ public class StemContract implements BundleActivator, ServiceListener {
         /**
          * @param params branch id
          *
-         * @return serviceFee state for branch
+         * @return serviceFee state for branch, including the deposits and withdrawals of the executing block
          */
         @ContractQuery
         public BigInteger feeState(JsonObject params) {
@@ -656,16 +656,16 @@ public class StemContract implements BundleActivator, ServiceListener {
             }
         }
 
+        // The deposits and withdrawals are merged at the end of the block, so they do not conflict with each other.
+        // The fee state read in the block includes them.
+        // The deployed jar (contractVersion of branch-yggdrash.json) still reads and writes the fee state, this takes
+        // effect only when the jar is rebuilt and its new version is deployed by every node of the branch.
         private void incrFeeState(String branchId, BigInteger amount) {
-            JsonObject feeObj = new JsonObject();
-            feeObj.addProperty(SERVICE_FEE, amount.add(getFeeState(branchId)));
-            this.state.put(branchId, feeObj);
+            this.state.addDelta(branchId, SERVICE_FEE, amount);
         }
 
         private void decrFessState(String branchId, BigInteger amount) {
-            JsonObject feeObj = new JsonObject();
-            feeObj.addProperty(SERVICE_FEE, getFeeState(branchId).subtract(amount));
-            this.state.put(branchId, feeObj);
+            this.state.addDelta(branchId, SERVICE_FEE, amount.negate());
         }
 
         private BigInteger getFeeState(String branchId) {
@@ -380,7 +380,7 @@ public class YeedContract implements BundleActivator, ServiceListener {
                 subtractBalanceFrom(from, feeAmount);
                 addBalanceTo(to, amount);
                 // Stores fee for each branchId to reward to the validators {branchId : fee}
-                addBalanceTo(receipt.getBranchId(), fee);
+                addFeeTo(receipt.getBranchId(), fee);
                 setSuccessTxReceipt(String.format(TRANSFER_SUCCESS, amount, from, to, fee));
                 return true;
             } else {
@@ -565,6 +565,14 @@ public class YeedContract implements BundleActivator, ServiceListener {
             putBalance(to, balance.add(amount));
         }
 
+        // Every transaction pays the fee to the branch, so it is added without being read and merged at endBlock.
+        // The balance of the branch read in the block includes the fees paid before.
+        // The deployed jar (contractVersion of branch-yggdrash.json) still reads and writes the balance, this takes
+        // effect only when the jar is rebuilt and its new version is deployed by every node of the branch.
+        private void addFeeTo(String branchId, BigInteger fee) {
+            store.addDelta(PrefixKeyEnum.getAccountKey(branchId), BALANCE, fee);
+        }
+
         private void subtractBalanceFrom(String from, BigInteger amount) {
             BigInteger balance = getBalance(from);
             putBalance(from, balance.subtract(amount));
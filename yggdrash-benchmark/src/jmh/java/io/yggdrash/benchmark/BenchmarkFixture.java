@@ -0,0 +1,71 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.yggdrash.benchmark;
+
+import com.google.gson.JsonObject;
+import io.yggdrash.BlockChainTestUtils;
+import io.yggdrash.ContractTestUtils;
+import io.yggdrash.TestConstants;
+import io.yggdrash.common.exception.FailedOperationException;
+import io.yggdrash.core.blockchain.Transaction;
+import io.yggdrash.core.wallet.Wallet;
+
+import java.io.File;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Transactions of the yggdrash branch shared by the benchmarks.
+ * The benchmarks run in the yggdrash-benchmark directory, so the files of yggdrash-core are read from there.
+ */
+final class BenchmarkFixture {
+    // Allocated by the YEED contract of branch-yggdrash.json
+    private static final String TRANSFER_KEY =
+            "../yggdrash-core/src/test/resources/keys/101167aaf090581b91c08480f6e559acdd9a3ddd.json";
+    private static final String PASSWORD = "Aa1234567890!";
+
+    private static Wallet transferWallet;
+
+    private BenchmarkFixture() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    static synchronized Wallet transferWallet() {
+        if (transferWallet == null) {
+            try {
+                transferWallet = new Wallet(new File(TRANSFER_KEY).getCanonicalPath(), PASSWORD);
+            } catch (Exception e) {
+                throw new FailedOperationException(e);
+            }
+        }
+        return transferWallet;
+    }
+
+    /**
+     * Creates the YEED transfers of the transfer wallet to the distinct accounts.
+     */
+    static List<Transaction> createTransferTxs(int count) {
+        List<Transaction> txs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String to = String.format("%040x", i + 1);
+            JsonObject txBody = ContractTestUtils.transferTxBodyJson(to, BigInteger.valueOf(100));
+            txs.add(BlockChainTestUtils.buildTx(txBody, transferWallet(), TestConstants.yggdrash()));
+        }
+        return txs;
+    }
+}
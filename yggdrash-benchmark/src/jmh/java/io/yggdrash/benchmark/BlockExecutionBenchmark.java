@@ -0,0 +1,70 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.yggdrash.benchmark;
+
+import io.yggdrash.BlockChainTestUtils;
+import io.yggdrash.ContractTestUtils;
+import io.yggdrash.common.config.DefaultConfig;
+import io.yggdrash.core.blockchain.Transaction;
+import io.yggdrash.core.blockchain.osgi.ContractManager;
+import io.yggdrash.core.runtime.result.BlockRuntimeResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Execution of a block of YEED transfers by the ContractExecutor.
+ * The result is not committed, so every invocation executes the block on the state after the genesis.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BlockExecutionBenchmark {
+
+    @Param({"100", "1000"})
+    public int blockSize;
+
+    private ContractManager contractManager;
+    private List<Transaction> txs;
+
+    @Setup
+    public void setUp() {
+        contractManager = ContractTestUtils.createContractManager(BlockChainTestUtils.getGenesis(), new DefaultConfig())
+                .keySet().stream().findFirst().orElseThrow(IllegalStateException::new);
+        contractManager.commitBlockResult(contractManager.executeTxs(BlockChainTestUtils.genesisBlock()));
+        txs = BenchmarkFixture.createTransferTxs(blockSize);
+    }
+
+    @TearDown
+    public void tearDown() {
+        contractManager.close();
+    }
+
+    @Benchmark
+    public BlockRuntimeResult executeTxs() {
+        return contractManager.executeTxs(txs);
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.yggdrash.benchmark;
+
+import io.yggdrash.common.crypto.ECKey;
+import io.yggdrash.common.crypto.HashUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.security.SignatureException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class CryptoBenchmark {
+
+    private ECKey key;
+    private byte[] message;
+    private byte[] messageHash;
+    private ECKey.ECDSASignature signature;
+
+    @Setup
+    public void setUp() {
+        key = new ECKey();
+        message = BenchmarkFixture.createTransferTxs(1).get(0).toBinary();
+        messageHash = HashUtil.sha3(message);
+        signature = key.sign(messageHash);
+    }
+
+    @Benchmark
+    public byte[] sha3() {
+        return HashUtil.sha3(message);
+    }
+
+    @Benchmark
+    public ECKey.ECDSASignature sign() {
+        return key.sign(messageHash);
+    }
+
+    @Benchmark
+    public ECKey signatureToKey() throws SignatureException {
+        return ECKey.signatureToKey(messageHash, signature);
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.yggdrash.benchmark;
+
+import io.yggdrash.common.rlp.RLP;
+import io.yggdrash.common.rlp.RLPList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class RlpBenchmark {
+
+    @Param({"10", "1000"})
+    public int elementCount;
+
+    private byte[][] elements;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(0);
+        elements = new byte[elementCount][];
+        for (int i = 0; i < elementCount; i++) {
+            byte[] data = new byte[i % 2 == 0 ? 32 : 80];
+            random.nextBytes(data);
+            elements[i] = i % 3 == 0
+                    ? RLP.encodeBigInteger(BigInteger.valueOf(random.nextLong()).abs()) : RLP.encodeElement(data);
+        }
+        encoded = RLP.encodeList(elements);
+    }
+
+    @Benchmark
+    public byte[] encodeList() {
+        return RLP.encodeList(elements);
+    }
+
+    @Benchmark
+    public RLPList decode() {
+        return RLP.decode2(encoded);
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.yggdrash.benchmark;
+
+import com.google.gson.JsonObject;
+import io.yggdrash.common.store.StateStore;
+import io.yggdrash.common.store.datasource.DbSource;
+import io.yggdrash.common.store.datasource.HashMapDbSource;
+import io.yggdrash.common.store.datasource.LevelDbDataSource;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads and writes of the state on the in-memory source and on LevelDB in a temp directory.
+ * The reads of the StateStore are mostly served by its cache, the reads of the DbSource are not cached.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class StoreBenchmark {
+    private static final int KEY_COUNT = 10000;
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"hashmap", "leveldb"})
+    public String source;
+
+    private Path dbPath;
+    private DbSource<byte[], byte[]> dbSource;
+    private StateStore stateStore;
+
+    private String[] keys;
+    private byte[][] rowKeys;
+    private JsonObject value;
+    private Map<byte[], byte[]> batch;
+    private int cursor;
+
+    @Setup
+    public void setUp() throws IOException {
+        if ("leveldb".equals(source)) {
+            dbPath = Files.createTempDirectory("yggdrash-benchmark");
+            dbSource = new LevelDbDataSource(dbPath.toString(), "state").init();
+        } else {
+            dbSource = new HashMapDbSource().init();
+        }
+        stateStore = new StateStore(dbSource);
+
+        value = new JsonObject();
+        value.addProperty("balance", new BigInteger("1000000000000000000000"));
+        keys = new String[KEY_COUNT];
+        rowKeys = new byte[KEY_COUNT][];
+        Map<String, JsonObject> state = new LinkedHashMap<>();
+        for (int i = 0; i < KEY_COUNT; i++) {
+            keys[i] = String.format("account/%040x", i);
+            rowKeys[i] = keys[i].getBytes();
+            state.put(keys[i], value);
+        }
+        stateStore.updatePatch(state);
+
+        Random random = new Random(0);
+        batch = new LinkedHashMap<>();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            byte[] row = new byte[100];
+            random.nextBytes(row);
+            batch.put(String.format("batch/%08d", i).getBytes(), row);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        dbSource.close();
+        if (dbPath != null) {
+            FileUtils.deleteDirectory(dbPath.toFile());
+        }
+    }
+
+    private int next() {
+        cursor = (cursor + 1) % KEY_COUNT;
+        return cursor;
+    }
+
+    @Benchmark
+    public JsonObject stateStoreGet() {
+        return stateStore.get(keys[next()]);
+    }
+
+    @Benchmark
+    public void stateStorePut() {
+        stateStore.put(keys[next()], value);
+    }
+
+    @Benchmark
+    public byte[] dbSourceGet() {
+        return dbSource.get(rowKeys[next()]);
+    }
+
+    @Benchmark
+    public void dbSourceBatch() {
+        dbSource.updateByBatch(batch);
+    }
+}
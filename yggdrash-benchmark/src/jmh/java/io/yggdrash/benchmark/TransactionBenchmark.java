@@ -0,0 +1,76 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.yggdrash.benchmark;
+
+import io.yggdrash.common.Sha3Hash;
+import io.yggdrash.common.trie.Trie;
+import io.yggdrash.common.util.VerifierUtils;
+import io.yggdrash.core.blockchain.Transaction;
+import io.yggdrash.core.blockchain.TransactionImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ingest path of a transaction. A transaction caches its hash and public key,
+ * so they are measured on a transaction parsed in the same invocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TransactionBenchmark {
+
+    @Param({"100", "1000"})
+    public int blockSize;
+
+    private byte[] txBinary;
+    private List<Transaction> txs;
+
+    @Setup
+    public void setUp() {
+        txs = BenchmarkFixture.createTransferTxs(blockSize);
+        txBinary = txs.get(0).toBinary();
+    }
+
+    @Benchmark
+    public Transaction parse() {
+        return new TransactionImpl(txBinary);
+    }
+
+    @Benchmark
+    public Sha3Hash parseAndHash() {
+        return new TransactionImpl(txBinary).getHash();
+    }
+
+    @Benchmark
+    public boolean parseAndVerifySignature() {
+        return VerifierUtils.verifySignature(new TransactionImpl(txBinary));
+    }
+
+    @Benchmark
+    public byte[] merkleRoot() {
+        return Trie.getMerkleRoot(txs);
+    }
+}
@@ -62,6 +62,10 @@ public final class Constants {
     public static final String YGGDRASH_KEY_PATH = "yggdrash.key.path";
     public static final String YGGDRASH_KEY_PASSWORD = "yggdrash.key.password";
     public static final String YGGDRASH_DATABASE_PATH = "yggdrash.database.path";
+    public static final String YGGDRASH_DATABASE_SYNC = "yggdrash.database.sync";
+    public static final String YGGDRASH_DATABASE_ENGINE = "yggdrash.database.engine";
+    public static final String YGGDRASH_DATABASE_ENGINES = "yggdrash.database.engines";
+    public static final String YGGDRASH_DATABASE_PRUNE_INTERVAL = "yggdrash.database.prune.interval";
     public static final String YGGDRASH_ADMIN_MODE = "yggdrash.admin.mode";
     public static final String YGGDRASH_ADMIN_PATH = "yggdrash.admin.path";
     public static final String YGGDRASH_ADMIN_IP = "yggdrash.admin.ip";
@@ -69,8 +73,14 @@ public final class Constants {
     public static final String YGGDRASH_ADMIN_TIMEOUT = "yggdrash.admin.timeout";
     public static final String YGGDRASH_CONTRACT_PATH = "yggdrash.contract.path";
     public static final String YGGDRASH_CONTRACT_URL = "yggdrash.contract.url";
+    public static final String YGGDRASH_CONTRACT_PARALLEL = "yggdrash.contract.parallel";
     public static final String YGGDRASH_OSGI_PATH = "yggdrash.osgi.path";
     public static final String YGGDRASH_BRANCH_PATH = "yggdrash.branch.path";
+    public static final String YGGDRASH_TXPOOL_CAPACITY = "yggdrash.txpool.capacity";
+    public static final String YGGDRASH_SNAPSHOT_PATH = "yggdrash.snapshot.path";
+    public static final String YGGDRASH_SNAPSHOT_INTERVAL = "yggdrash.snapshot.interval";
+    public static final String YGGDRASH_SNAPSHOT_PEER = "yggdrash.snapshot.peer";
+    public static final String YGGDRASH_SNAPSHOT_CHECKPOINT = "yggdrash.snapshot.checkpoint";
 
     public static final String NODE_KEY_PATH = "yggdrash.node.key.path";
     public static final String NODE_KEY_PASSWORD = "yggdrash.node.key.password";
@@ -88,6 +98,7 @@ public final class Constants {
     public static final String VALIDATOR_GRPC_HOST_CONF = "yggdrash.validator.host";
     public static final String VALIDATOR_GRPC_PORT_CONF = "yggdrash.validator.port";
     public static final String VALIDATOR_LOG_LEVEL_CONF = "yggdrash.validator.log.level";
+    public static final String VALIDATOR_PBFT_AGGREGATE = "yggdrash.validator.pbft.aggregate";
 
     public static final String TIMEOUT_PING_PATH = "yggdrash.node.timeout.ping";
     public static final String TIMEOUT_BLOCK_PATH = "yggdrash.node.timeout.block";
@@ -102,6 +113,7 @@ public final class Constants {
 
     public static final long BLOCK_SYNC_COUNT = 10;
     public static final long TRANSACTION_UNCONFIRMED_MAX = 1000;
+    public static final int TX_POOL_CAPACITY = 10000;
 
     // Base currency
     public static final BigInteger BASE_CURRENCY = BigInteger.TEN.pow(18);
@@ -111,6 +123,8 @@ public final class Constants {
         }
 
         public static final long BLOCK_SYNC_SIZE = 3 * 1024 * 1024L; // 3MB
+        public static final long BLOCK_STREAM_COUNT = 10000;
+        public static final long BLOCK_STREAM_SIZE = 32 * 1024 * 1024L; // 32MB received by a client per stream
     }
 
     public final class Key {
@@ -30,6 +30,8 @@ import org.spongycastle.crypto.util.DigestFactory;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.Security;
+import java.util.HashMap;
+import java.util.Map;
 
 import static java.util.Arrays.copyOfRange;
 
@@ -46,6 +48,9 @@ public class HashUtil {
     private static final String HASH_SHA3_512_ALGORITHM_NAME = "SHA3-512";
     private static final String HASH_SHA_1_ALGORITHM_NAME = "SHA-1";
 
+    // Looking up a digest through the providers is slower than hashing a transaction
+    private static final ThreadLocal<Map<String, MessageDigest>> DIGESTS = ThreadLocal.withInitial(HashMap::new);
+
     static {
         if (Security.getProvider("SC") == null) {
             Security.addProvider(SpongyCastleProvider.getInstance());
@@ -59,7 +64,7 @@ public class HashUtil {
      * @return hashed data
      */
     public static byte[] sha3(byte[] input) {
-        return hash(input, HASH_256_ALGORITHM_NAME);
+        return Sha3Hasher.get().update(input).digest();
     }
 
     /**
@@ -114,12 +119,26 @@ public class HashUtil {
      * @return hashed data.
      */
     public static byte[] hash(byte[] input, String algorithm, boolean doubleHash) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance(algorithm);
-            return doubleHash ? digest.digest(digest.digest(input)) : digest.digest(input);
-        } catch (NoSuchAlgorithmException e) {
-            throw new FailedOperationException(e);
+        if (HASH_256_ALGORITHM_NAME.equals(algorithm)) {
+            byte[] hash = sha3(input);
+            return doubleHash ? sha3(hash) : hash;
+        }
+        MessageDigest digest = getDigest(algorithm);
+        return doubleHash ? digest.digest(digest.digest(input)) : digest.digest(input);
+    }
+
+    private static MessageDigest getDigest(String algorithm) {
+        Map<String, MessageDigest> digests = DIGESTS.get();
+        MessageDigest digest = digests.get(algorithm);
+        if (digest == null) {
+            try {
+                digest = MessageDigest.getInstance(algorithm);
+            } catch (NoSuchAlgorithmException e) {
+                throw new FailedOperationException(e);
+            }
+            digests.put(algorithm, digest);
         }
+        return digest;
     }
 
     /**
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.yggdrash.common.crypto;
+
+import io.yggdrash.common.config.Constants;
+import org.spongycastle.crypto.digests.KeccakDigest;
+
+import java.nio.ByteBuffer;
+
+/**
+ * SHA3(Keccak256) hasher that is reused by its thread.
+ * The input is streamed into the digest, so the fields of a header are hashed without being copied into
+ * a temporary array first. A hasher is reset by {@link #get()}, so the hashing of a thread must not be
+ * interleaved with another one.
+ */
+public final class Sha3Hasher {
+
+    private static final ThreadLocal<Sha3Hasher> HASHERS = ThreadLocal.withInitial(Sha3Hasher::new);
+    private static final int CHUNK_SIZE = 256;
+
+    private final KeccakDigest digest = new KeccakDigest(256);
+    private final byte[] chunk = new byte[CHUNK_SIZE];
+
+    private Sha3Hasher() {
+    }
+
+    /**
+     * Gets the hasher of the current thread.
+     *
+     * @return the hasher without input
+     */
+    public static Sha3Hasher get() {
+        Sha3Hasher hasher = HASHERS.get();
+        hasher.digest.reset();
+        return hasher;
+    }
+
+    public Sha3Hasher update(byte input) {
+        digest.update(input);
+        return this;
+    }
+
+    public Sha3Hasher update(byte[] input) {
+        digest.update(input, 0, input.length);
+        return this;
+    }
+
+    public Sha3Hasher update(byte[] input, int offset, int length) {
+        digest.update(input, offset, length);
+        return this;
+    }
+
+    /**
+     * Hashes the remaining bytes of the buffer. The position of the buffer is moved to its limit.
+     */
+    public Sha3Hasher update(ByteBuffer input) {
+        if (input.hasArray()) {
+            digest.update(input.array(), input.arrayOffset() + input.position(), input.remaining());
+            input.position(input.limit());
+            return this;
+        }
+        while (input.hasRemaining()) {
+            int length = Math.min(input.remaining(), CHUNK_SIZE);
+            input.get(chunk, 0, length);
+            digest.update(chunk, 0, length);
+        }
+        return this;
+    }
+
+    /**
+     * Hashes the value as the 8 bytes in big endian like ByteUtil.longToBytes.
+     */
+    public Sha3Hasher update(long value) {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            digest.update((byte) (value >>> shift));
+        }
+        return this;
+    }
+
+    /**
+     * Completes the hash and resets the hasher.
+     *
+     * @return hashed data
+     */
+    public byte[] digest() {
+        byte[] hash = new byte[Constants.HASH_LENGTH];
+        digest(hash, 0);
+        return hash;
+    }
+
+    /**
+     * Completes the hash into the buffer and resets the hasher.
+     *
+     * @param out buffer of the hash
+     * @param offset offset of the hash in the buffer
+     */
+    public void digest(byte[] out, int offset) {
+        digest.doFinal(out, offset);
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.yggdrash.common.store;
+
+import com.google.gson.JsonObject;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded LRU cache of the state values.
+ * The keys are spread over segments that have their own lock, so the readers of the different keys
+ * do not wait for each other. The absence of a key is cached as well.
+ * The cached values are never exposed, the readers get copies of them.
+ */
+public class StateCache {
+    private static final int SEGMENT_COUNT = 16;
+    private static final JsonObject ABSENT = new JsonObject();
+
+    private final Segment[] segments = new Segment[SEGMENT_COUNT];
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+
+    public StateCache(int capacity) {
+        int segmentCapacity = Math.max(1, capacity / SEGMENT_COUNT);
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment(segmentCapacity);
+        }
+    }
+
+    /**
+     * Gets the cached value.
+     *
+     * @param key state key
+     * @return copy of the value, ABSENT if the key is known to be absent, or null if it is not cached
+     */
+    JsonObject get(String key) {
+        JsonObject value = lookup(key);
+        return value == null || value == ABSENT ? value : value.deepCopy();
+    }
+
+    /**
+     * Checks the key without copying the value.
+     *
+     * @param key state key
+     * @return whether the key exists, or null if it is not cached
+     */
+    Boolean contains(String key) {
+        JsonObject value = lookup(key);
+        return value == null ? null : value != ABSENT;
+    }
+
+    private JsonObject lookup(String key) {
+        JsonObject value;
+        Segment segment = segmentOf(key);
+        synchronized (segment) {
+            value = segment.get(key);
+        }
+        if (value == null) {
+            missCount.increment();
+        } else {
+            hitCount.increment();
+        }
+        return value;
+    }
+
+    void put(String key, JsonObject value) {
+        JsonObject cached = value == null ? ABSENT : value.deepCopy();
+        Segment segment = segmentOf(key);
+        synchronized (segment) {
+            segment.put(key, cached);
+        }
+    }
+
+    static boolean isAbsent(JsonObject value) {
+        return value == ABSENT;
+    }
+
+    void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    public double getHitRate() {
+        long hit = getHitCount();
+        long total = hit + getMissCount();
+        return total == 0 ? 0 : (double) hit / total;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    private Segment segmentOf(String key) {
+        int hash = key.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (SEGMENT_COUNT - 1)];
+    }
+
+    private static class Segment extends LinkedHashMap<String, JsonObject> {
+        private final int capacity;
+
+        Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, JsonObject> eldest) {
+            return size() > capacity;
+        }
+    }
+}
@@ -1,45 +1,140 @@
 package io.yggdrash.common.store;
 
 import com.google.gson.JsonObject;
+import io.yggdrash.common.Sha3Hash;
 import io.yggdrash.common.store.datasource.DbSource;
-import io.yggdrash.common.store.datasource.LevelDbDataSource;
-import io.yggdrash.common.utils.JsonUtil;
-import io.yggdrash.common.utils.SerializationUtil;
+import io.yggdrash.common.store.trie.StateProof;
+import io.yggdrash.common.store.trie.StateTrie;
 import io.yggdrash.contract.core.store.ReadWriterStore;
+import io.yggdrash.contract.core.store.TypedStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.math.BigInteger;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
 
 public class StateStore implements ReadWriterStore<String, JsonObject> {
 
+    public static final String STATE_ROOT = "stateRoot";
+    public static final String STATE_HASH = "stateHash";
+
     private static final Logger log = LoggerFactory.getLogger(StateStore.class);
 
     private final DbSource<byte[], byte[]> db;
-    private static final String STATE_ROOT = "stateRoot";
-    private static final String STATE_HASH = "stateHash";
+    private static final int CACHE_SIZE = 100000;
+
+    private static final int PRUNE_BATCH_ROWS = 10000;
 
     private final ReentrantLock lock = new ReentrantLock();
+    private final ReentrantLock pruneLock = new ReentrantLock();
+    // Trie nodes written while the trie is pruned, null if it is not pruned
+    private volatile Set<Sha3Hash> prunePinned;
+    private final StateTrie trie;
+    // The misses and the writes update the cache with the lock, so a reader never caches an old value.
+    private final StateCache cache;
 
     public StateStore(DbSource<byte[], byte[]> dbSource) {
+        this(dbSource, CACHE_SIZE);
+    }
+
+    public StateStore(DbSource<byte[], byte[]> dbSource, int cacheSize) {
         this.db = dbSource.init();
+        this.trie = new StateTrie(db);
+        this.cache = new StateCache(cacheSize);
+    }
+
+    public StateCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Gets the root of the state trie committed with the last block.
+     *
+     * @return state root hash, or the root of the empty trie
+     */
+    public Sha3Hash getStateRootHash() {
+        JsonObject stateRoot = get(STATE_ROOT);
+        return stateRoot != null && stateRoot.has(STATE_HASH)
+                ? new Sha3Hash(stateRoot.get(STATE_HASH).getAsString()) : StateTrie.EMPTY_ROOT;
+    }
+
+    /**
+     * Calculates the state root of the changed values on top of the committed state.
+     * The trie nodes are written only when the update is passed to the patch.
+     *
+     * @param changes changed state values. The stateRoot itself is not a part of the state.
+     * @return the new state root and its trie nodes
+     */
+    public StateTrie.Update calculateStateRoot(Map<String, JsonObject> changes) {
+        Map<Sha3Hash, Sha3Hash> hashes = new HashMap<>();
+        changes.forEach((key, value) -> {
+            if (!STATE_ROOT.equals(key)) {
+                hashes.put(StateTrie.hashKey(key),
+                        value == null ? null : StateTrie.hashValue(StateValueCodec.encode(value)));
+            }
+        });
+        return trie.update(getStateRootHash(), hashes);
+    }
+
+    /**
+     * Gets the merkle proof of the value against the committed state root.
+     *
+     * @param key state key
+     * @return proof of inclusion, or non inclusion if the key does not exist
+     */
+    public StateProof getProof(String key) {
+        return trie.getProof(getStateRootHash(), StateTrie.hashKey(key));
     }
 
     public void updatePatch(Map<String, JsonObject> result) {
-        if (db instanceof LevelDbDataSource) {
-            LevelDbDataSource levelDbDataSource = (LevelDbDataSource) this.db;
-            levelDbDataSource.updateByBatch(convertToByteMap(result));
-        } else {
-            result.forEach(this::put);
+        updatePatch(result, false);
+    }
+
+    /**
+     * Writes the patch in a single batch.
+     *
+     * @param result state values to be written
+     * @param sync true if the batch should be flushed to the disk
+     */
+    public void updatePatch(Map<String, JsonObject> result, boolean sync) {
+        updatePatch(result, null, sync);
+    }
+
+    /**
+     * Writes the patch and the trie nodes of its state root in a single batch.
+     *
+     * @param result state values to be written
+     * @param trieUpdate trie nodes calculated by {@link #calculateStateRoot(Map)}, or null
+     * @param sync true if the batch should be flushed to the disk
+     */
+    public void updatePatch(Map<String, JsonObject> result, StateTrie.Update trieUpdate, boolean sync) {
+        lock.lock();
+        try {
+            Map<byte[], byte[]> rows = convertToByteMap(result);
+            if (trieUpdate != null) {
+                rows.putAll(trieUpdate.getRows());
+                Set<Sha3Hash> pinned = prunePinned;
+                if (pinned != null) {
+                    pinned.addAll(trieUpdate.getHashes());
+                }
+            }
+            db.updateByBatch(rows, sync);
+            result.forEach(cache::put);
+        } finally {
+            lock.unlock();
         }
     }
 
     private Map<byte[], byte[]> convertToByteMap(Map<String, JsonObject> result) {
-        Map<byte[], byte[]> ret = new HashMap<>();
+        Map<byte[], byte[]> ret = new LinkedHashMap<>();
         for (String k : result.keySet()) {
-            ret.put(k.getBytes(), SerializationUtil.serializeJson(result.get(k)));
+            ret.put(k.getBytes(), StateValueCodec.encode(result.get(k)));
         }
         return ret;
     }
@@ -51,12 +146,27 @@ public class StateStore implements ReadWriterStore<String, JsonObject> {
         }
 
         lock.lock();
-        log.trace("current STATEROOT: {}",
-                this.get(STATE_ROOT) == null ? "null" : this.get(STATE_ROOT).get(STATE_HASH).getAsString());
-        log.trace("Key: {} , Value: {}", key, value);
+        if (log.isTraceEnabled()) {
+            log.trace("current STATEROOT: {}", getStateRootHash());
+            log.trace("Key: {} , Value: {}", key, value);
+        }
         try {
-            byte[] tempValue = SerializationUtil.serializeJson(value);
+            byte[] tempValue = StateValueCodec.encode(value);
             db.put(key.getBytes(), tempValue);
+            cache.put(key, value);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds the delta to the committed value at once. The block state store defers it to the end of the block.
+     */
+    @Override
+    public void addDelta(String key, String field, BigInteger delta) {
+        lock.lock();
+        try {
+            put(key, TypedStore.addBigInteger(get(key), field, delta));
         } finally {
             lock.unlock();
         }
@@ -64,24 +174,105 @@ public class StateStore implements ReadWriterStore<String, JsonObject> {
 
     @Override
     public JsonObject get(String key) {
+        JsonObject value = cache.get(key);
+        if (value == null) {
+            return load(key);
+        }
+        return StateCache.isAbsent(value) ? null : value;
+    }
+
+    @Override
+    public boolean contains(String key) {
+        Boolean cached = cache.contains(key);
+        return cached != null ? cached : load(key) != null;
+    }
+
+    private JsonObject load(String key) {
         lock.lock();
         try {
             byte[] result = db.get(key.getBytes());
-            if (result == null) {
-                return null;
+            JsonObject value = result == null ? null : StateValueCodec.decode(result);
+            cache.put(key, value);
+            return value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Passes the committed state values to the consumer. The nodes of the state trie are skipped.
+     * The values are read from a consistent view of the db, so they belong to a single block.
+     *
+     * @param consumer consumer of the key and the value
+     */
+    public void forEach(BiConsumer<String, JsonObject> consumer) {
+        db.forEach((key, value) -> {
+            if (!StateTrie.isNodeKey(key)) {
+                consumer.accept(new String(key), StateValueCodec.decode(value));
             }
-            String tempValue = SerializationUtil.deserializeString(result);
-            return JsonUtil.parseJsonObject(tempValue);
+        });
+    }
+
+    /**
+     * Copies every row of the source, the trie nodes included, in batches of the rows.
+     * The rows are read from a consistent view of the source.
+     *
+     * @param source store to be copied
+     * @param batchRows rows of a batch
+     */
+    public void putAll(StateStore source, int batchRows) {
+        lock.lock();
+        try {
+            Map<byte[], byte[]> rows = new LinkedHashMap<>();
+            source.db.forEach((key, value) -> {
+                rows.put(key, value);
+                if (rows.size() >= batchRows) {
+                    db.updateByBatch(rows);
+                    rows.clear();
+                }
+            });
+            db.updateByBatch(rows, true);
+            cache.clear();
         } finally {
             lock.unlock();
         }
     }
 
-    @Override
-    public boolean contains(String key) {
+    /**
+     * Deletes the trie nodes which are not reachable from the committed state root.
+     * The block commits never delete the nodes of the superseded roots, so they are removed by this compaction.
+     * The blocks are committed while the trie is pruned, the nodes they write are kept.
+     *
+     * @return the number of the deleted nodes
+     */
+    public long pruneStateTrie() {
+        pruneLock.lock();
+        try {
+            Sha3Hash root;
+            lock.lock();
+            try {
+                prunePinned = ConcurrentHashMap.newKeySet();
+                root = getStateRootHash();
+            } finally {
+                lock.unlock();
+            }
+            long deleted = trie.prune(root, prunePinned, PRUNE_BATCH_ROWS, lock);
+            log.debug("State trie pruned. root={}, deleted={}", root, deleted);
+            return deleted;
+        } finally {
+            prunePinned = null;
+            pruneLock.unlock();
+        }
+    }
+
+    /**
+     * Removes every row of the store.
+     */
+    public void reset() {
         lock.lock();
         try {
-            return db.get(key.getBytes()) != null;
+            db.reset();
+            cache.clear();
         } finally {
             lock.unlock();
         }
@@ -89,6 +280,7 @@ public class StateStore implements ReadWriterStore<String, JsonObject> {
 
     @Override
     public void close() {
+        cache.clear();
         db.close();
     }
 
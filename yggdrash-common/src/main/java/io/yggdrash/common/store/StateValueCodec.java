@@ -0,0 +1,245 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.yggdrash.common.store;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.internal.LazilyParsedNumber;
+import io.yggdrash.common.exception.FailedOperationException;
+import io.yggdrash.common.utils.JsonUtil;
+import io.yggdrash.common.utils.SerializationUtil;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Binary encoding of the state values.
+ * Integers are stored as two's complement bytes and decoded to BigInteger without parsing the text,
+ * the other numbers keep their text. Values stored as json strings by the previous versions are still decoded.
+ */
+public final class StateValueCodec {
+    private static final byte FORMAT = 1; // json text always starts with '{'
+
+    private static final byte NULL = 0;
+    private static final byte TRUE = 1;
+    private static final byte FALSE = 2;
+    private static final byte INTEGER = 3;
+    private static final byte NUMBER = 4;
+    private static final byte STRING = 5;
+    private static final byte ARRAY = 6;
+    private static final byte OBJECT = 7;
+
+    private StateValueCodec() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    public static byte[] encode(JsonObject value) {
+        Writer writer = new Writer();
+        writer.write(FORMAT);
+        writer.writeElement(value);
+        return writer.toByteArray();
+    }
+
+    public static JsonObject decode(byte[] data) {
+        if (data.length == 0 || data[0] != FORMAT) {
+            return JsonUtil.parseJsonObject(SerializationUtil.deserializeString(data));
+        }
+        Reader reader = new Reader(data, 1);
+        JsonElement element = reader.readElement();
+        if (!element.isJsonObject() || reader.pos != data.length) {
+            throw new FailedOperationException("Invalid state value");
+        }
+        return element.getAsJsonObject();
+    }
+
+    private static class Writer extends ByteArrayOutputStream {
+
+        Writer() {
+            super(64);
+        }
+
+        void writeElement(JsonElement element) {
+            if (element == null || element.isJsonNull()) {
+                write(NULL);
+            } else if (element.isJsonObject()) {
+                write(OBJECT);
+                writeLength(element.getAsJsonObject().size());
+                for (Map.Entry<String, JsonElement> entry : element.getAsJsonObject().entrySet()) {
+                    writeString(entry.getKey());
+                    writeElement(entry.getValue());
+                }
+            } else if (element.isJsonArray()) {
+                write(ARRAY);
+                writeLength(element.getAsJsonArray().size());
+                for (JsonElement item : element.getAsJsonArray()) {
+                    writeElement(item);
+                }
+            } else {
+                writePrimitive(element.getAsJsonPrimitive());
+            }
+        }
+
+        private void writePrimitive(JsonPrimitive primitive) {
+            if (primitive.isBoolean()) {
+                write(primitive.getAsBoolean() ? TRUE : FALSE);
+            } else if (primitive.isNumber()) {
+                writeNumber(primitive);
+            } else {
+                write(STRING);
+                writeString(primitive.getAsString());
+            }
+        }
+
+        private void writeNumber(JsonPrimitive primitive) {
+            Number number = primitive.getAsNumber();
+            BigInteger integer = null;
+            if (number instanceof BigInteger) {
+                integer = (BigInteger) number;
+            } else if (number instanceof Long || number instanceof Integer
+                    || number instanceof Short || number instanceof Byte) {
+                integer = BigInteger.valueOf(number.longValue());
+            } else if (isIntegerText(number.toString())) {
+                integer = new BigInteger(number.toString());
+            }
+
+            if (integer != null) {
+                write(INTEGER);
+                writeData(integer.toByteArray());
+            } else {
+                // Keeps the text of the decimal numbers as it is
+                write(NUMBER);
+                writeString(number.toString());
+            }
+        }
+
+        private void writeString(String value) {
+            writeData(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        private void writeData(byte[] bytes) {
+            writeLength(bytes.length);
+            write(bytes, 0, bytes.length);
+        }
+
+        private void writeLength(int length) {
+            int value = length;
+            while ((value & ~0x7F) != 0) {
+                write((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            write(value);
+        }
+
+        // The text of the integer is kept when it is decoded to BigInteger
+        private static boolean isIntegerText(String text) {
+            int start = text.startsWith("-") ? 1 : 0;
+            if (text.length() == start || (text.charAt(start) == '0' && text.length() > start + 1)) {
+                return false;
+            }
+            for (int i = start; i < text.length(); i++) {
+                if (text.charAt(i) < '0' || text.charAt(i) > '9') {
+                    return false;
+                }
+            }
+            return !"-0".equals(text);
+        }
+    }
+
+    private static class Reader {
+        private final byte[] data;
+        private int pos;
+
+        Reader(byte[] data, int pos) {
+            this.data = data;
+            this.pos = pos;
+        }
+
+        JsonElement readElement() {
+            byte type = readByte();
+            switch (type) {
+                case NULL:
+                    return JsonNull.INSTANCE;
+                case TRUE:
+                    return new JsonPrimitive(true);
+                case FALSE:
+                    return new JsonPrimitive(false);
+                case INTEGER:
+                    return new JsonPrimitive(new BigInteger(readBytes()));
+                case NUMBER:
+                    return new JsonPrimitive(new LazilyParsedNumber(readString()));
+                case STRING:
+                    return new JsonPrimitive(readString());
+                case ARRAY:
+                    int arraySize = readLength();
+                    JsonArray array = new JsonArray();
+                    for (int i = 0; i < arraySize; i++) {
+                        array.add(readElement());
+                    }
+                    return array;
+                case OBJECT:
+                    int objectSize = readLength();
+                    JsonObject object = new JsonObject();
+                    for (int i = 0; i < objectSize; i++) {
+                        String key = readString();
+                        object.add(key, readElement());
+                    }
+                    return object;
+                default:
+                    throw new FailedOperationException("Invalid state value type. " + type);
+            }
+        }
+
+        private byte readByte() {
+            if (pos >= data.length) {
+                throw new FailedOperationException("Invalid state value");
+            }
+            return data[pos++];
+        }
+
+        private String readString() {
+            return new String(readBytes(), StandardCharsets.UTF_8);
+        }
+
+        private byte[] readBytes() {
+            int length = readLength();
+            if (length > data.length - pos) {
+                throw new FailedOperationException("Invalid state value");
+            }
+            byte[] bytes = new byte[length];
+            System.arraycopy(data, pos, bytes, 0, length);
+            pos += length;
+            return bytes;
+        }
+
+        private int readLength() {
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                byte b = readByte();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new FailedOperationException("Invalid state value");
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.yggdrash.common.store.datasource;
+
+import io.yggdrash.common.exception.FailedOperationException;
+
+/**
+ * Storage engine of the persistent DbSource.
+ */
+public enum DbEngine {
+    LEVELDB,
+    ROCKSDB;
+
+    /**
+     * Creates the source of the store. The data of a store isn't migrated between the engines, so the store
+     * isn't opened when the other engine holds its data, instead of starting over with an empty store.
+     */
+    public DbSource<byte[], byte[]> create(String dbPath, String name) {
+        for (DbEngine other : values()) {
+            if (other != this && other.exists(dbPath, name)) {
+                throw new FailedOperationException(String.format(
+                        "%s holds the data of %s, it can't be opened by %s", other, name, this));
+            }
+        }
+        if (this == ROCKSDB) {
+            return new RocksDbDataSource(dbPath, name);
+        }
+        return new LevelDbDataSource(dbPath, name);
+    }
+
+    private boolean exists(String dbPath, String name) {
+        if (this == ROCKSDB) {
+            return RocksDbDataSource.exists(dbPath, name);
+        }
+        return LevelDbDataSource.exists(dbPath, name);
+    }
+
+    public static DbEngine of(String name) {
+        return valueOf(name.trim().toUpperCase());
+    }
+}
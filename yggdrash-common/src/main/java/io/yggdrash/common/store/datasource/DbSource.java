@@ -18,6 +18,9 @@ package io.yggdrash.common.store.datasource;
 
 import org.iq80.leveldb.Options;
 
+import java.util.Map;
+import java.util.function.BiConsumer;
+
 public interface DbSource<K, V> {
     DbSource<K, V> init();
 
@@ -30,4 +33,38 @@ public interface DbSource<K, V> {
     void close();
 
     void delete(K key);
+
+    default void updateByBatch(Map<K, V> rows) {
+        updateByBatch(rows, false);
+    }
+
+    /**
+     * Writes the rows at once. A null value deletes the row.
+     * The default implementation writes the rows one by one, the persistent sources write them atomically.
+     *
+     * @param rows rows to be written
+     * @param sync true if the write should be flushed to the disk before it returns
+     */
+    default void updateByBatch(Map<K, V> rows, boolean sync) {
+        rows.forEach((key, value) -> {
+            if (value == null) {
+                delete(key);
+            } else {
+                put(key, value);
+            }
+        });
+    }
+
+    /**
+     * Passes every row to the consumer. The rows are read from a consistent view of the source,
+     * so the writes made during the iteration are not seen.
+     *
+     * @param consumer consumer of the key and the value of each row
+     */
+    void forEach(BiConsumer<K, V> consumer);
+
+    /**
+     * Removes every row of the source. The source stays open.
+     */
+    void reset();
 }
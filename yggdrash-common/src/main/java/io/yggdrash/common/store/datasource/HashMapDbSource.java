@@ -16,11 +16,15 @@
 
 package io.yggdrash.common.store.datasource;
 
+import io.yggdrash.common.exception.FailedOperationException;
+import org.apache.commons.codec.DecoderException;
 import org.apache.commons.codec.binary.Hex;
 import org.iq80.leveldb.Options;
 
+import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
 
 public class HashMapDbSource implements DbSource<byte[], byte[]> {
     private Map<String, byte[]> db;
@@ -56,4 +60,20 @@ public class HashMapDbSource implements DbSource<byte[], byte[]> {
     public void delete(byte[] key) {
         db.remove(Hex.encodeHexString(key));
     }
+
+    @Override
+    public void reset() {
+        db.clear();
+    }
+
+    @Override
+    public void forEach(BiConsumer<byte[], byte[]> consumer) {
+        for (Map.Entry<String, byte[]> row : new HashMap<>(db).entrySet()) {
+            try {
+                consumer.accept(Hex.decodeHex(row.getKey().toCharArray()), row.getValue());
+            } catch (DecoderException e) {
+                throw new FailedOperationException(e);
+            }
+        }
+    }
 }
@@ -19,19 +19,23 @@ package io.yggdrash.common.store.datasource;
 import io.yggdrash.common.exception.FailedOperationException;
 import io.yggdrash.common.utils.FileUtil;
 import org.iq80.leveldb.DB;
+import org.iq80.leveldb.DBIterator;
 import org.iq80.leveldb.Options;
 import org.iq80.leveldb.WriteBatch;
+import org.iq80.leveldb.WriteOptions;
 import org.iq80.leveldb.impl.Iq80DBFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Map;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
 
 public class LevelDbDataSource implements DbSource<byte[], byte[]> {
 
@@ -100,6 +104,13 @@ public class LevelDbDataSource implements DbSource<byte[], byte[]> {
         return Paths.get(dbPath, name);
     }
 
+    /**
+     * Checks whether the store has been opened by LevelDB.
+     */
+    static boolean exists(String dbPath, String name) {
+        return Files.exists(Paths.get(dbPath, name, "CURRENT"));
+    }
+
     public void put(byte[] key, byte[] value) {
         resetDbLock.readLock().lock();
         try {
@@ -118,9 +129,10 @@ public class LevelDbDataSource implements DbSource<byte[], byte[]> {
         }
     }
 
-    public void updateByBatch(Map<byte[], byte[]> rows) {
+    @Override
+    public void updateByBatch(Map<byte[], byte[]> rows, boolean sync) {
         resetDbLock.readLock().lock();
-        log.trace("UpdateByBatch Rows size: {}", rows.size());
+        log.trace("UpdateByBatch Rows size: {}, sync: {}", rows.size(), sync);
         try (WriteBatch batch = db.createWriteBatch()) {
             rows.forEach((key, value) -> {
                 if (value == null) {
@@ -129,15 +141,33 @@ public class LevelDbDataSource implements DbSource<byte[], byte[]> {
                     batch.put(key, value);
                 }
             });
-            db.write(batch);
+            db.write(batch, new WriteOptions().sync(sync));
         } catch (IOException e) {
             log.debug(e.getMessage());
+            throw new FailedOperationException(e);
         } finally {
             resetDbLock.readLock().unlock();
         }
     }
 
-    void reset() {
+    @Override
+    public void forEach(BiConsumer<byte[], byte[]> consumer) {
+        resetDbLock.readLock().lock();
+        // The iterator reads from the snapshot of the db taken when it is created
+        try (DBIterator iterator = db.iterator()) {
+            for (iterator.seekToFirst(); iterator.hasNext(); ) {
+                Map.Entry<byte[], byte[]> row = iterator.next();
+                consumer.accept(row.getKey(), row.getValue());
+            }
+        } catch (IOException e) {
+            throw new FailedOperationException(e);
+        } finally {
+            resetDbLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void reset() {
         close();
         FileUtil.recursiveDelete(getDbPath());
         init();
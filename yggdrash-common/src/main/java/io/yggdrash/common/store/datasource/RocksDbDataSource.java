@@ -0,0 +1,381 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.yggdrash.common.store.datasource;
+
+import io.yggdrash.common.exception.FailedOperationException;
+import org.iq80.leveldb.Options;
+import org.rocksdb.BlockBasedTableConfig;
+import org.rocksdb.BloomFilter;
+import org.rocksdb.ColumnFamilyDescriptor;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.ColumnFamilyOptions;
+import org.rocksdb.CompactionPriority;
+import org.rocksdb.CompressionType;
+import org.rocksdb.DBOptions;
+import org.rocksdb.LRUCache;
+import org.rocksdb.ReadOptions;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.RocksIterator;
+import org.rocksdb.WriteBatch;
+import org.rocksdb.WriteOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+
+/**
+ * DbSource of an embedded RocksDB.
+ * The stores of a branch share one db, and each store is a column family named by the last part of its name,
+ * e.g. "{branchId}/blocks" is the blocks column family of the db in "{dbPath}/{branchId}/rocksdb".
+ * Every column family has the bloom filter and reads its blocks through one block cache shared in the process.
+ */
+public class RocksDbDataSource implements DbSource<byte[], byte[]> {
+
+    private static final Logger log = LoggerFactory.getLogger(RocksDbDataSource.class);
+
+    private static final String DB_DIR = "rocksdb";
+    private static final long BLOCK_CACHE_SIZE = 256L * 1024 * 1024;
+    private static final long WRITE_BUFFER_SIZE = 64L * 1024 * 1024;
+    private static final int BLOOM_BITS_PER_KEY = 10;
+
+    // Opened dbs by their path, guarded by itself
+    private static final Map<Path, SharedDb> OPENED_DBS = new HashMap<>();
+
+    static {
+        RocksDB.loadLibrary();
+    }
+
+    // Shared by the column families of every db
+    private static final LRUCache BLOCK_CACHE = new LRUCache(BLOCK_CACHE_SIZE);
+    private static final BloomFilter BLOOM_FILTER = new BloomFilter(BLOOM_BITS_PER_KEY, false);
+
+    private final ReadWriteLock resetDbLock = new ReentrantReadWriteLock();
+    private final String name;
+    private final Path dbPath;
+    private final String columnFamily;
+
+    private boolean alive;
+    private SharedDb db;
+    private ColumnFamilyHandle handle;
+
+    public RocksDbDataSource(String dbPath, String name) {
+        if (name == null) {
+            throw new NullPointerException("no name set to the dbStore");
+        }
+        Path path = Paths.get(dbPath, name);
+        this.name = name;
+        this.dbPath = path.getParent().resolve(DB_DIR);
+        this.columnFamily = path.getFileName().toString();
+    }
+
+    @Override
+    public DbSource<byte[], byte[]> init() {
+        resetDbLock.writeLock().lock();
+        try {
+            log.info("Initialize db: {}, columnFamily={}", dbPath, columnFamily);
+
+            if (isAlive()) {
+                log.warn("DbSource is alive.");
+                return this;
+            }
+
+            synchronized (OPENED_DBS) {
+                SharedDb sharedDb = OPENED_DBS.get(dbPath);
+                if (sharedDb == null) {
+                    sharedDb = SharedDb.open(dbPath);
+                    OPENED_DBS.put(dbPath, sharedDb);
+                }
+                handle = sharedDb.acquire(columnFamily);
+                db = sharedDb;
+            }
+            alive = true;
+        } catch (RocksDBException e) {
+            log.debug(e.getMessage());
+            throw new FailedOperationException("Can't initialize db");
+        } finally {
+            resetDbLock.writeLock().unlock();
+        }
+
+        return this;
+    }
+
+    /**
+     * Initializes the db. The LevelDB options are not applied, since the column families share the tuned options.
+     */
+    @Override
+    public DbSource<byte[], byte[]> init(Options options) {
+        return init();
+    }
+
+    @Override
+    public byte[] get(byte[] key) {
+        resetDbLock.readLock().lock();
+        try {
+            return db.rocksDb.get(handle, key);
+        } catch (RocksDBException e) {
+            throw new FailedOperationException(e);
+        } finally {
+            resetDbLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void put(byte[] key, byte[] value) {
+        resetDbLock.readLock().lock();
+        try {
+            db.rocksDb.put(handle, key, value);
+        } catch (RocksDBException e) {
+            throw new FailedOperationException(e);
+        } finally {
+            resetDbLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void delete(byte[] key) {
+        resetDbLock.readLock().lock();
+        try {
+            db.rocksDb.delete(handle, key);
+        } catch (RocksDBException e) {
+            throw new FailedOperationException(e);
+        } finally {
+            resetDbLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void updateByBatch(Map<byte[], byte[]> rows, boolean sync) {
+        resetDbLock.readLock().lock();
+        log.trace("UpdateByBatch Rows size: {}, sync: {}", rows.size(), sync);
+        try (WriteBatch batch = new WriteBatch(); WriteOptions writeOptions = new WriteOptions().setSync(sync)) {
+            for (Map.Entry<byte[], byte[]> row : rows.entrySet()) {
+                if (row.getValue() == null) {
+                    batch.delete(handle, row.getKey());
+                } else {
+                    batch.put(handle, row.getKey(), row.getValue());
+                }
+            }
+            db.rocksDb.write(writeOptions, batch);
+        } catch (RocksDBException e) {
+            log.debug(e.getMessage());
+            throw new FailedOperationException(e);
+        } finally {
+            resetDbLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void forEach(BiConsumer<byte[], byte[]> consumer) {
+        resetDbLock.readLock().lock();
+        // The iterator reads from the implicit snapshot of the db taken when it is created.
+        // A full scan doesn't fill the block cache, so the hot blocks of the point lookups stay cached.
+        try (ReadOptions readOptions = new ReadOptions().setFillCache(false);
+             RocksIterator iterator = db.rocksDb.newIterator(handle, readOptions)) {
+            for (iterator.seekToFirst(); iterator.isValid(); iterator.next()) {
+                consumer.accept(iterator.key(), iterator.value());
+            }
+        } finally {
+            resetDbLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void reset() {
+        resetDbLock.writeLock().lock();
+        try {
+            synchronized (OPENED_DBS) {
+                handle = db.recreate(columnFamily);
+            }
+        } catch (RocksDBException e) {
+            throw new FailedOperationException(e);
+        } finally {
+            resetDbLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        resetDbLock.writeLock().lock();
+        try {
+            if (!isAlive()) {
+                return;
+            }
+            log.debug("Close db: {}", name);
+            synchronized (OPENED_DBS) {
+                if (db.release(columnFamily)) {
+                    OPENED_DBS.remove(dbPath);
+                }
+            }
+            handle = null;
+            db = null;
+            alive = false;
+        } finally {
+            resetDbLock.writeLock().unlock();
+        }
+    }
+
+    private boolean isAlive() {
+        return alive;
+    }
+
+    /**
+     * Checks whether the db of the store has its column family, i.e. the store has been opened by RocksDB.
+     */
+    static boolean exists(String dbPath, String name) {
+        Path path = Paths.get(dbPath, name);
+        Path sharedDbPath = path.getParent().resolve(DB_DIR);
+        if (!Files.exists(sharedDbPath.resolve("CURRENT"))) {
+            return false;
+        }
+        byte[] columnFamily = path.getFileName().toString().getBytes(StandardCharsets.UTF_8);
+        try (org.rocksdb.Options listOptions = new org.rocksdb.Options()) {
+            return RocksDB.listColumnFamilies(listOptions, sharedDbPath.toString()).stream()
+                    .anyMatch(existing -> Arrays.equals(existing, columnFamily));
+        } catch (RocksDBException e) {
+            throw new FailedOperationException(e);
+        }
+    }
+
+    /**
+     * Options of a column family. The level compaction is tuned to keep the level 0 small under sustained writes,
+     * and the bottommost level, which holds the most of the data, is compressed harder.
+     */
+    private static ColumnFamilyOptions newColumnFamilyOptions() {
+        BlockBasedTableConfig tableConfig = new BlockBasedTableConfig()
+                .setBlockCache(BLOCK_CACHE)
+                .setFilterPolicy(BLOOM_FILTER)
+                .setCacheIndexAndFilterBlocks(true)
+                .setPinL0FilterAndIndexBlocksInCache(true)
+                .setBlockSize(16 * 1024);
+        return new ColumnFamilyOptions()
+                .setTableFormatConfig(tableConfig)
+                .setWriteBufferSize(WRITE_BUFFER_SIZE)
+                .setMaxWriteBufferNumber(4)
+                .setTargetFileSizeBase(WRITE_BUFFER_SIZE)
+                .setMaxBytesForLevelBase(WRITE_BUFFER_SIZE * 4)
+                .setLevelCompactionDynamicLevelBytes(true)
+                .setCompactionPriority(CompactionPriority.MinOverlappingRatio)
+                .setLevel0FileNumCompactionTrigger(4)
+                .setLevel0SlowdownWritesTrigger(20)
+                .setLevel0StopWritesTrigger(36)
+                .setCompressionType(CompressionType.LZ4_COMPRESSION)
+                .setBottommostCompressionType(CompressionType.ZSTD_COMPRESSION);
+    }
+
+    // Db shared by the column families, which is closed when every column family is closed
+    private static class SharedDb {
+        private final RocksDB rocksDb;
+        private final DBOptions options;
+        private final Map<String, ColumnFamilyHandle> handles = new HashMap<>();
+        private final Map<String, ColumnFamilyOptions> columnFamilyOptions = new HashMap<>();
+        private final Map<String, Integer> leaseCounts = new HashMap<>();
+
+        private SharedDb(RocksDB rocksDb, DBOptions options) {
+            this.rocksDb = rocksDb;
+            this.options = options;
+        }
+
+        static SharedDb open(Path path) throws RocksDBException {
+            List<byte[]> names = new ArrayList<>();
+            if (Files.exists(path.resolve("CURRENT"))) {
+                try (org.rocksdb.Options listOptions = new org.rocksdb.Options()) {
+                    names.addAll(RocksDB.listColumnFamilies(listOptions, path.toString()));
+                }
+            } else {
+                path.toFile().mkdirs();
+                names.add(RocksDB.DEFAULT_COLUMN_FAMILY);
+            }
+
+            List<ColumnFamilyDescriptor> descriptors = new ArrayList<>();
+            for (byte[] name : names) {
+                descriptors.add(new ColumnFamilyDescriptor(name, newColumnFamilyOptions()));
+            }
+            DBOptions options = new DBOptions()
+                    .setCreateIfMissing(true)
+                    .setMaxBackgroundJobs(Math.max(Runtime.getRuntime().availableProcessors(), 2))
+                    .setBytesPerSync(1024 * 1024)
+                    .setMaxOpenFiles(512);
+            List<ColumnFamilyHandle> handleList = new ArrayList<>();
+            RocksDB rocksDb = RocksDB.open(options, path.toString(), descriptors, handleList);
+
+            SharedDb sharedDb = new SharedDb(rocksDb, options);
+            for (int i = 0; i < descriptors.size(); i++) {
+                String name = new String(names.get(i), StandardCharsets.UTF_8);
+                sharedDb.handles.put(name, handleList.get(i));
+                sharedDb.columnFamilyOptions.put(name, descriptors.get(i).getOptions());
+            }
+            return sharedDb;
+        }
+
+        ColumnFamilyHandle acquire(String name) throws RocksDBException {
+            ColumnFamilyHandle handle = handles.get(name);
+            if (handle == null) {
+                handle = create(name);
+            }
+            leaseCounts.merge(name, 1, Integer::sum);
+            return handle;
+        }
+
+        ColumnFamilyHandle recreate(String name) throws RocksDBException {
+            ColumnFamilyHandle handle = handles.remove(name);
+            rocksDb.dropColumnFamily(handle);
+            handle.close();
+            columnFamilyOptions.remove(name).close();
+            return create(name);
+        }
+
+        private ColumnFamilyHandle create(String name) throws RocksDBException {
+            ColumnFamilyOptions familyOptions = newColumnFamilyOptions();
+            ColumnFamilyHandle handle = rocksDb.createColumnFamily(
+                    new ColumnFamilyDescriptor(name.getBytes(StandardCharsets.UTF_8), familyOptions));
+            handles.put(name, handle);
+            columnFamilyOptions.put(name, familyOptions);
+            return handle;
+        }
+
+        /**
+         * Returns the lease of the column family.
+         *
+         * @return true if the db is closed since no column family is leased
+         */
+        boolean release(String name) {
+            if (leaseCounts.merge(name, -1, Integer::sum) <= 0) {
+                leaseCounts.remove(name);
+            }
+            if (!leaseCounts.isEmpty()) {
+                return false;
+            }
+            handles.values().forEach(ColumnFamilyHandle::close);
+            rocksDb.close();
+            options.close();
+            columnFamilyOptions.values().forEach(ColumnFamilyOptions::close);
+            return true;
+        }
+    }
+}
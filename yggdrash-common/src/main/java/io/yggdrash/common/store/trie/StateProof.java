@@ -0,0 +1,115 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.yggdrash.common.store.trie;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import io.yggdrash.common.Sha3Hash;
+
+import java.util.List;
+
+/**
+ * Merkle proof of a key in the state trie.
+ * The leaf is the last node on the path of the key. It proves the inclusion if it holds the key,
+ * otherwise it proves that the key does not exist.
+ */
+public class StateProof {
+    private final Sha3Hash root;
+    private final Sha3Hash keyHash;
+    private final List<Sha3Hash> siblings; // from the root to the leaf
+    private final Sha3Hash leafKey;
+    private final Sha3Hash leafValue;
+
+    StateProof(Sha3Hash root, Sha3Hash keyHash, List<Sha3Hash> siblings, Sha3Hash leafKey, Sha3Hash leafValue) {
+        this.root = root;
+        this.keyHash = keyHash;
+        this.siblings = siblings;
+        this.leafKey = leafKey;
+        this.leafValue = leafValue;
+    }
+
+    /**
+     * Gets the state root that the proof was taken from.
+     * It should be compared with the state root of a trusted block header.
+     */
+    public Sha3Hash getRoot() {
+        return root;
+    }
+
+    public Sha3Hash getKeyHash() {
+        return keyHash;
+    }
+
+    public List<Sha3Hash> getSiblings() {
+        return siblings;
+    }
+
+    public boolean isIncluded() {
+        return keyHash.equals(leafKey);
+    }
+
+    /**
+     * Gets the hash of the proved value.
+     *
+     * @return value hash, or null if the key does not exist
+     */
+    public Sha3Hash getValueHash() {
+        return isIncluded() ? leafValue : null;
+    }
+
+    /**
+     * Verifies that the proof leads to the root.
+     *
+     * @param root state root
+     * @return true if the path of the proof is valid
+     */
+    public boolean verify(Sha3Hash root) {
+        Sha3Hash hash = leafKey == null ? StateTrie.EMPTY_ROOT : StateTrie.leafHash(leafKey, leafValue);
+        for (int depth = siblings.size() - 1; depth >= 0; depth--) {
+            Sha3Hash sibling = siblings.get(depth);
+            hash = StateTrie.bit(keyHash, depth)
+                    ? StateTrie.branchHash(sibling, hash) : StateTrie.branchHash(hash, sibling);
+        }
+        return hash.equals(root);
+    }
+
+    /**
+     * Verifies that the value of the key is included in the state of the root.
+     *
+     * @param root state root
+     * @param value serialized value
+     * @return true if the value is proved
+     */
+    public boolean verify(Sha3Hash root, byte[] value) {
+        return isIncluded() && leafValue.equals(StateTrie.hashValue(value)) && verify(root);
+    }
+
+    public JsonObject toJsonObject() {
+        JsonObject json = new JsonObject();
+        json.addProperty("stateRoot", root.toString());
+        json.addProperty("keyHash", keyHash.toString());
+        JsonArray siblingArray = new JsonArray();
+        siblings.forEach(sibling -> siblingArray.add(sibling.toString()));
+        json.add("siblings", siblingArray);
+        if (leafKey != null) {
+            json.addProperty("leafKey", leafKey.toString());
+            json.addProperty("leafValue", leafValue.toString());
+        }
+        json.addProperty("included", isIncluded());
+        return json;
+    }
+}
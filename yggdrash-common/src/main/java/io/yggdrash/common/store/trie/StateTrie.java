@@ -0,0 +1,398 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.yggdrash.common.store.trie;
+
+import io.yggdrash.common.Sha3Hash;
+import io.yggdrash.common.config.Constants;
+import io.yggdrash.common.crypto.HashUtil;
+import io.yggdrash.common.crypto.Sha3Hasher;
+import io.yggdrash.common.exception.FailedOperationException;
+import io.yggdrash.common.store.datasource.DbSource;
+
+import java.util.AbstractMap;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Sparse merkle tree that authenticates the state values.
+ * A value is placed on the path of the sha3 hash of its key. A subtree holding a single leaf is replaced
+ * by the leaf itself, so a leaf is found O(log n) levels below the root and the root does not depend on
+ * the order of the writes. Nodes are stored by their hashes and never changed.
+ * <p>
+ * The nodes of a superseded root are not deleted when a new root is stored, so the db grows with every block
+ * until they are removed by {@link #prune(Sha3Hash, Set, int, Lock)}.
+ */
+public class StateTrie {
+    public static final Sha3Hash EMPTY_ROOT = Sha3Hash.createByHashed(Constants.EMPTY_HASH);
+
+    private static final byte LEAF = 0;
+    private static final byte BRANCH = 1;
+    private static final byte[] NODE_PREFIX = "stateTrie/".getBytes();
+
+    private static final int NODE_CACHE_SIZE = 100000;
+    // Dirty subtrees near the root are hashed in parallel when they have enough changes
+    private static final int PARALLEL_DEPTH = 4;
+    private static final int PARALLEL_THRESHOLD = 256;
+
+    private final DbSource<byte[], byte[]> db;
+    private final Map<Sha3Hash, Node> nodeCache = Collections.synchronizedMap(
+            new LinkedHashMap<Sha3Hash, Node>(1024, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Sha3Hash, Node> eldest) {
+                    return size() > NODE_CACHE_SIZE;
+                }
+            });
+
+    public StateTrie(DbSource<byte[], byte[]> db) {
+        this.db = db;
+    }
+
+    public static Sha3Hash hashKey(String key) {
+        return new Sha3Hash(key.getBytes());
+    }
+
+    public static Sha3Hash hashValue(byte[] value) {
+        return new Sha3Hash(value);
+    }
+
+    /**
+     * Applies the changes to the trie of the root. Nothing is written to the db until
+     * the nodes of the returned update are stored.
+     *
+     * @param root root of the current state
+     * @param changes value hashes by key hashes, a null value hash removes the key
+     * @return the new root and the nodes created for it
+     */
+    public Update update(Sha3Hash root, Map<Sha3Hash, Sha3Hash> changes) {
+        List<Map.Entry<Sha3Hash, Sha3Hash>> entries = new ArrayList<>(changes.entrySet());
+        Map<Sha3Hash, Node> created = new ConcurrentHashMap<>();
+        Sha3Hash newRoot = update(root, 0, entries, created);
+        return new Update(newRoot, created);
+    }
+
+    /**
+     * Gets the proof of the key from the trie of the root.
+     * The proof holds the siblings from the root to the leaf on the path of the key.
+     */
+    public StateProof getProof(Sha3Hash root, Sha3Hash keyHash) {
+        List<Sha3Hash> siblings = new ArrayList<>();
+        Sha3Hash hash = root;
+        for (int depth = 0; ; depth++) {
+            if (EMPTY_ROOT.equals(hash)) {
+                return new StateProof(root, keyHash, siblings, null, null);
+            }
+            Node node = load(hash, Collections.emptyMap());
+            if (node.type == LEAF) {
+                return new StateProof(root, keyHash, siblings, node.left, node.right);
+            }
+            if (bit(keyHash, depth)) {
+                siblings.add(node.left);
+                hash = node.right;
+            } else {
+                siblings.add(node.right);
+                hash = node.left;
+            }
+        }
+    }
+
+    /**
+     * Deletes the nodes which are not reachable from the root.
+     * The reachable nodes are marked first, so the memory used grows with the number of the nodes of the root.
+     * The pinned nodes are kept even if they are not reachable. The set is checked with the lock held when
+     * a batch is deleted, so the writer of the new nodes adds them to the set with the same lock.
+     *
+     * @param root root whose nodes are kept
+     * @param pinned nodes written after the root, the set may grow while the nodes are deleted
+     * @param batchRows rows of a delete batch
+     * @param lock lock of the writer of the nodes
+     * @return the number of the deleted nodes
+     */
+    public long prune(Sha3Hash root, Set<Sha3Hash> pinned, int batchRows, Lock lock) {
+        Set<Sha3Hash> reachable = new HashSet<>();
+        Deque<Sha3Hash> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            Sha3Hash hash = stack.pop();
+            if (EMPTY_ROOT.equals(hash) || !reachable.add(hash)) {
+                continue;
+            }
+            Node node = load(hash, Collections.emptyMap());
+            if (node.type == BRANCH) {
+                stack.push(node.left);
+                stack.push(node.right);
+            }
+        }
+
+        long[] deleted = new long[1];
+        List<Sha3Hash> batch = new ArrayList<>();
+        // The rows are read from a consistent view of the db, so the nodes written meanwhile are not seen
+        db.forEach((key, value) -> {
+            if (!isNodeKey(key)) {
+                return;
+            }
+            Sha3Hash hash = Sha3Hash.createByHashed(
+                    Arrays.copyOfRange(key, NODE_PREFIX.length, key.length));
+            if (!reachable.contains(hash)) {
+                batch.add(hash);
+                if (batch.size() >= batchRows) {
+                    deleted[0] += delete(batch, pinned, lock);
+                    batch.clear();
+                }
+            }
+        });
+        deleted[0] += delete(batch, pinned, lock);
+        return deleted[0];
+    }
+
+    private long delete(List<Sha3Hash> hashes, Set<Sha3Hash> pinned, Lock lock) {
+        lock.lock();
+        try {
+            Map<byte[], byte[]> rows = new LinkedHashMap<>();
+            for (Sha3Hash hash : hashes) {
+                if (!pinned.contains(hash)) {
+                    rows.put(nodeKey(hash), null);
+                    nodeCache.remove(hash);
+                }
+            }
+            db.updateByBatch(rows);
+            return rows.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Sha3Hash update(Sha3Hash hash, int depth, List<Map.Entry<Sha3Hash, Sha3Hash>> changes,
+                            Map<Sha3Hash, Node> created) {
+        if (changes.isEmpty()) {
+            return hash;
+        }
+        if (EMPTY_ROOT.equals(hash)) {
+            return build(depth, changes, created);
+        }
+
+        Node node = load(hash, created);
+        if (node.type == LEAF) {
+            // The leaf is pushed down with the changes unless it is changed by them
+            boolean isChanged = changes.stream().anyMatch(e -> e.getKey().equals(node.left));
+            List<Map.Entry<Sha3Hash, Sha3Hash>> merged = new ArrayList<>(changes);
+            if (!isChanged) {
+                merged.add(new AbstractMap.SimpleImmutableEntry<>(node.left, node.right));
+            }
+            return build(depth, merged, created);
+        }
+
+        List<Map.Entry<Sha3Hash, Sha3Hash>> leftChanges = new ArrayList<>();
+        List<Map.Entry<Sha3Hash, Sha3Hash>> rightChanges = new ArrayList<>();
+        split(depth, changes, leftChanges, rightChanges);
+
+        Sha3Hash left;
+        Sha3Hash right;
+        if (depth < PARALLEL_DEPTH && changes.size() >= PARALLEL_THRESHOLD) {
+            ForkJoinTask<Sha3Hash> leftTask =
+                    ForkJoinTask.adapt(() -> update(node.left, depth + 1, leftChanges, created)).fork();
+            right = update(node.right, depth + 1, rightChanges, created);
+            left = leftTask.join();
+        } else {
+            left = update(node.left, depth + 1, leftChanges, created);
+            right = update(node.right, depth + 1, rightChanges, created);
+        }
+        return combine(left, right, created);
+    }
+
+    private Sha3Hash build(int depth, List<Map.Entry<Sha3Hash, Sha3Hash>> changes, Map<Sha3Hash, Node> created) {
+        List<Map.Entry<Sha3Hash, Sha3Hash>> values = new ArrayList<>(changes.size());
+        for (Map.Entry<Sha3Hash, Sha3Hash> change : changes) {
+            if (change.getValue() != null) {
+                values.add(change);
+            }
+        }
+        if (values.isEmpty()) {
+            return EMPTY_ROOT;
+        }
+        if (values.size() == 1) {
+            return store(new Node(LEAF, values.get(0).getKey(), values.get(0).getValue()), created);
+        }
+
+        List<Map.Entry<Sha3Hash, Sha3Hash>> leftValues = new ArrayList<>();
+        List<Map.Entry<Sha3Hash, Sha3Hash>> rightValues = new ArrayList<>();
+        split(depth, values, leftValues, rightValues);
+        return combine(build(depth + 1, leftValues, created), build(depth + 1, rightValues, created), created);
+    }
+
+    private Sha3Hash combine(Sha3Hash left, Sha3Hash right, Map<Sha3Hash, Node> created) {
+        boolean isLeftEmpty = EMPTY_ROOT.equals(left);
+        boolean isRightEmpty = EMPTY_ROOT.equals(right);
+        if (isLeftEmpty && isRightEmpty) {
+            return EMPTY_ROOT;
+        }
+        // A single leaf moves up to the parent
+        if (isRightEmpty && load(left, created).type == LEAF) {
+            return left;
+        }
+        if (isLeftEmpty && load(right, created).type == LEAF) {
+            return right;
+        }
+        return store(new Node(BRANCH, left, right), created);
+    }
+
+    private static void split(int depth, List<Map.Entry<Sha3Hash, Sha3Hash>> changes,
+                              List<Map.Entry<Sha3Hash, Sha3Hash>> left, List<Map.Entry<Sha3Hash, Sha3Hash>> right) {
+        for (Map.Entry<Sha3Hash, Sha3Hash> change : changes) {
+            if (bit(change.getKey(), depth)) {
+                right.add(change);
+            } else {
+                left.add(change);
+            }
+        }
+    }
+
+    static boolean bit(Sha3Hash keyHash, int depth) {
+        return (keyHash.getBytes()[depth / 8] & (0x80 >> (depth % 8))) != 0;
+    }
+
+    private Sha3Hash store(Node node, Map<Sha3Hash, Node> created) {
+        Sha3Hash hash = node.hash();
+        created.put(hash, node);
+        nodeCache.put(hash, node);
+        return hash;
+    }
+
+    private Node load(Sha3Hash hash, Map<Sha3Hash, Node> created) {
+        Node node = created.get(hash);
+        if (node == null) {
+            node = nodeCache.get(hash);
+        }
+        if (node == null) {
+            byte[] encoded = db.get(nodeKey(hash));
+            if (encoded == null) {
+                throw new FailedOperationException("State trie node not found. " + hash);
+            }
+            node = Node.decode(encoded);
+            nodeCache.put(hash, node);
+        }
+        return node;
+    }
+
+    private static byte[] nodeKey(Sha3Hash hash) {
+        byte[] key = new byte[NODE_PREFIX.length + hash.getBytes().length];
+        System.arraycopy(NODE_PREFIX, 0, key, 0, NODE_PREFIX.length);
+        System.arraycopy(hash.getBytes(), 0, key, NODE_PREFIX.length, hash.getBytes().length);
+        return key;
+    }
+
+    /**
+     * Checks whether the row of the db is a node of the trie rather than a state value.
+     */
+    public static boolean isNodeKey(byte[] key) {
+        if (key.length < NODE_PREFIX.length) {
+            return false;
+        }
+        for (int i = 0; i < NODE_PREFIX.length; i++) {
+            if (key[i] != NODE_PREFIX[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static Sha3Hash leafHash(Sha3Hash keyHash, Sha3Hash valueHash) {
+        return new Node(LEAF, keyHash, valueHash).hash();
+    }
+
+    static Sha3Hash branchHash(Sha3Hash left, Sha3Hash right) {
+        return new Node(BRANCH, left, right).hash();
+    }
+
+    /**
+     * New root of the state and the nodes created for it.
+     */
+    public static class Update {
+        private final Sha3Hash root;
+        private final Map<Sha3Hash, Node> nodes;
+
+        private Update(Sha3Hash root, Map<Sha3Hash, Node> nodes) {
+            this.root = root;
+            this.nodes = nodes;
+        }
+
+        public Sha3Hash getRoot() {
+            return root;
+        }
+
+        /**
+         * Gets the hashes of the created nodes.
+         */
+        public Set<Sha3Hash> getHashes() {
+            return Collections.unmodifiableSet(nodes.keySet());
+        }
+
+        /**
+         * Gets the created nodes as the rows of the db.
+         */
+        public Map<byte[], byte[]> getRows() {
+            Map<byte[], byte[]> rows = new LinkedHashMap<>();
+            nodes.forEach((hash, node) -> rows.put(nodeKey(hash), node.encode()));
+            return rows;
+        }
+    }
+
+    // Leaf: (keyHash, valueHash), Branch: (left, right)
+    private static class Node {
+        private final byte type;
+        private final Sha3Hash left;
+        private final Sha3Hash right;
+
+        Node(byte type, Sha3Hash left, Sha3Hash right) {
+            this.type = type;
+            this.left = left;
+            this.right = right;
+        }
+
+        Sha3Hash hash() {
+            // Same as the hash of the encoded node
+            return Sha3Hash.createByHashed(Sha3Hasher.get()
+                    .update(type).update(left.getBytes()).update(right.getBytes()).digest());
+        }
+
+        byte[] encode() {
+            byte[] encoded = new byte[1 + Constants.HASH_LENGTH * 2];
+            encoded[0] = type;
+            System.arraycopy(left.getBytes(), 0, encoded, 1, Constants.HASH_LENGTH);
+            System.arraycopy(right.getBytes(), 0, encoded, 1 + Constants.HASH_LENGTH, Constants.HASH_LENGTH);
+            return encoded;
+        }
+
+        static Node decode(byte[] encoded) {
+            byte[] left = new byte[Constants.HASH_LENGTH];
+            byte[] right = new byte[Constants.HASH_LENGTH];
+            System.arraycopy(encoded, 1, left, 0, Constants.HASH_LENGTH);
+            System.arraycopy(encoded, 1 + Constants.HASH_LENGTH, right, 0, Constants.HASH_LENGTH);
+            return new Node(encoded[0], Sha3Hash.createByHashed(left), Sha3Hash.createByHashed(right));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.yggdrash.common.store;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import io.yggdrash.common.store.datasource.HashMapDbSource;
+import io.yggdrash.common.utils.JsonUtil;
+import io.yggdrash.common.utils.SerializationUtil;
+import org.junit.Test;
+
+import java.math.BigInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StateValueCodecTest {
+
+    @Test
+    public void shouldKeepJsonText() {
+        JsonObject value = JsonUtil.parseJsonObject("{\"balance\":1000000000000000000000000,\"rate\":0.50,"
+                + "\"negative\":-12,\"name\":\"yeed\",\"active\":true,\"none\":null,"
+                + "\"list\":[1,\"a\",{\"b\":false}],\"nested\":{\"c\":[]}}");
+
+        JsonObject decoded = StateValueCodec.decode(StateValueCodec.encode(value));
+
+        assertThat(decoded.toString()).isEqualTo(value.toString());
+        assertThat(decoded.get("none")).isEqualTo(JsonNull.INSTANCE);
+        assertThat(decoded.get("list")).isInstanceOf(JsonArray.class);
+    }
+
+    @Test
+    public void shouldDecodeIntegerToBigInteger() {
+        BigInteger balance = new BigInteger("1000000000000000000000000");
+        JsonObject value = new JsonObject();
+        value.addProperty("balance", balance);
+        value.addProperty("count", 3L);
+
+        JsonObject decoded = StateValueCodec.decode(StateValueCodec.encode(value));
+
+        assertThat(decoded.get("balance").getAsNumber()).isEqualTo(balance);
+        assertThat(decoded.get("count").getAsNumber()).isEqualTo(BigInteger.valueOf(3L));
+        assertThat(decoded).isEqualTo(value);
+    }
+
+    @Test
+    public void shouldDecodeJsonTextOfPreviousVersion() {
+        HashMapDbSource db = new HashMapDbSource();
+        StateStore stateStore = new StateStore(db);
+        db.put("account".getBytes(), SerializationUtil.serializeString("{\"balance\":100}"));
+
+        assertThat(stateStore.get("account").get("balance").getAsBigInteger()).isEqualTo(BigInteger.valueOf(100));
+
+        stateStore.put("account", stateStore.get("account"));
+        assertThat(db.get("account".getBytes())[0]).isNotEqualTo((byte) '{');
+        assertThat(stateStore.get("account").get("balance").getAsInt()).isEqualTo(100);
+    }
+}
@@ -0,0 +1,115 @@
+package io.yggdrash.common.store.datasource;
+
+import io.yggdrash.common.exception.FailedOperationException;
+import io.yggdrash.common.utils.FileUtil;
+import org.assertj.core.api.Assertions;
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class RocksDbDataSourceTest {
+    private static final String dbPath = "testOutput/rocks";
+
+    @AfterClass
+    public static void destroy() {
+        FileUtil.recursiveDelete(Paths.get(dbPath));
+    }
+
+    @Test
+    public void shouldBeUpdateByBatch() {
+        RocksDbDataSource ds = new RocksDbDataSource(dbPath, "branch/batch-test");
+        ds.init();
+
+        Map<byte[], byte[]> rows = new HashMap<>();
+        byte[] key = randomBytes(32);
+        byte[] value = randomBytes(32);
+        rows.put(key, value);
+        rows.put(randomBytes(32), randomBytes(32));
+        ds.updateByBatch(rows, true);
+        Assertions.assertThat(ds.get(key)).isEqualTo(value);
+
+        rows.clear();
+        rows.put(key, null);
+        ds.updateByBatch(rows);
+        Assertions.assertThat(ds.get(key)).isNull();
+        ds.close();
+    }
+
+    @Test
+    public void shouldShareDbByColumnFamilies() {
+        RocksDbDataSource blocks = new RocksDbDataSource(dbPath, "branch/blocks");
+        RocksDbDataSource txs = new RocksDbDataSource(dbPath, "branch/txs");
+        blocks.init();
+        txs.init();
+
+        byte[] key = randomBytes(32);
+        byte[] value = putDummyRow(blocks, key);
+        Assertions.assertThat(txs.get(key)).isNull();
+        Assertions.assertThat(FileUtil.isExists(Paths.get(dbPath, "branch", "rocksdb"))).isTrue();
+
+        blocks.close();
+        txs.close();
+        blocks.init();
+        Assertions.assertThat(blocks.get(key)).isEqualTo(value);
+        blocks.close();
+    }
+
+    @Test
+    public void shouldIterateRows() {
+        RocksDbDataSource ds = new RocksDbDataSource(dbPath, "branch/iterate-test");
+        ds.init();
+        ds.put("b/1".getBytes(), randomBytes(32));
+        ds.put("a/1".getBytes(), randomBytes(32));
+        ds.put("b/2".getBytes(), randomBytes(32));
+
+        List<String> keys = new ArrayList<>();
+        ds.forEach((key, value) -> keys.add(new String(key)));
+        Assertions.assertThat(keys).containsExactly("a/1", "b/1", "b/2");
+        ds.close();
+    }
+
+    @Test
+    public void shouldNotOpenStoreOfOtherEngine() {
+        DbSource<byte[], byte[]> levelDb = DbEngine.LEVELDB.create(dbPath, "branch/engine-test").init();
+        levelDb.close();
+        Assertions.assertThatThrownBy(() -> DbEngine.ROCKSDB.create(dbPath, "branch/engine-test"))
+                .isInstanceOf(FailedOperationException.class);
+
+        DbSource<byte[], byte[]> rocksDb = DbEngine.ROCKSDB.create(dbPath, "branch/rocks-engine-test").init();
+        rocksDb.close();
+        Assertions.assertThatThrownBy(() -> DbEngine.LEVELDB.create(dbPath, "branch/rocks-engine-test"))
+                .isInstanceOf(FailedOperationException.class);
+    }
+
+    @Test
+    public void shouldBeReset() {
+        RocksDbDataSource ds = new RocksDbDataSource(dbPath, "branch/reset-test");
+        ds.init();
+
+        byte[] key = randomBytes(32);
+        putDummyRow(ds, key);
+        ds.reset();
+
+        Assertions.assertThat(ds.get(key)).isNull();
+        ds.close();
+    }
+
+    private byte[] putDummyRow(RocksDbDataSource ds, byte[] key) {
+        byte[] value = randomBytes(32);
+        ds.put(key, value);
+
+        return value;
+    }
+
+    private byte[] randomBytes(int length) {
+        byte[] result = new byte[length];
+        new Random().nextBytes(result);
+        return result;
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.yggdrash.common.store.trie;
+
+import com.google.gson.JsonObject;
+import io.yggdrash.common.Sha3Hash;
+import io.yggdrash.common.store.StateStore;
+import io.yggdrash.common.store.StateValueCodec;
+import io.yggdrash.common.store.datasource.HashMapDbSource;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StateTrieTest {
+
+    @Test
+    public void rootShouldNotDependOnOrderOfChanges() {
+        StateTrie trie = new StateTrie(new HashMapDbSource().init());
+        Map<Sha3Hash, Sha3Hash> changes = new LinkedHashMap<>();
+        Map<Sha3Hash, Sha3Hash> reversed = new LinkedHashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            changes.put(StateTrie.hashKey("key" + i), StateTrie.hashValue(("value" + i).getBytes()));
+            reversed.put(StateTrie.hashKey("key" + (999 - i)), StateTrie.hashValue(("value" + (999 - i)).getBytes()));
+        }
+
+        Sha3Hash root = trie.update(StateTrie.EMPTY_ROOT, changes).getRoot();
+
+        assertThat(root).isNotEqualTo(StateTrie.EMPTY_ROOT);
+        assertThat(trie.update(StateTrie.EMPTY_ROOT, reversed).getRoot()).isEqualTo(root);
+    }
+
+    @Test
+    public void removedKeyShouldRestorePreviousRoot() {
+        StateTrie trie = new StateTrie(new HashMapDbSource().init());
+        Map<Sha3Hash, Sha3Hash> changes = new HashMap<>();
+        changes.put(StateTrie.hashKey("a"), StateTrie.hashValue("1".getBytes()));
+        changes.put(StateTrie.hashKey("b"), StateTrie.hashValue("2".getBytes()));
+        Sha3Hash root = trie.update(StateTrie.EMPTY_ROOT, changes).getRoot();
+
+        Sha3Hash added = trie.update(root,
+                singleChange(StateTrie.hashKey("c"), StateTrie.hashValue("3".getBytes()))).getRoot();
+        Sha3Hash removed = trie.update(added, singleChange(StateTrie.hashKey("c"), null)).getRoot();
+
+        assertThat(added).isNotEqualTo(root);
+        assertThat(removed).isEqualTo(root);
+    }
+
+    @Test
+    public void shouldBeProvedByStateRoot() {
+        StateStore stateStore = new StateStore(new HashMapDbSource());
+        Map<String, JsonObject> values = new HashMap<>();
+        for (int i = 0; i < 100; i++) {
+            JsonObject value = new JsonObject();
+            value.addProperty("balance", i);
+            values.put("account" + i, value);
+        }
+        StateTrie.Update update = stateStore.calculateStateRoot(values);
+        JsonObject stateRoot = new JsonObject();
+        stateRoot.addProperty("stateHash", update.getRoot().toString());
+        values.put("stateRoot", stateRoot);
+        stateStore.updatePatch(values, update, false);
+
+        assertThat(stateStore.getStateRootHash()).isEqualTo(update.getRoot());
+
+        StateProof proof = stateStore.getProof("account7");
+        byte[] value = StateValueCodec.encode(stateStore.get("account7"));
+        assertThat(proof.isIncluded()).isTrue();
+        assertThat(proof.getRoot()).isEqualTo(update.getRoot());
+        assertThat(proof.verify(update.getRoot(), value)).isTrue();
+        assertThat(proof.verify(update.getRoot(), "{}".getBytes())).isFalse();
+        assertThat(proof.verify(StateTrie.EMPTY_ROOT, value)).isFalse();
+
+        StateProof absence = stateStore.getProof("unknown");
+        assertThat(absence.isIncluded()).isFalse();
+        assertThat(absence.getValueHash()).isNull();
+        assertThat(absence.verify(update.getRoot())).isTrue();
+    }
+
+    @Test
+    public void shouldPruneNodesOfSupersededRoots() {
+        HashMapDbSource db = new HashMapDbSource();
+        StateStore stateStore = new StateStore(db);
+        for (int block = 0; block < 3; block++) {
+            Map<String, JsonObject> values = new HashMap<>();
+            for (int i = 0; i < 100; i++) {
+                JsonObject value = new JsonObject();
+                value.addProperty("balance", i * block);
+                values.put("account" + i, value);
+            }
+            commit(stateStore, values);
+        }
+        Sha3Hash root = stateStore.getStateRootHash();
+        long nodes = countNodes(db);
+
+        long deleted = stateStore.pruneStateTrie();
+
+        assertThat(deleted).isGreaterThan(0);
+        assertThat(countNodes(db)).isEqualTo(nodes - deleted);
+        assertThat(stateStore.getStateRootHash()).isEqualTo(root);
+        for (int i = 0; i < 100; i++) {
+            String key = "account" + i;
+            assertThat(stateStore.getProof(key).verify(root, StateValueCodec.encode(stateStore.get(key)))).isTrue();
+        }
+        // The trie is updated on top of the pruned root
+        JsonObject value = new JsonObject();
+        value.addProperty("balance", -1);
+        commit(stateStore, Collections.singletonMap("account0", value));
+        assertThat(stateStore.getProof("account1").isIncluded()).isTrue();
+        assertThat(stateStore.pruneStateTrie()).isGreaterThan(0);
+    }
+
+    private static void commit(StateStore stateStore, Map<String, JsonObject> values) {
+        Map<String, JsonObject> patch = new HashMap<>(values);
+        StateTrie.Update update = stateStore.calculateStateRoot(patch);
+        JsonObject stateRoot = new JsonObject();
+        stateRoot.addProperty(StateStore.STATE_HASH, update.getRoot().toString());
+        patch.put(StateStore.STATE_ROOT, stateRoot);
+        stateStore.updatePatch(patch, update, false);
+    }
+
+    private static long countNodes(HashMapDbSource db) {
+        long[] count = new long[1];
+        db.forEach((key, value) -> {
+            if (StateTrie.isNodeKey(key)) {
+                count[0]++;
+            }
+        });
+        return count[0];
+    }
+
+    private static Map<Sha3Hash, Sha3Hash> singleChange(Sha3Hash key, Sha3Hash value) {
+        Map<Sha3Hash, Sha3Hash> changes = new HashMap<>();
+        changes.put(key, value);
+        return changes;
+    }
+}
@@ -3,12 +3,26 @@ package io.yggdrash.contract.core;
 import java.util.List;
 import java.util.Set;
 
+/**
+ * Receipt of the executing transaction that is injected into the contracts.
+ * The receipt is bound to the executing thread, so the transactions of a block can be executed in parallel.
+ */
 public class ReceiptAdapter implements Receipt {
 
-    Receipt tr;
+    private final ThreadLocal<Receipt> tr = new ThreadLocal<>();
+    private final ThreadLocal<Boolean> blockRead = new ThreadLocal<>();
 
     public void setReceipt(Receipt tr) {
-        this.tr = tr;
+        this.tr.set(tr);
+        this.blockRead.set(Boolean.FALSE);
+    }
+
+    /**
+     * Checks whether the contract has read the block of the receipt since it was set.
+     * The result of the transaction that does not depend on the block can be reused in another block.
+     */
+    public boolean isBlockRead() {
+        return Boolean.TRUE.equals(blockRead.get());
     }
 
     @Override
@@ -48,82 +62,85 @@ public class ReceiptAdapter implements Receipt {
 
     @Override
     public void addLog(String log) {
-        this.tr.addLog(log);
+        this.tr.get().addLog(log);
     }
 
     @Override
     public void setStatus(ExecuteStatus status) {
-        this.tr.setStatus(status);
+        this.tr.get().setStatus(status);
     }
 
     @Override
     public void addEvent(ContractEvent event) {
-        this.tr.addEvent(event);
+        this.tr.get().addEvent(event);
     }
 
     @Override
     public String getIssuer() {
-        return this.tr.getIssuer();
+        return this.tr.get().getIssuer();
     }
 
     @Override
     public String getBranchId() {
-        return this.tr.getBranchId();
+        return this.tr.get().getBranchId();
     }
 
     @Override
     public String getBlockId() {
-        return this.tr.getBlockId();
+        blockRead.set(Boolean.TRUE);
+        return this.tr.get().getBlockId();
     }
 
     @Override
     public Long getBlockSize() {
-        return this.tr.getBlockSize();
+        blockRead.set(Boolean.TRUE);
+        return this.tr.get().getBlockSize();
     }
 
     @Override
     public Long getBlockHeight() {
-        return this.tr.getBlockHeight();
+        blockRead.set(Boolean.TRUE);
+        return this.tr.get().getBlockHeight();
     }
 
     @Override
     public String getTxId() {
-        return this.tr.getTxId();
+        return this.tr.get().getTxId();
     }
 
     @Override
     public Long getTxSize() {
-        return this.tr.getTxSize();
+        return this.tr.get().getTxSize();
     }
 
     @Override
     public String getContractVersion() {
-        return this.tr.getContractVersion();
+        return this.tr.get().getContractVersion();
     }
 
     @Override
     public String getMethod() {
-        return this.tr.getMethod();
+        return this.tr.get().getMethod();
     }
 
     @Override
     public List<String> getLog() {
-        return this.tr.getLog();
+        return this.tr.get().getLog();
     }
 
     @Override
     public boolean isSuccess() {
-        return this.tr.isSuccess();
+        return this.tr.get().isSuccess();
     }
 
     @Override
     public ExecuteStatus getStatus() {
-        return tr.getStatus();
+        return tr.get().getStatus();
     }
 
     @Override
     public Set<ContractEvent> getEvents() {
-        return this.tr.getEvents();
+        return this.tr.get().getEvents();
     }
 
 }
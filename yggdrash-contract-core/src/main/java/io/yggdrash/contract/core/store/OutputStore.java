@@ -2,6 +2,8 @@ package io.yggdrash.contract.core.store;
 
 import com.google.gson.JsonObject;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 public interface OutputStore {
@@ -10,4 +12,17 @@ public interface OutputStore {
     void put(JsonObject blockJson);
 
     void put(String blockId, long index, Map<String, JsonObject> transactionMap);
+
+    /**
+     * Stores the blocks and the transactions of the blocks at once.
+     * A transaction has the blockId and the blockIndex of its block.
+     *
+     * @return false if the blocks are not stored, so they can be retried
+     */
+    default boolean putAll(List<JsonObject> blockJsonList, Map<String, JsonObject> transactionMap) {
+        blockJsonList.forEach(this::put);
+        transactionMap.forEach((txHash, tx) -> put(tx.get("blockId").getAsString(),
+                tx.get("blockIndex").getAsLong(), Collections.singletonMap(txHash, tx)));
+        return true;
+    }
 }
@@ -1,9 +1,26 @@
 package io.yggdrash.contract.core.store;
 
+import java.math.BigInteger;
+
 public interface ReadWriterStore<K, V> extends ReadStore<K, V> {
     void put(K key, V value);
 
     boolean contains(K key);
 
     void close();
+
+    /**
+     * Adds the delta to the integer field of the value, e.g. a fee counter of the branch.
+     * The additions commute, so the block state store keeps them aside and merges them at the end of the block.
+     * The transactions only adding to the counter do not conflict on it. The reads in the block include the
+     * pending additions, so a transaction reading the counter is ordered after the previous additions.
+     * It is supported by the stores of JsonObject values only.
+     *
+     * @param key state key
+     * @param field integer field of the value
+     * @param delta amount to be added
+     */
+    default void addDelta(K key, String field, BigInteger delta) {
+        throw new UnsupportedOperationException("Additive fields are not supported by " + getClass().getName());
+    }
 }
@@ -0,0 +1,15 @@
+package io.yggdrash.contract.core.store;
+
+import com.google.gson.JsonObject;
+
+/**
+ * Converts a typed state value to the json object kept by the state store.
+ *
+ * @param <T> type of the state value
+ */
+public interface StateType<T> {
+
+    JsonObject toJsonObject(T value);
+
+    T fromJsonObject(JsonObject json);
+}
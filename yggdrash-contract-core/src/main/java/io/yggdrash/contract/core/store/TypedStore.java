@@ -0,0 +1,81 @@
+package io.yggdrash.contract.core.store;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.math.BigInteger;
+
+/**
+ * Typed view of the state store of a contract.
+ * A contract field of this type annotated with ContractStateStore is injected with the same namespace
+ * as the json store, so both views can be used together.
+ */
+public class TypedStore {
+
+    private final ReadWriterStore<String, JsonObject> store;
+
+    public TypedStore(ReadWriterStore<String, JsonObject> store) {
+        this.store = store;
+    }
+
+    public <T> T get(String key, StateType<T> type) {
+        JsonObject json = store.get(key);
+        return json == null ? null : type.fromJsonObject(json);
+    }
+
+    public <T> void put(String key, T value, StateType<T> type) {
+        store.put(key, type.toJsonObject(value));
+    }
+
+    public boolean contains(String key) {
+        return store.contains(key);
+    }
+
+    /**
+     * Gets the integer field of the state value.
+     * The state store decodes the integers to BigInteger, so it is not parsed again.
+     *
+     * @param key state key
+     * @param field field of the value
+     * @return value of the field, or zero if it does not exist
+     */
+    public BigInteger getBigInteger(String key, String field) {
+        JsonObject json = store.get(key);
+        JsonElement value = json != null ? json.get(field) : null;
+        return value != null && !value.isJsonNull() ? value.getAsBigInteger() : BigInteger.ZERO;
+    }
+
+    public void putBigInteger(String key, String field, BigInteger value) {
+        JsonObject json = new JsonObject();
+        json.addProperty(field, value);
+        store.put(key, json);
+    }
+
+    /**
+     * Adds the delta to the integer field of the state value without reading it.
+     *
+     * @see ReadWriterStore#addDelta(Object, String, BigInteger)
+     */
+    public void addBigInteger(String key, String field, BigInteger delta) {
+        store.addDelta(key, field, delta);
+    }
+
+    /**
+     * Returns a copy of the value whose integer field is added the delta.
+     *
+     * @param json state value, or null if it does not exist
+     * @param field field of the value
+     * @param delta amount to be added
+     * @return the new value
+     */
+    public static JsonObject addBigInteger(JsonObject json, String field, BigInteger delta) {
+        JsonObject value = json != null ? json.deepCopy() : new JsonObject();
+        JsonElement sum = value.get(field);
+        value.addProperty(field, sum != null && !sum.isJsonNull() ? sum.getAsBigInteger().add(delta) : delta);
+        return value;
+    }
+
+    public ReadWriterStore<String, JsonObject> getStore() {
+        return store;
+    }
+}
@@ -0,0 +1,93 @@
+package io.yggdrash.contract.core.store;
+
+import com.google.gson.JsonObject;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TypedStoreTest {
+
+    private static final StateType<BigInteger> BALANCE = new StateType<BigInteger>() {
+        @Override
+        public JsonObject toJsonObject(BigInteger value) {
+            JsonObject json = new JsonObject();
+            json.addProperty("balance", value);
+            return json;
+        }
+
+        @Override
+        public BigInteger fromJsonObject(JsonObject json) {
+            return json.get("balance").getAsBigInteger();
+        }
+    };
+
+    private MapStore jsonStore;
+    private TypedStore typedStore;
+
+    @Before
+    public void setUp() {
+        jsonStore = new MapStore();
+        typedStore = new TypedStore(jsonStore);
+    }
+
+    @Test
+    public void shouldBeSharedWithJsonStore() {
+        typedStore.put("account", BigInteger.TEN, BALANCE);
+
+        assertThat(jsonStore.get("account").get("balance").getAsBigInteger()).isEqualTo(BigInteger.TEN);
+        assertThat(typedStore.get("account", BALANCE)).isEqualTo(BigInteger.TEN);
+        assertThat(typedStore.get("unknown", BALANCE)).isNull();
+    }
+
+    @Test
+    public void shouldGetBigIntegerField() {
+        typedStore.putBigInteger("account", "balance", BigInteger.ONE);
+
+        assertThat(typedStore.getBigInteger("account", "balance")).isEqualTo(BigInteger.ONE);
+        assertThat(typedStore.getBigInteger("account", "unknown")).isEqualTo(BigInteger.ZERO);
+        assertThat(typedStore.getBigInteger("unknown", "balance")).isEqualTo(BigInteger.ZERO);
+        assertThat(typedStore.contains("account")).isTrue();
+    }
+
+    @Test
+    public void shouldAddBigInteger() {
+        typedStore.addBigInteger("fee", "balance", BigInteger.ONE);
+        typedStore.addBigInteger("fee", "balance", BigInteger.TEN);
+
+        assertThat(typedStore.getBigInteger("fee", "balance")).isEqualTo(BigInteger.valueOf(11));
+    }
+
+    private static class MapStore implements ReadWriterStore<String, JsonObject> {
+        private final Map<String, JsonObject> map = new HashMap<>();
+
+        @Override
+        public void put(String key, JsonObject value) {
+            map.put(key, value);
+        }
+
+        @Override
+        public boolean contains(String key) {
+            return map.containsKey(key);
+        }
+
+        @Override
+        public void close() {
+            map.clear();
+        }
+
+        @Override
+        public JsonObject get(String key) {
+            return map.get(key);
+        }
+
+        @Override
+        public void addDelta(String key, String field, BigInteger delta) {
+            map.put(key, TypedStore.addBigInteger(map.get(key), field, delta));
+        }
+    }
+}
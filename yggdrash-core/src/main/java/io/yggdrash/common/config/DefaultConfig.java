@@ -4,6 +4,7 @@ import com.typesafe.config.Config;
 import com.typesafe.config.ConfigFactory;
 import com.typesafe.config.ConfigValue;
 import io.yggdrash.common.exception.FailedOperationException;
+import io.yggdrash.common.store.datasource.DbEngine;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -14,16 +15,27 @@ import java.util.NoSuchElementException;
 
 import static io.yggdrash.common.config.Constants.VALIDATOR_DATABASE_PATH;
 import static io.yggdrash.common.config.Constants.VALIDATOR_PATH;
+import static io.yggdrash.common.config.Constants.VALIDATOR_PBFT_AGGREGATE;
 import static io.yggdrash.common.config.Constants.YGGDRASH_ADMIN_PATH;
 import static io.yggdrash.common.config.Constants.YGGDRASH_BRANCH_PATH;
+import static io.yggdrash.common.config.Constants.YGGDRASH_CONTRACT_PARALLEL;
 import static io.yggdrash.common.config.Constants.YGGDRASH_CONTRACT_PATH;
 import static io.yggdrash.common.config.Constants.YGGDRASH_CONTRACT_URL;
+import static io.yggdrash.common.config.Constants.YGGDRASH_DATABASE_ENGINE;
+import static io.yggdrash.common.config.Constants.YGGDRASH_DATABASE_ENGINES;
 import static io.yggdrash.common.config.Constants.YGGDRASH_DATABASE_PATH;
+import static io.yggdrash.common.config.Constants.YGGDRASH_DATABASE_PRUNE_INTERVAL;
+import static io.yggdrash.common.config.Constants.YGGDRASH_DATABASE_SYNC;
 import static io.yggdrash.common.config.Constants.YGGDRASH_KEY_PASSWORD;
 import static io.yggdrash.common.config.Constants.YGGDRASH_KEY_PATH;
 import static io.yggdrash.common.config.Constants.YGGDRASH_NETWORK_ID;
 import static io.yggdrash.common.config.Constants.YGGDRASH_NETWORK_P2P_VERSION;
 import static io.yggdrash.common.config.Constants.YGGDRASH_OSGI_PATH;
+import static io.yggdrash.common.config.Constants.YGGDRASH_SNAPSHOT_CHECKPOINT;
+import static io.yggdrash.common.config.Constants.YGGDRASH_SNAPSHOT_INTERVAL;
+import static io.yggdrash.common.config.Constants.YGGDRASH_SNAPSHOT_PATH;
+import static io.yggdrash.common.config.Constants.YGGDRASH_SNAPSHOT_PEER;
+import static io.yggdrash.common.config.Constants.YGGDRASH_TXPOOL_CAPACITY;
 import static io.yggdrash.common.config.Constants.YGG_CONF_PATH;
 import static io.yggdrash.common.config.Constants.YGG_DATA_PATH;
 import static io.yggdrash.common.config.Constants.YGG_DEFAULT_FILENAME;
@@ -154,6 +166,13 @@ public class DefaultConfig {
         return config.getString(YGGDRASH_CONTRACT_PATH);
     }
 
+    /**
+     * Number of threads executing the transactions of a block in parallel. 0 executes them serially.
+     */
+    public int getContractParallel() {
+        return config.hasPath(YGGDRASH_CONTRACT_PARALLEL) ? config.getInt(YGGDRASH_CONTRACT_PARALLEL) : 0;
+    }
+
     public String getOsgiPath() {
         return config.getString(YGGDRASH_OSGI_PATH);
     }
@@ -162,6 +181,63 @@ public class DefaultConfig {
         return config.getString(YGGDRASH_BRANCH_PATH);
     }
 
+    public boolean isDatabaseSync() {
+        return config.hasPath(YGGDRASH_DATABASE_SYNC) && config.getBoolean(YGGDRASH_DATABASE_SYNC);
+    }
+
+    /**
+     * Blocks between the prunes of the state trie nodes which are not reachable from the state root.
+     * 0 disables the pruning, so the nodes of every superseded state root are kept.
+     */
+    public long getDatabasePruneInterval() {
+        return config.hasPath(YGGDRASH_DATABASE_PRUNE_INTERVAL) ? config.getLong(YGGDRASH_DATABASE_PRUNE_INTERVAL) : 0;
+    }
+
+    /**
+     * Storage engine of the store, e.g. blocks, txs, state, receipt, log or peers.
+     * The engine of yggdrash.database.engines.{store} overrides the yggdrash.database.engine, which is leveldb
+     * by default.
+     */
+    public DbEngine getDatabaseEngine(String store) {
+        String storeEngine = YGGDRASH_DATABASE_ENGINES + "." + store;
+        if (config.hasPath(storeEngine)) {
+            return DbEngine.of(config.getString(storeEngine));
+        }
+        return config.hasPath(YGGDRASH_DATABASE_ENGINE)
+                ? DbEngine.of(config.getString(YGGDRASH_DATABASE_ENGINE)) : DbEngine.LEVELDB;
+    }
+
+    public int getTxPoolCapacity() {
+        return config.hasPath(YGGDRASH_TXPOOL_CAPACITY)
+                ? config.getInt(YGGDRASH_TXPOOL_CAPACITY) : Constants.TX_POOL_CAPACITY;
+    }
+
+    public String getSnapshotPath() {
+        return config.hasPath(YGGDRASH_SNAPSHOT_PATH)
+                ? config.getString(YGGDRASH_SNAPSHOT_PATH) : getYggDataPath() + File.separator + "snapshot";
+    }
+
+    /**
+     * Blocks between the state snapshots. 0 disables the snapshot export.
+     */
+    public long getSnapshotInterval() {
+        return config.hasPath(YGGDRASH_SNAPSHOT_INTERVAL) ? config.getLong(YGGDRASH_SNAPSHOT_INTERVAL) : 0;
+    }
+
+    /**
+     * Address (host:port) of the node serving the snapshot to bootstrap an empty branch. Empty if not set.
+     */
+    public String getSnapshotPeer() {
+        return config.hasPath(YGGDRASH_SNAPSHOT_PEER) ? config.getString(YGGDRASH_SNAPSHOT_PEER) : "";
+    }
+
+    /**
+     * Trusted block (height:blockHash:metaHash) the imported snapshot has to be taken at. Empty if not set.
+     */
+    public String getSnapshotCheckpoint() {
+        return config.hasPath(YGGDRASH_SNAPSHOT_CHECKPOINT) ? config.getString(YGGDRASH_SNAPSHOT_CHECKPOINT) : "";
+    }
+
     public String getYggDataPath() {
         return config.getString(YGG_DATA_PATH);
     }
@@ -170,6 +246,13 @@ public class DefaultConfig {
         return config.getString(VALIDATOR_PATH);
     }
 
+    /**
+     * Whether the PBFT commits are stored as one BLS aggregate signature instead of the signed messages.
+     */
+    public boolean isPbftAggregate() {
+        return config.hasPath(VALIDATOR_PBFT_AGGREGATE) && config.getBoolean(VALIDATOR_PBFT_AGGREGATE);
+    }
+
     public String getContractRepositoryUrl() {
         return config.getString(YGGDRASH_CONTRACT_URL);
     }
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.yggdrash.common.crypto.zksnark;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static io.yggdrash.common.crypto.zksnark.Params.B_Fp;
+import static io.yggdrash.common.crypto.zksnark.Params.P;
+import static io.yggdrash.common.crypto.zksnark.Params.R;
+
+/**
+ * BLS signatures on the BN128 curve.
+ * Signatures are points of G1 and public keys are points of G2,
+ * so the signatures of one message are aggregated into one point and verified with one pairing check.
+ * <p>
+ * A public key must come with its proof of possession, the signature of the key itself,
+ * otherwise a rogue key could cancel out the other keys of an aggregate.
+ */
+public class Bls {
+
+    public static final int PUBLIC_KEY_LENGTH = 128;
+    public static final int SIGNATURE_LENGTH = 64;
+
+    private static final int FIELD_LENGTH = 32;
+    private static final int KEY_CACHE_SIZE = 1024;
+
+    private static final byte[] SIGNATURE_DOMAIN = "YGGDRASH_BLS_SIGNATURE".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] PROOF_DOMAIN = "YGGDRASH_BLS_PROOF".getBytes(StandardCharsets.UTF_8);
+
+    private static final BN128G2 GENERATOR = new BN128G2(new BN128Fp2(
+            new BigInteger("10857046999023057135944570762232829481370756359578518086990519993285655852781"),
+            new BigInteger("11559732032986387107991004021392285783925812861821192530917403151452391805634"),
+            new BigInteger("8495653923123431417604973247489272438418190587263600148770280649306958101930"),
+            new BigInteger("4082367875863433681332203403145435568316851327593401208105741076214120093531")));
+    private static final BN128G2 NEGATED_GENERATOR = new BN128G2(GENERATOR.x, GENERATOR.y.negate(), GENERATOR.z);
+    private static final BigInteger SQRT_EXPONENT = P.add(BigInteger.ONE).shiftRight(2);
+
+    // The subgroup check of a decoded public key costs a scalar multiplication, validators reuse their keys
+    private static final Map<String, BN128G2> publicKeyCache = Collections.synchronizedMap(
+            new LinkedHashMap<String, BN128G2>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, BN128G2> eldest) {
+                    return size() > KEY_CACHE_SIZE;
+                }
+            });
+
+    private Bls() {
+    }
+
+    /**
+     * Derives a secret key from secret seed bytes.
+     */
+    public static BigInteger secretKey(byte[] seed) {
+        BigInteger key = new BigInteger(1, sha256(seed)).mod(R);
+        return key.signum() == 0 ? BigInteger.ONE : key;
+    }
+
+    public static byte[] publicKey(BigInteger secretKey) {
+        return encode(new BN128G2(GENERATOR.mul(secretKey)));
+    }
+
+    public static byte[] sign(BigInteger secretKey, byte[] message) {
+        return encode(new BN128G1(hashToG1(SIGNATURE_DOMAIN, message).mul(secretKey)));
+    }
+
+    /**
+     * Signs the public key of the secret key to prove the possession of the secret key.
+     */
+    public static byte[] proveKey(BigInteger secretKey) {
+        return encode(new BN128G1(hashToG1(PROOF_DOMAIN, publicKey(secretKey)).mul(secretKey)));
+    }
+
+    public static boolean verifyProof(byte[] publicKey, byte[] proof) {
+        BN128G2 key = decodePublicKey(publicKey);
+        BN128G1 signature = decodeSignature(proof);
+        return key != null && signature != null
+                && pairingCheck(signature, hashToG1(PROOF_DOMAIN, publicKey), key);
+    }
+
+    public static boolean verify(byte[] publicKey, byte[] message, byte[] signature) {
+        return verifyAggregate(Collections.singletonList(publicKey), message, signature);
+    }
+
+    /**
+     * Aggregates the signatures of a message into one signature.
+     *
+     * @return the aggregate signature, or null if a signature is not valid
+     */
+    public static byte[] aggregate(Collection<byte[]> signatures) {
+        BN128<Fp> sum = BN128Fp.ZERO;
+        for (byte[] signature : signatures) {
+            BN128G1 point = decodeSignature(signature);
+            if (point == null) {
+                return null;
+            }
+            sum = sum.add(point);
+        }
+        return encode(new BN128G1(sum));
+    }
+
+    /**
+     * Verifies the aggregate signature of a message with one pairing check.
+     * The proofs of the public keys are expected to be verified already.
+     */
+    public static boolean verifyAggregate(Collection<byte[]> publicKeys, byte[] message, byte[] signature) {
+        if (publicKeys.isEmpty()) {
+            return false;
+        }
+        Set<String> distinctKeys = new HashSet<>();
+        BN128<Fp2> sum = BN128Fp2.ZERO;
+        for (byte[] publicKey : publicKeys) {
+            BN128G2 key = decodePublicKey(publicKey);
+            if (key == null || !distinctKeys.add(Arrays.toString(publicKey))) {
+                return false;
+            }
+            sum = sum.add(key);
+        }
+        BN128G1 point = decodeSignature(signature);
+        return point != null && pairingCheck(point, hashToG1(SIGNATURE_DOMAIN, message), new BN128G2(sum));
+    }
+
+    // e(signature, g2) == e(H(m), publicKey)
+    private static boolean pairingCheck(BN128G1 signature, BN128G1 hash, BN128G2 publicKey) {
+        if (signature.isZero() || publicKey.isZero()) {
+            return false;
+        }
+        PairingCheck check = PairingCheck.create();
+        check.addPair(signature, NEGATED_GENERATOR);
+        check.addPair(hash, publicKey);
+        check.run();
+        return check.result() == 1;
+    }
+
+    // Try-and-increment, the cofactor of G1 is 1 so every point of the curve is in the group
+    private static BN128G1 hashToG1(byte[] domain, byte[] message) {
+        for (int counter = 0; ; counter++) {
+            byte[] input = ByteBuffer.allocate(domain.length + message.length + 4)
+                    .put(domain).put(message).putInt(counter).array();
+            Fp x = Fp.create(new BigInteger(1, sha256(input)).mod(P));
+            Fp y2 = x.squared().mul(x).add(B_Fp);
+            Fp y = Fp.create(y2.v.modPow(SQRT_EXPONENT, P));
+            if (y.squared().equals(y2)) {
+                return new BN128G1(new BN128Fp(x, y, Fp._1));
+            }
+        }
+    }
+
+    private static BN128G1 decodeSignature(byte[] signature) {
+        if (signature == null || signature.length != SIGNATURE_LENGTH) {
+            return null;
+        }
+        return BN128G1.create(Arrays.copyOfRange(signature, 0, FIELD_LENGTH),
+                Arrays.copyOfRange(signature, FIELD_LENGTH, SIGNATURE_LENGTH));
+    }
+
+    private static BN128G2 decodePublicKey(byte[] publicKey) {
+        if (publicKey == null || publicKey.length != PUBLIC_KEY_LENGTH) {
+            return null;
+        }
+        String cacheKey = Arrays.toString(publicKey);
+        BN128G2 key = publicKeyCache.get(cacheKey);
+        if (key == null) {
+            key = BN128G2.create(Arrays.copyOfRange(publicKey, 0, FIELD_LENGTH),
+                    Arrays.copyOfRange(publicKey, FIELD_LENGTH, FIELD_LENGTH * 2),
+                    Arrays.copyOfRange(publicKey, FIELD_LENGTH * 2, FIELD_LENGTH * 3),
+                    Arrays.copyOfRange(publicKey, FIELD_LENGTH * 3, PUBLIC_KEY_LENGTH));
+            if (key != null) {
+                publicKeyCache.put(cacheKey, key);
+            }
+        }
+        return key;
+    }
+
+    private static byte[] encode(BN128G1 point) {
+        BN128<Fp> affine = point.toEthNotation();
+        return ByteBuffer.allocate(SIGNATURE_LENGTH)
+                .put(toField(affine.x.v)).put(toField(affine.y.v)).array();
+    }
+
+    private static byte[] encode(BN128G2 point) {
+        BN128<Fp2> affine = point.toEthNotation();
+        return ByteBuffer.allocate(PUBLIC_KEY_LENGTH)
+                .put(toField(affine.x.a.v)).put(toField(affine.x.b.v))
+                .put(toField(affine.y.a.v)).put(toField(affine.y.b.v)).array();
+    }
+
+    private static byte[] toField(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        byte[] field = new byte[FIELD_LENGTH];
+        int length = Math.min(bytes.length, FIELD_LENGTH);
+        System.arraycopy(bytes, bytes.length - length, field, FIELD_LENGTH - length, length);
+        return field;
+    }
+
+    private static byte[] sha256(byte[] input) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(input);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
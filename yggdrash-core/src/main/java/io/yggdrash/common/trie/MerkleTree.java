@@ -0,0 +1,240 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.yggdrash.common.trie;
+
+import io.yggdrash.common.config.Constants;
+import io.yggdrash.common.crypto.Sha3Hasher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * SHA3 merkle tree of the transaction hashes, which has the same root as {@link Trie#getMerkleRoot(List)}.
+ * The last node of a level with odd size is paired with itself.
+ * The leaves can be appended after the root is calculated, then only the new nodes and their right edge
+ * are hashed again. The pairs of a large level are hashed in parallel.
+ * It is not thread safe.
+ */
+public class MerkleTree {
+
+    private static final int HASH_LENGTH = Constants.HASH_LENGTH;
+    // Smaller levels are hashed on the calling thread
+    static final int PARALLEL_THRESHOLD = 1024;
+
+    private final List<Level> levels = new ArrayList<>();
+    // Index of the first leaf that is not hashed into the upper levels
+    private int dirtyFrom = 0;
+
+    public MerkleTree() {
+        this(16);
+    }
+
+    /**
+     * @param capacity expected number of the leaves
+     */
+    public MerkleTree(int capacity) {
+        levels.add(new Level(capacity));
+    }
+
+    public static MerkleTree of(List<byte[]> leaves) {
+        MerkleTree tree = new MerkleTree(leaves.size());
+        leaves.forEach(tree::append);
+        return tree;
+    }
+
+    /**
+     * Appends the hash of a leaf.
+     *
+     * @param leaf hash of 32 bytes
+     */
+    public void append(byte[] leaf) {
+        if (leaf.length != HASH_LENGTH) {
+            throw new IllegalArgumentException("Invalid leaf length " + leaf.length);
+        }
+        levels.get(0).add(leaf);
+    }
+
+    public int size() {
+        return levels.get(0).size;
+    }
+
+    /**
+     * Gets the merkle root.
+     *
+     * @return root of the leaves, or the empty hash if there is no leaf
+     */
+    public byte[] getRoot() {
+        if (size() == 0) {
+            return Constants.EMPTY_HASH;
+        }
+        update();
+        return getTop().get(0);
+    }
+
+    /**
+     * Gets the inclusion proof of a leaf, which is the sibling on each level from the leaves to the root.
+     *
+     * @param index index of the leaf
+     * @return sibling hashes
+     */
+    public List<byte[]> getProof(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Invalid leaf index " + index);
+        }
+        update();
+        List<byte[]> proof = new ArrayList<>();
+        for (Level level : levels) {
+            if (level.size == 1) {
+                break;
+            }
+            proof.add(level.get(Math.min(index ^ 1, level.size - 1)));
+            index >>= 1;
+        }
+        return proof;
+    }
+
+    /**
+     * Verifies the inclusion proof of a leaf.
+     * The proof is bound to the number of the leaves, since a tree whose last leaves are duplicated
+     * has the same root (CVE-2012-2459). The proof has one sibling per level of the tree, and the last node
+     * of a level with odd size has to be paired with itself.
+     *
+     * @param leaf hash of the leaf
+     * @param index index of the leaf
+     * @param leafCount number of the leaves of the tree, e.g. the transaction count of the block
+     * @param proof sibling hashes from {@link #getProof(int)}
+     * @param root merkle root
+     * @return true if the leaf is included in the root at the index
+     */
+    public static boolean verifyProof(byte[] leaf, int index, int leafCount, List<byte[]> proof, byte[] root) {
+        if (index < 0 || index >= leafCount) {
+            return false;
+        }
+        byte[] hash = leaf;
+        int level = 0;
+        for (int size = leafCount; size > 1; size = (size + 1) / 2) {
+            if (level == proof.size()) {
+                return false;
+            }
+            byte[] sibling = proof.get(level++);
+            if ((index ^ 1) >= size && !Arrays.equals(sibling, hash)) {
+                return false;
+            }
+            Sha3Hasher hasher = Sha3Hasher.get();
+            hash = (index & 1) == 0 ? hasher.update(hash).update(sibling).digest()
+                    : hasher.update(sibling).update(hash).digest();
+            index >>= 1;
+        }
+        return level == proof.size() && Arrays.equals(hash, root);
+    }
+
+    private Level getTop() {
+        for (Level level : levels) {
+            if (level.size == 1) {
+                return level;
+            }
+        }
+        throw new IllegalStateException("Merkle tree is not updated");
+    }
+
+    private void update() {
+        int from = dirtyFrom;
+        if (from == size()) {
+            return;
+        }
+        for (int i = 0; levels.get(i).size > 1; i++) {
+            Level children = levels.get(i);
+            if (levels.size() == i + 1) {
+                levels.add(new Level(children.size / 2 + 1));
+            }
+            Level parents = levels.get(i + 1);
+            // The parent of the first dirty node and the nodes after it are hashed again
+            from /= 2;
+            parents.resize((children.size + 1) / 2);
+            if (parents.size - from > PARALLEL_THRESHOLD) {
+                ForkJoinPool.commonPool().invoke(new HashTask(children, parents, from, parents.size));
+            } else {
+                hashPairs(children, parents, from, parents.size);
+            }
+        }
+        dirtyFrom = size();
+    }
+
+    private static void hashPairs(Level children, Level parents, int from, int to) {
+        for (int parent = from; parent < to; parent++) {
+            int left = parent * 2;
+            int right = Math.min(left + 1, children.size - 1);
+            Sha3Hasher.get()
+                    .update(children.nodes, left * HASH_LENGTH, HASH_LENGTH)
+                    .update(children.nodes, right * HASH_LENGTH, HASH_LENGTH)
+                    .digest(parents.nodes, parent * HASH_LENGTH);
+        }
+    }
+
+    private static class HashTask extends RecursiveAction {
+        private final Level children;
+        private final Level parents;
+        private final int from;
+        private final int to;
+
+        HashTask(Level children, Level parents, int from, int to) {
+            this.children = children;
+            this.parents = parents;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                hashPairs(children, parents, from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new HashTask(children, parents, from, middle), new HashTask(children, parents, middle, to));
+        }
+    }
+
+    // Nodes of a level in one growable buffer
+    private static class Level {
+        private byte[] nodes;
+        private int size;
+
+        Level(int capacity) {
+            this.nodes = new byte[Math.max(capacity, 1) * HASH_LENGTH];
+        }
+
+        void add(byte[] node) {
+            resize(size + 1);
+            System.arraycopy(node, 0, nodes, (size - 1) * HASH_LENGTH, HASH_LENGTH);
+        }
+
+        void resize(int newSize) {
+            if (newSize * HASH_LENGTH > nodes.length) {
+                nodes = Arrays.copyOf(nodes, Math.max(newSize, size * 2) * HASH_LENGTH);
+            }
+            size = newSize;
+        }
+
+        byte[] get(int index) {
+            return Arrays.copyOfRange(nodes, index * HASH_LENGTH, (index + 1) * HASH_LENGTH);
+        }
+    }
+}
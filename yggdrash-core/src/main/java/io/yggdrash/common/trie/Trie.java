@@ -5,7 +5,6 @@ import io.yggdrash.common.crypto.HashUtil;
 import io.yggdrash.common.utils.ByteUtil;
 import io.yggdrash.core.blockchain.Transaction;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import static io.yggdrash.common.crypto.HashUtil.HASH_256_ALGORITHM_NAME;
@@ -33,12 +32,13 @@ public class Trie {
             return Constants.EMPTY_HASH;
         }
 
-        List<byte[]> tree = new ArrayList<>();
-        for (Transaction tx : txs) {
-            tree.add(tx.getHash().getBytes());
+        if (txs.size() > MerkleTree.PARALLEL_THRESHOLD) {
+            // The lazy hash of each tx is calculated by one thread
+            txs.parallelStream().forEach(Transaction::getHash);
         }
-
-        return getMerkleRoot(tree, HASH_256_ALGORITHM_NAME);
+        MerkleTree tree = new MerkleTree(txs.size());
+        txs.forEach(tx -> tree.append(tx.getHash().getBytes()));
+        return tree.getRoot();
     }
 
     public static byte[] getMerkleRoot(List<byte[]> hashTree, String algorithm) {
@@ -71,6 +71,11 @@ public class Trie {
             return Constants.EMPTY_HASH;
         }
 
+        if (HASH_256_ALGORITHM_NAME.equals(algorithm) && !doubleHash
+                && hashTree.stream().allMatch(hash -> hash.length == Constants.HASH_LENGTH)) {
+            return MerkleTree.of(hashTree).getRoot();
+        }
+
         for (int levelSize = treeSize; levelSize > 1; levelSize = (levelSize + 1) / 2) {
             for (int left = 0; left < levelSize; left += 2) {
                 int right = Math.min(left + 1, levelSize - 1);
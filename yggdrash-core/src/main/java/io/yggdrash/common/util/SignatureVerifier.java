@@ -0,0 +1,91 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+
+package io.yggdrash.common.util;
+
+import io.yggdrash.core.blockchain.Transaction;
+import io.yggdrash.core.exception.InvalidSignatureException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Verifies the signatures of transactions in parallel.
+ * The public key recovered from a signature is cached by the transaction,
+ * so the following getPubKey() and getAddress() calls do not recover it again.
+ * A failed recovery is cached as well. getPubKey() throws InvalidSignatureException for it
+ * and getAddress() returns the null address.
+ */
+public class SignatureVerifier {
+    private static final Logger log = LoggerFactory.getLogger(SignatureVerifier.class);
+
+    private static final int PARALLEL_THRESHOLD = 4;
+
+    private static final ForkJoinPool verifierPool =
+            new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    private SignatureVerifier() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Verifies the signatures of all transactions.
+     *
+     * @param txList transactions to be verified
+     * @return true if every signature is valid
+     */
+    public static boolean verifySignatures(List<Transaction> txList) {
+        if (txList.size() < PARALLEL_THRESHOLD) {
+            return txList.stream().allMatch(VerifierUtils::verifySignature);
+        }
+        return verifierPool.submit(() -> txList.parallelStream().allMatch(VerifierUtils::verifySignature)).join();
+    }
+
+    /**
+     * Recovers the public keys of the transactions ahead of their verification.
+     * A failed recovery is kept by the transaction, so its verification fails later.
+     *
+     * @param txs transactions to be recovered
+     */
+    public static void recoverAddresses(Collection<Transaction> txs) {
+        if (txs.size() < PARALLEL_THRESHOLD) {
+            return;
+        }
+        verifierPool.submit(() -> txs.parallelStream().forEach(SignatureVerifier::recover)).join();
+    }
+
+    private static void recover(Transaction tx) {
+        try {
+            tx.getPubKey();
+        } catch (InvalidSignatureException e) {
+            log.trace("Invalid signature of tx={}", tx.getHash());
+        }
+    }
+
+    /**
+     * Recovers the public key of the transaction on the verifier pool.
+     *
+     * @param tx transaction to be recovered
+     * @return the transaction whose public key has been recovered,
+     *         completed with InvalidSignatureException if the signature is invalid
+     */
+    public static CompletableFuture<Transaction> recoverAsync(Transaction tx) {
+        return CompletableFuture.supplyAsync(() -> {
+            tx.getPubKey();
+            return tx;
+        }, verifierPool);
+    }
+}
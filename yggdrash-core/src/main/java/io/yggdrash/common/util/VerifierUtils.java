@@ -25,6 +25,7 @@ import io.yggdrash.core.blockchain.BlockHeader;
 import io.yggdrash.core.blockchain.Transaction;
 import io.yggdrash.core.blockchain.TransactionBody;
 import io.yggdrash.core.blockchain.TransactionHeader;
+import io.yggdrash.core.exception.InvalidSignatureException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.spongycastle.util.encoders.Hex;
@@ -119,7 +120,16 @@ public class VerifierUtils {
     }
 
     public static boolean verifySignature(Transaction tx) {
-        return verifySignature(tx.getSignature(), tx.getHeader().getHashForSigning());
+        byte[] pubKey;
+
+        try {
+            pubKey = tx.getPubKey(); // recovered once and cached by the transaction
+        } catch (InvalidSignatureException e) {
+            return false; // handling exception
+        }
+
+        ECKey.ECDSASignature ecdsaSignature = new ECKey.ECDSASignature(tx.getSignature());
+        return ECKey.verify(tx.getHeader().getHashForSigning(), ecdsaSignature, pubKey);
     }
 
     public static boolean verifySignature(Block block) {
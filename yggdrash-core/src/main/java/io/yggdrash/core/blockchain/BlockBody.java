@@ -19,6 +19,7 @@ package io.yggdrash.core.blockchain;
 import com.google.gson.JsonArray;
 import com.google.protobuf.InvalidProtocolBufferException;
 import io.yggdrash.common.config.Constants;
+import io.yggdrash.common.trie.MerkleTree;
 import io.yggdrash.common.trie.Trie;
 import io.yggdrash.core.exception.NotValidateException;
 import io.yggdrash.proto.Proto;
@@ -93,6 +94,19 @@ public class BlockBody implements ProtoObject<Proto.TransactionList> {
         return Trie.getMerkleRoot(getTransactionList());
     }
 
+    /**
+     * Get the merkle inclusion proof of a transaction.
+     *
+     * @param index index of the transaction
+     * @return sibling hashes from the leaf to the root, verified by {@link MerkleTree#verifyProof}
+     *         with {@link #getCount()} as the number of the leaves
+     */
+    public List<byte[]> getMerkleProof(int index) {
+        MerkleTree tree = new MerkleTree(getCount());
+        getTransactionList().forEach(tx -> tree.append(tx.getHash().getBytes()));
+        return tree.getProof(index);
+    }
+
     public byte[] getStateRoot() {
         // TODO: change method for stateRoot.
         return Constants.EMPTY_HASH;
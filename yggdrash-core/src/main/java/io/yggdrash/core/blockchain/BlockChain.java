@@ -31,6 +31,8 @@ public interface BlockChain<T, V> extends ConsensusBlockChain<T, V> {
 
     Map<String, List<String>> addBlock(ConsensusBlock<T> block, boolean broadcast); // return errorLogs
 
+    Map<String, List<String>> addBlocks(List<ConsensusBlock<T>> blockList); // return errorLogs
+
     Map<String, List<String>> addTransaction(Transaction tx); // return errorLogs
 
     Map<String, List<String>> addTransaction(Transaction tx, boolean broadcast); // return errorLogs
@@ -18,21 +18,34 @@ import io.yggdrash.core.exception.NotValidateException;
 import io.yggdrash.core.exception.errorcode.BusinessError;
 import io.yggdrash.core.runtime.result.BlockRuntimeResult;
 import io.yggdrash.core.runtime.result.TransactionRuntimeResult;
+import io.yggdrash.core.store.BlockCommit;
 import io.yggdrash.core.store.BlockKeyStore;
 import io.yggdrash.core.store.BranchStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
 
 public class BlockChainImpl<T, V> implements BlockChain<T, V> {
     private static final Logger log = LoggerFactory.getLogger(BlockChainImpl.class);
 
+    private static final int IMPORT_VERIFY_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+    private static final int IMPORT_VERIFY_WINDOW = IMPORT_VERIFY_THREADS * 4;
+
     private final List<BranchEventListener> listenerList = new ArrayList<>();
     private final List<ContractEventListener> contractEventListenerList = new ArrayList<>();
 
@@ -47,6 +60,11 @@ public class BlockChainImpl<T, V> implements BlockChain<T, V> {
     private final Consensus consensus;
     private final ReentrantLock lock = new ReentrantLock();
 
+    private final ExecutorService verifyExecutor =
+            Executors.newFixedThreadPool(IMPORT_VERIFY_THREADS, daemonThreadFactory("block-verifier"));
+    private final ExecutorService commitExecutor =
+            Executors.newSingleThreadExecutor(daemonThreadFactory("block-committer"));
+
     private boolean isFullSynced = false;
 
     public BlockChainImpl(Branch branch,
@@ -152,57 +170,182 @@ public class BlockChainImpl<T, V> implements BlockChain<T, V> {
                 return BusinessError.getErrorLogsMap(verificationCode);
             }
 
-            if (isLastExecutedBlock(nextBlock)) {
-                log.info("Block[{}] has already been executed. Save it directly to blockStore.", nextBlock.getIndex());
-                branchStore.setLastExecuteBlock(nextBlock);
-                blockChainManager.addBlock(nextBlock);
-                return new HashMap<>();
+            Map<String, List<String>> errorLogs = executeBlock(nextBlock);
+            if (!errorLogs.isEmpty()) {
+                return errorLogs;
             }
 
-            // Run Block Transactions
-            // TODO run block execute move to other process (or thread)
-            // TODO last execute block will invoke
+            storeBlock(nextBlock, broadcast);
+        } catch (Exception e) {
+            log.warn("Add block failed. Index({}) {}", nextBlock.getIndex(), e.getMessage());
+            return systemError(e);
+        } finally {
+            lock.unlock();
+        }
 
-            // Execute block and commit the result of block.
-            BlockRuntimeResult blockResult = contractManager.executeTxs(nextBlock); //TODO Exception
-            Sha3Hash nextBlockStateRoot = new Sha3Hash(nextBlock.getHeader().getStateRoot(), true);
-            // Validate StateRoot
-            Sha3Hash blockResultStateRoot = blockResult.getBlockResult().size() > 0
-                    ? new Sha3Hash(blockResult.getBlockResult().get("stateRoot").get("stateHash").getAsString())
-                    : contractManager.getOriginStateRootHash();
-            if (!nextBlockStateRoot.equals(blockResultStateRoot)) {
-                log.warn("Add block failed. Invalid stateRoot. BlockStateRoot : {}, CurStateRoot : {}",
-                        nextBlockStateRoot, blockResultStateRoot);
-                return BusinessError.getErrorLogsMap(BusinessError.INVALID_STATE_ROOT_HASH.toValue());
-            }
+        return new HashMap<>();
+    }
 
-            branchStore.setLastExecuteBlock(nextBlock);
-            // Add best Block
-            branchStore.setBestBlock(nextBlock); // It can be sure that all Txs in BestBlock have been executed.
-            contractManager.commitBlockResult(blockResult);
-            // BlockChainManager add nextBlock to the blockStore, set the lastConfirmedBlock to nextBlock,
-            // and then batch the transactions.
-            blockChainManager.addBlock(nextBlock);
-
-            // Fire contract event
-            getContractEventList(blockResult).stream()
-                    .filter(event -> !contractEventListenerList.isEmpty())
-                    .forEach(event -> contractEventListenerList.forEach(l -> l.endBlock(event)));
-
-            if (!listenerList.isEmpty() && broadcast) {
-                listenerList.forEach(listener -> listener.chainedBlock(nextBlock));
-            }
+    /**
+     * Imports consecutive blocks through a three-stage pipeline.
+     * The contents of the following blocks are verified on the verifier threads while the current block is executed,
+     * and the commit of the previous block is written on the commit thread at the same time.
+     * The blockChainManager is updated only on this thread, the commit thread writes the prepared commit.
+     *
+     * @param blockList consecutive blocks ordered by index
+     * @return errorLogs of the first failed block, empty if all blocks are added and stored
+     */
+    @Override
+    public Map<String, List<String>> addBlocks(List<ConsensusBlock<T>> blockList) {
+        Deque<Future<Integer>> verifiedQueue = new ArrayDeque<>();
+        Future<?> pendingStore = null;
+        ConsensusBlock<T> storingBlock = null;
+        int submitted = 0;
+        Map<String, List<String>> errorLogs = new HashMap<>();
+
+        lock.lock();
+        try {
+            ConsensusBlock<T> prevBlock = blockChainManager.getLastConfirmedBlock();
+            for (ConsensusBlock<T> nextBlock : blockList) {
+                // Stage 1: verify the contents of the next blocks ahead
+                while (submitted < blockList.size() && verifiedQueue.size() < IMPORT_VERIFY_WINDOW) {
+                    ConsensusBlock<T> block = blockList.get(submitted++);
+                    verifiedQueue.add(verifyExecutor.submit(() -> blockChainManager.verifyContent(block)));
+                }
+
+                int verificationCode = blockChainManager.verifyOrder(prevBlock, nextBlock);
+                if (verificationCode != BusinessError.UNKNOWN_BLOCK_HEIGHT.toValue()) {
+                    verificationCode |= verifiedQueue.poll().get();
+                }
+                if (verificationCode != BusinessError.VALID.toValue()) {
+                    log.trace("addBlocks is failed. Index({}) {}",
+                            nextBlock.getIndex(), BusinessError.getErrorLogsMap(verificationCode).values());
+                    errorLogs = BusinessError.getErrorLogsMap(verificationCode);
+                    break;
+                }
 
-            nextBlock.loggingBlock(this.blockChainManager.getUnconfirmedTxsSize());
+                // Stage 2: execute the block while the previous one is being stored
+                errorLogs = executeBlock(nextBlock);
+                if (!errorLogs.isEmpty()) {
+                    break;
+                }
+
+                // Stage 3: store the block after the previous one has been stored
+                waitForStore(pendingStore, storingBlock);
+                pendingStore = null;
+                BlockCommit commit = blockChainManager.prepareBlock(nextBlock);
+                pendingStore = commitExecutor.submit(commit::commit);
+                storingBlock = nextBlock;
+                prevBlock = nextBlock;
+            }
+            waitForStore(pendingStore, storingBlock);
+            pendingStore = null;
+        } catch (InterruptedException e) {
+            log.warn("Add blocks interrupted. {}", e.getMessage());
+            Thread.currentThread().interrupt();
+            errorLogs = systemError(e);
         } catch (Exception e) {
-            log.debug("Add block failed. {}", e.getMessage()); //TODO Exception handling
+            log.warn("Add blocks failed. {}", e.getMessage());
+            errorLogs = systemError(e);
         } finally {
+            verifiedQueue.forEach(future -> future.cancel(true));
+            // The commit submitted before a failure is waited, so it is not written out of the lock
+            if (pendingStore != null) {
+                try {
+                    waitForStore(pendingStore, storingBlock);
+                } catch (Exception e) {
+                    log.debug("Store block failed. {}", e.getMessage());
+                }
+            }
             lock.unlock();
         }
 
+        return errorLogs;
+    }
+
+    /**
+     * Waits for the commit of the block and confirms the block once it is written.
+     */
+    private void waitForStore(Future<?> pendingStore, ConsensusBlock<T> storingBlock)
+            throws InterruptedException, ExecutionException {
+        if (pendingStore != null) {
+            pendingStore.get();
+            blockChainManager.confirmBlock(storingBlock);
+            storingBlock.loggingBlock(this.blockChainManager.getUnconfirmedTxsSize());
+        }
+    }
+
+    private static Map<String, List<String>> systemError(Exception e) {
+        Map<String, List<String>> systemError = new HashMap<>();
+        Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+        systemError.put("SystemError", Collections.singletonList(String.valueOf(cause.getMessage())));
+        return systemError;
+    }
+
+    private static ThreadFactory daemonThreadFactory(String name) {
+        return r -> {
+            Thread thread = new Thread(r, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Executes the transactions of a verified block and commits the result to the stateStore.
+     *
+     * @return errorLogs, empty if the block is executed
+     */
+    private Map<String, List<String>> executeBlock(ConsensusBlock<T> nextBlock) {
+        if (isLastExecutedBlock(nextBlock)) {
+            log.info("Block[{}] has already been executed. Save it directly to blockStore.", nextBlock.getIndex());
+            branchStore.setLastExecuteBlock(nextBlock);
+            return new HashMap<>();
+        }
+
+        // Run Block Transactions
+        // TODO last execute block will invoke
+
+        // Execute block and commit the result of block.
+        BlockRuntimeResult blockResult = contractManager.executeTxs(nextBlock); //TODO Exception
+        Sha3Hash nextBlockStateRoot = new Sha3Hash(nextBlock.getHeader().getStateRoot(), true);
+        // Validate StateRoot
+        Sha3Hash blockResultStateRoot = blockResult.getBlockResult().size() > 0
+                ? new Sha3Hash(blockResult.getBlockResult().get("stateRoot").get("stateHash").getAsString())
+                : contractManager.getOriginStateRootHash();
+        if (!nextBlockStateRoot.equals(blockResultStateRoot)) {
+            log.warn("Add block failed. Invalid stateRoot. BlockStateRoot : {}, CurStateRoot : {}",
+                    nextBlockStateRoot, blockResultStateRoot);
+            return BusinessError.getErrorLogsMap(BusinessError.INVALID_STATE_ROOT_HASH.toValue());
+        }
+
+        // The result and the best block are written together, so the bestBlock can't be ahead of the state.
+        BlockCommit commit = blockChainManager.newBlockCommit();
+        commit.setLastExecuteBlock(nextBlock);
+        // Add best Block
+        commit.setBestBlock(nextBlock); // It can be sure that all Txs in BestBlock have been executed.
+        contractManager.commitBlockResult(blockResult, commit);
+
+        // Fire contract event
+        // Contract events can change the contracts, so they are fired before the next block is executed.
+        getContractEventList(blockResult).stream()
+                .filter(event -> !contractEventListenerList.isEmpty())
+                .forEach(event -> contractEventListenerList.forEach(l -> l.endBlock(event)));
+
         return new HashMap<>();
     }
 
+    private void storeBlock(ConsensusBlock<T> nextBlock, boolean broadcast) {
+        // BlockChainManager add nextBlock to the blockStore, set the lastConfirmedBlock to nextBlock,
+        // and then batch the transactions.
+        blockChainManager.addBlock(nextBlock);
+
+        if (!listenerList.isEmpty() && broadcast) {
+            listenerList.forEach(listener -> listener.chainedBlock(nextBlock));
+        }
+
+        nextBlock.loggingBlock(this.blockChainManager.getUnconfirmedTxsSize());
+    }
+
     @Override
     public Map<String, List<String>> addBlock(ConsensusBlock<T> block) {
         return addBlock(block, true);
@@ -232,7 +375,14 @@ public class BlockChainImpl<T, V> implements BlockChain<T, V> {
             TransactionRuntimeResult txResult = contractManager.executeTx(tx); //checkTx
             log.trace("contractManager.executeTx Result: {}", txResult.getReceipt().getLog());
             if (txResult.getReceipt().getStatus() == ExecuteStatus.SUCCESS) {
-                blockChainManager.addTransaction(tx);
+                try {
+                    blockChainManager.addTransaction(tx);
+                } catch (FailedOperationException e) {
+                    Map<String, List<String>> systemError = new HashMap<>();
+                    systemError.put("SystemError", Collections.singletonList(e.getMessage()));
+                    log.trace("addTransaction(): txStore rejected tx={} {}", tx.getHash().toString(), e.getMessage());
+                    return systemError;
+                }
 
                 if (!listenerList.isEmpty() && broadcast) {
                     listenerList.forEach(listener -> listener.receivedTransaction(tx));
@@ -286,6 +436,16 @@ public class BlockChainImpl<T, V> implements BlockChain<T, V> {
 
     @Override
     public void close() {
+        this.verifyExecutor.shutdownNow();
+        // The pending commit is written before the stores are closed
+        this.commitExecutor.shutdown();
+        try {
+            if (!this.commitExecutor.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.warn("Block commit is not finished before close");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
         this.branchStore.close();
         this.blockChainManager.close();
         this.contractManager.close();
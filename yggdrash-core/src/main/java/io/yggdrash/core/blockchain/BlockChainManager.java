@@ -15,6 +15,7 @@ package io.yggdrash.core.blockchain;
 import io.yggdrash.common.Sha3Hash;
 import io.yggdrash.contract.core.Receipt;
 import io.yggdrash.core.consensus.ConsensusBlock;
+import io.yggdrash.core.store.BlockCommit;
 
 import java.util.Collection;
 import java.util.List;
@@ -28,10 +29,51 @@ public interface BlockChainManager<T> {
 
     int verify(ConsensusBlock<T> block);
 
+    /**
+     * Verifies that nextBlock can be chained on top of prevBlock (height, prevHash and duplication).
+     *
+     * @param prevBlock the block expected to precede nextBlock, null for the genesis block
+     * @param nextBlock the block to be verified
+     * @return the verification code
+     */
+    int verifyOrder(ConsensusBlock<T> prevBlock, ConsensusBlock<T> nextBlock);
+
+    /**
+     * Verifies the contents of a block (data format, merkle root and signature).
+     * It does not depend on the chain state, so it can be run ahead of block execution.
+     *
+     * @param block the block to be verified
+     * @return the verification code
+     */
+    int verifyContent(ConsensusBlock<T> block);
+
     int verify(Transaction transaction);
 
     void addBlock(ConsensusBlock<T> nextBlock);
 
+    /**
+     * Adds the txs of the block to the pending pool and creates the commit of the block and its txs.
+     * The block is confirmed by {@link #confirmBlock(ConsensusBlock)} once the commit is written.
+     *
+     * @param nextBlock the block to be stored
+     * @return the commit of the block, not written yet
+     */
+    BlockCommit prepareBlock(ConsensusBlock<T> nextBlock);
+
+    /**
+     * Sets the block written by the commit of {@link #prepareBlock(ConsensusBlock)} as the last confirmed block.
+     *
+     * @param nextBlock the stored block
+     */
+    void confirmBlock(ConsensusBlock<T> nextBlock);
+
+    /**
+     * Creates a unit of work that writes the mutations of a block with a single batch per store.
+     *
+     * @return an empty block commit
+     */
+    BlockCommit newBlockCommit();
+
     void batchTxs(ConsensusBlock<T> block);
 
     void addTransaction(Transaction tx);
@@ -14,12 +14,14 @@ package io.yggdrash.core.blockchain;
 
 import io.yggdrash.common.Sha3Hash;
 import io.yggdrash.common.exception.FailedOperationException;
+import io.yggdrash.common.util.SignatureVerifier;
 import io.yggdrash.common.util.VerifierUtils;
 import io.yggdrash.contract.core.ExecuteStatus;
 import io.yggdrash.contract.core.Receipt;
 import io.yggdrash.core.consensus.ConsensusBlock;
 import io.yggdrash.core.exception.errorcode.BusinessError;
 import io.yggdrash.core.store.BlockChainStore;
+import io.yggdrash.core.store.BlockCommit;
 import io.yggdrash.core.store.BranchStore;
 import io.yggdrash.core.store.ConsensusBlockStore;
 import io.yggdrash.core.store.ReceiptStore;
@@ -71,12 +73,17 @@ public class BlockChainManagerImpl<T> implements BlockChainManager<T> {
             // load recent 1000 block
             // Start Block and End Block
             long bestBlock = branchStore.getBestBlock();
+            long snapshotBlock = branchStore.getSnapshotBlockIndex();
             long loadStart = bestBlock > 1000 ? bestBlock - 1000 : 0;
             for (long i = loadStart; i <= bestBlock; i++) { // TODO Consider block verification (genesis, prevHash ...)
                 // Load recent block and update cache
                 ConsensusBlock<T> block = getBlockByIndex(i);
-                // TODO Node can be shutdown before blockStore.addBlock()
-                // addBlock(): branchStore.setBestBlock() -> executeTransactions() -> blockStore.addBlock()
+                // The blocks below a state snapshot are not imported
+                if (block == null && i < snapshotBlock) {
+                    continue;
+                }
+                // Node can be shutdown between the state commit and the block commit of a block.
+                // addBlock(): commit state and bestBlock -> commit txs and block
                 if (block == null) {
                     long prevIdx = i - 1;
                     ConsensusBlock<T> curBestBlock = getBlockByIndex(prevIdx);
@@ -121,35 +128,50 @@ public class BlockChainManagerImpl<T> implements BlockChainManager<T> {
 
     @Override
     public int verify(ConsensusBlock<T> block) {
+        int check = verifyOrder(lastConfirmedBlock, block);
+        if (check == BusinessError.UNKNOWN_BLOCK_HEIGHT.toValue()) {
+            return check;
+        }
+
+        check |= verifyContent(block);
+
+        return check;
+    }
+
+    @Override
+    public int verifyOrder(ConsensusBlock<T> prevBlock, ConsensusBlock<T> nextBlock) {
         int check = BusinessError.VALID.toValue();
 
         //GenesisBlock skips the newBlock verification
-        if (lastConfirmedBlock != null) {
-            if (!verifyBlockHeight(block)) {
+        if (prevBlock != null) {
+            if (!verifyBlockHeight(prevBlock, nextBlock)) {
                 return BusinessError.UNKNOWN_BLOCK_HEIGHT.toValue(); // Immediate return if invalid blockHeight
             }
 
-            check |= verifyNewBlock(block);
+            check |= BusinessError.addCode(verifyBlockHash(prevBlock, nextBlock), BusinessError.INVALID_BLOCK_HASH);
         }
 
-        check |= BusinessError.addCode(verifyDuplicated(block), BusinessError.DUPLICATED);
-
-        check |= BusinessError.addCode(VerifierUtils.verifyDataFormat(block), BusinessError.INVALID_DATA_FORMAT);
-
-        check |= BusinessError.addCode(
-                VerifierUtils.verifyBlockBodyHash(block), BusinessError.INVALID_MERKLE_ROOT_HASH);
-
-        //TODO Verify txs of block
+        check |= BusinessError.addCode(verifyDuplicated(nextBlock), BusinessError.DUPLICATED);
 
         return check;
     }
 
-    private int verifyNewBlock(ConsensusBlock<T> nextBlock) {
+    @Override
+    public int verifyContent(ConsensusBlock<T> block) {
         int check = BusinessError.VALID.toValue();
 
-        check |= BusinessError.addCode(verifyBlockHash(nextBlock), BusinessError.INVALID_BLOCK_HASH);
+        check |= BusinessError.addCode(VerifierUtils.verifyDataFormat(block), BusinessError.INVALID_DATA_FORMAT);
+
+        check |= BusinessError.addCode(
+                VerifierUtils.verifyBlockBodyHash(block), BusinessError.INVALID_MERKLE_ROOT_HASH);
 
-        check |= BusinessError.addCode(VerifierUtils.verifySignature(nextBlock), BusinessError.UNTRUSTED);
+        //GenesisBlock is not signed
+        if (!VerifierUtils.isGenesis(block.getHeader())) {
+            check |= BusinessError.addCode(VerifierUtils.verifySignature(block), BusinessError.UNTRUSTED);
+
+            check |= BusinessError.addCode(
+                    SignatureVerifier.verifySignatures(block.getBody().getTransactionList()), BusinessError.UNTRUSTED);
+        }
 
         return check;
     }
@@ -162,36 +184,61 @@ public class BlockChainManagerImpl<T> implements BlockChainManager<T> {
         return !blockStore.contains(block.getHash());
     }
 
-    private boolean verifyBlockHeight(ConsensusBlock<T> nextBlock) {
-        return lastConfirmedBlock.getIndex() + 1 == nextBlock.getIndex();
+    private boolean verifyBlockHeight(ConsensusBlock<T> prevBlock, ConsensusBlock<T> nextBlock) {
+        return prevBlock.getIndex() + 1 == nextBlock.getIndex();
     }
 
-    private boolean verifyBlockHash(ConsensusBlock<T> nextBlock) {
-        return lastConfirmedBlock.getHash().equals(nextBlock.getPrevBlockHash());
+    private boolean verifyBlockHash(ConsensusBlock<T> prevBlock, ConsensusBlock<T> nextBlock) {
+        return prevBlock.getHash().equals(nextBlock.getPrevBlockHash());
     }
 
     @Override
     public void addBlock(ConsensusBlock<T> nextBlock) {
         try {
             lock.lock();
-            // A block may contain txs not received by txApi and those txs also have to be stored in the storage
+            prepareBlock(nextBlock).commit();
+            setLastConfirmedBlock(nextBlock);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public BlockCommit prepareBlock(ConsensusBlock<T> nextBlock) {
+        try {
+            lock.lock();
+            // Store the txs, the block index and the block data
+            BlockCommit commit = blockChainStore.newBlockCommit();
+            commit.addBlock(nextBlock);
+            // A block may contain txs not received by txApi and those txs also have to be stored in the storage.
+            // They are confirmed already, so they are written with the block instead of the capacity limited pool.
             for (Transaction tx : nextBlock.getBody().getTransactionList()) {
                 if (receiptStore.contains(tx.getHash().toString())
                         && receiptStore.get(tx.getHash().toString()).getStatus() != ExecuteStatus.ERROR) {
-                    addTransaction(tx);
+                    commit.addConfirmedTransaction(tx);
                 }
             }
-            batchTxs(nextBlock);
+            return commit;
+        } finally {
+            lock.unlock();
+        }
+    }
 
-            // Store Block Index and Block Data
-            this.blockStore.addBlock(nextBlock);
+    @Override
+    public void confirmBlock(ConsensusBlock<T> nextBlock) {
+        try {
+            lock.lock();
             setLastConfirmedBlock(nextBlock);
-
         } finally {
             lock.unlock();
         }
     }
 
+    @Override
+    public BlockCommit newBlockCommit() {
+        return blockChainStore.newBlockCommit();
+    }
+
     @Override
     public void batchTxs(ConsensusBlock<T> block) {
         try {
@@ -213,6 +260,8 @@ public class BlockChainManagerImpl<T> implements BlockChainManager<T> {
         try {
             transactionStore.addTransaction(tx);
             log.trace("AddTransaction: txStore added tx={}", tx.getHash().toString());
+        } catch (FailedOperationException e) {
+            throw e;
         } catch (Exception e) {
             throw new FailedOperationException(e);
         }
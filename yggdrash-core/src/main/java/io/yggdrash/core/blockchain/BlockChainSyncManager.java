@@ -12,6 +12,7 @@
 
 package io.yggdrash.core.blockchain;
 
+import io.yggdrash.common.util.SignatureVerifier;
 import io.yggdrash.core.consensus.ConsensusBlock;
 import io.yggdrash.core.net.NodeStatus;
 import io.yggdrash.core.net.PeerNetwork;
@@ -85,17 +86,15 @@ public class BlockChainSyncManager implements SyncManager {
                     ((ConsensusBlock) blockList.toArray()[blockList.size() - 1]).getBlock().getIndex(),
                     peerHandler.getPeer().getYnodeUri());
 
-            for (ConsensusBlock block : blockList) {
-                if (nodeStatus.isUpdateStatus()) {
-                    log.debug("SyncBlock interrupted. Node is updating now...");
-                    return false;
-                }
-                // Handling exception if the block was not added properly
-                Map<String, List<String>> errorLogs = blockChain.addBlock(block, false);
-                if (errorLogs.size() > 0) {
-                    log.debug("addBlock() is failed. {}", errorLogs);
-                    return false;
-                }
+            if (nodeStatus.isUpdateStatus()) {
+                log.debug("SyncBlock interrupted. Node is updating now...");
+                return false;
+            }
+            // Handling exception if the blocks were not added properly
+            Map<String, List<String>> errorLogs = blockChain.addBlocks(blockList);
+            if (errorLogs.size() > 0) {
+                log.debug("addBlocks() is failed. {}", errorLogs);
+                return false;
             }
 
             if (blockChain.getBlockChainManager().getLastIndex() < peerHandler.getPeer().getBestBlock()) {
@@ -113,21 +112,28 @@ public class BlockChainSyncManager implements SyncManager {
     }
 
     private void fullSyncBlock(BlockChain blockChain, List<BlockChainHandler> peerHandlerList) {
+        long bestBlock = 0;
         for (BlockChainHandler peerHandler : peerHandlerList) {
             try {
                 peerHandler.getPeer().setBestBlock(
                         peerHandler.pingPong(blockChain.getBranchId(), peerTableGroup.getOwner(), "Ping"));
-                long peerBestBlock = peerHandler.getPeer().getBestBlock();
-                long lastBlockIndex = blockChain.getBlockChainManager().getLastIndex();
-                long blockDiff = peerBestBlock - lastBlockIndex;
-                if (peerBestBlock > lastBlockIndex) {
-                    if (blockDiff > 10000) {
-                        for (long l = 0; l < blockDiff / 10000L; l++) {
-                            peerHandler.getPeer().setBestBlock(lastBlockIndex + (l + 1L) * 10000L);
-                            syncBlock(peerHandler, blockChain);
-                        }
-                        peerHandler.getPeer().setBestBlock(peerBestBlock);
-                    }
+                bestBlock = Math.max(bestBlock, peerHandler.getPeer().getBestBlock());
+            } catch (Exception e) {
+                log.debug("fullSyncBlock() is failed. {}", e.getMessage());
+            }
+        }
+
+        // Download the missing range from all peers at once
+        long lastBlockIndex = blockChain.getBlockChainManager().getLastIndex();
+        if (bestBlock > lastBlockIndex) {
+            lastBlockIndex = new BlockRangeDownloader(nodeStatus, blockChain, peerHandlerList).download(bestBlock);
+            log.debug("fullSyncBlock() downloaded to {} of {}", lastBlockIndex, bestBlock);
+        }
+
+        // Catch up the blocks created during the download
+        for (BlockChainHandler peerHandler : peerHandlerList) {
+            try {
+                if (peerHandler.getPeer().getBestBlock() > blockChain.getBlockChainManager().getLastIndex()) {
                     syncBlock(peerHandler, blockChain);
                 }
             } catch (Exception e) {
@@ -237,6 +243,7 @@ public class BlockChainSyncManager implements SyncManager {
     }
 
     private void addTransaction(BlockChain blockChain, List<Transaction> txList) {
+        SignatureVerifier.recoverAddresses(txList);
         for (Transaction tx : txList) {
             try {
                 blockChain.addTransaction(tx, false);
@@ -19,15 +19,14 @@ package io.yggdrash.core.blockchain;
 import com.google.gson.JsonObject;
 import com.google.protobuf.ByteString;
 import com.google.protobuf.InvalidProtocolBufferException;
-import io.yggdrash.common.crypto.HashUtil;
 import io.yggdrash.common.crypto.HexUtil;
+import io.yggdrash.common.crypto.Sha3Hasher;
 import io.yggdrash.common.utils.ByteUtil;
 import io.yggdrash.core.exception.NotValidateException;
 import io.yggdrash.proto.Proto;
 import org.spongycastle.util.encoders.Hex;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 public class BlockHeader implements ProtoObject<Proto.Block.Header> {
@@ -140,7 +139,24 @@ public class BlockHeader implements ProtoObject<Proto.Block.Header> {
      * @return hash of header
      */
     public byte[] getHashForSigning() {
-        return HashUtil.sha3(getBinaryForSigning());
+        Sha3Hasher hasher = Sha3Hasher.get();
+        updateForSigning(hasher);
+        return hasher.digest();
+    }
+
+    /**
+     * Streams the binary data for signing into the hasher without copying the fields.
+     */
+    void updateForSigning(Sha3Hasher hasher) {
+        hasher.update(protoHeader.getChain().asReadOnlyByteBuffer())
+                .update(protoHeader.getVersion().asReadOnlyByteBuffer())
+                .update(protoHeader.getType().asReadOnlyByteBuffer())
+                .update(protoHeader.getPrevBlockHash().asReadOnlyByteBuffer())
+                .update(getIndex())
+                .update(getTimestamp())
+                .update(protoHeader.getMerkleRoot().asReadOnlyByteBuffer())
+                .update(protoHeader.getStateRoot().asReadOnlyByteBuffer())
+                .update(getBodyLength());
     }
 
     /**
@@ -157,22 +173,20 @@ public class BlockHeader implements ProtoObject<Proto.Block.Header> {
     }
 
     private void setBinaryForSigning() {
-        ByteArrayOutputStream bao = new ByteArrayOutputStream();
-        try {
-            bao.write(getChain());
-            bao.write(getVersion());
-            bao.write(getType());
-            bao.write(getPrevBlockHash());
-            bao.write(ByteUtil.longToBytes(getIndex()));
-            bao.write(ByteUtil.longToBytes(getTimestamp()));
-            bao.write(getMerkleRoot());
-            bao.write(getStateRoot());
-            bao.write(ByteUtil.longToBytes(getBodyLength()));
-        } catch (IOException e) {
-            throw new NotValidateException();
-        }
-
-        this.binaryForSigning = bao.toByteArray();
+        ByteBuffer buffer = ByteBuffer.allocate(protoHeader.getChain().size() + protoHeader.getVersion().size()
+                + protoHeader.getType().size() + protoHeader.getPrevBlockHash().size()
+                + protoHeader.getMerkleRoot().size() + protoHeader.getStateRoot().size() + Long.BYTES * 3);
+        protoHeader.getChain().copyTo(buffer);
+        protoHeader.getVersion().copyTo(buffer);
+        protoHeader.getType().copyTo(buffer);
+        protoHeader.getPrevBlockHash().copyTo(buffer);
+        buffer.putLong(getIndex());
+        buffer.putLong(getTimestamp());
+        protoHeader.getMerkleRoot().copyTo(buffer);
+        protoHeader.getStateRoot().copyTo(buffer);
+        buffer.putLong(getBodyLength());
+
+        this.binaryForSigning = buffer.array();
     }
 
     @Override
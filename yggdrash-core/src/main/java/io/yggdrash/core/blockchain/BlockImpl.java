@@ -23,6 +23,7 @@ import com.google.protobuf.InvalidProtocolBufferException;
 import io.yggdrash.common.Sha3Hash;
 import io.yggdrash.common.config.Constants;
 import io.yggdrash.common.crypto.ECKey;
+import io.yggdrash.common.crypto.Sha3Hasher;
 import io.yggdrash.common.util.TimeUtils;
 import io.yggdrash.core.consensus.ConsensusBlock;
 import io.yggdrash.core.exception.InvalidSignatureException;
@@ -32,8 +33,6 @@ import io.yggdrash.core.wallet.Wallet;
 import io.yggdrash.proto.Proto;
 import org.spongycastle.util.encoders.Hex;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.security.SignatureException;
 import java.util.Arrays;
 import java.util.List;
@@ -150,15 +149,10 @@ public class BlockImpl implements Block, ProtoObject<Proto.Block> {
     }
 
     private void setHash() {
-        ByteArrayOutputStream bao = new ByteArrayOutputStream();
-
-        try {
-            bao.write(header.getBinaryForSigning());
-            bao.write(getSignature());
-        } catch (IOException e) {
-            throw new NotValidateException();
-        }
-        this.hash = new Sha3Hash(bao.toByteArray());
+        Sha3Hasher hasher = Sha3Hasher.get();
+        header.updateForSigning(hasher);
+        hasher.update(protoBlock.getSignature().asReadOnlyByteBuffer());
+        this.hash = Sha3Hash.createByHashed(hasher.digest());
     }
 
     @Override
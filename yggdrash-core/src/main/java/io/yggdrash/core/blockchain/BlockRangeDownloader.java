@@ -0,0 +1,260 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.yggdrash.core.blockchain;
+
+import io.yggdrash.common.config.Constants;
+import io.yggdrash.core.consensus.ConsensusBlock;
+import io.yggdrash.core.net.NodeStatus;
+import io.yggdrash.core.p2p.BlockChainHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Downloads a range of blocks from several peers at the same time.
+ * The range is split into chunks which are requested from the peers in turn. The received chunks are kept
+ * in a bounded window ordered by height and imported in sequence. A chunk is requested again from another
+ * peer when its peer is too slow or returns blocks that can not be imported. An import that does not raise
+ * the height counts as a failed try of the peer, and the download stops once every peer has failed the chunk.
+ */
+public class BlockRangeDownloader {
+    private static final Logger log = LoggerFactory.getLogger(BlockRangeDownloader.class);
+
+    static final long CHUNK_SIZE = 100;
+    private static final int CHUNKS_PER_PEER = 4;
+    private static final long CHUNK_TIMEOUT = Constants.TIMEOUT_BLOCKLIST * 2;
+
+    private final NodeStatus nodeStatus;
+    private final BlockChain blockChain;
+    private final List<BlockChainHandler> handlerList;
+    private final long chunkSize;
+    private final long timeoutMillis;
+
+    private final Set<BlockChainHandler> badPeers = new HashSet<>();
+    private int nextPeer = 0;
+
+    public BlockRangeDownloader(NodeStatus nodeStatus, BlockChain blockChain, List<BlockChainHandler> handlerList) {
+        this(nodeStatus, blockChain, handlerList, CHUNK_SIZE, TimeUnit.SECONDS.toMillis(CHUNK_TIMEOUT));
+    }
+
+    BlockRangeDownloader(NodeStatus nodeStatus, BlockChain blockChain, List<BlockChainHandler> handlerList,
+                         long chunkSize, long timeoutMillis) {
+        this.nodeStatus = nodeStatus;
+        this.blockChain = blockChain;
+        this.handlerList = handlerList;
+        this.chunkSize = chunkSize;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Downloads and imports the blocks up to the target index.
+     *
+     * @param targetIndex the last block index to download
+     * @return the last block index after the download
+     */
+    public long download(long targetIndex) {
+        long nextRequest = getLastIndex() + 1;
+        if (nextRequest > targetIndex || handlerList.isEmpty()) {
+            return getLastIndex();
+        }
+        log.debug("Download blocks ({} - {}) from {} peers", nextRequest, targetIndex, handlerList.size());
+
+        int windowSize = handlerList.size() * CHUNKS_PER_PEER;
+        TreeMap<Long, Chunk> window = new TreeMap<>();
+        ExecutorService executor = Executors.newFixedThreadPool(handlerList.size(), r -> {
+            Thread thread = new Thread(r, "block-downloader");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            while (getLastIndex() < targetIndex) {
+                if (nodeStatus.isUpdateStatus()) {
+                    log.debug("Download interrupted. Node is updating now...");
+                    break;
+                }
+
+                while (window.size() < windowSize && nextRequest <= targetIndex) {
+                    Chunk chunk = new Chunk(nextRequest, Math.min(chunkSize, targetIndex - nextRequest + 1));
+                    if (!request(executor, chunk)) {
+                        break;
+                    }
+                    window.put(chunk.offset, chunk);
+                    nextRequest = chunk.end();
+                }
+
+                Map.Entry<Long, Chunk> head = window.pollFirstEntry();
+                if (head == null) {
+                    log.debug("No peer to download the block ({})", nextRequest);
+                    break;
+                }
+
+                Chunk chunk = head.getValue();
+                long lastIndex = getLastIndex();
+                if (!importChunk(chunk) || getLastIndex() <= lastIndex) {
+                    chunk.fail();
+                }
+
+                // The rest of a partial or a failed chunk becomes the next head of the window
+                long from = getLastIndex() + 1;
+                if (from < chunk.end()) {
+                    Chunk rest = chunk.rest(from);
+                    if (!request(executor, rest)) {
+                        log.debug("No peer to download the block ({}). tried={}", from, rest.tried.size());
+                        break;
+                    }
+                    window.put(rest.offset, rest);
+                }
+            }
+        } finally {
+            window.values().forEach(chunk -> chunk.future.cancel(true));
+            executor.shutdownNow();
+        }
+
+        return getLastIndex();
+    }
+
+    private boolean request(ExecutorService executor, Chunk chunk) {
+        BlockChainHandler peerHandler = selectPeer(chunk);
+        if (peerHandler == null) {
+            return false;
+        }
+        BranchId branchId = blockChain.getBranchId();
+        chunk.peerHandler = peerHandler;
+        chunk.future = executor.submit(() -> {
+            Future<List<ConsensusBlock>> futureBlockList = peerHandler.syncBlock(branchId, chunk.offset, chunk.count);
+            if (futureBlockList == null) {
+                throw new IllegalStateException("syncBlock is failed");
+            }
+            return futureBlockList.get();
+        });
+        return true;
+    }
+
+    private BlockChainHandler selectPeer(Chunk chunk) {
+        for (int i = 0; i < handlerList.size(); i++) {
+            BlockChainHandler peerHandler = handlerList.get((nextPeer + i) % handlerList.size());
+            if (badPeers.contains(peerHandler) || chunk.tried.contains(peerHandler)
+                    || peerHandler.getPeer().getBestBlock() < chunk.offset) {
+                continue;
+            }
+            nextPeer = (nextPeer + i + 1) % handlerList.size();
+            return peerHandler;
+        }
+        return null;
+    }
+
+    private boolean importChunk(Chunk chunk) {
+        List<ConsensusBlock> blockList;
+        try {
+            blockList = chunk.future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.debug("Download blocks ({}) timed out. from={}", chunk.offset, chunk.getYnodeUri());
+            chunk.future.cancel(true);
+            return false;
+        } catch (ExecutionException e) {
+            log.debug("Download blocks ({}) is failed. {}", chunk.offset, e.getMessage());
+            badPeers.add(chunk.peerHandler);
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+
+        if (!isValidRange(chunk, blockList)) {
+            log.debug("Invalid blocks ({}) received. from={}", chunk.offset, chunk.getYnodeUri());
+            badPeers.add(chunk.peerHandler);
+            return false;
+        }
+        if (blockList.size() > chunk.count) {
+            blockList = blockList.subList(0, (int) chunk.count);
+        }
+
+        Map<String, List<String>> errorLogs = blockChain.addBlocks(blockList);
+        if (!errorLogs.isEmpty()) {
+            log.debug("addBlocks() is failed. {} from={}", errorLogs, chunk.getYnodeUri());
+            badPeers.add(chunk.peerHandler);
+            return false;
+        }
+        return true;
+    }
+
+    private boolean isValidRange(Chunk chunk, List<ConsensusBlock> blockList) {
+        if (blockList == null || blockList.isEmpty()) {
+            return false;
+        }
+        long index = chunk.offset;
+        for (ConsensusBlock block : blockList) {
+            if (block.getIndex() != index++) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long getLastIndex() {
+        return blockChain.getBlockChainManager().getLastIndex();
+    }
+
+    private static class Chunk {
+        private final long offset;
+        private final long count;
+        private final Set<BlockChainHandler> tried;
+        private BlockChainHandler peerHandler;
+        private Future<List<ConsensusBlock>> future;
+
+        Chunk(long offset, long count) {
+            this(offset, count, new HashSet<>());
+        }
+
+        private Chunk(long offset, long count, Set<BlockChainHandler> tried) {
+            this.offset = offset;
+            this.count = count;
+            this.tried = tried;
+        }
+
+        long end() {
+            return offset + count;
+        }
+
+        void fail() {
+            tried.add(peerHandler);
+        }
+
+        /**
+         * The remaining blocks from the index. The peers which failed the chunk are not tried again.
+         */
+        Chunk rest(long from) {
+            return new Chunk(from, end() - from, tried);
+        }
+
+        String getYnodeUri() {
+            return peerHandler.getPeer().getYnodeUri();
+        }
+    }
+}
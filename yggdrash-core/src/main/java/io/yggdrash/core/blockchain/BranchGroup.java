@@ -20,6 +20,7 @@ import com.google.gson.JsonObject;
 import io.yggdrash.common.Sha3Hash;
 import io.yggdrash.common.contract.ContractVersion;
 import io.yggdrash.common.exception.FailedOperationException;
+import io.yggdrash.common.store.trie.StateProof;
 import io.yggdrash.contract.core.Receipt;
 import io.yggdrash.core.blockchain.osgi.ContractConstants;
 import io.yggdrash.core.consensus.ConsensusBlock;
@@ -182,4 +183,13 @@ public class BranchGroup {
         }
     }
 
+    public StateProof getStateProof(BranchId branchId, String contractVersion, String key) {
+        BlockChain chain = getBranch(branchId);
+        try {
+            return chain.getContractManager().getStateProof(contractVersion, key);
+        } catch (Exception e) {
+            throw new FailedOperationException(e);
+        }
+    }
+
 }
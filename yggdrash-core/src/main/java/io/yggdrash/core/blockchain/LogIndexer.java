@@ -12,6 +12,7 @@
 
 package io.yggdrash.core.blockchain;
 
+import io.yggdrash.core.store.BlockCommit;
 import io.yggdrash.core.store.LogStore;
 import io.yggdrash.core.store.ReceiptStore;
 import org.slf4j.Logger;
@@ -40,6 +41,14 @@ public class LogIndexer {
         IntStream.range(0, size).mapToObj(i -> String.format(keyFormat, txId, i)).forEach(logStore::put);
     }
 
+    /**
+     * Adds the log keys of a receipt to the block commit instead of storing them one by one.
+     */
+    public void put(String txId, int size, BlockCommit commit) {
+        log.trace("put logs : txId = {}, size = {}", txId, size);
+        IntStream.range(0, size).mapToObj(i -> String.format(keyFormat, txId, i)).forEach(commit::addLog);
+    }
+
     public String get(long logIndex) { //TODO check log contained
         return logStore.get(logIndex);
     }
@@ -19,15 +19,14 @@ package io.yggdrash.core.blockchain;
 import com.google.gson.JsonObject;
 import com.google.protobuf.ByteString;
 import com.google.protobuf.InvalidProtocolBufferException;
-import io.yggdrash.common.crypto.HashUtil;
 import io.yggdrash.common.crypto.HexUtil;
+import io.yggdrash.common.crypto.Sha3Hasher;
 import io.yggdrash.common.utils.ByteUtil;
 import io.yggdrash.core.exception.NotValidateException;
 import io.yggdrash.proto.Proto;
 import org.spongycastle.util.encoders.Hex;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 public class TransactionHeader implements ProtoObject<Proto.Transaction.Header> {
@@ -115,7 +114,21 @@ public class TransactionHeader implements ProtoObject<Proto.Transaction.Header>
      * @return hash of header
      */
     public byte[] getHashForSigning() {
-        return HashUtil.sha3(getBinaryForSigning());
+        Sha3Hasher hasher = Sha3Hasher.get();
+        updateForSigning(hasher);
+        return hasher.digest();
+    }
+
+    /**
+     * Streams the binary data for signing into the hasher without copying the fields.
+     */
+    void updateForSigning(Sha3Hasher hasher) {
+        hasher.update(protoHeader.getChain().asReadOnlyByteBuffer())
+                .update(protoHeader.getVersion().asReadOnlyByteBuffer())
+                .update(protoHeader.getType().asReadOnlyByteBuffer())
+                .update(getTimestamp())
+                .update(protoHeader.getBodyHash().asReadOnlyByteBuffer())
+                .update(getBodyLength());
     }
 
     /**
@@ -132,19 +145,16 @@ public class TransactionHeader implements ProtoObject<Proto.Transaction.Header>
     }
 
     private void setBinaryForSigning() {
-        ByteArrayOutputStream bao = new ByteArrayOutputStream();
-        try {
-            bao.write(getChain());
-            bao.write(getVersion());
-            bao.write(getType());
-            bao.write(ByteUtil.longToBytes(getTimestamp()));
-            bao.write(getBodyHash());
-            bao.write(ByteUtil.longToBytes(getBodyLength()));
-        } catch (IOException e) {
-            throw new NotValidateException();
-        }
-
-        this.binaryForSigning = bao.toByteArray();
+        ByteBuffer buffer = ByteBuffer.allocate(protoHeader.getChain().size() + protoHeader.getVersion().size()
+                + protoHeader.getType().size() + protoHeader.getBodyHash().size() + Long.BYTES * 2);
+        protoHeader.getChain().copyTo(buffer);
+        protoHeader.getVersion().copyTo(buffer);
+        protoHeader.getType().copyTo(buffer);
+        buffer.putLong(getTimestamp());
+        protoHeader.getBodyHash().copyTo(buffer);
+        buffer.putLong(getBodyLength());
+
+        this.binaryForSigning = buffer.array();
     }
 
     @Override
@@ -25,6 +25,7 @@ import io.yggdrash.common.RawTransaction;
 import io.yggdrash.common.Sha3Hash;
 import io.yggdrash.common.config.Constants;
 import io.yggdrash.common.crypto.ECKey;
+import io.yggdrash.common.crypto.Sha3Hasher;
 import io.yggdrash.core.exception.InvalidSignatureException;
 import io.yggdrash.core.exception.NotValidateException;
 import io.yggdrash.core.exception.WrongStructuredException;
@@ -52,6 +53,8 @@ public class TransactionImpl implements Transaction {
     private final transient TransactionHeader header;
     private final transient TransactionBody body;
     private transient Sha3Hash hash;
+    private transient byte[] pubKey;
+    private transient InvalidSignatureException recoveryFailure;
     private transient Address address;
 
     /**
@@ -137,25 +140,33 @@ public class TransactionImpl implements Transaction {
     }
 
     private void setHash() {
-        ByteArrayOutputStream bao = new ByteArrayOutputStream();
-
-        try {
-            bao.write(header.getBinaryForSigning());
-            bao.write(getSignature());
-        } catch (IOException e) {
-            throw new NotValidateException();
-        }
-        this.hash = new Sha3Hash(bao.toByteArray());
+        Sha3Hasher hasher = Sha3Hasher.get();
+        header.updateForSigning(hasher);
+        hasher.update(protoTransaction.getSignature().asReadOnlyByteBuffer());
+        this.hash = Sha3Hash.createByHashed(hasher.digest());
     }
 
     @Override
     public byte[] getPubKey() {
-        ECKey.ECDSASignature ecdsaSignature = new ECKey.ECDSASignature(getSignature());
+        if (pubKey == null) {
+            setPubKey();
+        }
+        return pubKey;
+    }
+
+    private void setPubKey() {
+        // Recovering the public key is expensive, so it is recovered only once per transaction.
+        // The failure is kept as well, so an invalid signature is not recovered again.
+        if (recoveryFailure != null) {
+            throw new InvalidSignatureException(recoveryFailure.getCause());
+        }
         try {
+            ECKey.ECDSASignature ecdsaSignature = new ECKey.ECDSASignature(getSignature());
             ECKey ecKeyPub = ECKey.signatureToKey(this.header.getHashForSigning(), ecdsaSignature);
-            return ecKeyPub.getPubKey();
-        } catch (SignatureException e) {
-            throw new InvalidSignatureException(e);
+            this.pubKey = ecKeyPub.getPubKey();
+        } catch (SignatureException | IllegalArgumentException e) {
+            recoveryFailure = new InvalidSignatureException(e);
+            throw recoveryFailure;
         }
     }
 
@@ -6,105 +6,61 @@ import io.yggdrash.contract.core.annotation.ContractQuery;
 import io.yggdrash.contract.core.annotation.InvokeTransaction;
 import io.yggdrash.contract.core.channel.ContractMethodType;
 
+import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.Arrays;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 public class ContractCacheImpl implements ContractCache {
 
-    //Map<contractVersion, Map<methodName, method>>
-    private final Map<String, Map<String, Method>> invokeTransactionMethods = new HashMap<>();
-    //Map<contractVersion, Map<methodName, method>>
-    private final Map<String, Map<String, Method>> queryMethods = new HashMap<>();
+    //Map<contractVersion, Map<methodType, Map<methodName, invoker>>>
+    private final Map<String, Map<ContractMethodType, Map<String, ContractInvoker>>> invokers =
+            new ConcurrentHashMap<>();
 
-    private final Map<String, Map<String, Method>> contractChannelMethods = new HashMap<>();
-
-    private final Map<String, Map<String, Method>> endBlockMethods = new HashMap<>();
-
-    Map<String, Map<String, Method>> getInvokeTransactionMethods() {
-        return invokeTransactionMethods;
-    }
-
-    Map<String, Map<String, Method>> getQueryMethods() {
-        return queryMethods;
-    }
-
-    Map<String, Map<String, Method>> getChannelMethods() {
-        return contractChannelMethods;
-    }
-
-    Map<String, Map<String, Method>> getEndBlockMethods() {
-        return endBlockMethods;
+    @Override
+    public void cacheContract(String contractName, Object service) {
+        invokers.computeIfAbsent(contractName, k -> createInvokers(service));
     }
 
-    public void cacheContract(String contractName, Object service) {
+    private static Map<ContractMethodType, Map<String, ContractInvoker>> createInvokers(Object service) {
         List<Method> serviceMethods = Arrays.stream(service.getClass().getDeclaredMethods())
                 .filter(method -> Modifier.isPublic(method.getModifiers()))
                 .collect(Collectors.toList());
 
-        Map<String, Method> invokeMap = invokeTransactionMethods.computeIfAbsent(contractName,
-                k -> serviceMethods.stream()
-                        .filter(method -> method.isAnnotationPresent(InvokeTransaction.class))
-                        .collect(Collectors.toMap(Method::getName, m -> m)));
-        invokeTransactionMethods.put(contractName, invokeMap);
-
-        Map<String, Method> channelMap = contractChannelMethods.computeIfAbsent(contractName,
-                k -> serviceMethods.stream()
-                        .filter(method -> method.isAnnotationPresent(ContractChannelMethod.class))
-                        .collect(Collectors.toMap(Method::getName, m -> m)));
-        contractChannelMethods.put(contractName, channelMap);
-
-        Map<String, Method> queryMethodMap = queryMethods.computeIfAbsent(contractName,
-                k -> serviceMethods.stream()
-                        .filter(method -> method.isAnnotationPresent(ContractQuery.class))
-                        .collect(Collectors.toMap(Method::getName, m -> m)));
-        queryMethods.put(contractName, queryMethodMap);
+        Map<ContractMethodType, Map<String, ContractInvoker>> typeMap = new EnumMap<>(ContractMethodType.class);
+        typeMap.put(ContractMethodType.INVOKE, createInvokers(serviceMethods, InvokeTransaction.class));
+        typeMap.put(ContractMethodType.QUERY, createInvokers(serviceMethods, ContractQuery.class));
+        typeMap.put(ContractMethodType.END_BLOCK, createInvokers(serviceMethods, ContractEndBlock.class));
+        typeMap.put(ContractMethodType.CHANNEL_METHOD, createInvokers(serviceMethods, ContractChannelMethod.class));
+        return typeMap;
+    }
 
-        Map<String, Method> endBlockMap = endBlockMethods.computeIfAbsent(contractName,
-                k -> serviceMethods.stream()
-                        .filter(method -> method.isAnnotationPresent(ContractEndBlock.class))
-                        .collect(Collectors.toMap(Method::getName, m -> m)));
-        endBlockMethods.put(contractName, endBlockMap);
+    private static Map<String, ContractInvoker> createInvokers(List<Method> serviceMethods,
+                                                               Class<? extends Annotation> annotation) {
+        return serviceMethods.stream()
+                .filter(method -> method.isAnnotationPresent(annotation))
+                .collect(Collectors.toMap(Method::getName, ContractInvoker::new));
     }
 
     @Override
-    public Map<String, Method> getContractMethodMap(String contractVersion, ContractMethodType type, Object service) {
-        switch (type) {
-            case QUERY:
-                if (this.queryMethods.get(contractVersion) == null) {
-                    this.cacheContract(contractVersion, service);
-                }
-                return this.queryMethods.get(contractVersion);
-            case INVOKE:
-                if (this.invokeTransactionMethods.get(contractVersion) == null) {
-                    this.cacheContract(contractVersion, service);
-                }
-                return this.invokeTransactionMethods.get(contractVersion);
-            case END_BLOCK:
-                if (this.endBlockMethods.get(contractVersion) == null) {
-                    this.cacheContract(contractVersion, service);
-                }
-                return this.endBlockMethods.get(contractVersion);
-            case CHANNEL_METHOD:
-                if (this.contractChannelMethods.get(contractVersion) == null) {
-                    this.cacheContract(contractVersion, service);
-                }
-                return this.contractChannelMethods.get(contractVersion);
-            default:
-                return new HashMap<>();
+    public Map<String, ContractInvoker> getContractMethodMap(
+            String contractVersion, ContractMethodType type, Object service) {
+        Map<ContractMethodType, Map<String, ContractInvoker>> typeMap = invokers.get(contractVersion);
+        if (typeMap == null) {
+            typeMap = invokers.computeIfAbsent(contractVersion, k -> createInvokers(service));
         }
+        return typeMap.getOrDefault(type, Collections.emptyMap());
     }
 
     @Override
     public void flush(String contractVersion) {
-        getInvokeTransactionMethods().remove(contractVersion);
-        getQueryMethods().remove(contractVersion);
-        getChannelMethods().remove(contractVersion);
-        getEndBlockMethods().remove(contractVersion);
+        invokers.remove(contractVersion);
     }
 
 }
@@ -9,7 +9,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.util.Map;
 
 public class ContractChannelCoupler implements ContractChannel {
@@ -32,22 +31,16 @@ public class ContractChannelCoupler implements ContractChannel {
             return null;
         }
 
-        Method method = cache.getContractMethodMap(contractVersion, type, service).get(methodName);
+        ContractInvoker invoker = cache.getContractMethodMap(contractVersion, type, service).get(methodName);
 
-        if (method == null) {
+        if (invoker == null) {
             log.error("Not found contract method: {}", methodName);
             return null;
         }
 
         Object result = null;
         try {
-            if (method.getParameterCount() == 0) {
-                result = method.invoke(service);
-            } else {
-                result = method.invoke(service, params);
-            }
-        } catch (IllegalAccessException e) {
-            log.error("CallContractMethod : {} and bundle {} ", methodName, contractVersion);
+            result = invoker.invoke(service, params);
         } catch (InvocationTargetException e) {
             log.error("{} occurred error in {} caused by {}", methodName, contractVersion, e.getCause());
         }
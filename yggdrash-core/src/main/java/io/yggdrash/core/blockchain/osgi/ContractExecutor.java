@@ -11,15 +11,18 @@ import io.yggdrash.contract.core.annotation.ContractChannelField;
 import io.yggdrash.contract.core.annotation.ContractReceipt;
 import io.yggdrash.contract.core.annotation.ContractStateStore;
 import io.yggdrash.contract.core.channel.ContractMethodType;
+import io.yggdrash.contract.core.store.TypedStore;
 import io.yggdrash.core.blockchain.LogIndexer;
 import io.yggdrash.core.blockchain.Transaction;
 import io.yggdrash.core.consensus.ConsensusBlock;
 import io.yggdrash.core.exception.errorcode.SystemError;
 import io.yggdrash.core.runtime.result.BlockRuntimeResult;
 import io.yggdrash.core.runtime.result.TransactionRuntimeResult;
+import io.yggdrash.core.store.BlockCommit;
 import io.yggdrash.core.store.ContractStore;
-import io.yggdrash.core.store.ReceiptStore;
 import io.yggdrash.core.store.StoreAdapter;
+import io.yggdrash.core.store.TempStateStore;
+import io.yggdrash.core.store.TxStateOverlay;
 import org.apache.commons.codec.binary.Base64;
 import org.osgi.framework.Bundle;
 import org.slf4j.Logger;
@@ -28,34 +31,69 @@ import org.slf4j.LoggerFactory;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
 
 public class ContractExecutor {
     private static final Logger log = LoggerFactory.getLogger(ContractExecutor.class);
 
     private static final String CONTACT_VERSION = "contractVersion";
+    // Smaller blocks are executed serially
+    private static final int PARALLEL_THRESHOLD = 16;
+    private static final int ADMITTED_TX_CACHE_SIZE = 10000;
+    private static final Set<String> BRANCH_KEYS = Collections.singleton(TxStateOverlay.BRANCH_KEY);
 
     private final ReentrantLock locker = new ReentrantLock();
 
     private final ContractStore contractStore;
     private final ContractCacheImpl contractCache;
     private final LogIndexer logIndexer;
+    private final Map<Object, String> namespaces = new ConcurrentHashMap<>(); // service => namespace of state
+    private final ExecutorService txExecutor;
+    // Results of the admission checks, guarded by the locker
+    private final Map<String, AdmittedTx> admittedTxs = new LinkedHashMap<String, AdmittedTx>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, AdmittedTx> eldest) {
+            return size() > ADMITTED_TX_CACHE_SIZE;
+        }
+    };
+    private long admittedHeight = -1;
 
     private ReceiptAdapter trAdapter;
     private ContractChannelCoupler coupler;
 
 
     ContractExecutor(ContractStore contractStore, LogIndexer logIndexer) {
+        this(contractStore, logIndexer, 0);
+    }
+
+    /**
+     * @param parallel number of threads executing the transactions of a block, 0 executes them serially
+     */
+    ContractExecutor(ContractStore contractStore, LogIndexer logIndexer, int parallel) {
         this.contractStore = contractStore;
         this.logIndexer = logIndexer;
         this.contractCache = new ContractCacheImpl();
         this.trAdapter = new ReceiptAdapter();
         this.coupler = new ContractChannelCoupler();
+        this.txExecutor = parallel > 0 ? Executors.newFixedThreadPool(parallel, r -> {
+            Thread thread = new Thread(r, "contract-executor");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
     }
 
     void injectNodeContract(Object service) {
@@ -67,6 +105,8 @@ public class ContractExecutor {
     }
 
     private void inject(Object service, String namespace) {
+        clearAdmittedTxs();
+        namespaces.put(service, namespace);
         Field[] fields = service.getClass().getDeclaredFields();
 
         for (Field field : fields) {
@@ -77,11 +117,16 @@ public class ContractExecutor {
                     if (annotation.annotationType().equals(ContractStateStore.class)) {
                         log.trace("service name : {} \t namespace : {}", service.getClass().getName(), namespace);
                         StoreAdapter storeAdapter = new StoreAdapter(contractStore.getTmpStateStore(), namespace);
-                        field.set(service, storeAdapter); //default => tmpStateStore
+                        if (field.getType().equals(TypedStore.class)) {
+                            field.set(service, new TypedStore(storeAdapter));
+                        } else {
+                            field.set(service, storeAdapter); //default => tmpStateStore
+                        }
                     }
 
                     if (annotation.annotationType().equals(ContractBranchStateStore.class)) {
-                        field.set(service, contractStore.getBranchStore());
+                        field.set(service, new TxBranchStateStore(
+                                contractStore.getBranchStore(), contractStore.getTmpStateStore()));
                     }
 
                     if (annotation.annotationType().equals(ContractReceipt.class)) {
@@ -105,11 +150,16 @@ public class ContractExecutor {
         return new String(Base64.encodeBase64(bundleSymbolicSha3));
     }
 
+    String stateKey(Map<String, Object> serviceMap, String contractVersion, String key) throws ExecutorException {
+        Object service = getService(serviceMap, contractVersion);
+        return String.format("%s%s", namespaces.get(service), key);
+    }
+
     Object query(Map<String, Object> serviceMap, String contractVersion, String methodName, JsonObject params) throws Exception {
         Object service = getService(serviceMap, contractVersion);
-        Method method = getMethod(service, contractVersion, ContractMethodType.QUERY, methodName);
+        ContractInvoker invoker = getInvoker(service, contractVersion, ContractMethodType.QUERY, methodName);
 
-        return invokeMethod(service, method, params);
+        return invoker.invoke(service, params);
     }
 
     private TransactionRuntimeResult getTransactionRuntimeResult(Map<String, Object> serviceMap, Transaction tx) {
@@ -119,19 +169,17 @@ public class ContractExecutor {
         try {
             txRuntimeResult = new TransactionRuntimeResult(tx);
             Receipt receipt = createTxReceipt(tx, null);
-            Set<Map.Entry<String, JsonObject>> result = null;
-            try {
-                result = invokeTx(serviceMap, tx, receipt);
-            } catch (ExecutorException e) {
-                exceptionHandler(e, receipt);
-            }
+            // The overlay keeps the changes away from the state and records the keys read by the transaction
+            TxStateOverlay overlay = invokeTx(serviceMap, tx, receipt, new TxStateOverlay(true));
+            txRuntimeResult.setChangeValues(overlay.getWriteSet().entrySet());
+            txRuntimeResult.setReceipt(receipt);
 
-            if (result != null) {
-                txRuntimeResult.setChangeValues(result);
+            // The result depending on the block or the branch meta info can't be reused in another block
+            if (receipt.getStatus().equals(ExecuteStatus.SUCCESS) && !trAdapter.isBlockRead()
+                    && !overlay.isConflicted(BRANCH_KEYS)) {
+                validateAdmittedTxs();
+                admittedTxs.put(receipt.getTxId(), new AdmittedTx(overlay, receipt));
             }
-
-            txRuntimeResult.setReceipt(receipt);
-            contractStore.getTmpStateStore().close();
         } finally {
             locker.unlock();
         }
@@ -168,14 +216,28 @@ public class ContractExecutor {
             List<Transaction> txList = nextBlock != null
                     ? nextBlock.getBody().getTransactionList() : blockRuntimeResult.getTxList();
 
+            validateAdmittedTxs();
+            if (txExecutor != null && txList.size() >= PARALLEL_THRESHOLD) {
+                executeParallel(serviceMap, txList, nextBlock, blockRuntimeResult);
+                return endBlock(serviceMap, blockRuntimeResult);
+            }
+
+            TempStateStore tmpStateStore = contractStore.getTmpStateStore();
             for (Transaction tx : txList) {
                 Receipt receipt = createTxReceipt(tx, nextBlock);
 
                 Set<Map.Entry<String, JsonObject>> result = null;
-                try {
-                    result = invokeTx(serviceMap, tx, receipt);
-                } catch (ExecutorException e) {
-                    exceptionHandler(e, receipt);
+                TxStateOverlay admitted = getAdmittedTx(tx, receipt, tmpStateStore::isConflicted);
+                if (admitted != null) {
+                    tmpStateStore.putAll(admitted.getWriteSet().entrySet());
+                    tmpStateStore.putDeltas(admitted.getDeltaSet());
+                    result = tmpStateStore.changeValues();
+                } else {
+                    try {
+                        result = invokeTx(serviceMap, tx, receipt);
+                    } catch (ExecutorException e) {
+                        exceptionHandler(e, receipt);
+                    }
                 }
 
                 blockRuntimeResult.addReceipt(receipt);
@@ -192,19 +254,140 @@ public class ContractExecutor {
         }
     }
 
+    /**
+     * Executes all transactions speculatively on the state at the start of the block, then commits them
+     * in the block order. A transaction that has read a key written by the previous transactions is executed
+     * again on the calling thread, so the result is the same as the serial execution.
+     * The admission result of a transaction is the same as its speculative execution, so it is not executed.
+     */
+    private void executeParallel(Map<String, Object> serviceMap, List<Transaction> txList,
+                                 ConsensusBlock nextBlock, BlockRuntimeResult blockRuntimeResult) {
+        List<Receipt> receipts = new ArrayList<>(txList.size());
+        List<Future<TxStateOverlay>> speculations = new ArrayList<>(txList.size());
+        for (Transaction tx : txList) {
+            Receipt receipt = createTxReceipt(tx, nextBlock);
+            receipts.add(receipt);
+            TxStateOverlay admitted = getAdmittedTx(tx, receipt, TxStateOverlay::isAborted);
+            speculations.add(admitted != null ? CompletableFuture.completedFuture(admitted)
+                    : txExecutor.submit(() -> invokeTx(serviceMap, tx, receipt, new TxStateOverlay(true))));
+        }
+
+        TempStateStore tmpStateStore = contractStore.getTmpStateStore();
+        Set<String> written = new HashSet<>();
+        // Changes of the failed transactions are kept until the next successful one like the serial execution
+        Map<String, JsonObject> unflushed = new LinkedHashMap<>();
+        for (int i = 0; i < txList.size(); i++) {
+            Receipt receipt = receipts.get(i);
+            TxStateOverlay overlay = getSpeculation(speculations.get(i));
+            if (overlay == null || overlay.isConflicted(written)) {
+                receipt = createTxReceipt(txList.get(i), nextBlock);
+                overlay = invokeTx(serviceMap, txList.get(i), receipt, new TxStateOverlay(false));
+            }
+
+            Map<String, JsonObject> writeSet = overlay.getWriteSet();
+            tmpStateStore.putAll(writeSet.entrySet());
+            tmpStateStore.putDeltas(overlay.getDeltaSet());
+            written.addAll(writeSet.keySet());
+            // The readers of a counter see the additions of the previous transactions
+            written.addAll(overlay.getDeltaSet().keySet());
+            if (overlay.isBranchChanged()) {
+                written.add(TxStateOverlay.BRANCH_KEY);
+            }
+            unflushed.putAll(writeSet);
+
+            blockRuntimeResult.addReceipt(receipt);
+            if (receipt.getStatus().equals(ExecuteStatus.SUCCESS)) {
+                blockRuntimeResult.setBlockResult(unflushed.entrySet());
+                unflushed.clear();
+            } else {
+                log.warn("Error TxId={}, TxLog={}", receipt.getTxId(), receipt.getLog());
+            }
+        }
+    }
+
+    /**
+     * Gets the admission result of the transaction if it can be committed without being executed again.
+     * The keys it has read are not changed by the blocks committed after the admission, which is checked
+     * when the blocks are committed.
+     *
+     * @param tx transaction of the block
+     * @param receipt receipt of the block to be filled with the admission result
+     * @param conflicted checks whether the admission has read a key written by the previous transactions
+     * @return a copy of the admission result, or null if it should be executed
+     */
+    private TxStateOverlay getAdmittedTx(Transaction tx, Receipt receipt, Predicate<TxStateOverlay> conflicted) {
+        AdmittedTx admitted = admittedTxs.get(tx.getHash().toString());
+        if (admitted == null || conflicted.test(admitted.overlay)) {
+            return null;
+        }
+        receipt.setMethod(admitted.receipt.getMethod());
+        receipt.setStatus(admitted.receipt.getStatus());
+        admitted.receipt.getLog().forEach(receipt::addLog);
+        admitted.receipt.getEvents().forEach(receipt::addEvent);
+        return admitted.overlay.copy();
+    }
+
+    /**
+     * Drops the admission results when the state is changed other than by committing a block, e.g. by importing
+     * a state snapshot.
+     */
+    private void validateAdmittedTxs() {
+        long height = contractStore.getBranchStore().getLastExecuteBlockIndex();
+        if (height != admittedHeight) {
+            admittedTxs.clear();
+            admittedHeight = height;
+        }
+    }
+
+    private void clearAdmittedTxs() {
+        locker.lock();
+        try {
+            admittedTxs.clear();
+        } finally {
+            locker.unlock();
+        }
+    }
+
+    private TxStateOverlay getSpeculation(Future<TxStateOverlay> speculation) {
+        try {
+            return speculation.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.debug("Speculative execution is failed. {}", e.getMessage());
+        }
+        return null;
+    }
+
+    private TxStateOverlay invokeTx(Map<String, Object> serviceMap, Transaction tx, Receipt receipt,
+                                    TxStateOverlay overlay) {
+        TempStateStore tmpStateStore = contractStore.getTmpStateStore();
+        tmpStateStore.bind(overlay);
+        try {
+            invokeTx(serviceMap, tx, receipt);
+        } catch (ExecutorException e) {
+            exceptionHandler(e, receipt);
+        } finally {
+            tmpStateStore.unbind();
+        }
+        return overlay;
+    }
+
     BlockRuntimeResult endBlock(Map<String, Object> serviceMap, BlockRuntimeResult result) {
+        // The counters such as the branch fee are settled by the end block methods
+        result.setBlockResult(contractStore.getTmpStateStore().mergeDeltas());
         int i = 0;
         for (String contractVersion : serviceMap.keySet()) {
             Object service = serviceMap.get(contractVersion);
-            List<Method> values = new ArrayList<>(contractCache
+            List<ContractInvoker> values = new ArrayList<>(contractCache
                     .getContractMethodMap(contractVersion, ContractMethodType.END_BLOCK, service)
                     .values());
             if (!values.isEmpty()) {
                 // Each contract has only one endBlock method
-                Method method = values.get(0);
+                ContractInvoker invoker = values.get(0);
                 Receipt receipt = createBlockReceipt(result, contractVersion, i);
                 Set<Map.Entry<String, JsonObject>> changedValues
-                        = invokeMethod(receipt, service, method, new JsonObject());
+                        = invokeMethod(receipt, service, invoker, new JsonObject());
 
                 if (receipt.getStatus().equals(ExecuteStatus.SUCCESS) &&
                         (!changedValues.isEmpty() || !receipt.getEvents().isEmpty())) {
@@ -214,6 +397,10 @@ public class ContractExecutor {
                 }
             }
         }
+        if (!result.getBlockResult().isEmpty()) {
+            // The trie is updated once with all changes of the block
+            result.setStateRoot(contractStore.getStateStore().calculateStateRoot(result.getBlockResult()));
+        }
         contractStore.getTmpStateStore().close();
         return result;
     }
@@ -229,21 +416,22 @@ public class ContractExecutor {
         receipt.setMethod(methodName);
 
         Object service = getService(serviceMap, contractVersion);
-        Method method = getMethod(service, contractVersion, ContractMethodType.INVOKE, methodName);
-        return invokeMethod(receipt, service, method, params);
+        ContractInvoker invoker = getInvoker(service, contractVersion, ContractMethodType.INVOKE, methodName);
+        return invokeMethod(receipt, service, invoker, params);
     }
 
-    private Method getMethod(
+    private ContractInvoker getInvoker(
             Object service, String contractVersion, ContractMethodType methodType, String methodName)
             throws ExecutorException {
-        Method method = contractCache.getContractMethodMap(contractVersion, methodType, service).get(methodName);
+        ContractInvoker invoker =
+                contractCache.getContractMethodMap(contractVersion, methodType, service).get(methodName);
 
-        if (method == null) {
+        if (invoker == null) {
             log.error("Not found contract method: {}", methodName);
             throw new ExecutorException(SystemError.CONTRACT_METHOD_NOT_FOUND);
         }
 
-        return method;
+        return invoker;
     }
 
     private Object getService(Map<String, Object> serviceMap, String contractVersion) throws ExecutorException {
@@ -257,17 +445,12 @@ public class ContractExecutor {
         return service;
     }
 
-    private Object invokeMethod(Object service, Method method, JsonObject params)
-            throws InvocationTargetException, IllegalAccessException {
-        return method.getParameterCount() == 0 ? method.invoke(service) : method.invoke(service, params);
-    }
-
     private Set<Map.Entry<String, JsonObject>> invokeMethod(
-            Receipt receipt, Object service, Method method, JsonObject params) { //=> getRuntimeResult
+            Receipt receipt, Object service, ContractInvoker invoker, JsonObject params) { //=> getRuntimeResult
         trAdapter.setReceipt(receipt);
 
         try {
-            invokeMethod(service, method, params);
+            invoker.invoke(service, params);
         } catch (InvocationTargetException e) {
             log.error("Invoke method error in tx id : {} caused by {}", receipt.getTxId(), e.getCause());
             trAdapter.addLog(e.getCause().getMessage());
@@ -278,29 +461,30 @@ public class ContractExecutor {
         return contractStore.getTmpStateStore().changeValues();
     }
 
-    void commitBlockResult(BlockRuntimeResult result) {
+    void commitBlockResult(BlockRuntimeResult result, BlockCommit commit) {
         locker.lock();
         try {
-            if (!result.getReceipts().isEmpty()) {
-                ReceiptStore receiptStore = contractStore.getReceiptStore();
-                for (Receipt receipt : result.getReceipts()) {
-                    if (receipt.getStatus().equals(ExecuteStatus.SUCCESS)) {
-                        if (receipt.getTxId() == null) { // endBlock
-                            receiptStore.put(receipt.getBlockId(), receipt);
-                            logIndexer.put(receipt.getBlockId(), receipt.getLog().size());
-                        } else {
-                            receiptStore.put(receipt.getTxId(), receipt);
-                            logIndexer.put(receipt.getTxId(), receipt.getLog().size());
-                        }
-                    }
+            for (Receipt receipt : result.getReceipts()) {
+                if (receipt.getStatus().equals(ExecuteStatus.SUCCESS)) {
+                    // endBlock receipt has no txId
+                    String key = receipt.getTxId() == null ? receipt.getBlockId() : receipt.getTxId();
+                    commit.putReceipt(key, receipt);
+                    logIndexer.put(key, receipt.getLog().size(), commit);
                 }
             }
 
             if (!result.getBlockResult().isEmpty()) {
                 result.freeze(); // Set blockHeight of stateRootHash
-                contractStore.getStateStore().updatePatch(result.getBlockResult());
+                commit.putStates(result.getBlockResult(), result.getStateTrieUpdate());
             }
-            contractStore.getTmpStateStore().close(); // Set StateRootHash of TempStateStore
+            commit.commit();
+            contractStore.getTmpStateStore().close();
+
+            // The committed transactions and the admission results that have read the changed keys are dropped
+            result.getReceipts().forEach(receipt -> admittedTxs.remove(receipt.getTxId()));
+            Set<String> changedKeys = result.getBlockResult().keySet();
+            admittedTxs.values().removeIf(admitted -> admitted.overlay.isConflicted(changedKeys));
+            admittedHeight = contractStore.getBranchStore().getLastExecuteBlockIndex();
         } finally {
             locker.unlock();
         }
@@ -346,5 +530,30 @@ public class ContractExecutor {
 
     void flush(String contractVersion) {
         contractCache.flush(contractVersion);
+        clearAdmittedTxs();
+    }
+
+    /**
+     * Forgets the service of a stopped bundle, so the service and its bundle class loader are not kept alive.
+     */
+    void release(Object service) {
+        namespaces.remove(service);
+    }
+
+    void close() {
+        namespaces.clear();
+        if (txExecutor != null) {
+            txExecutor.shutdownNow();
+        }
+    }
+
+    private static class AdmittedTx {
+        private final TxStateOverlay overlay;
+        private final Receipt receipt;
+
+        private AdmittedTx(TxStateOverlay overlay, Receipt receipt) {
+            this.overlay = overlay;
+            this.receipt = receipt;
+        }
     }
 }
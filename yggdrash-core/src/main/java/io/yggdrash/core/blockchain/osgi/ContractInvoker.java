@@ -0,0 +1,55 @@
+package io.yggdrash.core.blockchain.osgi;
+
+import com.google.gson.JsonObject;
+import io.yggdrash.common.exception.FailedOperationException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Invoker of a contract method.
+ * The method is resolved to a MethodHandle of the same shape (service, params) once when the contract is cached,
+ * so a call does not check the access or box the arguments like Method.invoke.
+ */
+public class ContractInvoker {
+    private static final MethodType INVOKER_TYPE =
+            MethodType.methodType(Object.class, Object.class, JsonObject.class);
+
+    private final String name;
+    private final MethodHandle handle;
+
+    ContractInvoker(Method method) {
+        this.name = method.getName();
+        try {
+            method.setAccessible(true);
+            MethodHandle target = MethodHandles.lookup().unreflect(method);
+            if (method.getParameterCount() == 0) {
+                target = MethodHandles.dropArguments(target, 1, JsonObject.class);
+            }
+            this.handle = target.asType(INVOKER_TYPE);
+        } catch (IllegalAccessException | WrongMethodTypeException e) {
+            throw new FailedOperationException("Invalid contract method. " + method.getName());
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Invokes the method of the service. The params are ignored if the method has no parameter.
+     *
+     * @throws InvocationTargetException if the method throws an exception
+     */
+    public Object invoke(Object service, JsonObject params) throws InvocationTargetException {
+        try {
+            return handle.invokeExact(service, params);
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+}
@@ -6,6 +6,7 @@ import io.yggdrash.common.config.Constants;
 import io.yggdrash.common.config.DefaultConfig;
 import io.yggdrash.common.contract.BranchContract;
 import io.yggdrash.common.contract.ContractVersion;
+import io.yggdrash.common.store.trie.StateProof;
 import io.yggdrash.contract.core.ContractEvent;
 import io.yggdrash.contract.core.channel.ContractEventType;
 import io.yggdrash.core.blockchain.BranchId;
@@ -22,6 +23,7 @@ import io.yggdrash.core.consensus.ConsensusBlock;
 import io.yggdrash.core.net.NodeStatus;
 import io.yggdrash.core.runtime.result.BlockRuntimeResult;
 import io.yggdrash.core.runtime.result.TransactionRuntimeResult;
+import io.yggdrash.core.store.BlockCommit;
 import io.yggdrash.core.store.ContractStore;
 import io.yggdrash.core.store.LogStore;
 import org.apache.commons.io.IOUtils;
@@ -77,7 +79,7 @@ public class ContractManager implements ContractEventListener {
         this.systemProperties = systemProperties;
 
         this.logIndexer = new LogIndexer(logStore, contractStore.getReceiptStore());
-        this.contractExecutor = new ContractExecutor(contractStore, logIndexer);
+        this.contractExecutor = new ContractExecutor(contractStore, logIndexer, defaultConfig.getContractParallel());
 
         this.bundleService = bundleService;
         this.defaultConfig = defaultConfig;
@@ -95,7 +97,17 @@ public class ContractManager implements ContractEventListener {
     }
 
     public void commitBlockResult(BlockRuntimeResult result) {
-        contractExecutor.commitBlockResult(result);
+        commitBlockResult(result, contractStore.newBlockCommit());
+    }
+
+    /**
+     * Adds the receipts, logs and state of the result to the block commit and commits it.
+     *
+     * @param result execution result of a block
+     * @param commit unit of work of the block
+     */
+    public void commitBlockResult(BlockRuntimeResult result, BlockCommit commit) {
+        contractExecutor.commitBlockResult(result, commit);
     }
 
     @Override
@@ -283,7 +295,10 @@ public class ContractManager implements ContractEventListener {
         } else {
             bundleService.stop(contractVersion);
             bundleService.uninstall(contractVersion);
-            serviceMap.remove(contractVersion.toString());
+            Object service = serviceMap.remove(contractVersion.toString());
+            if (service != null) {
+                contractExecutor.release(service);
+            }
             contractExecutor.flush(contractVersion.toString());
         }
     }
@@ -314,7 +329,10 @@ public class ContractManager implements ContractEventListener {
 
     private void registerServiceMap(ContractVersion contractVersion, Bundle bundle) {
         Object service = bundleService.getBundleService(bundle);
-        this.serviceMap.put(contractVersion.toString(), service);
+        Object previous = this.serviceMap.put(contractVersion.toString(), service);
+        if (previous != null && previous != service) {
+            contractExecutor.release(previous);
+        }
     }
 
     // bundle service actions.
@@ -374,6 +392,18 @@ public class ContractManager implements ContractEventListener {
         return contractExecutor.query(serviceMap, contractVersion, methodName, params);
     }
 
+    /**
+     * Gets the merkle proof of the contract state against the committed state root.
+     *
+     * @param contractVersion version of the contract that owns the state
+     * @param key state key of the contract
+     * @return proof of the state
+     */
+    public StateProof getStateProof(String contractVersion, String key) throws ExecutorException {
+        String stateKey = contractExecutor.stateKey(serviceMap, contractVersion, key);
+        return contractStore.getStateStore().getProof(stateKey);
+    }
+
     public Sha3Hash getOriginStateRootHash() {
         return contractStore.getStateStore().contains("stateRoot")
                 ? new Sha3Hash(contractStore.getStateStore().get("stateRoot").get("stateHash").getAsString())
@@ -457,6 +487,7 @@ public class ContractManager implements ContractEventListener {
     }
 
     public void close() {
+        contractExecutor.close();
         contractStore.close();
         logStore.close();
     }
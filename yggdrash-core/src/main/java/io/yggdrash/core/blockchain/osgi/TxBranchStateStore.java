@@ -0,0 +1,121 @@
+package io.yggdrash.core.blockchain.osgi;
+
+import io.yggdrash.common.Sha3Hash;
+import io.yggdrash.common.contract.BranchContract;
+import io.yggdrash.common.contract.vo.dpoa.ValidatorSet;
+import io.yggdrash.common.store.BranchStateStore;
+import io.yggdrash.core.store.BranchStore;
+import io.yggdrash.core.store.TempStateStore;
+import io.yggdrash.core.store.TxStateOverlay;
+
+import java.util.List;
+
+/**
+ * BranchStateStore injected into the contracts.
+ * The branch meta info is tracked as a single key in the overlay of the executing transaction.
+ * The changes of the branch can not be kept in the overlay, so a speculative transaction that changes it
+ * is aborted and executed again in the block order.
+ */
+class TxBranchStateStore implements BranchStateStore {
+    private final BranchStore branchStore;
+    private final TempStateStore tempStateStore;
+
+    TxBranchStateStore(BranchStore branchStore, TempStateStore tempStateStore) {
+        this.branchStore = branchStore;
+        this.tempStateStore = tempStateStore;
+    }
+
+    private void read() {
+        TxStateOverlay overlay = tempStateStore.getOverlay();
+        if (overlay != null) {
+            overlay.addRead(TxStateOverlay.BRANCH_KEY);
+        }
+    }
+
+    @Override
+    public Long getLastExecuteBlockIndex() {
+        read();
+        synchronized (branchStore) {
+            return branchStore.getLastExecuteBlockIndex();
+        }
+    }
+
+    @Override
+    public Sha3Hash getLastExecuteBlockHash() {
+        read();
+        synchronized (branchStore) {
+            return branchStore.getLastExecuteBlockHash();
+        }
+    }
+
+    @Override
+    public Sha3Hash getGenesisBlockHash() {
+        read();
+        synchronized (branchStore) {
+            return branchStore.getGenesisBlockHash();
+        }
+    }
+
+    @Override
+    public Sha3Hash getBranchIdHash() {
+        read();
+        synchronized (branchStore) {
+            return branchStore.getBranchIdHash();
+        }
+    }
+
+    @Override
+    public ValidatorSet getValidators() {
+        read();
+        synchronized (branchStore) {
+            return branchStore.getValidators();
+        }
+    }
+
+    @Override
+    public void setValidators(ValidatorSet validatorSet) {
+        TxStateOverlay overlay = tempStateStore.getOverlay();
+        if (overlay != null) {
+            if (overlay.isSpeculative()) {
+                overlay.abort();
+                return;
+            }
+            overlay.markBranchChanged();
+        }
+        synchronized (branchStore) {
+            branchStore.setValidators(validatorSet);
+        }
+    }
+
+    @Override
+    public boolean isValidator(String address) {
+        read();
+        synchronized (branchStore) {
+            return branchStore.isValidator(address);
+        }
+    }
+
+    @Override
+    public List<BranchContract> getBranchContacts() {
+        read();
+        synchronized (branchStore) {
+            return branchStore.getBranchContacts();
+        }
+    }
+
+    @Override
+    public String getContractVersion(String contractName) {
+        read();
+        synchronized (branchStore) {
+            return branchStore.getContractVersion(contractName);
+        }
+    }
+
+    @Override
+    public String getContractName(String contractVersion) {
+        read();
+        synchronized (branchStore) {
+            return branchStore.getContractName(contractVersion);
+        }
+    }
+}
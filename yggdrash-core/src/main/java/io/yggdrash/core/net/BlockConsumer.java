@@ -19,6 +19,7 @@ package io.yggdrash.core.net;
 import io.yggdrash.core.blockchain.BranchId;
 import io.yggdrash.core.consensus.ConsensusBlock;
 
+import java.util.Iterator;
 import java.util.List;
 
 public interface BlockConsumer<T> {
@@ -27,5 +28,10 @@ public interface BlockConsumer<T> {
 
     List<ConsensusBlock<T>> syncBlock(BranchId branchId, long offset, long limit);
 
+    /**
+     * Blocks from the offset which are read from the store one at a time as the iterator advances.
+     */
+    Iterator<ConsensusBlock<T>> streamBlock(BranchId branchId, long offset, long limit);
+
     void broadcastBlock(ConsensusBlock<T> block);
 }
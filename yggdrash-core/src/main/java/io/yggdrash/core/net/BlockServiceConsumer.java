@@ -18,6 +18,7 @@ package io.yggdrash.core.net;
 
 import io.yggdrash.common.config.Constants.Limit;
 import io.yggdrash.core.blockchain.BlockChain;
+import io.yggdrash.core.blockchain.BlockChainManager;
 import io.yggdrash.core.blockchain.BranchGroup;
 import io.yggdrash.core.blockchain.BranchId;
 import io.yggdrash.core.consensus.ConsensusBlock;
@@ -25,7 +26,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 public class BlockServiceConsumer<T> implements BlockConsumer<T> {
     private static final Logger log = LoggerFactory.getLogger(BlockServiceConsumer.class);
@@ -59,6 +63,47 @@ public class BlockServiceConsumer<T> implements BlockConsumer<T> {
         return blockList;
     }
 
+    @Override
+    public Iterator<ConsensusBlock<T>> streamBlock(BranchId branchId, long offset, long limit) {
+        long curBestBlock = branchGroup.getLastIndex(branchId);
+        if (curBestBlock == 0) {
+            return Collections.emptyIterator();
+        }
+        if (isNeedBlockSync(curBestBlock, offset)) {
+            // Catchup Event!
+            if (listener != null) {
+                listener.catchUpRequest(branchId, offset);
+            }
+            return Collections.emptyIterator();
+        }
+
+        BlockChainManager<T> blockChainManager = branchGroup.getBranch(branchId).getBlockChainManager();
+        long from = Math.max(offset, 0);
+        long to = Math.min(from + Math.min(limit, Limit.BLOCK_STREAM_COUNT), curBestBlock + 1);
+        return new Iterator<ConsensusBlock<T>>() {
+            private long index = from;
+            private ConsensusBlock<T> next;
+
+            @Override
+            public boolean hasNext() {
+                if (next == null && index < to) {
+                    next = blockChainManager.getBlockByIndex(index++);
+                }
+                return next != null;
+            }
+
+            @Override
+            public ConsensusBlock<T> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                ConsensusBlock<T> block = next;
+                next = null;
+                return block;
+            }
+        };
+    }
+
     //TODO check syncronization about addBlock()
     @Override
     public void broadcastBlock(ConsensusBlock<T> block) {
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.yggdrash.core.net;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded queue of the items to be broadcast.
+ * An item offered to the full queue is dropped instead of growing the heap,
+ * and the depth, the drops and the time the items have waited in the queue are measured.
+ */
+public class IngressQueue<T> {
+
+    private final String name;
+    private final int capacity;
+    private final BlockingQueue<Entry<T>> queue;
+
+    private final AtomicLong receivedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong takenCount = new AtomicLong();
+    private final AtomicLong totalLatency = new AtomicLong();
+    private final AtomicLong maxLatency = new AtomicLong();
+
+    public IngressQueue(String name, int capacity) {
+        this.name = name;
+        this.capacity = capacity;
+        this.queue = new LinkedBlockingQueue<>(capacity);
+    }
+
+    /**
+     * Inserts the item if the queue is not full.
+     *
+     * @return false if the item is dropped
+     */
+    public boolean offer(T item) {
+        receivedCount.incrementAndGet();
+        if (queue.offer(new Entry<>(item))) {
+            return true;
+        }
+        droppedCount.incrementAndGet();
+        return false;
+    }
+
+    public T take() throws InterruptedException {
+        return taken(queue.take());
+    }
+
+    public T poll() {
+        return taken(queue.poll());
+    }
+
+    public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+        return taken(queue.poll(timeout, unit));
+    }
+
+    /**
+     * Waits until the queue is drained.
+     *
+     * @return true if the queue is empty
+     */
+    public boolean awaitEmpty(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (this) {
+            while (!queue.isEmpty()) {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0) {
+                    return false;
+                }
+                wait(remaining);
+            }
+        }
+        return true;
+    }
+
+    private T taken(Entry<T> entry) {
+        if (entry == null) {
+            return null;
+        }
+        long latency = System.nanoTime() - entry.enqueuedAt;
+        takenCount.incrementAndGet();
+        totalLatency.addAndGet(latency);
+        maxLatency.accumulateAndGet(latency, Math::max);
+        if (queue.isEmpty()) {
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+        return entry.item;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    public boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+    public long getReceivedCount() {
+        return receivedCount.get();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    public long getTakenCount() {
+        return takenCount.get();
+    }
+
+    /**
+     * The sum of the times the taken items have waited in the queue in nanoseconds.
+     */
+    public long getTotalLatency() {
+        return totalLatency.get();
+    }
+
+    public long getMaxLatency() {
+        return maxLatency.get();
+    }
+
+    private static class Entry<T> {
+        private final T item;
+        private final long enqueuedAt = System.nanoTime();
+
+        private Entry(T item) {
+            this.item = item;
+        }
+    }
+}
@@ -16,6 +16,7 @@
 
 package io.yggdrash.core.net;
 
+import io.yggdrash.common.Sha3Hash;
 import io.yggdrash.core.blockchain.BranchId;
 import io.yggdrash.core.blockchain.Transaction;
 import io.yggdrash.core.consensus.ConsensusBlock;
@@ -28,21 +29,41 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.BlockingQueue;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 public class KademliaPeerNetwork implements PeerNetwork {
     private static final Logger log = LoggerFactory.getLogger(KademliaPeerNetwork.class);
 
-    private final BlockingQueue<Transaction> txQueue = new LinkedBlockingQueue<>();
+    private final IngressQueue<Transaction> txQueue = new IngressQueue<>("tx", KademliaOptions.TX_QUEUE_SIZE);
     private final ExecutorService txExecutor = Executors.newSingleThreadExecutor();
+    private final ExecutorService txGossipExecutor = Executors.newFixedThreadPool(KademliaOptions.ALPHA);
+    private final AtomicLong lastDropWarned = new AtomicLong();
 
-    private final BlockingQueue<ConsensusBlock> blockQueue = new LinkedBlockingQueue<>();
+    // The tx hashes each peer has, learned from the announcements to the peer
+    private final Map<Peer, Set<Sha3Hash>> knownTxMap = new LinkedHashMap<Peer, Set<Sha3Hash>>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Peer, Set<Sha3Hash>> eldest) {
+            return size() > KademliaOptions.KNOWN_TX_PEERS;
+        }
+    };
+
+    private final IngressQueue<ConsensusBlock> blockQueue =
+            new IngressQueue<>("block", KademliaOptions.BLOCK_QUEUE_SIZE);
     private final ExecutorService blockExecutor = Executors.newSingleThreadExecutor();
 
     private final PeerTableGroup peerTableGroup;
@@ -51,9 +72,16 @@ public class KademliaPeerNetwork implements PeerNetwork {
 
     private final Map<BranchId, List<Peer>> validatorMap = new HashMap<>();
 
+    private final long txGossipTimeout;
+
     public KademliaPeerNetwork(PeerTableGroup peerTableGroup, PeerDialer peerDialer) {
+        this(peerTableGroup, peerDialer, KademliaOptions.TX_GOSSIP_TIMEOUT);
+    }
+
+    KademliaPeerNetwork(PeerTableGroup peerTableGroup, PeerDialer peerDialer, long txGossipTimeout) {
         this.peerTableGroup = peerTableGroup;
         this.peerDialer = peerDialer;
+        this.txGossipTimeout = txGossipTimeout;
     }
 
     @Override
@@ -76,6 +104,7 @@ public class KademliaPeerNetwork implements PeerNetwork {
     public void destroy() {
         peerDialer.destroyAll();
         txExecutor.shutdown();
+        txGossipExecutor.shutdown();
         blockExecutor.shutdown();
     }
 
@@ -96,22 +125,34 @@ public class KademliaPeerNetwork implements PeerNetwork {
         return peerDialer.getPeerHandler(branchId, peer);
     }
 
+    @Override
+    public List<IngressQueue<?>> getIngressQueues() {
+        return Arrays.asList(blockQueue, txQueue);
+    }
+
     @Override
     public void receivedTransaction(Transaction tx) {
-        try {
-            txQueue.put(tx);
+        if (txQueue.offer(tx)) {
             log.trace("AddTransaction: txQueue tx={}", tx.getHash().toString());
-        } catch (Exception e) {
-            log.debug("receivedTransaction() is failed. {}", e.getMessage());
+        } else if (isDropWarnDue()) {
+            log.warn("receivedTransaction() is failed. txQueue is full. dropped={}, tx={}",
+                    txQueue.getDroppedCount(), tx.getHash().toString());
+        } else {
+            log.debug("receivedTransaction() is failed. txQueue is full. tx={}", tx.getHash().toString());
         }
     }
 
+    // The drops are warned once in the interval, so a flood of txs doesn't flood the log
+    private boolean isDropWarnDue() {
+        long now = System.currentTimeMillis();
+        long last = lastDropWarned.get();
+        return now - last >= KademliaOptions.DROP_WARN_INTERVAL && lastDropWarned.compareAndSet(last, now);
+    }
+
     @Override
-    public void chainedBlock(ConsensusBlock block) { //TODO AddBlock BP
-        try {
-            blockQueue.put(block);
-        } catch (Exception e) {
-            log.debug("chainedBlock() is failed. {}", e.getMessage());
+    public void chainedBlock(ConsensusBlock block) {
+        if (!blockQueue.offer(block)) {
+            log.debug("chainedBlock() is failed. blockQueue is full. index={}", block.getIndex());
         }
     }
 
@@ -124,46 +165,124 @@ public class KademliaPeerNetwork implements PeerNetwork {
         validatorMap.put(branchId, validatorList);
     }
 
+    private Set<Sha3Hash> getKnownTxs(Peer peer) {
+        synchronized (knownTxMap) {
+            return knownTxMap.computeIfAbsent(peer, p -> Collections.synchronizedSet(Collections.newSetFromMap(
+                    new LinkedHashMap<Sha3Hash, Boolean>(16, 0.75f, true) {
+                        @Override
+                        protected boolean removeEldestEntry(Map.Entry<Sha3Hash, Boolean> eldest) {
+                            return size() > KademliaOptions.KNOWN_TX_SIZE;
+                        }
+                    })));
+        }
+    }
+
+    /**
+     * Gossips the received transactions in batches.
+     * The hashes of a batch are announced to each peer and only the transactions the peer requests are sent.
+     */
     private class TxWorker implements Runnable {
 
         public void run() {
-            while (true) {
+            while (!txExecutor.isShutdown()) {
                 try {
-                    Transaction tx = txQueue.take();
-                    if (tx != null) {
-                        broadcastTx(tx);
-                    } else {
-                        try {
-                            Thread.sleep(500);
-                        } catch (InterruptedException e) {
-                            log.trace(e.getMessage());
-                            Thread.currentThread().interrupt();
-                        }
-                    }
+                    broadcastTxs(takeBatch());
+                } catch (InterruptedException e) {
+                    log.trace(e.getMessage());
+                    Thread.currentThread().interrupt();
+                    return;
                 } catch (Exception e) {
                     log.debug("broadcastTx() is failed. {}", e.getMessage());
                 }
             }
         }
 
-        private void broadcastTx(Transaction tx) {
-            List<BlockChainHandler> getHandlerList = getHandlerList(tx.getBranchId());
-            for (BlockChainHandler peerHandler : getHandlerList) {
-                try {
+        // Collects the transactions received within the batching window or up to the byte budget
+        private List<Transaction> takeBatch() throws InterruptedException {
+            List<Transaction> batch = new ArrayList<>();
+            Transaction tx = txQueue.take();
+            long deadline = System.currentTimeMillis() + KademliaOptions.TX_BATCH_WINDOW;
+            long batchBytes = 0;
+            while (tx != null) {
+                batch.add(tx);
+                batchBytes += tx.getLength();
+                if (batchBytes >= KademliaOptions.TX_BATCH_BYTES) {
+                    break;
+                }
+                long remaining = deadline - System.currentTimeMillis();
+                tx = remaining > 0 ? txQueue.poll(remaining, TimeUnit.MILLISECONDS) : txQueue.poll();
+            }
+            return batch;
+        }
+
+        private void broadcastTxs(List<Transaction> batch) throws InterruptedException {
+            // Blocks have priority over txs, the gossip waits for the queued blocks to be broadcast.
+            // The wait is bounded, so the batches are interleaved with the blocks when the blocks keep coming.
+            if (!blockQueue.awaitEmpty(KademliaOptions.TX_BLOCK_WAIT, TimeUnit.MILLISECONDS)) {
+                log.debug("broadcastTx() doesn't wait for blockQueueSize={}", blockQueue.size());
+            }
+
+            Map<BranchId, List<Transaction>> branchTxMap = batch.stream()
+                    .collect(Collectors.groupingBy(Transaction::getBranchId, LinkedHashMap::new, Collectors.toList()));
+
+            List<Future<?>> futureList = new ArrayList<>();
+            for (Map.Entry<BranchId, List<Transaction>> entry : branchTxMap.entrySet()) {
+                for (BlockChainHandler<?> peerHandler : getHandlerList(entry.getKey())) {
                     if (peerTableGroup.getSeedPeerList().contains(peerHandler.getPeer().getYnodeUri())
                             || peerHandler.getPeer().equals(peerTableGroup.getOwner())) {
                         log.trace("broadcastTx() is failed. peer: {}", peerHandler.getPeer().getYnodeUri());
                         continue;
                     }
-                    peerHandler.broadcastTx(tx);
-                } catch (Exception e) {
-                    log.debug("broadcastTx is failed. {} -> {} {}",
-                            peerTableGroup.getOwner().getPort(),
-                            peerHandler.getPeer().getPort(), e.getMessage());
+                    futureList.add(txGossipExecutor.submit(
+                            () -> broadcastTxs(peerHandler, entry.getKey(), entry.getValue())));
+                }
+            }
+
+            // The next batch waits for this one so that a slow peer doesn't pile up the requests.
+            // The wait is bounded, so a stalled peer doesn't stop the gossip to the others.
+            long deadline = System.currentTimeMillis() + txGossipTimeout;
+            for (Future<?> future : futureList) {
+                try {
+                    future.get(Math.max(deadline - System.currentTimeMillis(), 0), TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    future.cancel(true);
+                    log.debug("broadcastTx() is timed out. txs={}", batch.size());
+                } catch (ExecutionException e) {
+                    log.debug("broadcastTx() is failed. {}", e.getMessage());
+                }
+            }
+            log.trace("broadcastTx() txs={} txQueueSize={}", batch.size(), txQueue.size());
+        }
+
+        private void broadcastTxs(BlockChainHandler<?> peerHandler, BranchId branchId, List<Transaction> txs) {
+            try {
+                Set<Sha3Hash> knownTxs = getKnownTxs(peerHandler.getPeer());
+                Map<Sha3Hash, Transaction> unknownTxMap = new LinkedHashMap<>();
+                for (Transaction tx : txs) {
+                    if (!knownTxs.contains(tx.getHash())) {
+                        unknownTxMap.put(tx.getHash(), tx);
+                    }
+                }
+                if (unknownTxMap.isEmpty()) {
+                    return;
                 }
 
-                log.trace("broadcastTx() tx={} peer={} txQueueSize={}",
-                        tx.getHash().toString(), peerHandler.getPeer().getYnodeUri(), txQueue.size());
+                List<Sha3Hash> requestedHashes =
+                        peerHandler.announceTxs(branchId, new ArrayList<>(unknownTxMap.keySet()));
+                List<Transaction> requestedTxs = requestedHashes.stream()
+                        .map(unknownTxMap::remove).filter(Objects::nonNull).collect(Collectors.toList());
+                // The peer has the txs it doesn't request, the requested ones are known once they are sent
+                knownTxs.addAll(unknownTxMap.keySet());
+                if (!requestedTxs.isEmpty()) {
+                    peerHandler.broadcastTxs(requestedTxs).get(txGossipTimeout, TimeUnit.MILLISECONDS);
+                    requestedTxs.forEach(tx -> knownTxs.add(tx.getHash()));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.debug("broadcastTx is failed. {} -> {} {}",
+                        peerTableGroup.getOwner().getPort(),
+                        peerHandler.getPeer().getPort(), e.getMessage());
             }
         }
     }
@@ -21,6 +21,7 @@ import io.yggdrash.core.blockchain.BranchId;
 import io.yggdrash.core.p2p.BlockChainHandler;
 import io.yggdrash.core.p2p.Peer;
 
+import java.util.Collections;
 import java.util.List;
 
 public interface PeerNetwork extends BranchEventListener {
@@ -31,4 +32,11 @@ public interface PeerNetwork extends BranchEventListener {
     List<BlockChainHandler> getHandlerList(BranchId branchId);
 
     BlockChainHandler getPeerHandler(BranchId branchId, Peer peer);
+
+    /**
+     * The queues of the blocks and transactions waiting to be broadcast.
+     */
+    default List<IngressQueue<?>> getIngressQueues() {
+        return Collections.emptyList();
+    }
 }
@@ -18,7 +18,10 @@ package io.yggdrash.core.p2p;
 
 import com.google.protobuf.ByteString;
 import io.grpc.ManagedChannel;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
 import io.grpc.stub.StreamObserver;
+import io.yggdrash.common.Sha3Hash;
 import io.yggdrash.core.blockchain.BranchId;
 import io.yggdrash.core.blockchain.Transaction;
 import io.yggdrash.core.blockchain.TransactionImpl;
@@ -42,12 +45,14 @@ public abstract class AbstractBlockChainHandler<T> extends DiscoveryHandler<T> {
     private static final Logger log = LoggerFactory.getLogger(AbstractBlockChainHandler.class);
 
     private final TransactionServiceGrpc.TransactionServiceStub transactionAsyncStub;
+    private final TransactionServiceGrpc.TransactionServiceBlockingStub transactionBlockingStub;
     private final StreamObserver<CommonProto.Empty> emptyResponseStreamObserver;
     private StreamObserver<Proto.Transaction> broadcastTxRequestObserver;
 
     public AbstractBlockChainHandler(ManagedChannel channel, Peer peer) {
         super(channel, peer);
         this.transactionAsyncStub = TransactionServiceGrpc.newStub(channel);
+        this.transactionBlockingStub = TransactionServiceGrpc.newBlockingStub(channel);
         this.emptyResponseStreamObserver =
                 new StreamObserver<CommonProto.Empty>() {
                     @Override
@@ -116,4 +121,65 @@ public abstract class AbstractBlockChainHandler<T> extends DiscoveryHandler<T> {
             log.trace("BroadcastingTx() is failed. {}", e.getMessage());
         }
     }
+
+    @Override
+    public List<Sha3Hash> announceTxs(BranchId branchId, List<Sha3Hash> txHashes) {
+        Proto.TransactionHashList.Builder builder = Proto.TransactionHashList.newBuilder()
+                .setBranch(ByteString.copyFrom(branchId.getBytes()));
+        for (Sha3Hash txHash : txHashes) {
+            builder.addHashes(ByteString.copyFrom(txHash.getBytes()));
+        }
+
+        try {
+            Proto.TransactionHashList response = transactionBlockingStub
+                    .withDeadlineAfter(TIMEOUT_TRANSACTION, TimeUnit.SECONDS)
+                    .announceTxs(builder.build());
+            return response.getHashesList().stream()
+                    .map(hash -> Sha3Hash.createByHashed(hash.toByteArray())).collect(Collectors.toList());
+        } catch (StatusRuntimeException e) {
+            if (e.getStatus().getCode() != Status.Code.UNIMPLEMENTED) {
+                throw e;
+            }
+            // The peer doesn't support announcements, every transaction is sent
+            return txHashes;
+        }
+    }
+
+    @Override
+    public Future<Void> broadcastTxs(List<Transaction> txs) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        StreamObserver<Proto.Transaction> requestObserver = transactionAsyncStub
+                .withDeadlineAfter(TIMEOUT_TRANSACTION, TimeUnit.SECONDS)
+                .withCompression("gzip")
+                .broadcastTx(new StreamObserver<CommonProto.Empty>() {
+                    @Override
+                    public void onNext(CommonProto.Empty empty) {
+                        log.trace("[PeerHandler] Empty Received");
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        log.debug("BroadcastTxs() is failed. {}", Status.fromThrowable(t));
+                        future.completeExceptionally(t);
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        log.trace("[PeerHandler] Broadcast Txs Finished");
+                        future.complete(null);
+                    }
+                });
+        try {
+            for (Transaction tx : txs) {
+                requestObserver.onNext(tx.getInstance());
+            }
+            requestObserver.onCompleted();
+            log.trace("Broadcasting txs={} to={}", txs.size(), getPeer().getYnodeUri());
+        } catch (Exception e) {
+            requestObserver.onError(e);
+            log.trace("BroadcastTxs() is failed. {}", e.getMessage());
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
 }
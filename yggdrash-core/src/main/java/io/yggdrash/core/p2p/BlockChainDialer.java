@@ -22,7 +22,6 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -34,7 +33,7 @@ public class BlockChainDialer implements PeerDialer {
 
     private final Map<String, BlockChainHandler> handlerMap = new ConcurrentHashMap<>();
 
-    private final Map<BranchId, String> consensusMap = new HashMap<>();
+    private final Map<BranchId, String> consensusMap = new ConcurrentHashMap<>();
 
     private final BlockChainHandlerFactory peerHandlerFactory;
 
@@ -124,21 +123,23 @@ public class BlockChainDialer implements PeerDialer {
     }
 
     @Override
-    public synchronized BlockChainHandler getPeerHandler(BranchId branchId, Peer peer) {
+    public BlockChainHandler getPeerHandler(BranchId branchId, Peer peer) {
         BlockChainHandler peerHandler = handlerMap.get(peer.toAddress());
         if (peerHandler != null) {
             return peerHandler;
         }
 
-        if (!consensusMap.containsKey(branchId)) {
-            // BS Node only
-            peerHandler = peerHandlerFactory.create("discovery", peer);
-        } else {
-            peerHandler = peerHandlerFactory.create(consensusMap.get(branchId), peer);
-        }
-        handlerMap.put(peer.toAddress(), peerHandler);
-        log.debug("Added size={}, id={}, handler={}", handlerCount(), peerHandler, peer.getYnodeUri());
-
-        return peerHandler;
+        // Only the creation for the same address is serialized, the lookups don't take a lock
+        return handlerMap.computeIfAbsent(peer.toAddress(), address -> {
+            BlockChainHandler newHandler;
+            if (!consensusMap.containsKey(branchId)) {
+                // BS Node only
+                newHandler = peerHandlerFactory.create("discovery", peer);
+            } else {
+                newHandler = peerHandlerFactory.create(consensusMap.get(branchId), peer);
+            }
+            log.debug("Added size={}, id={}, handler={}", handlerCount() + 1, newHandler, peer.getYnodeUri());
+            return newHandler;
+        });
     }
 }
@@ -16,21 +16,49 @@
 
 package io.yggdrash.core.p2p;
 
+import io.yggdrash.common.Sha3Hash;
 import io.yggdrash.core.blockchain.BranchId;
 import io.yggdrash.core.blockchain.Transaction;
 import io.yggdrash.core.consensus.ConsensusBlock;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
 
 public interface BlockChainHandler<T> extends PeerHandler {
     Future<List<ConsensusBlock<T>>> syncBlock(BranchId branchId, long offset);
 
+    /**
+     * Requests up to count blocks from the offset. The peer may return fewer blocks than requested.
+     */
+    default Future<List<ConsensusBlock<T>>> syncBlock(BranchId branchId, long offset, long count) {
+        return syncBlock(branchId, offset);
+    }
+
     Future<List<Transaction>> syncTx(BranchId branchId);
 
     void broadcastBlock(ConsensusBlock<T> block);
 
     void broadcastTx(Transaction tx);
 
+    /**
+     * Announces the hashes of transactions to the peer.
+     *
+     * @return the hashes of the transactions the peer doesn't have
+     */
+    default List<Sha3Hash> announceTxs(BranchId branchId, List<Sha3Hash> txHashes) {
+        return txHashes;
+    }
+
+    /**
+     * Sends the transactions to the peer.
+     *
+     * @return completed when the peer has received the transactions
+     */
+    default Future<Void> broadcastTxs(List<Transaction> txs) {
+        txs.forEach(this::broadcastTx);
+        return CompletableFuture.completedFuture(null);
+    }
+
     String gerConnectivityState();
 }
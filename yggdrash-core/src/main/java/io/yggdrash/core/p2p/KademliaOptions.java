@@ -12,6 +12,16 @@ public class KademliaOptions {
     public static final long BUCKET_REFRESH = 60;     //bucket refreshing interval in seconds
     public static final long DISCOVER_CYCLE = 30;       //dht cycle interval in seconds
 
+    public static final long TX_BATCH_WINDOW = 50;      //tx gossip batching window in milliseconds
+    public static final int TX_BATCH_BYTES = 256 * 1024; //tx gossip batch size in bytes
+    public static final int KNOWN_TX_SIZE = 8192;       //tx hashes remembered per peer
+    public static final int KNOWN_TX_PEERS = 128;       //peers whose known tx hashes are remembered
+    public static final int TX_QUEUE_SIZE = 10000;      //txs waiting to be gossiped
+    public static final int BLOCK_QUEUE_SIZE = 100;     //blocks waiting to be broadcast
+    public static final long TX_BLOCK_WAIT = 1000;      //max wait of a tx batch for the queued blocks in milliseconds
+    public static final long TX_GOSSIP_TIMEOUT = 5000;  //max wait of a tx batch for the peers in milliseconds
+    public static final long DROP_WARN_INTERVAL = 10000; //min interval of the warnings of dropped txs in milliseconds
+
     private KademliaOptions() {
         throw new IllegalStateException("Constant class");
     }
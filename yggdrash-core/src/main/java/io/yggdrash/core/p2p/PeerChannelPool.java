@@ -0,0 +1,204 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.yggdrash.core.p2p;
+
+import io.grpc.CallOptions;
+import io.grpc.ClientCall;
+import io.grpc.ConnectivityState;
+import io.grpc.ManagedChannel;
+import io.grpc.MethodDescriptor;
+import io.grpc.netty.NettyChannelBuilder;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pool of the channels to the peers.
+ * The handlers of a peer share one channel, so every branch and consensus talks to the peer over one HTTP/2
+ * connection, and every channel runs on one event loop group.
+ * A handler leases the channel and its shutdown() returns the lease. The channel without a lease is shut down
+ * after the idle timeout.
+ */
+public class PeerChannelPool {
+    private static final Logger log = LoggerFactory.getLogger(PeerChannelPool.class);
+
+    // The servers permit a keepalive ping every 5 minutes by default
+    private static final long KEEPALIVE_TIME = 300;
+    private static final long KEEPALIVE_TIMEOUT = 20;
+    private static final long IDLE_TIMEOUT = 600;
+
+    private final Map<String, PooledChannel> channelMap = new ConcurrentHashMap<>();
+    private final EventLoopGroup eventLoopGroup =
+            new NioEventLoopGroup(0, new DefaultThreadFactory("peer-channel", true));
+    private final ScheduledExecutorService evictionExecutor = Executors.newSingleThreadScheduledExecutor(
+            new DefaultThreadFactory("peer-channel-eviction", true));
+
+    public PeerChannelPool() {
+        evictionExecutor.scheduleWithFixedDelay(this::evictIdleChannels, IDLE_TIMEOUT, IDLE_TIMEOUT, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Leases the channel to the peer.
+     *
+     * @return the channel whose shutdown() returns the lease
+     */
+    public ManagedChannel acquire(Peer peer) {
+        PooledChannel pooledChannel = channelMap.compute(peer.toAddress(), (address, channel) -> {
+            if (channel == null || channel.channel.isShutdown()) {
+                channel = new PooledChannel(newChannel(peer));
+                log.debug("Created channel to {}, size={}", address, channelMap.size() + 1);
+            }
+            channel.leaseCount++;
+            return channel;
+        });
+        return new Lease(peer.toAddress(), pooledChannel.channel);
+    }
+
+    public int size() {
+        return channelMap.size();
+    }
+
+    public void shutdown() {
+        evictionExecutor.shutdownNow();
+        channelMap.values().forEach(pooledChannel -> pooledChannel.channel.shutdown());
+        channelMap.clear();
+        eventLoopGroup.shutdownGracefully();
+    }
+
+    private ManagedChannel newChannel(Peer peer) {
+        return NettyChannelBuilder.forAddress(peer.getHost(), peer.getPort())
+                .eventLoopGroup(eventLoopGroup)
+                .channelType(NioSocketChannel.class)
+                .usePlaintext()
+                .keepAliveTime(KEEPALIVE_TIME, TimeUnit.SECONDS)
+                .keepAliveTimeout(KEEPALIVE_TIMEOUT, TimeUnit.SECONDS)
+                .idleTimeout(IDLE_TIMEOUT, TimeUnit.SECONDS)
+                .build();
+    }
+
+    private void release(String address) {
+        channelMap.computeIfPresent(address, (key, channel) -> {
+            channel.leaseCount--;
+            channel.releasedAt = System.currentTimeMillis();
+            return channel;
+        });
+    }
+
+    void evictIdleChannels() {
+        long idleSince = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(IDLE_TIMEOUT);
+        for (String address : channelMap.keySet()) {
+            channelMap.computeIfPresent(address, (key, channel) -> {
+                if (channel.leaseCount > 0 || channel.releasedAt > idleSince) {
+                    return channel;
+                }
+                log.debug("Evicted idle channel to {}", key);
+                channel.channel.shutdown();
+                return null;
+            });
+        }
+    }
+
+    // Updated in the compute functions of the channel map only
+    private static class PooledChannel {
+        private final ManagedChannel channel;
+        private int leaseCount = 0;
+        private long releasedAt = System.currentTimeMillis();
+
+        private PooledChannel(ManagedChannel channel) {
+            this.channel = channel;
+        }
+    }
+
+    private class Lease extends ManagedChannel {
+        private final String address;
+        private final ManagedChannel channel;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Lease(String address, ManagedChannel channel) {
+            this.address = address;
+            this.channel = channel;
+        }
+
+        @Override
+        public ManagedChannel shutdown() {
+            if (released.compareAndSet(false, true)) {
+                release(address);
+            }
+            return this;
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return released.get();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return released.get();
+        }
+
+        @Override
+        public ManagedChannel shutdownNow() {
+            return shutdown();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return released.get();
+        }
+
+        @Override
+        public ConnectivityState getState(boolean requestConnection) {
+            return channel.getState(requestConnection);
+        }
+
+        @Override
+        public void notifyWhenStateChanged(ConnectivityState source, Runnable callback) {
+            channel.notifyWhenStateChanged(source, callback);
+        }
+
+        @Override
+        public void resetConnectBackoff() {
+            channel.resetConnectBackoff();
+        }
+
+        @Override
+        public void enterIdle() {
+            channel.enterIdle();
+        }
+
+        @Override
+        public <Q, R> ClientCall<Q, R> newCall(MethodDescriptor<Q, R> methodDescriptor, CallOptions callOptions) {
+            return channel.newCall(methodDescriptor, callOptions);
+        }
+
+        @Override
+        public String authority() {
+            return channel.authority();
+        }
+    }
+}
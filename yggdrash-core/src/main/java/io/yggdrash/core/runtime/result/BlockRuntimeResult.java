@@ -17,6 +17,7 @@
 package io.yggdrash.core.runtime.result;
 
 import com.google.gson.JsonObject;
+import io.yggdrash.common.store.trie.StateTrie;
 import io.yggdrash.contract.core.Receipt;
 import io.yggdrash.core.blockchain.Transaction;
 import io.yggdrash.core.consensus.ConsensusBlock;
@@ -33,6 +34,7 @@ public class BlockRuntimeResult {
     private final List<Receipt> receipts = new ArrayList<>();
     private final ConsensusBlock block;
     private final String branchId;
+    private StateTrie.Update stateTrieUpdate;
 
     public BlockRuntimeResult(List<Transaction> txList) {
         if (txList.size() > 0) {
@@ -53,6 +55,23 @@ public class BlockRuntimeResult {
         values.forEach(entry -> blockResult.put(entry.getKey(), entry.getValue()));
     }
 
+    /**
+     * Sets the state root calculated from the block result.
+     * The trie nodes of the root are committed with the block result.
+     *
+     * @param update state root and its trie nodes
+     */
+    public void setStateRoot(StateTrie.Update update) {
+        this.stateTrieUpdate = update;
+        JsonObject value = new JsonObject();
+        value.addProperty("stateHash", update.getRoot().toString());
+        blockResult.put("stateRoot", value);
+    }
+
+    public StateTrie.Update getStateTrieUpdate() {
+        return stateTrieUpdate;
+    }
+
     public void addReceipt(Receipt receipt) {
         receipts.add(receipt);
     }
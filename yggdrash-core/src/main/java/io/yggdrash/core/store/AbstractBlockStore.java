@@ -28,6 +28,8 @@ import org.iq80.leveldb.Options;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.locks.ReentrantLock;
 
 import static io.yggdrash.common.config.Constants.LEVELDB_SIZE_KEY;
@@ -106,19 +108,33 @@ public abstract class AbstractBlockStore<T> implements ConsensusBlockStore<T> {
     }
 
     @Override
-    public void addBlock(ConsensusBlock<T> block) {
+    public void addBlock(ConsensusBlock<T> block, boolean sync) {
+        if (block == null) {
+            return;
+        }
+
+        byte[] bytes = block.toBinary();
+        if (bytes.length > Constants.MAX_MEMORY) {
+            log.debug("block binary {} > {}", bytes.length, Constants.MAX_MEMORY);
+            return;
+        }
+
         lock.lock();
         try {
-            if (block == null) {
-                return;
-            }
             // Add BlockIndex and Add Block Data
-            long index = block.getIndex();
-            byte[] indexKey = blockIndexKey(index);
-            // store block index
-            db.put(indexKey, block.getHash().getBytes());
-            // store block data
-            put(block.getHash(), block);
+            Map<byte[], byte[]> rows = new LinkedHashMap<>();
+            rows.put(blockIndexKey(block.getIndex()), block.getHash().getBytes());
+            boolean isNewBlock = !contains(block.getHash());
+            if (isNewBlock) {
+                rows.put(block.getHash().getBytes(), bytes);
+                rows.put(LEVELDB_SIZE_KEY, ByteUtil.longToBytes(size + 1));
+            } else {
+                log.debug("addBlock(): Block is duplicated. (blockHash {})", block.getHash());
+            }
+            db.updateByBatch(rows, sync);
+            if (isNewBlock) {
+                size++;
+            }
         } finally {
             lock.unlock();
         }
@@ -10,6 +10,7 @@ public class BlockChainStore {
     private final BranchStore branchStore;
     private final ContractStore contractStore;
     private final LogStore logStore;
+    private final boolean syncWrite;
 
     public BlockChainStore(TransactionStore transactionStore,
                            ReceiptStore receiptStore,
@@ -17,14 +18,35 @@ public class BlockChainStore {
                            ConsensusBlockStore consensusBlockStore,
                            BranchStore branchStore,
                            LogStore logStore) {
+        this(transactionStore, receiptStore, stateStore, consensusBlockStore, branchStore, logStore, false);
+    }
+
+    public BlockChainStore(TransactionStore transactionStore,
+                           ReceiptStore receiptStore,
+                           StateStore stateStore,
+                           ConsensusBlockStore consensusBlockStore,
+                           BranchStore branchStore,
+                           LogStore logStore,
+                           boolean syncWrite) {
         this.transactionStore = transactionStore;
         this.receiptStore = receiptStore;
         this.stateStore = stateStore;
         this.consensusBlockStore = consensusBlockStore;
         this.branchStore = branchStore;
         this.logStore = logStore;
+        this.syncWrite = syncWrite;
+
+        contractStore = new ContractStore(branchStore, stateStore, receiptStore, this::newBlockCommit);
+    }
 
-        contractStore = new ContractStore(branchStore, stateStore, receiptStore);
+    /**
+     * Creates a unit of work that writes the mutations of a block with a single batch per store.
+     * Every batch follows the same sync policy of this store.
+     *
+     * @return an empty block commit
+     */
+    public BlockCommit newBlockCommit() {
+        return new BlockCommit(this, syncWrite);
     }
 
     public TransactionStore getTransactionStore() {
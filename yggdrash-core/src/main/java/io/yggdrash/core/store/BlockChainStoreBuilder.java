@@ -1,18 +1,26 @@
 package io.yggdrash.core.store;
 
+import io.yggdrash.common.config.Constants;
 import io.yggdrash.common.store.StateStore;
+import io.yggdrash.common.store.datasource.DbEngine;
 import io.yggdrash.common.store.datasource.DbSource;
 import io.yggdrash.common.store.datasource.HashMapDbSource;
-import io.yggdrash.common.store.datasource.LevelDbDataSource;
 import io.yggdrash.contract.core.store.ReadWriterStore;
 import io.yggdrash.core.blockchain.BranchId;
 
+import java.util.function.Function;
+
 public class BlockChainStoreBuilder {
+    private static final int TX_CACHE_SIZE = 1000;
+
     BranchId branchId;
     private BlockStoreFactory blockStoreFactory;
     private String consensusAlgorithm;
     private boolean isProductionMode;
     private String databasePath;
+    private int txPoolCapacity = Constants.TX_POOL_CAPACITY;
+    private boolean syncWrite;
+    private Function<String, DbEngine> databaseEngine = store -> DbEngine.LEVELDB;
 
 
     private BlockChainStoreBuilder(BranchId branchId) {
@@ -29,6 +37,24 @@ public class BlockChainStoreBuilder {
         return this;
     }
 
+    public BlockChainStoreBuilder withTxPoolCapacity(int txPoolCapacity) {
+        this.txPoolCapacity = txPoolCapacity;
+        return this;
+    }
+
+    public BlockChainStoreBuilder withSyncWrite(boolean syncWrite) {
+        this.syncWrite = syncWrite;
+        return this;
+    }
+
+    /**
+     * @param databaseEngine storage engine by the name of the store, e.g. DefaultConfig::getDatabaseEngine
+     */
+    public BlockChainStoreBuilder withDatabaseEngine(Function<String, DbEngine> databaseEngine) {
+        this.databaseEngine = databaseEngine;
+        return this;
+    }
+
 
     public BlockChainStoreBuilder setBlockStoreFactory(BlockStoreFactory blockStoreFactory) {
         this.blockStoreFactory = blockStoreFactory;
@@ -45,9 +71,9 @@ public class BlockChainStoreBuilder {
     }
 
 
-    private DbSource<byte[], byte[]> getDbSource(String name) {
+    private DbSource<byte[], byte[]> getDbSource(String store) {
         if (isProductionMode) {
-            return new LevelDbDataSource(databasePath, name);
+            return databaseEngine.apply(store).create(databasePath, branchId + "/" + store);
         } else {
             return new HashMapDbSource();
         }
@@ -59,23 +85,30 @@ public class BlockChainStoreBuilder {
     }
 
     private TransactionStore buildTransactionStore() {
-        return new TransactionStore(getDbSource(branchId + "/txs"));
+        return new TransactionStore(getDbSource("txs"), TX_CACHE_SIZE, txPoolCapacity);
     }
 
     private StateStore buildStateStore() {
-        return new StateStore(getDbSource(branchId + "/state"));
+        return new StateStore(getDbSource("state"));
     }
 
     private ReceiptStore buildReceiptStore() {
-        return new ReceiptStore(getDbSource(branchId + "/receipt"));
+        return new ReceiptStore(getDbSource("receipt"));
+    }
+
+    /**
+     * Builds the state store a snapshot is imported into before it is copied into the state store.
+     */
+    public StateStore buildStagingStateStore() {
+        return new StateStore(getDbSource("state-staging"));
     }
 
     private LogStore buildLogStore() {
-        return new LogStore(getDbSource(branchId + "/log"));
+        return new LogStore(getDbSource("log"));
     }
 
     public ConsensusBlockStore buildBlockStore() {
-        DbSource dbSource = getDbSource(branchId + "/blocks");
+        DbSource dbSource = getDbSource("blocks");
         return blockStoreFactory.create(consensusAlgorithm, dbSource);
     }
 
@@ -85,7 +118,7 @@ public class BlockChainStoreBuilder {
         StateStore stateStore = buildStateStore();
         ConsensusBlockStore blockStore = buildBlockStore();
         // State Store and Branch Store is merged
-        StoreAdapter adapter = new StoreAdapter(stateStore, "branch");
+        StoreAdapter adapter = new StoreAdapter(stateStore, BranchStore.NAMESPACE);
         BranchStore branchStore = buildBranchStore(adapter);
         LogStore logStore = buildLogStore();
 
@@ -95,7 +128,8 @@ public class BlockChainStoreBuilder {
                 stateStore,
                 blockStore,
                 branchStore,
-                logStore
+                logStore,
+                syncWrite
         );
 
         return blockChainStore;
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.yggdrash.core.store;
+
+import com.google.gson.JsonObject;
+import io.yggdrash.common.Sha3Hash;
+import io.yggdrash.common.store.trie.StateTrie;
+import io.yggdrash.contract.core.Receipt;
+import io.yggdrash.contract.core.store.ReadWriterStore;
+import io.yggdrash.core.blockchain.Transaction;
+import io.yggdrash.core.consensus.ConsensusBlock;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Unit of work that collects the writes of a block and commits them with a single batch per store.
+ * The stores are written in the order of txs, receipts, logs, state and block. The state batch contains
+ * the best block and the last executed block of the branch, so the branch never points to a block
+ * whose state or receipts are partially written.
+ * It is not thread safe and is used by the thread importing the block.
+ */
+public class BlockCommit {
+    private final BlockChainStore blockChainStore;
+    private final boolean sync;
+
+    private final Set<Sha3Hash> txKeys = new LinkedHashSet<>();
+    private final List<Transaction> confirmedTxs = new ArrayList<>();
+    private final Map<String, Receipt> receipts = new LinkedHashMap<>();
+    private final List<String> logs = new ArrayList<>();
+    private final Map<String, JsonObject> states = new LinkedHashMap<>();
+    // The branch meta info is stored in the stateStore, so it shares the batch of the state.
+    private final BranchStore branchPatch =
+            new BranchStore(new StoreAdapter(new PatchStore(states), BranchStore.NAMESPACE));
+    private StateTrie.Update stateTrieUpdate;
+    private ConsensusBlock block;
+
+    BlockCommit(BlockChainStore blockChainStore, boolean sync) {
+        this.blockChainStore = blockChainStore;
+        this.sync = sync;
+    }
+
+    public void putReceipt(String key, Receipt receipt) {
+        receipts.put(key, receipt);
+    }
+
+    public void addLog(String value) {
+        logs.add(value);
+    }
+
+    public void putStates(Map<String, JsonObject> values) {
+        states.putAll(values);
+    }
+
+    /**
+     * Adds the state values with the trie nodes of their state root.
+     *
+     * @param values state values
+     * @param stateTrieUpdate trie nodes of the state root, or null
+     */
+    public void putStates(Map<String, JsonObject> values, StateTrie.Update stateTrieUpdate) {
+        putStates(values);
+        this.stateTrieUpdate = stateTrieUpdate;
+    }
+
+    public void setLastExecuteBlock(ConsensusBlock block) {
+        branchPatch.setLastExecuteBlock(block);
+    }
+
+    public void setBestBlock(ConsensusBlock block) {
+        branchPatch.setBestBlock(block);
+    }
+
+    public void setGenesisBlockHash(Sha3Hash genesisBlockHash) {
+        branchPatch.setGenesisBlockHash(genesisBlockHash);
+    }
+
+    /**
+     * Marks the block as the imported state snapshot, the blocks below it are not stored.
+     */
+    public void setSnapshotBlock(ConsensusBlock block) {
+        branchPatch.setSnapshotBlockIndex(block.getIndex());
+    }
+
+    /**
+     * Adds the block and its transactions. The transactions in the pending pool are stored with the block,
+     * the others are added by {@link #addConfirmedTransaction(Transaction)}.
+     *
+     * @param block block to be stored
+     */
+    public void addBlock(ConsensusBlock block) {
+        this.block = block;
+        if (block.getBody().getTransactionList() != null) {
+            for (Transaction tx : block.getBody().getTransactionList()) {
+                txKeys.add(tx.getHash());
+            }
+        }
+    }
+
+    /**
+     * Adds a transaction of the block which is stored without passing through the pending pool.
+     *
+     * @param tx transaction confirmed by the block
+     */
+    public void addConfirmedTransaction(Transaction tx) {
+        confirmedTxs.add(tx);
+    }
+
+    /**
+     * Writes the collected rows and clears them.
+     */
+    @SuppressWarnings("unchecked")
+    public void commit() {
+        try {
+            if (!txKeys.isEmpty() || !confirmedTxs.isEmpty()) {
+                blockChainStore.getTransactionStore().batch(txKeys, confirmedTxs, sync);
+            }
+            if (!receipts.isEmpty()) {
+                blockChainStore.getReceiptStore().putAll(receipts, sync);
+            }
+            if (!logs.isEmpty()) {
+                blockChainStore.getLogStore().putAll(logs, sync);
+            }
+            if (!states.isEmpty()) {
+                blockChainStore.getStateStore().updatePatch(states, stateTrieUpdate, sync);
+            }
+            if (block != null) {
+                blockChainStore.getConsensusBlockStore().addBlock(block, sync);
+            }
+        } finally {
+            clear();
+        }
+    }
+
+    private void clear() {
+        txKeys.clear();
+        confirmedTxs.clear();
+        receipts.clear();
+        logs.clear();
+        states.clear();
+        stateTrieUpdate = null;
+        block = null;
+    }
+
+    private static class PatchStore implements ReadWriterStore<String, JsonObject> {
+        private final Map<String, JsonObject> patch;
+
+        PatchStore(Map<String, JsonObject> patch) {
+            this.patch = patch;
+        }
+
+        @Override
+        public void put(String key, JsonObject value) {
+            patch.put(key, value);
+        }
+
+        @Override
+        public JsonObject get(String key) {
+            return patch.get(key);
+        }
+
+        @Override
+        public boolean contains(String key) {
+            return patch.containsKey(key);
+        }
+
+        @Override
+        public void close() {
+            patch.clear();
+        }
+    }
+}
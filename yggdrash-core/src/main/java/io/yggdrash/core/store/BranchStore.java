@@ -31,6 +31,7 @@ import io.yggdrash.core.consensus.ConsensusBlock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -41,6 +42,9 @@ public class BranchStore implements ReadWriterStore<String, JsonObject>, BranchS
 
     private static final Logger log = LoggerFactory.getLogger(BranchStore.class);
 
+    // BranchStore shares the stateStore with this nameSpace
+    static final String NAMESPACE = "branch";
+
     private final ReadWriterStore<String, JsonObject> store;
 
     private Map<String, BranchContract> contractMap; // {contractVersion: branchContract}
@@ -65,6 +69,11 @@ public class BranchStore implements ReadWriterStore<String, JsonObject>, BranchS
         return this.store.contains(key);
     }
 
+    @Override
+    public void addDelta(String key, String field, BigInteger delta) {
+        this.store.addDelta(key, field, delta);
+    }
+
     @Override
     public void close() {
         this.store.close();
@@ -120,6 +129,19 @@ public class BranchStore implements ReadWriterStore<String, JsonObject>, BranchS
         store.put(BlockchainMetaInfo.LAST_EXECUTE_BLOCK.toString(), lastExecuteBlock);
     }
 
+    /**
+     * Gets the height of the imported state snapshot. The blocks below it are not in the block store.
+     *
+     * @return height of the snapshot, or 0 if the branch is not bootstrapped from a snapshot
+     */
+    public long getSnapshotBlockIndex() {
+        return reStoreToLong(BlockchainMetaInfo.SNAPSHOT_BLOCK_INDEX.toString(), 0);
+    }
+
+    void setSnapshotBlockIndex(long index) {
+        storeLongValue(BlockchainMetaInfo.SNAPSHOT_BLOCK_INDEX.toString(), index);
+    }
+
     private Long reStoreToLong(String key, long defaultValue) {
         JsonObject value = this.store.get(key);
         if (value != null) {
@@ -331,6 +353,7 @@ public class BranchStore implements ReadWriterStore<String, JsonObject>, BranchS
         BRANCH_ID,
         GENESIS_BLOCK,
         VALIDATORS,
-        BRANCH_CONTRACTS
+        BRANCH_CONTRACTS,
+        SNAPSHOT_BLOCK_INDEX
     }
 }
@@ -24,7 +24,17 @@ public interface ConsensusBlockStore<T> extends ReadWriterStore<Sha3Hash, Consen
 
     long size();
 
-    void addBlock(ConsensusBlock<T> block);
+    default void addBlock(ConsensusBlock<T> block) {
+        addBlock(block, false);
+    }
+
+    /**
+     * Stores the block index and the block data in a single batch.
+     *
+     * @param block block to be stored
+     * @param sync true if the batch should be flushed to the disk
+     */
+    void addBlock(ConsensusBlock<T> block, boolean sync);
 
     ConsensusBlock<T> getBlockByIndex(long index);
 }
@@ -18,6 +18,8 @@ package io.yggdrash.core.store;
 
 import io.yggdrash.common.store.StateStore;
 
+import java.util.function.Supplier;
+
 public class ContractStore {
 
     private BranchStore branchStore;
@@ -25,8 +27,11 @@ public class ContractStore {
     private ReceiptStore receiptStore;
     private TempStateStore tmpStateStore;
     private TempStateStore pendingStateStore;
+    private final Supplier<BlockCommit> blockCommitFactory;
 
-    public ContractStore(BranchStore branchStore, StateStore stateStore, ReceiptStore receiptStore) {
+    public ContractStore(BranchStore branchStore, StateStore stateStore, ReceiptStore receiptStore,
+                         Supplier<BlockCommit> blockCommitFactory) {
+        this.blockCommitFactory = blockCommitFactory;
         this.branchStore = branchStore;
         this.stateStore = stateStore;
         this.receiptStore = receiptStore;
@@ -54,6 +59,10 @@ public class ContractStore {
         return this.receiptStore;
     }
 
+    public BlockCommit newBlockCommit() {
+        return blockCommitFactory.get();
+    }
+
     /*
     public void revertTmpStateStore() {
         this.tmpStateStore = new TempStateStore(stateStore);
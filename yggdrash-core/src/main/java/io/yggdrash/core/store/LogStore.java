@@ -18,6 +18,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 public class LogStore {
     private static final Logger log = LoggerFactory.getLogger(LogStore.class);
@@ -44,6 +47,23 @@ public class LogStore {
         putIndex();
     }
 
+    /**
+     * Stores the logs and the next log index in a single batch.
+     *
+     * @param values logs to be stored
+     * @param sync true if the batch should be flushed to the disk
+     */
+    public void putAll(List<String> values, boolean sync) {
+        long nextIndex = index;
+        Map<byte[], byte[]> rows = new LinkedHashMap<>();
+        for (String value : values) {
+            rows.put(Longs.toByteArray(nextIndex++), value.getBytes());
+        }
+        rows.put("index".getBytes(), Longs.toByteArray(nextIndex));
+        db.updateByBatch(rows, sync);
+        index = nextIndex;
+    }
+
     public String get(long index) {
         return new String(db.get(Longs.toByteArray(index)));
     }
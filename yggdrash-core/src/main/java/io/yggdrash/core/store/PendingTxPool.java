@@ -0,0 +1,218 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.yggdrash.core.store;
+
+import io.yggdrash.common.Sha3Hash;
+import io.yggdrash.core.blockchain.Transaction;
+import io.yggdrash.core.wallet.Address;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pending transactions that are not yet confirmed by a block.
+ * Transactions are sharded by hash and each shard has its own lock, so admissions of different
+ * transactions do not contend on a single lock. Transactions of the same sender are kept
+ * in timestamp order.
+ */
+class PendingTxPool {
+    private static final int SHARD_COUNT = 16;
+
+    private static final Comparator<Transaction> TX_ORDER = Comparator
+            .comparingLong((Transaction tx) -> tx.getHeader().getTimestamp())
+            .thenComparing(Transaction::getHash, PendingTxPool::compareHash);
+
+    private final Shard[] shards = new Shard[SHARD_COUNT];
+    private final Map<Address, NavigableSet<Transaction>> senderTxs = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final int capacity;
+
+    PendingTxPool(int capacity) {
+        this.capacity = capacity;
+        for (int i = 0; i < SHARD_COUNT; i++) {
+            shards[i] = new Shard();
+        }
+    }
+
+    /**
+     * Adds a transaction to the pool.
+     *
+     * @return false if the transaction is already pending or the pool is full
+     */
+    boolean add(Transaction tx) {
+        Sha3Hash key = tx.getHash();
+        Shard shard = shardOf(key);
+        // The sender is recovered from the signature before the lock, so it doesn't block the shard
+        Address sender = tx.getAddress();
+
+        shard.lock.lock();
+        try {
+            if (shard.txs.containsKey(key)) {
+                return false;
+            }
+            if (size.incrementAndGet() > capacity) {
+                size.decrementAndGet();
+                return false;
+            }
+            shard.txs.put(key, tx);
+            senderTxs.compute(sender, (address, txs) -> {
+                NavigableSet<Transaction> set = txs != null ? txs : new ConcurrentSkipListSet<>(TX_ORDER);
+                set.add(tx);
+                return set;
+            });
+            return true;
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    boolean contains(Sha3Hash key) {
+        return shardOf(key).txs.containsKey(key);
+    }
+
+    Transaction get(Sha3Hash key) {
+        return shardOf(key).txs.get(key);
+    }
+
+    List<Transaction> getAll(Collection<Sha3Hash> keys) {
+        List<Transaction> txs = new ArrayList<>(keys.size());
+        for (Sha3Hash key : keys) {
+            Transaction tx = get(key);
+            if (tx != null) {
+                txs.add(tx);
+            }
+        }
+        return txs;
+    }
+
+    void remove(Collection<Sha3Hash> keys) {
+        for (Sha3Hash key : keys) {
+            Shard shard = shardOf(key);
+            Transaction pending = shard.txs.get(key);
+            if (pending == null) {
+                continue;
+            }
+            Address sender = pending.getAddress();
+
+            shard.lock.lock();
+            try {
+                Transaction tx = shard.txs.remove(key);
+                if (tx != null) {
+                    size.decrementAndGet();
+                    senderTxs.computeIfPresent(tx == pending ? sender : tx.getAddress(), (address, txs) -> {
+                        txs.remove(tx);
+                        return txs.isEmpty() ? null : txs;
+                    });
+                }
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+    }
+
+    int size() {
+        return size.get();
+    }
+
+    List<Transaction> getAll() {
+        return getWithLimit(Long.MAX_VALUE);
+    }
+
+    /**
+     * Gets pending transactions whose total length fits in the limit.
+     * Senders are merged by the timestamp of their next transaction. When a transaction of a sender does not fit,
+     * the remaining transactions of that sender are skipped to keep its order.
+     *
+     * @param limit the maximum total length of transactions
+     * @return pending transactions
+     */
+    List<Transaction> getWithLimit(long limit) {
+        PriorityQueue<SenderCursor> cursors = new PriorityQueue<>();
+        for (NavigableSet<Transaction> txs : senderTxs.values()) {
+            SenderCursor cursor = new SenderCursor(txs.iterator());
+            if (cursor.next()) {
+                cursors.add(cursor);
+            }
+        }
+
+        long lengthSum = 0;
+        List<Transaction> txList = new ArrayList<>();
+        while (!cursors.isEmpty()) {
+            SenderCursor cursor = cursors.poll();
+            long length = cursor.current.getLength();
+            if (lengthSum + length > limit) {
+                continue;
+            }
+            lengthSum += length;
+            txList.add(cursor.current);
+            if (cursor.next()) {
+                cursors.add(cursor);
+            }
+        }
+        return txList;
+    }
+
+    private Shard shardOf(Sha3Hash key) {
+        return shards[(key.hashCode() & Integer.MAX_VALUE) % SHARD_COUNT];
+    }
+
+    private static int compareHash(Sha3Hash a, Sha3Hash b) {
+        byte[] left = a.getBytes();
+        byte[] right = b.getBytes();
+        for (int i = 0; i < Math.min(left.length, right.length); i++) {
+            int cmp = Integer.compare(left[i] & 0xff, right[i] & 0xff);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return Integer.compare(left.length, right.length);
+    }
+
+    private static class Shard {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<Sha3Hash, Transaction> txs = new ConcurrentHashMap<>();
+    }
+
+    private static class SenderCursor implements Comparable<SenderCursor> {
+        private final Iterator<Transaction> iterator;
+        private Transaction current;
+
+        SenderCursor(Iterator<Transaction> iterator) {
+            this.iterator = iterator;
+        }
+
+        boolean next() {
+            current = iterator.hasNext() ? iterator.next() : null;
+            return current != null;
+        }
+
+        @Override
+        public int compareTo(SenderCursor o) {
+            return TX_ORDER.compare(current, o.current);
+        }
+    }
+}
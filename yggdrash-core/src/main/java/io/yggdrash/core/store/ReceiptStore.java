@@ -5,6 +5,9 @@ import io.yggdrash.common.store.datasource.DbSource;
 import io.yggdrash.contract.core.Receipt;
 import io.yggdrash.contract.core.ReceiptImpl;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 public class ReceiptStore {
     private final DbSource<byte[], byte[]> db;
     private final Gson gson = new Gson();
@@ -24,6 +27,18 @@ public class ReceiptStore {
         db.put(hash.getBytes(), receiptJson.getBytes());
     }
 
+    /**
+     * Stores the receipts in a single batch.
+     *
+     * @param receipts receipts by txHash or blockHash + index
+     * @param sync true if the batch should be flushed to the disk
+     */
+    public void putAll(Map<String, Receipt> receipts, boolean sync) {
+        Map<byte[], byte[]> rows = new LinkedHashMap<>();
+        receipts.forEach((key, receipt) -> rows.put(key.getBytes(), gson.toJson(receipt).getBytes()));
+        db.updateByBatch(rows, sync);
+    }
+
     public Receipt get(String key) {
         byte[] receipt = db.get(key.getBytes());
         if (receipt != null) {
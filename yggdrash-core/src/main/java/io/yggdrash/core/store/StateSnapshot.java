@@ -0,0 +1,324 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.yggdrash.core.store;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import io.yggdrash.common.Sha3Hash;
+import io.yggdrash.common.exception.FailedOperationException;
+import io.yggdrash.common.store.StateStore;
+import io.yggdrash.common.store.StateValueCodec;
+import io.yggdrash.common.utils.FileUtil;
+import io.yggdrash.common.utils.JsonUtil;
+import io.yggdrash.core.blockchain.BranchId;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Manifest of a state snapshot at a block height.
+ * A snapshot is a directory holding the manifest, the genesis block, the block of the height and the state
+ * chunks. Every file is listed with its sha3 hash, so a downloaded snapshot can be checked file by file.
+ * <p>
+ * The rows of the branch meta info are not a part of the state trie. The rows describing the local progress
+ * of the node (best block, last executed block, ...) are rebuilt by the importer, the others (branch,
+ * validators, contracts, ...) are covered by the meta hash, which the operator takes from a trusted node
+ * together with the checkpoint block.
+ */
+public class StateSnapshot {
+    public static final String MANIFEST = "manifest.json";
+
+    private static final Set<String> LOCAL_META_ROWS = Arrays.stream(new BranchStore.BlockchainMetaInfo[] {
+            BranchStore.BlockchainMetaInfo.BEST_BLOCK,
+            BranchStore.BlockchainMetaInfo.BEST_BLOCK_INDEX,
+            BranchStore.BlockchainMetaInfo.LAST_EXECUTE_BLOCK,
+            BranchStore.BlockchainMetaInfo.LAST_EXECUTE_BLOCK_INDEX,
+            BranchStore.BlockchainMetaInfo.SNAPSHOT_BLOCK_INDEX,
+            BranchStore.BlockchainMetaInfo.GENESIS_BLOCK})
+            .map(info -> BranchStore.NAMESPACE + info).collect(Collectors.toSet());
+
+    private final BranchId branchId;
+    private final long height;
+    private final Sha3Hash blockHash;
+    private final Sha3Hash stateRoot;
+    private final Sha3Hash metaHash;
+    private final FileInfo genesis;
+    private final FileInfo block;
+    private final List<FileInfo> chunks;
+
+    StateSnapshot(BranchId branchId, long height, Sha3Hash blockHash, Sha3Hash stateRoot, Sha3Hash metaHash,
+                  FileInfo genesis, FileInfo block, List<FileInfo> chunks) {
+        this.branchId = branchId;
+        this.height = height;
+        this.blockHash = blockHash;
+        this.stateRoot = stateRoot;
+        this.metaHash = metaHash;
+        this.genesis = genesis;
+        this.block = block;
+        this.chunks = chunks;
+    }
+
+    public BranchId getBranchId() {
+        return branchId;
+    }
+
+    public long getHeight() {
+        return height;
+    }
+
+    public Sha3Hash getBlockHash() {
+        return blockHash;
+    }
+
+    public Sha3Hash getStateRoot() {
+        return stateRoot;
+    }
+
+    /**
+     * Gets the meta hash written by the exporter. It is informational only, the importer checks the meta rows
+     * against the meta hash of the checkpoint.
+     */
+    public Sha3Hash getMetaHash() {
+        return metaHash;
+    }
+
+    public FileInfo getGenesis() {
+        return genesis;
+    }
+
+    public FileInfo getBlock() {
+        return block;
+    }
+
+    public List<FileInfo> getChunks() {
+        return Collections.unmodifiableList(chunks);
+    }
+
+    /**
+     * Gets all files of the snapshot except the manifest.
+     */
+    public List<FileInfo> getFiles() {
+        List<FileInfo> files = new ArrayList<>();
+        files.add(genesis);
+        files.add(block);
+        files.addAll(chunks);
+        return files;
+    }
+
+    public JsonObject toJsonObject() {
+        JsonObject jsonObject = new JsonObject();
+        jsonObject.addProperty("branchId", branchId.toString());
+        jsonObject.addProperty("height", height);
+        jsonObject.addProperty("blockHash", blockHash.toString());
+        jsonObject.addProperty("stateRoot", stateRoot.toString());
+        jsonObject.addProperty("metaHash", metaHash.toString());
+        jsonObject.add("genesis", genesis.toJsonObject());
+        jsonObject.add("block", block.toJsonObject());
+        JsonArray chunkArray = new JsonArray();
+        chunks.forEach(chunk -> chunkArray.add(chunk.toJsonObject()));
+        jsonObject.add("chunks", chunkArray);
+        return jsonObject;
+    }
+
+    public static StateSnapshot of(JsonObject jsonObject) {
+        List<FileInfo> chunks = new ArrayList<>();
+        for (JsonElement chunk : jsonObject.getAsJsonArray("chunks")) {
+            chunks.add(FileInfo.of(chunk.getAsJsonObject()));
+        }
+        return new StateSnapshot(
+                BranchId.of(jsonObject.get("branchId").getAsString()),
+                jsonObject.get("height").getAsLong(),
+                new Sha3Hash(jsonObject.get("blockHash").getAsString()),
+                new Sha3Hash(jsonObject.get("stateRoot").getAsString()),
+                new Sha3Hash(jsonObject.get("metaHash").getAsString()),
+                FileInfo.of(jsonObject.getAsJsonObject("genesis")),
+                FileInfo.of(jsonObject.getAsJsonObject("block")),
+                chunks);
+    }
+
+    void write(Path dir) throws IOException {
+        Files.write(dir.resolve(MANIFEST), toJsonObject().toString().getBytes(FileUtil.DEFAULT_CHARSET));
+    }
+
+    /**
+     * Reads the manifest of the snapshot directory.
+     *
+     * @param dir snapshot directory
+     * @return the manifest
+     */
+    public static StateSnapshot read(Path dir) {
+        try {
+            String json = new String(Files.readAllBytes(dir.resolve(MANIFEST)), FileUtil.DEFAULT_CHARSET);
+            return of(JsonUtil.parseJsonObject(json));
+        } catch (IOException e) {
+            throw new FailedOperationException(e);
+        }
+    }
+
+    /**
+     * Reads the file of the snapshot and checks its hash.
+     *
+     * @param dir snapshot directory
+     * @param file file of the snapshot
+     * @return the content of the file
+     */
+    public static byte[] readFile(Path dir, FileInfo file) {
+        return checkFile(file.resolve(dir), file);
+    }
+
+    /**
+     * Reads the file at the path and checks its hash against the file of the snapshot.
+     *
+     * @param path file to be read, which may be a temporary file of a download
+     * @param file file of the snapshot
+     * @return the content of the file
+     */
+    public static byte[] checkFile(Path path, FileInfo file) {
+        try {
+            byte[] data = Files.readAllBytes(path);
+            if (!file.getHash().equals(new Sha3Hash(data))) {
+                throw new FailedOperationException("Invalid snapshot file hash. " + file.getName());
+            }
+            return data;
+        } catch (IOException e) {
+            throw new FailedOperationException(e);
+        }
+    }
+
+    /**
+     * Checks the row is a row of the branch meta info, which is not a part of the state trie.
+     */
+    static boolean isMetaRow(String key) {
+        return key.startsWith(BranchStore.NAMESPACE) || StateStore.STATE_ROOT.equals(key);
+    }
+
+    /**
+     * Checks the row is a meta row of the local progress of the node, which is never taken from a snapshot.
+     */
+    static boolean isLocalMetaRow(String key) {
+        return StateStore.STATE_ROOT.equals(key) || LOCAL_META_ROWS.contains(key);
+    }
+
+    /**
+     * Calculates the hash of the meta rows which are not local. The rows are hashed in the order of their keys
+     * as [int keyLength][key][int valueLength][value] with the value encoded by StateValueCodec.
+     *
+     * @param metaRows meta rows of the state
+     * @return the meta hash
+     */
+    static Sha3Hash metaHash(Map<String, JsonObject> metaRows) {
+        Map<String, JsonObject> rows = new TreeMap<>(metaRows);
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(buffer)) {
+            for (Map.Entry<String, JsonObject> row : rows.entrySet()) {
+                if (isLocalMetaRow(row.getKey())) {
+                    continue;
+                }
+                byte[] key = row.getKey().getBytes();
+                byte[] value = StateValueCodec.encode(row.getValue());
+                out.writeInt(key.length);
+                out.write(key);
+                out.writeInt(value.length);
+                out.write(value);
+            }
+        } catch (IOException e) {
+            throw new FailedOperationException(e);
+        }
+        return new Sha3Hash(buffer.toByteArray());
+    }
+
+    public static class FileInfo {
+        private final String name;
+        private final Sha3Hash hash;
+        private final long rows;
+
+        FileInfo(String name, Sha3Hash hash, long rows) {
+            if (!isPlainName(name)) {
+                throw new FailedOperationException("Invalid snapshot file name. " + name);
+            }
+            this.name = name;
+            this.hash = hash;
+            this.rows = rows;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Sha3Hash getHash() {
+            return hash;
+        }
+
+        public long getRows() {
+            return rows;
+        }
+
+        /**
+         * Resolves the file in the snapshot directory. The file never resolves out of the directory.
+         *
+         * @param dir snapshot directory
+         * @return the path of the file
+         */
+        public Path resolve(Path dir) {
+            Path base = dir.toAbsolutePath().normalize();
+            Path path = base.resolve(name).normalize();
+            if (!base.equals(path.getParent())) {
+                throw new FailedOperationException("Invalid snapshot file name. " + name);
+            }
+            return path;
+        }
+
+        // The names come from the manifest of a peer, so only a single plain file name is allowed
+        private static boolean isPlainName(String name) {
+            if (name == null || name.isEmpty() || ".".equals(name) || "..".equals(name)) {
+                return false;
+            }
+            for (char c : new char[] {'/', '\\', ':', '\0'}) {
+                if (name.indexOf(c) >= 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        JsonObject toJsonObject() {
+            JsonObject jsonObject = new JsonObject();
+            jsonObject.addProperty("name", name);
+            jsonObject.addProperty("hash", hash.toString());
+            jsonObject.addProperty("rows", rows);
+            return jsonObject;
+        }
+
+        static FileInfo of(JsonObject jsonObject) {
+            return new FileInfo(jsonObject.get("name").getAsString(),
+                    new Sha3Hash(jsonObject.get("hash").getAsString()),
+                    jsonObject.get("rows").getAsLong());
+        }
+    }
+}
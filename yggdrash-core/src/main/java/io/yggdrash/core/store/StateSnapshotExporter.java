@@ -0,0 +1,190 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.yggdrash.core.store;
+
+import com.google.gson.JsonObject;
+import io.yggdrash.common.Sha3Hash;
+import io.yggdrash.common.exception.FailedOperationException;
+import io.yggdrash.common.store.StateStore;
+import io.yggdrash.common.store.StateValueCodec;
+import io.yggdrash.common.store.trie.StateTrie;
+import io.yggdrash.core.blockchain.BranchId;
+import io.yggdrash.core.consensus.ConsensusBlock;
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the state of the last executed block into a snapshot directory.
+ * The state values are read from a consistent view of the state db, and the height of the snapshot is taken
+ * from the branch meta info of the same view. The rows are written in chunk files of about 4MB.
+ * <p>
+ * A row of a chunk is [int keyLength][key][int valueLength][value] with the value encoded by StateValueCodec.
+ * The nodes of the state trie are not exported, the importer rebuilds them from the values.
+ */
+public class StateSnapshotExporter {
+    private static final Logger log = LoggerFactory.getLogger(StateSnapshotExporter.class);
+
+    private static final int CHUNK_SIZE = 4 * 1024 * 1024;
+
+    static final String LAST_EXECUTE_BLOCK
+            = BranchStore.NAMESPACE + BranchStore.BlockchainMetaInfo.LAST_EXECUTE_BLOCK;
+    static final String LAST_EXECUTE_BLOCK_INDEX
+            = BranchStore.NAMESPACE + BranchStore.BlockchainMetaInfo.LAST_EXECUTE_BLOCK_INDEX;
+
+    private final BranchId branchId;
+    private final BlockChainStore blockChainStore;
+    private final int chunkSize;
+
+    public StateSnapshotExporter(BranchId branchId, BlockChainStore blockChainStore) {
+        this(branchId, blockChainStore, CHUNK_SIZE);
+    }
+
+    StateSnapshotExporter(BranchId branchId, BlockChainStore blockChainStore, int chunkSize) {
+        this.branchId = branchId;
+        this.blockChainStore = blockChainStore;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Exports the state into a new directory of the base directory named by the block height.
+     * The snapshot is written in a temporary directory first, so the directory of a height is always complete.
+     *
+     * @param baseDir base directory of the snapshots
+     * @return the manifest of the snapshot
+     */
+    public StateSnapshot export(Path baseDir) {
+        Path tmpDir = null;
+        try {
+            Files.createDirectories(baseDir);
+            tmpDir = Files.createTempDirectory(baseDir, ".export");
+
+            ChunkWriter writer = new ChunkWriter(tmpDir);
+            JsonObject[] meta = new JsonObject[3];
+            Map<String, JsonObject> metaRows = new HashMap<>();
+            blockChainStore.getStateStore().forEach((key, value) -> {
+                if (StateSnapshot.isMetaRow(key)) {
+                    metaRows.put(key, value);
+                }
+                if (LAST_EXECUTE_BLOCK.equals(key)) {
+                    meta[0] = value;
+                } else if (LAST_EXECUTE_BLOCK_INDEX.equals(key)) {
+                    meta[1] = value;
+                } else if (StateStore.STATE_ROOT.equals(key)) {
+                    meta[2] = value;
+                }
+                writer.write(key, value);
+            });
+            writer.flush();
+
+            if (meta[0] == null || meta[1] == null) {
+                throw new FailedOperationException("No executed block to export");
+            }
+            long height = meta[1].get("value").getAsLong();
+            Sha3Hash blockHash = new Sha3Hash(meta[0].get("lastExecuteBlock").getAsString());
+            Sha3Hash stateRoot = meta[2] != null && meta[2].has(StateStore.STATE_HASH)
+                    ? new Sha3Hash(meta[2].get(StateStore.STATE_HASH).getAsString()) : StateTrie.EMPTY_ROOT;
+
+            ConsensusBlockStore blockStore = blockChainStore.getConsensusBlockStore();
+            ConsensusBlock block = blockStore.getBlockByIndex(height);
+            if (!blockHash.equals(block.getHash())) {
+                throw new FailedOperationException("Invalid block of the snapshot. height=" + height);
+            }
+            StateSnapshot.FileInfo genesis = writeBlock(tmpDir, blockStore.getBlockByIndex(0));
+            StateSnapshot.FileInfo blockFile = writeBlock(tmpDir, block);
+            Sha3Hash metaHash = StateSnapshot.metaHash(metaRows);
+            StateSnapshot snapshot = new StateSnapshot(
+                    branchId, height, blockHash, stateRoot, metaHash, genesis, blockFile, writer.chunks);
+            snapshot.write(tmpDir);
+
+            Path dir = baseDir.resolve(String.valueOf(height));
+            if (Files.exists(dir)) {
+                log.debug("Snapshot ({}) already exists", height);
+                return StateSnapshot.read(dir);
+            }
+            Files.move(tmpDir, dir);
+            // The checkpoint of the importers is height:blockHash:metaHash of this node
+            log.info("Snapshot exported. height={}, chunks={}, stateRoot={}, checkpoint={}:{}:{}",
+                    height, writer.chunks.size(), stateRoot, height, blockHash, metaHash);
+            return snapshot;
+        } catch (IOException e) {
+            throw new FailedOperationException(e);
+        } finally {
+            if (tmpDir != null) {
+                FileUtils.deleteQuietly(tmpDir.toFile());
+            }
+        }
+    }
+
+    private StateSnapshot.FileInfo writeBlock(Path dir, ConsensusBlock block) throws IOException {
+        String name = String.format("block-%d.bin", block.getIndex());
+        byte[] data = block.toBinary();
+        Files.write(dir.resolve(name), data);
+        return new StateSnapshot.FileInfo(name, new Sha3Hash(data), 1);
+    }
+
+    private class ChunkWriter {
+        private final Path dir;
+        private final List<StateSnapshot.FileInfo> chunks = new ArrayList<>();
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(buffer);
+        private long rows;
+
+        ChunkWriter(Path dir) {
+            this.dir = dir;
+        }
+
+        void write(String key, JsonObject value) {
+            try {
+                byte[] keyBytes = key.getBytes();
+                byte[] valueBytes = StateValueCodec.encode(value);
+                out.writeInt(keyBytes.length);
+                out.write(keyBytes);
+                out.writeInt(valueBytes.length);
+                out.write(valueBytes);
+                rows++;
+                if (buffer.size() >= chunkSize) {
+                    flush();
+                }
+            } catch (IOException e) {
+                throw new FailedOperationException(e);
+            }
+        }
+
+        void flush() throws IOException {
+            if (rows == 0) {
+                return;
+            }
+            String name = String.format("state-%05d.bin", chunks.size());
+            byte[] data = buffer.toByteArray();
+            Files.write(dir.resolve(name), data);
+            chunks.add(new StateSnapshot.FileInfo(name, new Sha3Hash(data), rows));
+            buffer.reset();
+            rows = 0;
+        }
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.yggdrash.core.store;
+
+import com.google.gson.JsonObject;
+import io.yggdrash.common.Sha3Hash;
+import io.yggdrash.common.exception.FailedOperationException;
+import io.yggdrash.common.store.StateStore;
+import io.yggdrash.common.store.StateValueCodec;
+import io.yggdrash.common.store.trie.StateTrie;
+import io.yggdrash.common.util.VerifierUtils;
+import io.yggdrash.core.consensus.ConsensusBlock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Imports a snapshot written by {@link StateSnapshotExporter} into the empty stores of a new node.
+ * <p>
+ * The snapshot is trusted only at a checkpoint configured by the operator: the block of the snapshot has to be
+ * the block of the checkpoint, and the genesis block the configured genesis of the branch. The files are
+ * checked against the hashes of the manifest, and the blocks against the manifest and their signatures.
+ * The rows of the branch meta info are not a part of the trie. The local rows are rebuilt from the verified
+ * blocks and state root, the others have to match the meta hash of the checkpoint.
+ * <p>
+ * The state trie is rebuilt chunk by chunk in a staging store. Its rows are copied into the state store only
+ * when the rebuilt root is the state root of the block header, and the branch points to the block of the
+ * snapshot after they are copied. A failed import leaves the state store untouched.
+ * The blocks below the height of the snapshot are not imported.
+ */
+public class StateSnapshotImporter {
+    private static final Logger log = LoggerFactory.getLogger(StateSnapshotImporter.class);
+
+    private static final int COPY_BATCH_ROWS = 10000;
+
+    private final BlockChainStore blockChainStore;
+    private final StateStore stagingStore;
+    private final Function<byte[], ConsensusBlock> blockParser;
+
+    /**
+     * Creates the importer.
+     *
+     * @param blockChainStore stores of the branch
+     * @param stagingStore state store the trie is rebuilt in, it is cleared before and after the import
+     * @param blockParser parser of the block binary of the consensus algorithm
+     */
+    public StateSnapshotImporter(BlockChainStore blockChainStore, StateStore stagingStore,
+                                 Function<byte[], ConsensusBlock> blockParser) {
+        this.blockChainStore = blockChainStore;
+        this.stagingStore = stagingStore;
+        this.blockParser = blockParser;
+    }
+
+    /**
+     * Imports the snapshot of the directory.
+     *
+     * @param dir snapshot directory
+     * @param genesisHash hash of the genesis block of the branch
+     * @param checkpoint trusted block the snapshot has to be taken at
+     * @return the block of the snapshot which is the best block of the branch now
+     */
+    @SuppressWarnings("unchecked")
+    public ConsensusBlock importSnapshot(Path dir, Sha3Hash genesisHash, Checkpoint checkpoint) {
+        ConsensusBlockStore blockStore = blockChainStore.getConsensusBlockStore();
+        if (blockStore.size() > 0) {
+            throw new FailedOperationException("Snapshot can be imported into the empty store only");
+        }
+
+        StateSnapshot snapshot = StateSnapshot.read(dir);
+        if (snapshot.getHeight() != checkpoint.getHeight()
+                || !checkpoint.getBlockHash().equals(snapshot.getBlockHash())) {
+            throw new FailedOperationException("Snapshot is not taken at the checkpoint. height="
+                    + snapshot.getHeight() + ", checkpoint=" + checkpoint.getHeight());
+        }
+        ConsensusBlock genesis = readBlock(dir, snapshot.getGenesis());
+        ConsensusBlock block = readBlock(dir, snapshot.getBlock());
+        if (genesis.getIndex() != 0 || !genesis.getHash().equals(genesisHash)
+                || !VerifierUtils.verifyGenesisHash(genesis)) {
+            throw new FailedOperationException("Invalid genesis block of the snapshot");
+        }
+        if (block.getIndex() != snapshot.getHeight() || !block.getHash().equals(snapshot.getBlockHash())
+                || !snapshot.getStateRoot().equals(new Sha3Hash(block.getHeader().getStateRoot(), true))
+                || !VerifierUtils.verify(block)) {
+            throw new FailedOperationException("Invalid block of the snapshot. height=" + snapshot.getHeight());
+        }
+
+        stagingStore.reset();
+        try {
+            Map<String, JsonObject> metaRows = importState(dir, snapshot);
+            // The meta hash of the manifest is not trusted, the rows are checked against the checkpoint
+            Sha3Hash metaHash = StateSnapshot.metaHash(metaRows);
+            if (!checkpoint.getMetaHash().equals(metaHash)) {
+                throw new FailedOperationException("Invalid meta rows of the snapshot. expected="
+                        + checkpoint.getMetaHash() + ", actual=" + metaHash);
+            }
+            metaRows.keySet().removeIf(StateSnapshot::isLocalMetaRow);
+            blockChainStore.getStateStore().putAll(stagingStore, COPY_BATCH_ROWS);
+
+            // The branch points to the snapshot only after the state is verified and copied
+            JsonObject stateRootRow = stateRootRow(snapshot.getStateRoot());
+            stateRootRow.addProperty("blockHeight", block.getIndex());
+            metaRows.put(StateStore.STATE_ROOT, stateRootRow);
+            BlockCommit commit = blockChainStore.newBlockCommit();
+            commit.putStates(metaRows);
+            commit.setGenesisBlockHash(genesisHash);
+            commit.setBestBlock(block);
+            commit.setLastExecuteBlock(block);
+            commit.setSnapshotBlock(block);
+            commit.commit();
+            blockStore.addBlock(genesis, true);
+            blockStore.addBlock(block, true);
+        } finally {
+            stagingStore.reset();
+        }
+
+        log.info("Snapshot imported. branch={}, height={}, stateRoot={}",
+                snapshot.getBranchId(), snapshot.getHeight(), snapshot.getStateRoot());
+        return block;
+    }
+
+    /**
+     * Rebuilds the state trie of the chunks in the staging store.
+     *
+     * @return the rows of the branch meta info as they are in the snapshot
+     */
+    private Map<String, JsonObject> importState(Path dir, StateSnapshot snapshot) {
+        Map<String, JsonObject> metaRows = new LinkedHashMap<>();
+        Sha3Hash stateRoot = StateTrie.EMPTY_ROOT;
+        for (StateSnapshot.FileInfo chunk : snapshot.getChunks()) {
+            Map<String, JsonObject> values = new LinkedHashMap<>();
+            readChunk(StateSnapshot.readFile(dir, chunk)).forEach((key, value) -> {
+                if (StateSnapshot.isMetaRow(key)) {
+                    metaRows.put(key, value);
+                } else {
+                    values.put(key, value);
+                }
+            });
+            // The intermediate root is kept in the stateRoot row, so the next chunk is added on top of it
+            StateTrie.Update update = stagingStore.calculateStateRoot(values);
+            stateRoot = update.getRoot();
+            values.put(StateStore.STATE_ROOT, stateRootRow(stateRoot));
+            stagingStore.updatePatch(values, update, false);
+            log.debug("Snapshot chunk {} imported. rows={}", chunk.getName(), chunk.getRows());
+        }
+
+        if (!snapshot.getStateRoot().equals(stateRoot)) {
+            throw new FailedOperationException("Invalid state root of the snapshot. expected="
+                    + snapshot.getStateRoot() + ", actual=" + stateRoot);
+        }
+        return metaRows;
+    }
+
+    private ConsensusBlock readBlock(Path dir, StateSnapshot.FileInfo file) {
+        try {
+            return blockParser.apply(StateSnapshot.readFile(dir, file));
+        } catch (FailedOperationException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new FailedOperationException(e);
+        }
+    }
+
+    private static JsonObject stateRootRow(Sha3Hash stateRoot) {
+        JsonObject row = new JsonObject();
+        row.addProperty(StateStore.STATE_HASH, stateRoot.toString());
+        return row;
+    }
+
+    /**
+     * Block trusted by the operator, the snapshot to be imported has to be taken at it.
+     * The meta hash covers the branch meta info of the state at the block, which is not a part of the trie.
+     */
+    public static class Checkpoint {
+        private final long height;
+        private final Sha3Hash blockHash;
+        private final Sha3Hash metaHash;
+
+        public Checkpoint(long height, Sha3Hash blockHash, Sha3Hash metaHash) {
+            this.height = height;
+            this.blockHash = blockHash;
+            this.metaHash = metaHash;
+        }
+
+        /**
+         * Parses the checkpoint of the configuration.
+         *
+         * @param value height, block hash and meta hash, e.g. 1000:2c4f...:8a1e...
+         * @return the checkpoint
+         */
+        public static Checkpoint of(String value) {
+            String[] parts = value.split(":");
+            if (parts.length != 3) {
+                throw new FailedOperationException("Invalid snapshot checkpoint. " + value);
+            }
+            return new Checkpoint(Long.parseLong(parts[0].trim()),
+                    new Sha3Hash(parts[1].trim()), new Sha3Hash(parts[2].trim()));
+        }
+
+        public long getHeight() {
+            return height;
+        }
+
+        public Sha3Hash getBlockHash() {
+            return blockHash;
+        }
+
+        public Sha3Hash getMetaHash() {
+            return metaHash;
+        }
+    }
+
+    static Map<String, JsonObject> readChunk(byte[] data) {
+        Map<String, JsonObject> rows = new LinkedHashMap<>();
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            while (in.available() > 0) {
+                byte[] key = new byte[in.readInt()];
+                in.readFully(key);
+                byte[] value = new byte[in.readInt()];
+                in.readFully(value);
+                rows.put(new String(key), StateValueCodec.decode(value));
+            }
+        } catch (IOException e) {
+            throw new FailedOperationException(e);
+        }
+        return rows;
+    }
+}
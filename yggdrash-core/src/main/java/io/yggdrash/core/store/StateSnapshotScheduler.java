@@ -0,0 +1,120 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.yggdrash.core.store;
+
+import io.yggdrash.core.blockchain.BranchEventListener;
+import io.yggdrash.core.blockchain.BranchId;
+import io.yggdrash.core.blockchain.Transaction;
+import io.yggdrash.core.consensus.ConsensusBlock;
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Exports a snapshot of the branch every interval of blocks.
+ * The export runs on its own thread, and a block chained during an export does not start another one.
+ * Only the latest snapshots are kept in the directory of the branch.
+ */
+public class StateSnapshotScheduler implements BranchEventListener {
+    private static final Logger log = LoggerFactory.getLogger(StateSnapshotScheduler.class);
+
+    private static final int KEEP_COUNT = 2;
+
+    private final StateSnapshotExporter exporter;
+    private final Path branchDir;
+    private final long interval;
+
+    private final AtomicBoolean exporting = new AtomicBoolean(false);
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "snapshot-exporter");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public StateSnapshotScheduler(BranchId branchId, BlockChainStore blockChainStore, Path baseDir, long interval) {
+        this.exporter = new StateSnapshotExporter(branchId, blockChainStore);
+        this.branchDir = baseDir.resolve(branchId.toString());
+        this.interval = interval;
+    }
+
+    @Override
+    public void chainedBlock(ConsensusBlock block) {
+        if (interval <= 0 || block.getIndex() == 0 || block.getIndex() % interval != 0) {
+            return;
+        }
+        if (!exporting.compareAndSet(false, true)) {
+            log.debug("Snapshot is skipped. The previous export is running. height={}", block.getIndex());
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                exporter.export(branchDir);
+                removeOldSnapshots();
+            } catch (Exception e) {
+                log.warn("Snapshot export is failed. {}", e.getMessage());
+            } finally {
+                exporting.set(false);
+            }
+        });
+    }
+
+    @Override
+    public void receivedTransaction(Transaction tx) {
+        // Snapshots are not related to transactions
+    }
+
+    private void removeOldSnapshots() throws IOException {
+        List<Path> snapshots = listSnapshots(branchDir);
+        for (int i = 0; i < snapshots.size() - KEEP_COUNT; i++) {
+            FileUtils.deleteDirectory(snapshots.get(i).toFile());
+        }
+    }
+
+    /**
+     * Lists the snapshot directories of a branch ordered by height.
+     *
+     * @param branchDir snapshot directory of the branch
+     * @return snapshot directories, the latest is the last
+     */
+    public static List<Path> listSnapshots(Path branchDir) throws IOException {
+        if (!Files.isDirectory(branchDir)) {
+            return new ArrayList<>();
+        }
+        try (Stream<Path> paths = Files.list(branchDir)) {
+            return paths.filter(path -> path.getFileName().toString().matches("\\d+"))
+                    .filter(path -> Files.exists(path.resolve(StateSnapshot.MANIFEST)))
+                    .sorted((a, b) -> Long.compare(Long.parseLong(a.getFileName().toString()),
+                            Long.parseLong(b.getFileName().toString())))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.yggdrash.core.store;
+
+import io.yggdrash.common.store.StateStore;
+import io.yggdrash.core.blockchain.BranchEventListener;
+import io.yggdrash.core.blockchain.Transaction;
+import io.yggdrash.core.consensus.ConsensusBlock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Prunes the state trie nodes of the superseded state roots every interval of blocks.
+ * The prune runs on its own thread while the blocks are committed, and a block chained during a prune
+ * does not start another one.
+ */
+public class StateTriePruner implements BranchEventListener {
+    private static final Logger log = LoggerFactory.getLogger(StateTriePruner.class);
+
+    private final StateStore stateStore;
+    private final long interval;
+
+    private final AtomicBoolean pruning = new AtomicBoolean(false);
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "state-trie-pruner");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public StateTriePruner(StateStore stateStore, long interval) {
+        this.stateStore = stateStore;
+        this.interval = interval;
+    }
+
+    @Override
+    public void chainedBlock(ConsensusBlock block) {
+        if (interval <= 0 || block.getIndex() == 0 || block.getIndex() % interval != 0) {
+            return;
+        }
+        if (!pruning.compareAndSet(false, true)) {
+            log.debug("State trie prune is skipped. The previous prune is running. height={}", block.getIndex());
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                long deleted = stateStore.pruneStateTrie();
+                log.info("State trie pruned. height={}, deleted={}", block.getIndex(), deleted);
+            } catch (Exception e) {
+                log.warn("State trie prune is failed. {}", e.getMessage());
+            } finally {
+                pruning.set(false);
+            }
+        });
+    }
+
+    @Override
+    public void receivedTransaction(Transaction tx) {
+        // The state trie is not related to transactions
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
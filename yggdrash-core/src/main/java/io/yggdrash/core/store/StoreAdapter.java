@@ -3,6 +3,8 @@ package io.yggdrash.core.store;
 import com.google.gson.JsonObject;
 import io.yggdrash.contract.core.store.ReadWriterStore;
 
+import java.math.BigInteger;
+
 public class StoreAdapter implements ReadWriterStore<String, JsonObject> {
     private final String nameSpace;
     private ReadWriterStore<String, JsonObject> stateStore;
@@ -39,6 +41,11 @@ public class StoreAdapter implements ReadWriterStore<String, JsonObject> {
         return this.stateStore.contains(getNameSpaceKey(key));
     }
 
+    @Override
+    public void addDelta(String key, String field, BigInteger delta) {
+        this.stateStore.addDelta(getNameSpaceKey(key), field, delta);
+    }
+
     @Override
     public void close() {
         this.stateStore.close();
@@ -20,7 +20,6 @@ import io.yggdrash.common.config.DefaultConfig;
 import io.yggdrash.common.store.StateStore;
 import io.yggdrash.common.store.datasource.DbSource;
 import io.yggdrash.common.store.datasource.HashMapDbSource;
-import io.yggdrash.common.store.datasource.LevelDbDataSource;
 import io.yggdrash.core.blockchain.BranchId;
 
 public class StoreBuilder {
@@ -43,12 +42,12 @@ public class StoreBuilder {
     }
 
     public PeerStore buildPeerStore() {
-        return new PeerStore(getDbSource(branchId + "/peers"));
+        return new PeerStore(getDbSource("peers"));
     }
 
-    private DbSource<byte[], byte[]> getDbSource(String name) {
+    private DbSource<byte[], byte[]> getDbSource(String store) {
         if (config.isProductionMode()) {
-            return new LevelDbDataSource(config.getDatabasePath(), name);
+            return config.getDatabaseEngine(store).create(config.getDatabasePath(), branchId + "/" + store);
         } else {
             return new HashMapDbSource();
         }
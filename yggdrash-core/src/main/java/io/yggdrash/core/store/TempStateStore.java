@@ -16,84 +16,168 @@
 
 package io.yggdrash.core.store;
 
-import com.google.common.primitives.Bytes;
 import com.google.gson.JsonObject;
-import io.yggdrash.common.Sha3Hash;
-import io.yggdrash.common.config.Constants;
-import io.yggdrash.common.crypto.HashUtil;
 import io.yggdrash.contract.core.store.ReadWriterStore;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.spongycastle.util.encoders.Hex;
+import io.yggdrash.contract.core.store.TypedStore;
 
+import java.math.BigInteger;
+import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Holds the changed values of the executing transactions on top of the state store.
+ * The state root of the changes is calculated once at the end of the block.
+ * A transaction executed in parallel binds a TxStateOverlay to its thread, then its changes are
+ * kept in the overlay until they are committed in the block order.
+ * The additions to the counters are summed aside and merged once before the end of the block, so the
+ * transactions paying a fee to the same branch do not conflict. The reads include the pending additions,
+ * so a transaction reading a counter conflicts with the previous additions to it and sees the same value
+ * as the serial execution. A put of the value replaces the pending additions of the previous transactions.
+ * The speculative transactions read the committed values while the others are committed, so the values are
+ * kept in a concurrent map and their order is kept aside under the lock.
+ */
 public class TempStateStore implements ReadWriterStore<String, JsonObject> {
-    private static final Logger log = LoggerFactory.getLogger(TempStateStore.class);
-    private static final String STATE_ROOT = "stateRoot";
-    private static final String STATE_HASH = "stateHash";
-
     private final ReentrantLock lock = new ReentrantLock();
 
-    // Shared Resources(stateStore, tempStore, stateRootHash, stateRootHashBak)
+    // Shared Resources(stateStore, tempStore)
     private final ReadWriterStore<String, JsonObject> stateStore;
-    private final Map<String, JsonObject> tempStore = new LinkedHashMap<>();
-    private Sha3Hash stateRootHash;
-    private Sha3Hash stateRootHashBak;
+    private final Map<String, JsonObject> tempStore = new ConcurrentHashMap<>();
+    // Order of the keys in tempStore, guarded by the lock
+    private final Set<String> tempKeys = new LinkedHashSet<>();
+    // Pending additions by key, the field maps are replaced instead of being changed in place
+    private final Map<String, Map<String, BigInteger>> deltas = new ConcurrentHashMap<>();
+    // Order of the keys in deltas, guarded by the lock
+    private final Set<String> deltaKeys = new LinkedHashSet<>();
+    private final ThreadLocal<TxStateOverlay> overlay = new ThreadLocal<>();
 
     public TempStateStore(ReadWriterStore<String, JsonObject> originStore) {
         this.stateStore = originStore;
-        setStateRootHash();
     }
 
-    public Sha3Hash getStateRoot() {
-        return stateRootHash;
+    /**
+     * Binds the overlay to the current thread. The reads and writes of the thread go through it until unbind.
+     */
+    public void bind(TxStateOverlay txOverlay) {
+        overlay.set(txOverlay);
+    }
+
+    public void unbind() {
+        overlay.remove();
+    }
+
+    public TxStateOverlay getOverlay() {
+        return overlay.get();
     }
 
     @Override
     public void put(String key, JsonObject value) {
+        TxStateOverlay txOverlay = overlay.get();
+        if (txOverlay != null) {
+            txOverlay.put(key, value);
+            return;
+        }
         lock.lock();
         try {
-            tempStore.put(key, value);
-            tempStore.put(STATE_ROOT, stateRoot(key, value)); // sateRootObj contains stateHash
+            putCommitted(key, value);
         } finally {
             lock.unlock();
         }
     }
 
-    // TODO: delete logging for speed up
-    private JsonObject stateRoot(String key, JsonObject value) {
-        stateRootHashBak = stateRootHash;
-        byte[] changedStateRootByte =  HashUtil.sha3(key.concat(value.toString()).getBytes());
-        log.trace("key={} value={} changedStateRoot={}",
-                key, value.toString(), stateRootHash.toString(), Hex.toHexString(changedStateRootByte));
-        log.trace("before stateRootHash={}", stateRootHash);
-        stateRootHash = new Sha3Hash(Bytes.concat(stateRootHash.getBytes(), changedStateRootByte));
-        log.trace("after stateRootHash={}", stateRootHash);
-        return stateRootObj(stateRootHash);
+    @Override
+    public void addDelta(String key, String field, BigInteger delta) {
+        TxStateOverlay txOverlay = overlay.get();
+        if (txOverlay != null) {
+            txOverlay.addDelta(key, field, delta);
+            return;
+        }
+        lock.lock();
+        try {
+            addCommittedDelta(key, field, delta);
+        } finally {
+            lock.unlock();
+        }
     }
 
-    private JsonObject stateRootObj(Sha3Hash stateHash) {
-        JsonObject obj = contains(STATE_ROOT) ? get(STATE_ROOT) : new JsonObject();
-        obj.addProperty(STATE_HASH, stateHash.toString());
-        return obj;
+    private void addCommittedDelta(String key, String field, BigInteger delta) {
+        Map<String, BigInteger> fields = new LinkedHashMap<>(deltas.getOrDefault(key, Collections.emptyMap()));
+        fields.merge(field, delta, BigInteger::add);
+        deltaKeys.add(key);
+        deltas.put(key, fields);
+    }
+
+    static void addDelta(Map<String, Map<String, BigInteger>> deltas, String key, String field, BigInteger delta) {
+        deltas.computeIfAbsent(key, k -> new LinkedHashMap<>()).merge(field, delta, BigInteger::add);
     }
 
     @Override
     public JsonObject get(String key) {
-        if (tempStore.get(key) != null) {
-            return tempStore.get(key);
+        TxStateOverlay txOverlay = overlay.get();
+        if (txOverlay == null) {
+            return addDeltas(getCommitted(key), deltas.get(key));
+        }
+        if (txOverlay.isWritten(key)) {
+            return txOverlay.getWritten(key);
+        }
+        txOverlay.addRead(key);
+        Map<String, BigInteger> pending = deltas.get(key);
+        Map<String, BigInteger> own = txOverlay.getDeltaSet().get(key);
+        if (pending == null && own == null) {
+            JsonObject value = getCommitted(key);
+            // The committed values are shared by the speculative transactions
+            return value != null && txOverlay.isSpeculative() ? value.deepCopy() : value;
+        }
+        // The additions return a copy of the value
+        return addDeltas(addDeltas(getCommitted(key), pending), own);
+    }
+
+    private static JsonObject addDeltas(JsonObject value, Map<String, BigInteger> fields) {
+        if (fields == null) {
+            return value;
+        }
+        for (Map.Entry<String, BigInteger> delta : fields.entrySet()) {
+            value = TypedStore.addBigInteger(value, delta.getKey(), delta.getValue());
+        }
+        return value;
+    }
+
+    private JsonObject getCommitted(String key) {
+        JsonObject value = tempStore.get(key);
+        if (value != null) {
+            return value;
         } else {
             return stateStore.get(key);
         }
     }
 
+    private void putCommitted(String key, JsonObject value) {
+        // The value replaces the additions of the previous transactions, it has read them if it depends on them
+        if (deltaKeys.remove(key)) {
+            deltas.remove(key);
+        }
+        putValue(key, value);
+    }
+
+    private void putValue(String key, JsonObject value) {
+        tempKeys.add(key);
+        tempStore.put(key, value);
+    }
+
     @Override
     public boolean contains(String key) {
-        if (tempStore.containsKey(key)) {
+        TxStateOverlay txOverlay = overlay.get();
+        if (txOverlay != null) {
+            if (txOverlay.isWritten(key) || txOverlay.getDeltaSet().containsKey(key)) {
+                return true;
+            }
+            txOverlay.addRead(key);
+        }
+        if (tempStore.containsKey(key) || deltas.containsKey(key)) {
             return true;
         } else {
             return stateStore.contains(key);
@@ -102,33 +186,94 @@ public class TempStateStore implements ReadWriterStore<String, JsonObject> {
 
     @Override
     public void close() {
-        tempStore.clear();
-        setStateRootHash();
+        TxStateOverlay txOverlay = overlay.get();
+        if (txOverlay != null) {
+            txOverlay.clear();
+        } else {
+            lock.lock();
+            try {
+                tempStore.clear();
+                tempKeys.clear();
+                deltas.clear();
+                deltaKeys.clear();
+            } finally {
+                lock.unlock();
+            }
+        }
     }
 
     public void putAll(Set<Map.Entry<String, JsonObject>> values) {
         lock.lock();
         try {
-            values.forEach(entry -> tempStore.put(entry.getKey(), entry.getValue()));
+            values.forEach(entry -> putCommitted(entry.getKey(), entry.getValue()));
         } finally {
             lock.unlock();
         }
     }
 
-    public Set<Map.Entry<String, JsonObject>> changeValues() {
-        return this.tempStore.entrySet();
+    /**
+     * Commits the additions of a transaction executed in an overlay.
+     */
+    public void putDeltas(Map<String, Map<String, BigInteger>> values) {
+        lock.lock();
+        try {
+            values.forEach((key, fields) -> fields.forEach((field, delta) -> addCommittedDelta(key, field, delta)));
+        } finally {
+            lock.unlock();
+        }
     }
 
-    public void revertStateRootHash() {
-        stateRootHash = stateRootHashBak;
+    /**
+     * Adds the summed additions to the values. It is called once before the end block methods are invoked.
+     *
+     * @return the merged values
+     */
+    public Set<Map.Entry<String, JsonObject>> mergeDeltas() {
+        Map<String, JsonObject> merged = new LinkedHashMap<>();
+        lock.lock();
+        try {
+            for (String key : deltaKeys) {
+                JsonObject value = addDeltas(getCommitted(key), deltas.get(key));
+                putValue(key, value);
+                merged.put(key, value);
+            }
+            deltas.clear();
+            deltaKeys.clear();
+        } finally {
+            lock.unlock();
+        }
+        return merged.entrySet();
     }
 
-    private void setStateRootHash() {
-        if (stateStore.contains(STATE_ROOT)) {
-            stateRootHash = new Sha3Hash(stateStore.get(STATE_ROOT).get(STATE_HASH).getAsString());
-        } else {
-            stateRootHash = new Sha3Hash(Constants.EMPTY_HASH);
+    /**
+     * Checks whether the overlay has read a key written or added to by the committed transactions of the block.
+     * The read keys are looked up in place, so the check doesn't grow with the changes of the block.
+     *
+     * @param txOverlay overlay of a transaction executed on the state at the start of the block
+     * @return true if the transaction should be executed again
+     */
+    public boolean isConflicted(TxStateOverlay txOverlay) {
+        lock.lock();
+        try {
+            return txOverlay.isConflicted(tempKeys) || txOverlay.isConflicted(deltaKeys);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Set<Map.Entry<String, JsonObject>> changeValues() {
+        TxStateOverlay txOverlay = overlay.get();
+        if (txOverlay != null) {
+            return txOverlay.getWriteSet().entrySet();
+        }
+        Map<String, JsonObject> values = new LinkedHashMap<>();
+        lock.lock();
+        try {
+            tempKeys.forEach(key -> values.put(key, tempStore.get(key)));
+        } finally {
+            lock.unlock();
         }
+        return values.entrySet();
     }
 
-}
\ No newline at end of file
+}
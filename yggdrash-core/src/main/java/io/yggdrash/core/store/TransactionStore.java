@@ -18,21 +18,22 @@ package io.yggdrash.core.store;
 
 import com.google.common.collect.EvictingQueue;
 import io.yggdrash.common.Sha3Hash;
+import io.yggdrash.common.config.Constants;
+import io.yggdrash.common.exception.FailedOperationException;
 import io.yggdrash.common.store.datasource.DbSource;
 import io.yggdrash.contract.core.store.ReadWriterStore;
 import io.yggdrash.core.blockchain.Block;
 import io.yggdrash.core.blockchain.Transaction;
 import io.yggdrash.core.blockchain.TransactionImpl;
 import io.yggdrash.core.exception.NonExistObjectException;
-import org.ehcache.Cache;
-import org.ehcache.config.builders.CacheConfigurationBuilder;
-import org.ehcache.config.builders.CacheManagerBuilder;
-import org.ehcache.config.builders.ResourcePoolsBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
@@ -42,63 +43,48 @@ import java.util.concurrent.locks.ReentrantLock;
 
 public class TransactionStore implements ReadWriterStore<Sha3Hash, Transaction> {
     private static final Logger log = LoggerFactory.getLogger(TransactionStore.class);
-    private static final Lock lock = new ReentrantLock();
     private static final int CACHE_SIZE = 1000;
 
     private final DbSource<byte[], byte[]> db;
 
-    // Shared resources(pendingPool, pendingKeys, stateRoot) must be synchronized.
-    private final Cache<Sha3Hash, Transaction> pendingPool;
-    private final Queue<Sha3Hash> pendingKeys;
+    // The pendingPool is synchronized by itself. The lock guards the readCache only.
+    private final PendingTxPool pendingPool;
+    private final Lock lock = new ReentrantLock();
 
-    private Queue<Transaction> readCache;
+    private final Queue<Transaction> readCache;
 
     public TransactionStore(DbSource<byte[], byte[]> db) {
-        this.db = db.init();
-        this.pendingPool = CacheManagerBuilder
-                .newCacheManagerBuilder().build(true)
-                .createCache("txPool", CacheConfigurationBuilder
-                        .newCacheConfigurationBuilder(Sha3Hash.class, Transaction.class,
-                                ResourcePoolsBuilder.heap(CACHE_SIZE)));
-        this.pendingKeys = EvictingQueue.create(CACHE_SIZE);
-        this.readCache = EvictingQueue.create(CACHE_SIZE);
+        this(db, CACHE_SIZE, Constants.TX_POOL_CAPACITY);
     }
 
     TransactionStore(DbSource<byte[], byte[]> db, int cacheSize) {
-        this(db);
-        this.readCache = EvictingQueue.create(cacheSize);
+        this(db, cacheSize, Constants.TX_POOL_CAPACITY);
     }
 
-    public Collection<Transaction> getRecentTxs() {
-        return new ArrayList<>(readCache);
+    public TransactionStore(DbSource<byte[], byte[]> db, int cacheSize, int pendingPoolCapacity) {
+        this.db = db.init();
+        this.pendingPool = new PendingTxPool(pendingPoolCapacity);
+        this.readCache = EvictingQueue.create(cacheSize);
     }
 
-    @Override
-    public boolean contains(Sha3Hash key) {
-        if (key == null || key.getBytes() == null) {
-            log.warn("contains() is failed. key is not valid.");
-            return false;
-        }
-
+    public Collection<Transaction> getRecentTxs() {
         lock.lock();
         try {
-            return pendingPool.containsKey(key) || db.get(key.getBytes()) != null;
-        } catch (Exception e) {
-            log.warn("contains() is failed. {} {}", e.getMessage(), key.toString());
-            return false;
+            return new ArrayList<>(readCache);
         } finally {
             lock.unlock();
         }
     }
 
-    private boolean containsUnlock(Sha3Hash key) {
+    @Override
+    public boolean contains(Sha3Hash key) {
         if (key == null || key.getBytes() == null) {
             log.warn("contains() is failed. key is not valid.");
             return false;
         }
 
         try {
-            return pendingPool.containsKey(key) || db.get(key.getBytes()) != null;
+            return pendingPool.contains(key) || db.get(key.getBytes()) != null;
         } catch (Exception e) {
             log.warn("contains() is failed. {} {}", e.getMessage(), key.toString());
             return false;
@@ -112,25 +98,31 @@ public class TransactionStore implements ReadWriterStore<Sha3Hash, Transaction>
 
     @Override
     public void put(Sha3Hash key, Transaction tx) {
-        lock.lock();
         try {
-            if (!containsUnlock(key)) {
-                pendingPool.put(key, tx);
-                if (pendingPool.containsKey(key)) {
-                    pendingKeys.add(key);
-                } else {
-                    log.debug("unconfirmedTxs size={}, ignore key={}", pendingKeys.size(), key);
-                }
-            }
+            addPending(key, tx);
         } catch (Exception e) {
             log.warn("put() is failed. {} {}", e.getMessage(), key.toString());
-        } finally {
-            lock.unlock();
         }
     }
 
+    /**
+     * Adds a transaction to the pending pool.
+     *
+     * @param tx transaction to be added
+     * @throws FailedOperationException if the pending pool is full
+     */
     public void addTransaction(Transaction tx) {
-        put(tx.getHash(), tx);
+        addPending(tx.getHash(), tx);
+    }
+
+    private void addPending(Sha3Hash key, Transaction tx) {
+        if (contains(key)) {
+            return;
+        }
+        if (!pendingPool.add(tx) && !pendingPool.contains(key)) {
+            log.debug("unconfirmedTxs size={}, reject key={}", pendingPool.size(), key);
+            throw new FailedOperationException("Pending transaction pool is full");
+        }
     }
 
     @Override
@@ -145,90 +137,82 @@ public class TransactionStore implements ReadWriterStore<Sha3Hash, Transaction>
     }
 
     public void batch(Set<Sha3Hash> keys) {
-        if (keys.isEmpty()) {
+        batch(keys, false);
+    }
+
+    /**
+     * Stores the pending transactions of the keys in a single batch and removes them from the pending pool.
+     *
+     * @param keys hashes of the transactions confirmed by a block
+     * @param sync true if the batch should be flushed to the disk
+     */
+    public void batch(Set<Sha3Hash> keys, boolean sync) {
+        batch(keys, Collections.emptyList(), sync);
+    }
+
+    /**
+     * Stores the pending transactions of the keys and the confirmed transactions in a single batch
+     * and removes them from the pending pool.
+     * The confirmed transactions are written directly, so they are not limited by the capacity of the pending pool.
+     *
+     * @param keys hashes of the pending transactions confirmed by a block
+     * @param confirmedTxs transactions of a block which don't have to be in the pending pool
+     * @param sync true if the batch should be flushed to the disk
+     */
+    public void batch(Set<Sha3Hash> keys, Collection<Transaction> confirmedTxs, boolean sync) {
+        if (keys.isEmpty() && confirmedTxs.isEmpty()) {
             return;
         }
 
-        lock.lock();
-        try {
-            Map<Sha3Hash, Transaction> map = pendingPool.getAll(keys);
-            for (Map.Entry<Sha3Hash, Transaction> entry : map.entrySet()) {
-                Transaction foundTx = entry.getValue();
-                if (foundTx != null) {
-                    db.put(entry.getKey().getBytes(), foundTx.toBinary());
-                    addReadCache(foundTx);
-                }
-            }
-            this.flush(keys);
-        } finally {
-            lock.unlock();
+        Map<Sha3Hash, Transaction> foundTxs = new LinkedHashMap<>();
+        for (Transaction foundTx : pendingPool.getAll(keys)) {
+            foundTxs.put(foundTx.getHash(), foundTx);
         }
-    }
-
-    private void addReadCache(Transaction tx) {
-        readCache.add(tx);
-    }
-
-
-    public List<Transaction> getUnconfirmedTxsWithLimit(long limit) {
-        lock.lock();
-        try {
-            long bodySizeSum = 0;
-            List<Transaction> unconfirmedTxs = new ArrayList<>(pendingKeys.size());
-            for (Sha3Hash key : pendingKeys) {
-                Transaction tx = pendingPool.get(key);
-                if (tx != null) {
-                    bodySizeSum += tx.getLength();
-                    if (bodySizeSum > limit) {
-                        break;
-                    }
-                    unconfirmedTxs.add(tx);
-                }
-            }
-            return unconfirmedTxs;
-        } finally {
-            lock.unlock();
+        for (Transaction confirmedTx : confirmedTxs) {
+            foundTxs.putIfAbsent(confirmedTx.getHash(), confirmedTx);
         }
+        Map<byte[], byte[]> rows = new LinkedHashMap<>();
+        for (Transaction foundTx : foundTxs.values()) {
+            rows.put(foundTx.getHash().getBytes(), foundTx.toBinary());
+        }
+        db.updateByBatch(rows, sync);
+        addReadCache(foundTxs.values());
+        Set<Sha3Hash> batchedKeys = new HashSet<>(keys);
+        batchedKeys.addAll(foundTxs.keySet());
+        this.flush(batchedKeys);
     }
 
-    public Collection<Transaction> getUnconfirmedTxs() {
+    private void addReadCache(Collection<Transaction> txs) {
         lock.lock();
         try {
-            Collection<Transaction> unconfirmedTxs = getTransactionList();
-            if (!unconfirmedTxs.isEmpty()) {
-                log.trace("unconfirmedKeys={} unconfirmedTxs={}", pendingKeys.size(), unconfirmedTxs.size());
-            }
-            return unconfirmedTxs;
+            readCache.addAll(txs);
         } finally {
             lock.unlock();
         }
     }
 
-    public int getUnconfirmedTxsSize() {
-        return this.pendingKeys.size();
+    public List<Transaction> getUnconfirmedTxsWithLimit(long limit) {
+        return pendingPool.getWithLimit(limit);
     }
 
-    private List<Transaction> getTransactionList() {
-        List<Transaction> unconfirmedTxs = new ArrayList<>();
-        for (Sha3Hash key : pendingKeys) {
-            unconfirmedTxs.add(pendingPool.get(key));
+    public Collection<Transaction> getUnconfirmedTxs() {
+        Collection<Transaction> unconfirmedTxs = pendingPool.getAll();
+        if (!unconfirmedTxs.isEmpty()) {
+            log.trace("unconfirmedTxs={}", unconfirmedTxs.size());
         }
         return unconfirmedTxs;
     }
 
+    public int getUnconfirmedTxsSize() {
+        return pendingPool.size();
+    }
+
     public void flush(Set<Sha3Hash> keys) {
-        pendingPool.removeAll(keys);
-        pendingKeys.removeAll(keys);
-        log.trace("flushSize={} remainPendingSize={}", keys.size(), pendingKeys.size());
+        pendingPool.remove(keys);
+        log.trace("flushSize={} remainPendingSize={}", keys.size(), pendingPool.size());
     }
 
     public void updateCache(Block block) {
-        lock.lock();
-        try {
-            List<Transaction> body = block.getBody().getTransactionList();
-            this.readCache.addAll(body);
-        } finally {
-            lock.unlock();
-        }
+        addReadCache(block.getBody().getTransactionList());
     }
 }
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.yggdrash.core.store;
+
+import com.google.gson.JsonObject;
+import io.yggdrash.contract.core.store.TypedStore;
+
+import java.math.BigInteger;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * State changes of a single transaction on top of the TempStateStore.
+ * It records the keys read from the underlying state and keeps the writes to itself, so the transaction
+ * can be executed in parallel with the others and committed later in the block order.
+ */
+public class TxStateOverlay {
+    // Pseudo key of the branch meta info that is read and written through the BranchStateStore
+    public static final String BRANCH_KEY = "branch";
+
+    private final boolean speculative;
+    private final Set<String> readSet = new HashSet<>();
+    private final Map<String, JsonObject> writeSet = new LinkedHashMap<>();
+    // Additions to the counters of the keys not written by the transaction
+    private final Map<String, Map<String, BigInteger>> deltaSet = new LinkedHashMap<>();
+    private boolean aborted;
+    private boolean branchChanged;
+
+    /**
+     * @param speculative true if the transaction is executed before the previous transactions are committed
+     */
+    public TxStateOverlay(boolean speculative) {
+        this.speculative = speculative;
+    }
+
+    public boolean isSpeculative() {
+        return speculative;
+    }
+
+    void put(String key, JsonObject value) {
+        // The value is read with the own additions, so they are replaced by it
+        deltaSet.remove(key);
+        writeSet.put(key, value);
+    }
+
+    boolean isWritten(String key) {
+        return writeSet.containsKey(key);
+    }
+
+    JsonObject getWritten(String key) {
+        return writeSet.get(key);
+    }
+
+    void addDelta(String key, String field, BigInteger delta) {
+        if (writeSet.containsKey(key)) {
+            writeSet.put(key, TypedStore.addBigInteger(writeSet.get(key), field, delta));
+        } else {
+            TempStateStore.addDelta(deltaSet, key, field, delta);
+        }
+    }
+
+    public void addRead(String key) {
+        readSet.add(key);
+    }
+
+    /**
+     * Marks the speculative execution as invalid. It is executed again when it is committed.
+     * It is used when the transaction has a side effect that can not be kept in the overlay.
+     */
+    public void abort() {
+        aborted = true;
+    }
+
+    public boolean isAborted() {
+        return aborted;
+    }
+
+    /**
+     * Marks that the transaction has changed the branch meta info directly.
+     */
+    public void markBranchChanged() {
+        branchChanged = true;
+    }
+
+    public boolean isBranchChanged() {
+        return branchChanged;
+    }
+
+    /**
+     * Checks whether the transaction has read a key that is written by the previous transactions.
+     *
+     * @param writtenKeys keys written by the committed transactions of the block
+     * @return true if the transaction should be executed again
+     */
+    public boolean isConflicted(Set<String> writtenKeys) {
+        if (aborted) {
+            return true;
+        }
+        for (String key : readSet) {
+            if (writtenKeys.contains(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public Map<String, JsonObject> getWriteSet() {
+        return writeSet;
+    }
+
+    /**
+     * Copies the overlay to be committed again.
+     * The written values are copied too, because the following transactions can change the committed ones.
+     */
+    public TxStateOverlay copy() {
+        TxStateOverlay copy = new TxStateOverlay(speculative);
+        copy.readSet.addAll(readSet);
+        writeSet.forEach((key, value) -> copy.writeSet.put(key, value != null ? value.deepCopy() : null));
+        deltaSet.forEach((key, fields) -> copy.deltaSet.put(key, new LinkedHashMap<>(fields)));
+        copy.aborted = aborted;
+        copy.branchChanged = branchChanged;
+        return copy;
+    }
+
+    public Map<String, Map<String, BigInteger>> getDeltaSet() {
+        return deltaSet;
+    }
+
+    void clear() {
+        writeSet.clear();
+        deltaSet.clear();
+    }
+}
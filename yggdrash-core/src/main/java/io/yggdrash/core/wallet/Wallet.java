@@ -33,6 +33,9 @@ import org.beryx.textio.TextIoFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.spongycastle.crypto.InvalidCipherTextException;
+import org.spongycastle.crypto.digests.SHA256Digest;
+import org.spongycastle.crypto.generators.HKDFBytesGenerator;
+import org.spongycastle.crypto.params.HKDFParameters;
 import org.spongycastle.util.encoders.Hex;
 
 import java.io.File;
@@ -296,6 +299,21 @@ public class Wallet {
         }
     }
 
+    /**
+     * Derive a key for another purpose from the private key with HKDF-SHA256.
+     * The private key can't be recovered from the derived key, and each info derives an independent key.
+     *
+     * @param info purpose of the derived key
+     * @return derived key as byte[32]
+     */
+    public byte[] deriveKey(byte[] info) {
+        HKDFBytesGenerator generator = new HKDFBytesGenerator(new SHA256Digest());
+        generator.init(new HKDFParameters(key.getPrivKeyBytes(), null, info));
+        byte[] derivedKey = new byte[32];
+        generator.generateBytes(derivedKey, 0, derivedKey.length);
+        return derivedKey;
+    }
+
     /**
      * Sign data as hex string.
      *
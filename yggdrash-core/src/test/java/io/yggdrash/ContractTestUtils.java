@@ -69,7 +69,11 @@ import static io.yggdrash.common.config.Constants.BASE_CURRENCY;
 public class ContractTestUtils {
 
     public static Map<ContractManager, ContractStore> createContractManager(GenesisBlock genesis) {
-        DefaultConfig config = new DefaultConfig();
+        return createContractManager(genesis, new DefaultConfig());
+    }
+
+    public static Map<ContractManager, ContractStore> createContractManager(GenesisBlock genesis,
+                                                                            DefaultConfig config) {
         BlockChainStore bcStore = BlockChainStoreBuilder.newBuilder(genesis.getBranchId())
                 .withDataBasePath(config.getDatabasePath())
                 .withProductionMode(config.isProductionMode())
@@ -144,23 +148,12 @@ public class ContractTestUtils {
         BlockRuntimeResult genesisResult = contractManager.executeTxs(BlockChainTestUtils.genesisBlock());
         contractManager.commitBlockResult(genesisResult);
 
-        if (prevBlock.getHeader().getIndex() != 0L) {
-            byte[] prevStateRoot = prevBlock.getHeader().getStateRoot();
-            contractStore.getStateStore().put("stateRoot", createStateHashObj(prevStateRoot));
-        }
-
+        // The state trie of the prevBlock is not known, so the txs are executed on top of the genesis state
         BlockRuntimeResult result = contractManager.executeTxs(txs);
         contractManager.commitBlockResult(result);
         return new Sha3Hash(result.getBlockResult().get("stateRoot").get("stateHash").getAsString());
     }
 
-    private static JsonObject createStateHashObj(byte[] stateRootBytes) {
-        Sha3Hash prevStateRootHash = new Sha3Hash(stateRootBytes, true);
-        JsonObject stateHash = new JsonObject();
-        stateHash.addProperty("stateHash", prevStateRootHash.toString());
-        return  stateHash;
-    }
-
     public static String setNamespace(ContractManager manager, ContractVersion contractVersion) {
         Bundle bundle = manager.getBundle(contractVersion);
         String name = bundle.getSymbolicName();
@@ -2,6 +2,7 @@ package io.yggdrash.common.config;
 
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigFactory;
+import io.yggdrash.common.store.datasource.DbEngine;
 import org.junit.Before;
 import org.junit.Test;
 import org.slf4j.Logger;
@@ -53,6 +54,15 @@ public class DefaultConfigTest {
                 + defaultConfig.getString(Constants.YGGDRASH_KEY_PATH));
     }
 
+    @Test
+    public void shouldSelectDatabaseEngineOfStore() {
+        Config config = ConfigFactory.parseString("yggdrash.database.engines.blocks = rocksdb");
+        DefaultConfig defaultConfig = new DefaultConfig(config);
+
+        assertThat(defaultConfig.getDatabaseEngine("blocks")).isEqualTo(DbEngine.ROCKSDB);
+        assertThat(defaultConfig.getDatabaseEngine("state")).isEqualTo(DbEngine.LEVELDB);
+    }
+
     /**
      * This is the test for printing Class.
      */
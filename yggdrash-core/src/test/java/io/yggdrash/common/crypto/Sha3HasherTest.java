@@ -0,0 +1,51 @@
+package io.yggdrash.common.crypto;
+
+import io.yggdrash.common.utils.ByteUtil;
+import org.junit.Test;
+import org.spongycastle.util.encoders.Hex;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class Sha3HasherTest {
+
+    private static final byte[] INPUT = "0000000000000000000000000000000000000000000000000000000000000000".getBytes();
+
+    @Test
+    public void shouldHashKeccak256() {
+        assertEquals("c5d2460186f7233c927e7db2dcc703c0e500b653ca82273b7bfad8045d85a470",
+                Hex.toHexString(Sha3Hasher.get().digest()));
+        assertArrayEquals(HashUtil.sha3(INPUT), Sha3Hasher.get().update(INPUT).digest());
+    }
+
+    @Test
+    public void shouldStreamInput() {
+        byte[] expected = HashUtil.sha3(ByteUtil.merge(INPUT, ByteUtil.longToBytes(Long.MIN_VALUE + 1)));
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(INPUT.length - 10);
+        direct.put(INPUT, 10, INPUT.length - 10).flip();
+        byte[] streamed = Sha3Hasher.get()
+                .update(INPUT[0])
+                .update(INPUT, 1, 9)
+                .update(direct)
+                .update(Long.MIN_VALUE + 1)
+                .digest();
+
+        assertArrayEquals(expected, streamed);
+        assertEquals(0, direct.remaining());
+    }
+
+    @Test
+    public void shouldDigestIntoBuffer() {
+        byte[] buffer = new byte[40];
+        ByteBuffer readOnly = ByteBuffer.wrap(INPUT).asReadOnlyBuffer();
+        Sha3Hasher.get().update(readOnly).digest(buffer, 8);
+
+        byte[] hash = new byte[32];
+        System.arraycopy(buffer, 8, hash, 0, hash.length);
+        assertArrayEquals(HashUtil.sha3(INPUT), hash);
+        assertArrayEquals(HashUtil.sha3(HashUtil.sha3(INPUT)), HashUtil.hash(INPUT, "KECCAK-256", true));
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.yggdrash.common.crypto.zksnark;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BlsTest {
+    private static final byte[] MESSAGE = "message".getBytes(StandardCharsets.UTF_8);
+
+    private final List<BigInteger> secretKeys = new ArrayList<>();
+    private final List<byte[]> publicKeys = new ArrayList<>();
+    private final List<byte[]> signatures = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        for (int i = 0; i < 4; i++) {
+            BigInteger secretKey = Bls.secretKey(new byte[] {(byte) i});
+            secretKeys.add(secretKey);
+            publicKeys.add(Bls.publicKey(secretKey));
+            signatures.add(Bls.sign(secretKey, MESSAGE));
+        }
+    }
+
+    @Test
+    public void shouldVerifySignature() {
+        assertThat(publicKeys.get(0)).hasSize(Bls.PUBLIC_KEY_LENGTH);
+        assertThat(signatures.get(0)).hasSize(Bls.SIGNATURE_LENGTH);
+
+        assertThat(Bls.verify(publicKeys.get(0), MESSAGE, signatures.get(0))).isTrue();
+        assertThat(Bls.verify(publicKeys.get(1), MESSAGE, signatures.get(0))).isFalse();
+        assertThat(Bls.verify(publicKeys.get(0), "other".getBytes(StandardCharsets.UTF_8), signatures.get(0)))
+                .isFalse();
+    }
+
+    @Test
+    public void shouldVerifyAggregateSignature() {
+        byte[] aggregate = Bls.aggregate(signatures);
+
+        assertThat(Bls.verifyAggregate(publicKeys, MESSAGE, aggregate)).isTrue();
+        assertThat(Bls.verifyAggregate(publicKeys.subList(0, 3), MESSAGE, aggregate)).isFalse();
+        assertThat(Bls.verifyAggregate(publicKeys, MESSAGE, Bls.aggregate(signatures.subList(0, 3)))).isFalse();
+    }
+
+    @Test
+    public void shouldNotVerifyDuplicatedKeys() {
+        byte[] aggregate = Bls.aggregate(Arrays.asList(signatures.get(0), signatures.get(0)));
+
+        assertThat(Bls.verifyAggregate(Arrays.asList(publicKeys.get(0), publicKeys.get(0)), MESSAGE, aggregate))
+                .isFalse();
+    }
+
+    @Test
+    public void shouldVerifyProofOfPossession() {
+        assertThat(Bls.verifyProof(publicKeys.get(2), Bls.proveKey(secretKeys.get(2)))).isTrue();
+        assertThat(Bls.verifyProof(publicKeys.get(2), Bls.proveKey(secretKeys.get(1)))).isFalse();
+        // A signature of the message is not a proof
+        assertThat(Bls.verifyProof(publicKeys.get(2), signatures.get(2))).isFalse();
+    }
+
+    @Test
+    public void shouldNotDecodeInvalidPoint() {
+        byte[] invalid = signatures.get(0).clone();
+        invalid[Bls.SIGNATURE_LENGTH - 1] ^= 1;
+
+        assertThat(Bls.verify(publicKeys.get(0), MESSAGE, invalid)).isFalse();
+        assertThat(Bls.aggregate(Arrays.asList(signatures.get(1), invalid))).isNull();
+    }
+}
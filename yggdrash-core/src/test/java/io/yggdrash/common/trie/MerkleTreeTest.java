@@ -0,0 +1,82 @@
+package io.yggdrash.common.trie;
+
+import io.yggdrash.common.config.Constants;
+import io.yggdrash.common.crypto.HashUtil;
+import io.yggdrash.common.utils.ByteUtil;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertArrayEquals;
+
+public class MerkleTreeTest {
+
+    @Test
+    public void shouldBeSameAsRebuiltRoot() {
+        int[] sizes = {1, 2, 3, 7, 8, 33, MerkleTree.PARALLEL_THRESHOLD * 4 + 3};
+        List<byte[]> leaves = createLeaves(sizes[sizes.length - 1]);
+        MerkleTree tree = new MerkleTree();
+        assertArrayEquals(Constants.EMPTY_HASH, tree.getRoot());
+
+        for (int size : sizes) {
+            while (tree.size() < size) {
+                tree.append(leaves.get(tree.size()));
+            }
+            List<byte[]> hashTree = new ArrayList<>(leaves.subList(0, size));
+            assertArrayEquals(rebuildRoot(hashTree), tree.getRoot());
+            assertArrayEquals(tree.getRoot(), MerkleTree.of(hashTree).getRoot());
+        }
+    }
+
+    @Test
+    public void shouldVerifyProof() {
+        List<byte[]> leaves = createLeaves(13);
+        MerkleTree tree = MerkleTree.of(leaves);
+        byte[] root = tree.getRoot();
+        int count = leaves.size();
+
+        for (int i = 0; i < count; i++) {
+            List<byte[]> proof = tree.getProof(i);
+            assertThat(MerkleTree.verifyProof(leaves.get(i), i, count, proof, root)).isTrue();
+            assertThat(MerkleTree.verifyProof(leaves.get((i + 1) % count), i, count, proof, root)).isFalse();
+        }
+        assertThat(MerkleTree.verifyProof(leaves.get(0), 0, count, tree.getProof(0), leaves.get(0))).isFalse();
+        assertThat(MerkleTree.verifyProof(leaves.get(0), 0, 1, tree.getProof(0), root)).isFalse();
+    }
+
+    @Test
+    public void shouldNotVerifyDuplicatedLeaf() {
+        List<byte[]> leaves = createLeaves(3);
+        List<byte[]> duplicated = new ArrayList<>(leaves);
+        duplicated.add(leaves.get(2));
+        MerkleTree tree = MerkleTree.of(duplicated);
+        // The last leaf of an odd level is paired with itself, so both trees have the same root
+        assertArrayEquals(MerkleTree.of(leaves).getRoot(), tree.getRoot());
+
+        assertThat(MerkleTree.verifyProof(leaves.get(2), 3, 4, tree.getProof(3), tree.getRoot())).isTrue();
+        assertThat(MerkleTree.verifyProof(leaves.get(2), 3, 3, tree.getProof(3), tree.getRoot())).isFalse();
+        assertThat(MerkleTree.verifyProof(leaves.get(2), 2, 3, tree.getProof(2), tree.getRoot())).isTrue();
+    }
+
+    private static List<byte[]> createLeaves(int size) {
+        List<byte[]> leaves = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            leaves.add(HashUtil.sha3(ByteUtil.longToBytes(i)));
+        }
+        return leaves;
+    }
+
+    private static byte[] rebuildRoot(List<byte[]> level) {
+        while (level.size() > 1) {
+            List<byte[]> parents = new ArrayList<>();
+            for (int left = 0; left < level.size(); left += 2) {
+                byte[] right = level.get(Math.min(left + 1, level.size() - 1));
+                parents.add(HashUtil.sha3(ByteUtil.merge(level.get(left), right)));
+            }
+            level = parents;
+        }
+        return level.get(0);
+    }
+}
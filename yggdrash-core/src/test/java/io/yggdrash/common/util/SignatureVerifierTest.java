@@ -0,0 +1,83 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.yggdrash.common.util;
+
+import com.google.protobuf.ByteString;
+import io.yggdrash.BlockChainTestUtils;
+import io.yggdrash.TestConstants;
+import io.yggdrash.core.blockchain.Transaction;
+import io.yggdrash.core.blockchain.TransactionImpl;
+import io.yggdrash.core.exception.InvalidSignatureException;
+import io.yggdrash.core.wallet.Address;
+import io.yggdrash.proto.Proto;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SignatureVerifierTest {
+
+    @Test
+    public void shouldBeVerifiedInParallel() {
+        List<Transaction> txList = IntStream.range(0, 100)
+                .mapToObj(i -> BlockChainTestUtils.createTransferTx()).collect(Collectors.toList());
+
+        assertThat(SignatureVerifier.verifySignatures(txList)).isTrue();
+    }
+
+    @Test
+    public void recoveredPubKeyShouldBeCached() {
+        List<Transaction> txList = IntStream.range(0, 10)
+                .mapToObj(i -> BlockChainTestUtils.createTransferTx()).collect(Collectors.toList());
+
+        SignatureVerifier.recoverAddresses(txList);
+
+        for (Transaction tx : txList) {
+            byte[] pubKey = tx.getPubKey();
+            assertThat(tx.getPubKey()).isSameAs(pubKey);
+            assertThat(tx.getAddress().getBytes()).isEqualTo(TestConstants.wallet().getAddress());
+        }
+    }
+
+    @Test
+    public void shouldBeRecoveredAsync() throws Exception {
+        Transaction tx = BlockChainTestUtils.createTransferTx();
+
+        Transaction recovered = SignatureVerifier.recoverAsync(tx).get();
+
+        assertThat(recovered).isSameAs(tx);
+        assertThat(VerifierUtils.verifySignature(recovered)).isTrue();
+    }
+
+    @Test
+    public void invalidSignatureShouldFailExplicitly() {
+        Proto.Transaction protoTx = BlockChainTestUtils.createTransferTx().getProtoTransaction().toBuilder()
+                .setSignature(ByteString.copyFrom(new byte[65])).build();
+        Transaction tx = new TransactionImpl(protoTx);
+
+        assertThatThrownBy(tx::getPubKey).isInstanceOf(InvalidSignatureException.class);
+        assertThatThrownBy(tx::getPubKey).isInstanceOf(InvalidSignatureException.class);
+        assertThat(tx.getAddress()).isEqualTo(Address.NULL_ADDRESS);
+        assertThat(VerifierUtils.verifySignature(tx)).isFalse();
+        assertThatThrownBy(() -> SignatureVerifier.recoverAsync(tx).join())
+                .hasCauseInstanceOf(InvalidSignatureException.class);
+    }
+}
@@ -14,6 +14,9 @@ package io.yggdrash.core.blockchain;
 
 import io.yggdrash.BlockChainTestUtils;
 import io.yggdrash.common.config.Constants;
+import io.yggdrash.contract.core.ExecuteStatus;
+import io.yggdrash.contract.core.Receipt;
+import io.yggdrash.contract.core.ReceiptImpl;
 import io.yggdrash.core.consensus.ConsensusBlock;
 import io.yggdrash.core.store.BlockChainStore;
 import io.yggdrash.core.store.BlockChainStoreBuilder;
@@ -23,6 +26,7 @@ import io.yggdrash.proto.PbftProto;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
@@ -106,6 +110,39 @@ public class BlockChainManagerImplTest {
         assertEquals(20, blockChainManager.getRecentTxs().size()); //invalid tx was excluded
     }
 
+    @Test
+    public void addBlockWhenPendingPoolIsFull() {
+        BlockChainStore store = BlockChainStoreBuilder.newBuilder(BranchId.NULL)
+                .withProductionMode(false)
+                .withTxPoolCapacity(1)
+                .setBlockStoreFactory((consensusAlgorithm, dbSource) -> new PbftBlockStoreMock(dbSource))
+                .build();
+        blockChainManager = new BlockChainManagerImpl<>(store);
+        ConsensusBlock<PbftProto.PbftBlock> genesisBlock = BlockChainTestUtils.genesisBlock();
+        blockChainManager.addBlock(genesisBlock);
+
+        Transaction pendingTx = BlockChainTestUtils.createTransferTx();
+        blockChainManager.addTransaction(pendingTx);
+        assertEquals(1, blockChainManager.getUnconfirmedTxsSize());
+
+        // The txs of the block were executed, but they were never in the full pending pool
+        List<Transaction> txs = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Transaction tx = BlockChainTestUtils.createTransferTx();
+            Receipt receipt = new ReceiptImpl(tx.getHash().toString(), tx.getLength(), tx.getAddress().toString());
+            receipt.setStatus(ExecuteStatus.SUCCESS);
+            store.getReceiptStore().put(tx.getHash().toString(), receipt);
+            txs.add(tx);
+        }
+        ConsensusBlock<PbftProto.PbftBlock> block = BlockChainTestUtils.createNextBlock(txs, genesisBlock, null);
+        blockChainManager.addBlock(block);
+
+        assertEquals(block, blockChainManager.getLastConfirmedBlock());
+        txs.forEach(tx -> assertEquals(tx, blockChainManager.getTxByHash(tx.getHash())));
+        assertEquals(1, blockChainManager.getUnconfirmedTxsSize());
+        assertTrue(blockChainManager.getUnconfirmedTxs().contains(pendingTx));
+    }
+
     private ConsensusBlock<PbftProto.PbftBlock> generateBlockWithTxs(Boolean valid) {
         for (int i = 0; i < 10; i++) {
             blockChainManager.addTransaction(BlockChainTestUtils.createTransferTx());
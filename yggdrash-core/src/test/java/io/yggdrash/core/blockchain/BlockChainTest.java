@@ -98,6 +98,44 @@ public class BlockChainTest extends CiTest {
         blockChain.addBlock(block, false);
     }
 
+    @Test
+    public void shouldBeAddedBlocksThroughPipeline() {
+        BlockChain blockChain = generateTestBlockChain(false);
+        BlockChainManager blockChainManager = blockChain.getBlockChainManager();
+        List<ConsensusBlock<PbftProto.PbftBlock>> blockList = new ArrayList<>();
+        ConsensusBlock prevBlock = blockChainManager.getLastConfirmedBlock();
+        for (int i = 0; i < 10; i++) {
+            prevBlock = BlockChainTestUtils.createNextBlock(
+                    new ArrayList<>(), prevBlock, blockChain.getContractManager());
+            blockList.add(prevBlock);
+        }
+
+        Map<String, List<String>> errorLogs = blockChain.addBlocks(blockList);
+
+        assertThat(errorLogs).isEmpty();
+        assertThat(blockChainManager.getLastIndex()).isEqualTo(10);
+        for (ConsensusBlock<PbftProto.PbftBlock> block : blockList) {
+            assertThat(blockChainManager.getBlockByHash(block.getHash())).isEqualTo(block);
+        }
+    }
+
+    @Test
+    public void pipelineShouldStopAtInvalidBlock() {
+        BlockChain blockChain = generateTestBlockChain(false);
+        BlockChainManager blockChainManager = blockChain.getBlockChainManager();
+        ConsensusBlock block1 = BlockChainTestUtils.createNextBlock(
+                new ArrayList<>(), blockChainManager.getLastConfirmedBlock(), blockChain.getContractManager());
+        ConsensusBlock invalidBlock = BlockChainTestUtils.createNextBlockByPrevHash(new Sha3Hash("9358"), block1);
+        List<ConsensusBlock> blockList = new ArrayList<>();
+        blockList.add(block1);
+        blockList.add(invalidBlock);
+
+        Map<String, List<String>> errorLogs = blockChain.addBlocks(blockList);
+
+        assertTrue(errorLogs.get("BusinessError").contains("Invalid BlockHash"));
+        assertThat(blockChainManager.getLastIndex()).isEqualTo(1);
+    }
+
     @Test
     public void shouldBeLoadedStoredBlocks() {
         BlockChain blockChain1 = generateTestBlockChain(true);
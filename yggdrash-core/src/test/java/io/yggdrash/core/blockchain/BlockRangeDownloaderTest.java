@@ -0,0 +1,154 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.yggdrash.core.blockchain;
+
+import io.yggdrash.BlockChainTestUtils;
+import io.yggdrash.StoreTestUtils;
+import io.yggdrash.common.Sha3Hash;
+import io.yggdrash.core.consensus.ConsensusBlock;
+import io.yggdrash.core.net.NodeStatusMock;
+import io.yggdrash.core.p2p.BlockChainHandler;
+import io.yggdrash.core.p2p.Peer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyList;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BlockRangeDownloaderTest {
+    private static final long BLOCK_COUNT = 50;
+    private static final long CHUNK_SIZE = 5;
+
+    private BlockChain blockChain;
+    private List<ConsensusBlock> blockList;
+
+    @Before
+    public void setUp() {
+        blockChain = BlockChainTestUtils.createBlockChain(false);
+        blockList = new ArrayList<>();
+        ConsensusBlock prevBlock = blockChain.getBlockChainManager().getLastConfirmedBlock();
+        for (int i = 0; i < BLOCK_COUNT; i++) {
+            prevBlock = BlockChainTestUtils.createNextBlock(
+                    new ArrayList<>(), prevBlock, blockChain.getContractManager());
+            blockList.add(prevBlock);
+        }
+    }
+
+    @After
+    public void tearDown() {
+        StoreTestUtils.clearDefaultConfigDb();
+    }
+
+    @Test
+    public void shouldDownloadFromAllPeers() {
+        BlockChainHandler peer1 = servingHandler(32921, 3);
+        BlockChainHandler peer2 = servingHandler(32922, CHUNK_SIZE);
+
+        long lastIndex = download(peer1, peer2);
+
+        assertThat(lastIndex).isEqualTo(BLOCK_COUNT);
+        for (ConsensusBlock block : blockList) {
+            assertThat(blockChain.getBlockChainManager().getBlockByHash(block.getHash())).isEqualTo(block);
+        }
+        verify(peer1, atLeastOnce()).syncBlock(any(BranchId.class), anyLong(), anyLong());
+        verify(peer2, atLeastOnce()).syncBlock(any(BranchId.class), anyLong(), anyLong());
+    }
+
+    @Test
+    public void shouldRetryChunkOnAnotherPeer() {
+        BlockChainHandler badPeer = handler(32921);
+        ConsensusBlock invalidBlock = BlockChainTestUtils.createNextBlockByPrevHash(new Sha3Hash("9358"),
+                blockList.get(0));
+        when(badPeer.syncBlock(any(BranchId.class), anyLong(), anyLong()))
+                .thenReturn(CompletableFuture.completedFuture(Arrays.asList(blockList.get(0), invalidBlock)));
+        BlockChainHandler emptyPeer = handler(32922);
+        when(emptyPeer.syncBlock(any(BranchId.class), anyLong(), anyLong()))
+                .thenReturn(CompletableFuture.completedFuture(new ArrayList<>()));
+        BlockChainHandler goodPeer = servingHandler(32923, CHUNK_SIZE);
+
+        long lastIndex = download(badPeer, emptyPeer, goodPeer);
+
+        assertThat(lastIndex).isEqualTo(BLOCK_COUNT);
+    }
+
+    @Test
+    public void shouldStopWhenNoPeerCanServe() {
+        BlockChainHandler lowPeer = servingHandler(32921, CHUNK_SIZE);
+        lowPeer.getPeer().setBestBlock(0);
+
+        long lastIndex = download(lowPeer);
+
+        assertThat(lastIndex).isEqualTo(0);
+        verify(lowPeer, never()).syncBlock(any(BranchId.class), anyLong(), anyLong());
+    }
+
+    @Test
+    public void shouldStopWhenImportMakesNoProgress() {
+        BlockChainHandler peer1 = servingHandler(32921, CHUNK_SIZE);
+        BlockChainHandler peer2 = servingHandler(32922, CHUNK_SIZE);
+        BlockChain stuckChain = mock(BlockChain.class);
+        when(stuckChain.getBranchId()).thenReturn(BranchId.NULL);
+        when(stuckChain.getBlockChainManager()).thenReturn(mock(BlockChainManager.class));
+        when(stuckChain.addBlocks(anyList())).thenReturn(new HashMap<>());
+
+        long lastIndex = new BlockRangeDownloader(NodeStatusMock.mock, stuckChain, Arrays.asList(peer1, peer2),
+                CHUNK_SIZE, 5000).download(BLOCK_COUNT);
+
+        assertThat(lastIndex).isEqualTo(0);
+        verify(stuckChain, times(2)).addBlocks(anyList());
+    }
+
+    private long download(BlockChainHandler... peerHandlers) {
+        return new BlockRangeDownloader(NodeStatusMock.mock, blockChain, Arrays.asList(peerHandlers),
+                CHUNK_SIZE, 5000).download(BLOCK_COUNT);
+    }
+
+    private BlockChainHandler servingHandler(int port, long maxCount) {
+        BlockChainHandler peerHandler = handler(port);
+        when(peerHandler.syncBlock(any(BranchId.class), anyLong(), anyLong())).thenAnswer(invocation -> {
+            long offset = (long) invocation.getArguments()[1];
+            long count = Math.min((long) invocation.getArguments()[2], maxCount);
+            int from = (int) offset - 1;
+            int to = (int) Math.min(offset - 1 + count, blockList.size());
+            return CompletableFuture.completedFuture(new ArrayList<>(blockList.subList(from, to)));
+        });
+        return peerHandler;
+    }
+
+    private BlockChainHandler handler(int port) {
+        Peer peer = Peer.valueOf("ynode://75bff16c@127.0.0.1:" + port);
+        peer.setBestBlock(BLOCK_COUNT);
+        BlockChainHandler peerHandler = mock(BlockChainHandler.class);
+        when(peerHandler.getPeer()).thenReturn(peer);
+        return peerHandler;
+    }
+}
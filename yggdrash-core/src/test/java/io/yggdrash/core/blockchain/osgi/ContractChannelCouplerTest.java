@@ -1,11 +1,18 @@
 package io.yggdrash.core.blockchain.osgi;
 
+import com.google.gson.JsonObject;
+import io.yggdrash.contract.core.channel.ContractMethodType;
 import io.yggdrash.core.contract.TestContract;
 import org.junit.Before;
 import org.junit.Test;
+
+import java.lang.reflect.InvocationTargetException;
 import java.util.HashMap;
 import java.util.Map;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
 public class ContractChannelCouplerTest {
 
     ContractCache cache;
@@ -58,5 +65,22 @@ public class ContractChannelCouplerTest {
 
     }
 
-
-}
\ No newline at end of file
+    @Test
+    public void invokerShouldCallCachedMethods() throws InvocationTargetException {
+        Object service = contractMap.get("TEST1");
+        Map<String, ContractInvoker> invokers =
+                cache.getContractMethodMap("TEST1", ContractMethodType.INVOKE, service);
+        assertThat(invokers).containsOnlyKeys("doNothing", "transfer", "callMethod");
+
+        Map<String, ContractInvoker> queries = cache.getContractMethodMap("TEST1", ContractMethodType.QUERY, service);
+        // The params are ignored by the method without parameter
+        assertThat(queries.get("someQuery").invoke(service, new JsonObject())).isEqualTo("");
+        assertThat(queries.get("yesmanQuery").invoke(service, new JsonObject())).isEqualTo("YES");
+        assertThat(invokers.get("doNothing").invoke(service, new JsonObject())).isEqualTo(true);
+
+        // The exception of the method is wrapped like Method.invoke
+        assertThatThrownBy(() -> invokers.get("transfer").invoke(service, new JsonObject()))
+                .isInstanceOf(InvocationTargetException.class)
+                .hasCauseInstanceOf(NullPointerException.class);
+    }
+}
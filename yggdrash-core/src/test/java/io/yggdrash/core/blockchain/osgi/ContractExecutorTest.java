@@ -13,6 +13,7 @@
 package io.yggdrash.core.blockchain.osgi;
 
 import com.google.gson.JsonObject;
+import com.typesafe.config.ConfigFactory;
 import io.yggdrash.BlockChainTestUtils;
 import io.yggdrash.ContractTestUtils;
 import io.yggdrash.TestConstants;
@@ -108,7 +109,7 @@ public class ContractExecutorTest {
         TransactionRuntimeResult res = manager.executeTx(tx); //executeTx -> invoke -> callContractMethod
 
         assertEquals(ExecuteStatus.SUCCESS, res.getReceipt().getStatus());
-        assertEquals(3, res.getChangeValues().size());
+        assertEquals(2, res.getChangeValues().size());
         assertEquals("100",
                 res.getChangeValues().get(getNamespaceKey(TestConstants.TRANSFER_TO)).get(BALANCE).getAsString());
         assertEquals("999900",
@@ -256,6 +257,58 @@ public class ContractExecutorTest {
         assertTrue(res.getReceipts().get(2).getLog().contains(SystemError.CONTRACT_VERSION_NOT_FOUND.toString()));
     }
 
+    @Test
+    public void parallelExecutionShouldBeSameAsSerial() {
+        DefaultConfig parallelConfig = new DefaultConfig(ConfigFactory.parseString("yggdrash.contract.parallel = 4"));
+        Map<ContractManager, ContractStore> map = ContractTestUtils.createContractManager(genesis, parallelConfig);
+        ContractManager parallelManager = map.keySet().stream().findFirst().get();
+        ContractStore parallelStore = map.values().stream().findFirst().get();
+        parallelManager.commitBlockResult(parallelManager.executeTxs(genesisBlock));
+
+        // Transfers and burns of the same sender conflict with each other, some of the burns are failed
+        List<Transaction> txs = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            txs.add(generateTx(BigInteger.valueOf(100)));
+            txs.add(createBurnTx(i % 2 == 0 ? "100" : "10000000"));
+        }
+        ConsensusBlock<PbftProto.PbftBlock> nextBlock = BlockChainTestUtils.createNextBlock(
+                wallet, txs, genesisBlock, manager);
+
+        BlockRuntimeResult serial = manager.executeTxs(nextBlock);
+        BlockRuntimeResult parallel = parallelManager.executeTxs(nextBlock);
+
+        assertEquals(serial.getReceipts().size(), parallel.getReceipts().size());
+        for (int i = 0; i < serial.getReceipts().size(); i++) {
+            assertEquals(serial.getReceipts().get(i).getTxId(), parallel.getReceipts().get(i).getTxId());
+            assertEquals(serial.getReceipts().get(i).getStatus(), parallel.getReceipts().get(i).getStatus());
+        }
+        assertEquals(serial.getBlockResult(), parallel.getBlockResult()); // contains stateRoot
+        assertEquals(0, parallelStore.getTmpStateStore().changeValues().size());
+    }
+
+    @Test
+    public void admittedTxShouldBeSameAsExecuted() {
+        Transaction tx = generateTx(BigInteger.valueOf(100));
+        Transaction otherTx = generateTx(BigInteger.valueOf(200));
+        assertEquals(ExecuteStatus.SUCCESS, manager.executeTx(tx).getReceipt().getStatus());
+        assertEquals(ExecuteStatus.SUCCESS, manager.executeTx(otherTx).getReceipt().getStatus());
+
+        // otherTx changes the balances that the admission of tx has read
+        ConsensusBlock<PbftProto.PbftBlock> nextBlock = BlockChainTestUtils.createNextBlock(
+                wallet, Collections.singletonList(otherTx), genesisBlock, manager);
+        manager.commitBlockResult(manager.executeTxs(nextBlock));
+
+        nextBlock = BlockChainTestUtils.createNextBlock(wallet, Collections.singletonList(tx), genesisBlock, manager);
+        BlockRuntimeResult res = manager.executeTxs(nextBlock);
+
+        assertEquals(ExecuteStatus.SUCCESS, res.getReceipts().get(0).getStatus());
+        assertEquals(tx.getHash().toString(), res.getReceipts().get(0).getTxId());
+        assertEquals("300",
+                res.getBlockResult().get(getNamespaceKey(TestConstants.TRANSFER_TO)).get(BALANCE).getAsString());
+        assertEquals("999700",
+                res.getBlockResult().get(getNamespaceKey(tx.getAddress().toString())).get(BALANCE).getAsString());
+    }
+
     @Test
     public void executeTxsTest() {
         //error tx [contract is not exist]
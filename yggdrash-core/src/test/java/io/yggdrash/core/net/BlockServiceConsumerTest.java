@@ -12,6 +12,7 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Iterator;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
@@ -71,6 +72,19 @@ public class BlockServiceConsumerTest {
         Assert.assertEquals(10, blockChainManager.getLastIndex());
     }
 
+    @Test
+    public void streamBlock() {
+        BlockChainTestUtils.setBlockHeightOfBlockChain(branch, 10);
+
+        Iterator<ConsensusBlock<PbftProto.PbftBlock>> blocks = blockServiceConsumer.streamBlock(branchId, 3, 5);
+
+        long index = 3;
+        while (blocks.hasNext()) {
+            Assert.assertEquals(index++, blocks.next().getIndex());
+        }
+        Assert.assertEquals(8, index);
+    }
+
     @Test
     public void broadcastBlock() {
         assertEquals(0, branchGroup.getBranch(branchId).getBlockChainManager().getLastIndex());
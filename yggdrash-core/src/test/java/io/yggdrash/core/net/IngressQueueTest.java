@@ -0,0 +1,62 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.yggdrash.core.net;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class IngressQueueTest {
+
+    @Test
+    public void shouldDropWhenFull() {
+        IngressQueue<Integer> queue = new IngressQueue<>("test", 2);
+
+        assertThat(queue.offer(1)).isTrue();
+        assertThat(queue.offer(2)).isTrue();
+        assertThat(queue.offer(3)).isFalse();
+
+        assertThat(queue.size()).isEqualTo(2);
+        assertThat(queue.getReceivedCount()).isEqualTo(3);
+        assertThat(queue.getDroppedCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldMeasureLatency() throws InterruptedException {
+        IngressQueue<Integer> queue = new IngressQueue<>("test", 2);
+        queue.offer(1);
+        Thread.sleep(10);
+
+        assertThat(queue.take()).isEqualTo(1);
+        assertThat(queue.poll()).isNull();
+        assertThat(queue.getTakenCount()).isEqualTo(1);
+        assertThat(queue.getTotalLatency()).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(10));
+        assertThat(queue.getMaxLatency()).isEqualTo(queue.getTotalLatency());
+    }
+
+    @Test
+    public void shouldAwaitEmpty() throws InterruptedException {
+        IngressQueue<Integer> queue = new IngressQueue<>("test", 2);
+        queue.offer(1);
+        assertThat(queue.awaitEmpty(10, TimeUnit.MILLISECONDS)).isFalse();
+
+        new Thread(queue::poll).start();
+        assertThat(queue.awaitEmpty(1, TimeUnit.SECONDS)).isTrue();
+    }
+}
@@ -0,0 +1,291 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.yggdrash.core.net;
+
+import com.google.gson.JsonObject;
+import io.yggdrash.BlockChainTestUtils;
+import io.yggdrash.PeerTestUtils;
+import io.yggdrash.common.Sha3Hash;
+import io.yggdrash.core.blockchain.BranchId;
+import io.yggdrash.core.blockchain.Transaction;
+import io.yggdrash.core.consensus.ConsensusBlock;
+import io.yggdrash.core.p2p.BlockChainDialer;
+import io.yggdrash.core.p2p.BlockChainHandler;
+import io.yggdrash.core.p2p.KademliaOptions;
+import io.yggdrash.core.p2p.Peer;
+import io.yggdrash.core.p2p.PeerDialer;
+import io.yggdrash.core.p2p.PeerTableGroup;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class KademliaPeerNetworkTest {
+    private static final long WAIT_SECONDS = 5;
+    private static final Peer FIRST_PEER = Peer.valueOf(PeerTestUtils.NODE_URI_PREFIX + 32931);
+    private static final Peer SECOND_PEER = Peer.valueOf(PeerTestUtils.NODE_URI_PREFIX + 32932);
+
+    private final Map<Peer, TxGossipHandler> handlerMap = new ConcurrentHashMap<>();
+    private final BranchId branchId = BlockChainTestUtils.createTransferTx().getBranchId();
+    private KademliaPeerNetwork peerNetwork;
+
+    @After
+    public void tearDown() {
+        handlerMap.values().forEach(TxGossipHandler::release);
+        if (peerNetwork != null) {
+            peerNetwork.destroy();
+        }
+    }
+
+    @Test
+    public void shouldAnnounceBatchAndSendRequestedTxs() throws Exception {
+        TxGossipHandler handler = handler(FIRST_PEER);
+        List<Transaction> txs = createTransferTxs(3);
+        // Only the first tx is requested, the peer has the others
+        handler.requested = hashes -> Collections.singletonList(hashes.get(0));
+        peerNetwork = createPeerNetwork(KademliaOptions.TX_GOSSIP_TIMEOUT, FIRST_PEER);
+
+        // The txs queued within the batching window are announced at once
+        txs.forEach(peerNetwork::receivedTransaction);
+        peerNetwork.init();
+
+        assertThat(handler.takeAnnounced()).isEqualTo(hashesOf(txs));
+        assertThat(handler.takeSent()).containsExactly(txs.get(0));
+
+        // The peer knows the sent and the unrequested txs, only the new one is announced
+        Transaction newTx = BlockChainTestUtils.createTransferTx();
+        txs.forEach(peerNetwork::receivedTransaction);
+        peerNetwork.receivedTransaction(newTx);
+
+        assertThat(handler.takeAnnounced()).containsExactly(newTx.getHash());
+        assertThat(handler.takeSent()).containsExactly(newTx);
+    }
+
+    @Test
+    public void shouldCutBatchByByteBudget() throws Exception {
+        TxGossipHandler handler = handler(FIRST_PEER);
+        // Each tx takes more than a third of the budget, so a batch holds 3 txs
+        JsonObject txBody = new JsonObject();
+        txBody.addProperty("data", String.join("", Collections.nCopies(KademliaOptions.TX_BATCH_BYTES / 3 + 1, "0")));
+        List<Transaction> txs = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            txs.add(BlockChainTestUtils.createTx(branchId, txBody));
+        }
+        peerNetwork = createPeerNetwork(KademliaOptions.TX_GOSSIP_TIMEOUT, FIRST_PEER);
+
+        txs.forEach(peerNetwork::receivedTransaction);
+        peerNetwork.init();
+
+        assertThat(handler.takeAnnounced()).isEqualTo(hashesOf(txs.subList(0, 3)));
+        assertThat(handler.takeAnnounced()).isEqualTo(hashesOf(txs.subList(3, 4)));
+    }
+
+    @Test
+    public void shouldMarkTxsKnownOnlyAfterSent() throws Exception {
+        TxGossipHandler handler = handler(FIRST_PEER);
+        Transaction tx = BlockChainTestUtils.createTransferTx();
+        handler.failSend = true;
+        peerNetwork = createPeerNetwork(KademliaOptions.TX_GOSSIP_TIMEOUT, FIRST_PEER);
+        peerNetwork.init();
+
+        peerNetwork.receivedTransaction(tx);
+        assertThat(handler.takeAnnounced()).containsExactly(tx.getHash());
+        assertThat(handler.takeSent()).containsExactly(tx);
+
+        // The failed tx is announced again
+        handler.failSend = false;
+        peerNetwork.receivedTransaction(tx);
+        assertThat(handler.takeAnnounced()).containsExactly(tx.getHash());
+        assertThat(handler.takeSent()).containsExactly(tx);
+
+        Transaction newTx = BlockChainTestUtils.createTransferTx();
+        peerNetwork.receivedTransaction(tx);
+        peerNetwork.receivedTransaction(newTx);
+        assertThat(handler.takeAnnounced()).containsExactly(newTx.getHash());
+    }
+
+    @Test
+    public void stalledPeerShouldNotStopGossip() throws Exception {
+        TxGossipHandler stalled = handler(FIRST_PEER);
+        TxGossipHandler healthy = handler(SECOND_PEER);
+        stalled.stall = new CountDownLatch(1);
+        peerNetwork = createPeerNetwork(200, FIRST_PEER, SECOND_PEER);
+        peerNetwork.init();
+
+        Transaction tx = BlockChainTestUtils.createTransferTx();
+        peerNetwork.receivedTransaction(tx);
+        assertThat(healthy.takeAnnounced()).containsExactly(tx.getHash());
+        assertThat(stalled.takeAnnounced()).containsExactly(tx.getHash());
+
+        // The batch stops waiting for the stalled peer, so the next one reaches the others
+        Transaction nextTx = BlockChainTestUtils.createTransferTx();
+        peerNetwork.receivedTransaction(nextTx);
+        assertThat(healthy.takeAnnounced()).containsExactly(nextTx.getHash());
+    }
+
+    private KademliaPeerNetwork createPeerNetwork(long txGossipTimeout, Peer... peers) {
+        PeerDialer peerDialer = new BlockChainDialer((consensus, peer) -> handler(peer));
+        PeerTableGroup peerTableGroup = PeerTestUtils.createTableGroup(PeerTestUtils.OWNER_PORT, peerDialer);
+        KademliaPeerNetwork network = new KademliaPeerNetwork(peerTableGroup, peerDialer, txGossipTimeout);
+        network.addNetwork(branchId, "pbft");
+        Arrays.stream(peers).forEach(peer -> peerTableGroup.addPeer(branchId, peer));
+        return network;
+    }
+
+    private TxGossipHandler handler(Peer peer) {
+        return handlerMap.computeIfAbsent(peer, TxGossipHandler::new);
+    }
+
+    private static List<Transaction> createTransferTxs(int count) {
+        List<Transaction> txs = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            txs.add(BlockChainTestUtils.createTransferTx());
+        }
+        return txs;
+    }
+
+    private static List<Sha3Hash> hashesOf(List<Transaction> txs) {
+        return txs.stream().map(Transaction::getHash).collect(Collectors.toList());
+    }
+
+    private static class TxGossipHandler implements BlockChainHandler<Object> {
+        private final Peer peer;
+        private final BlockingQueue<List<Sha3Hash>> announced = new LinkedBlockingQueue<>();
+        private final BlockingQueue<List<Transaction>> sent = new LinkedBlockingQueue<>();
+        private volatile Function<List<Sha3Hash>, List<Sha3Hash>> requested = hashes -> hashes;
+        private volatile boolean failSend;
+        private volatile CountDownLatch stall;
+
+        TxGossipHandler(Peer peer) {
+            this.peer = peer;
+        }
+
+        List<Sha3Hash> takeAnnounced() throws InterruptedException {
+            List<Sha3Hash> hashes = announced.poll(WAIT_SECONDS, TimeUnit.SECONDS);
+            assertThat(hashes).as("announced hashes").isNotNull();
+            return hashes;
+        }
+
+        List<Transaction> takeSent() throws InterruptedException {
+            List<Transaction> txs = sent.poll(200, TimeUnit.MILLISECONDS);
+            return txs != null ? txs : Collections.emptyList();
+        }
+
+        void release() {
+            if (stall != null) {
+                stall.countDown();
+            }
+        }
+
+        @Override
+        public List<Sha3Hash> announceTxs(BranchId branchId, List<Sha3Hash> txHashes) {
+            announced.add(txHashes);
+            if (stall != null) {
+                try {
+                    stall.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return Collections.emptyList();
+                }
+            }
+            return requested.apply(txHashes);
+        }
+
+        @Override
+        public Future<Void> broadcastTxs(List<Transaction> txs) {
+            sent.add(txs);
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            if (failSend) {
+                future.completeExceptionally(new IllegalStateException("Stream failed"));
+            } else {
+                future.complete(null);
+            }
+            return future;
+        }
+
+        @Override
+        public Future<List<ConsensusBlock<Object>>> syncBlock(BranchId branchId, long offset) {
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
+
+        @Override
+        public Future<List<Transaction>> syncTx(BranchId branchId) {
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
+
+        @Override
+        public void broadcastBlock(ConsensusBlock<Object> block) {
+        }
+
+        @Override
+        public void broadcastTx(Transaction tx) {
+        }
+
+        @Override
+        public String gerConnectivityState() {
+            return "READY";
+        }
+
+        @Override
+        public List<Peer> findPeers(BranchId branchId, Peer targetPeer) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public String ping(BranchId branchId, Peer owner, String message) {
+            return "Pong";
+        }
+
+        @Override
+        public long pingPong(BranchId branchId, Peer owner, String message) {
+            return 1;
+        }
+
+        @Override
+        public Peer getPeer() {
+            return peer;
+        }
+
+        @Override
+        public void stop() {
+        }
+
+        @Override
+        public void setFailCount(int failCount) {
+        }
+
+        @Override
+        public int getFailCount() {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package io.yggdrash.core.p2p;
+
+import io.grpc.ManagedChannel;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PeerChannelPoolTest {
+
+    private static final Peer TARGET = Peer.valueOf("ynode://75bff16c@127.0.0.1:32918");
+    private static final Peer OTHER = Peer.valueOf("ynode://75bff16c@127.0.0.1:32919");
+    private PeerChannelPool channelPool;
+
+    @Before
+    public void setUp() {
+        channelPool = new PeerChannelPool();
+    }
+
+    @After
+    public void tearDown() {
+        channelPool.shutdown();
+    }
+
+    @Test
+    public void shouldShareChannelOfPeer() {
+        ManagedChannel channel = channelPool.acquire(TARGET);
+        ManagedChannel sameChannel = channelPool.acquire(TARGET);
+        channelPool.acquire(OTHER);
+
+        assertThat(channelPool.size()).isEqualTo(2);
+        assertThat(sameChannel.authority()).isEqualTo(channel.authority());
+    }
+
+    @Test
+    public void shouldKeepChannelLeased() {
+        ManagedChannel channel = channelPool.acquire(TARGET);
+        ManagedChannel otherLease = channelPool.acquire(TARGET);
+
+        channel.shutdown();
+        channelPool.evictIdleChannels();
+
+        assertThat(channel.isShutdown()).isTrue();
+        assertThat(otherLease.isShutdown()).isFalse();
+        assertThat(channelPool.size()).isEqualTo(1);
+    }
+}
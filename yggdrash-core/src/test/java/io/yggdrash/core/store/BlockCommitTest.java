@@ -0,0 +1,116 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.yggdrash.core.store;
+
+import com.google.gson.JsonObject;
+import io.yggdrash.BlockChainTestUtils;
+import io.yggdrash.TestConstants;
+import io.yggdrash.contract.core.ReceiptImpl;
+import io.yggdrash.core.blockchain.BlockImpl;
+import io.yggdrash.core.blockchain.BranchId;
+import io.yggdrash.core.blockchain.PbftBlockMock;
+import io.yggdrash.core.blockchain.Transaction;
+import io.yggdrash.core.consensus.ConsensusBlock;
+import io.yggdrash.proto.PbftProto;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BlockCommitTest {
+
+    private BlockChainStore bcStore;
+    private ConsensusBlock<PbftProto.PbftBlock> genesisBlock;
+
+    @Before
+    public void setUp() {
+        bcStore = BlockChainStoreBuilder.newBuilder(BranchId.NULL)
+                .withProductionMode(false)
+                .setConsensusAlgorithm(null)
+                .setBlockStoreFactory(PbftBlockStoreMock::new)
+                .build();
+        genesisBlock = BlockChainTestUtils.genesisBlock();
+    }
+
+    @Test
+    public void shouldBeCommittedBlockWithTxs() {
+        Transaction tx = BlockChainTestUtils.createTransferTx();
+        bcStore.getTransactionStore().addTransaction(tx);
+        ConsensusBlock<PbftProto.PbftBlock> block = nextBlock(tx);
+
+        BlockCommit commit = bcStore.newBlockCommit();
+        commit.addBlock(block);
+        commit.commit();
+
+        assertThat(bcStore.getConsensusBlockStore().getBlockByIndex(block.getIndex())).isEqualTo(block);
+        assertThat(bcStore.getConsensusBlockStore().size()).isEqualTo(1L);
+        assertThat(bcStore.getTransactionStore().getUnconfirmedTxsSize()).isZero();
+        assertThat(bcStore.getTransactionStore().get(tx.getHash())).isEqualTo(tx);
+    }
+
+    @Test
+    public void shouldBeCommittedResultWithBranchMetaInfo() {
+        ConsensusBlock<PbftProto.PbftBlock> block = nextBlock(BlockChainTestUtils.createTransferTx());
+        String txId = block.getBody().getTransactionList().get(0).getHash().toString();
+        ReceiptImpl receipt = new ReceiptImpl();
+        receipt.setTxId(txId);
+        receipt.addLog("log0");
+        receipt.addLog("log1");
+        JsonObject value = new JsonObject();
+        value.addProperty("balance", 100);
+
+        BlockCommit commit = bcStore.newBlockCommit();
+        commit.setLastExecuteBlock(block);
+        commit.setBestBlock(block);
+        commit.putReceipt(txId, receipt);
+        commit.addLog(txId + "/0");
+        commit.addLog(txId + "/1");
+        commit.putStates(Collections.singletonMap("account", value));
+
+        // Nothing is written before the commit
+        assertThat(bcStore.getBranchStore().getBestBlock()).isEqualTo(-1L);
+        assertThat(bcStore.getReceiptStore().contains(txId)).isFalse();
+
+        commit.commit();
+
+        BranchStore branchStore = bcStore.getBranchStore();
+        assertThat(branchStore.getBestBlock()).isEqualTo(block.getIndex());
+        assertThat(branchStore.getBestBlockHash()).isEqualTo(block.getHash());
+        assertThat(branchStore.getLastExecuteBlockHash()).isEqualTo(block.getHash());
+        assertThat(bcStore.getReceiptStore().get(txId).getLog()).containsExactly("log0", "log1");
+        assertThat(bcStore.getLogStore().size()).isEqualTo(2L);
+        assertThat(bcStore.getLogStore().get(1)).isEqualTo(txId + "/1");
+        assertThat(bcStore.getStateStore().get("account")).isEqualTo(value);
+    }
+
+    @Test
+    public void shouldBeClearedAfterCommit() {
+        BlockCommit commit = bcStore.newBlockCommit();
+        commit.addLog("log");
+        commit.commit();
+        commit.commit();
+
+        assertThat(bcStore.getLogStore().size()).isEqualTo(1L);
+    }
+
+    private ConsensusBlock<PbftProto.PbftBlock> nextBlock(Transaction tx) {
+        return new PbftBlockMock(BlockImpl.nextBlock(TestConstants.wallet(), Collections.singletonList(tx),
+                genesisBlock.getHeader().getStateRoot(), genesisBlock));
+    }
+}
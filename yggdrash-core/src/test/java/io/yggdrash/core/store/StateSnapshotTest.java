@@ -0,0 +1,250 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.yggdrash.core.store;
+
+import com.google.gson.JsonObject;
+import io.yggdrash.BlockChainTestUtils;
+import io.yggdrash.TestConstants;
+import io.yggdrash.common.Sha3Hash;
+import io.yggdrash.common.contract.vo.PrefixKeyEnum;
+import io.yggdrash.common.exception.FailedOperationException;
+import io.yggdrash.common.store.StateStore;
+import io.yggdrash.common.store.datasource.HashMapDbSource;
+import io.yggdrash.common.store.trie.StateTrie;
+import io.yggdrash.core.blockchain.BlockImpl;
+import io.yggdrash.core.blockchain.BranchId;
+import io.yggdrash.core.blockchain.PbftBlockMock;
+import io.yggdrash.core.consensus.ConsensusBlock;
+import io.yggdrash.proto.PbftProto;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class StateSnapshotTest {
+    private static final int KEY_COUNT = 100;
+    private static final String VALIDATORS = BranchStore.NAMESPACE + PrefixKeyEnum.VALIDATORS.toValue();
+
+    private Path baseDir;
+    private BlockChainStore source;
+    private ConsensusBlock<PbftProto.PbftBlock> genesisBlock;
+    private ConsensusBlock<PbftProto.PbftBlock> block;
+    private StateTrie.Update stateTrieUpdate;
+
+    @Before
+    public void setUp() throws IOException {
+        baseDir = Files.createTempDirectory("snapshot");
+        source = newStore();
+        genesisBlock = BlockChainTestUtils.genesisBlock();
+
+        Map<String, JsonObject> states = new LinkedHashMap<>();
+        for (int i = 0; i < KEY_COUNT; i++) {
+            JsonObject value = new JsonObject();
+            value.addProperty("balance", i);
+            states.put("account" + i, value);
+        }
+        stateTrieUpdate = source.getStateStore().calculateStateRoot(states);
+        JsonObject stateRoot = new JsonObject();
+        stateRoot.addProperty(StateStore.STATE_HASH, stateTrieUpdate.getRoot().toString());
+        stateRoot.addProperty("blockHeight", 1);
+        states.put(StateStore.STATE_ROOT, stateRoot);
+        block = new PbftBlockMock(BlockImpl.nextBlock(TestConstants.wallet(), Collections.emptyList(),
+                stateTrieUpdate.getRoot().getBytes(), genesisBlock));
+
+        source.getConsensusBlockStore().addBlock(genesisBlock);
+        source.getBranchStore().setGenesisBlockHash(genesisBlock.getHash());
+        BlockCommit commit = source.newBlockCommit();
+        commit.putStates(states, stateTrieUpdate);
+        commit.setBestBlock(block);
+        commit.setLastExecuteBlock(block);
+        commit.addBlock(block);
+        commit.commit();
+        putState(source, VALIDATORS, "validator", "a");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(baseDir.toFile());
+    }
+
+    @Test
+    public void shouldImportExportedSnapshot() {
+        StateSnapshot snapshot = new StateSnapshotExporter(BranchId.NULL, source, 512).export(baseDir);
+        assertThat(snapshot.getHeight()).isEqualTo(1);
+        assertThat(snapshot.getStateRoot()).isEqualTo(stateTrieUpdate.getRoot());
+        assertThat(snapshot.getChunks().size()).isGreaterThan(1);
+
+        BlockChainStore target = newStore();
+        ConsensusBlock imported = newImporter(target).importSnapshot(baseDir.resolve("1"), genesisBlock.getHash(),
+                checkpoint(snapshot));
+
+        assertThat(imported).isEqualTo(block);
+        assertThat(target.getStateStore().getStateRootHash()).isEqualTo(stateTrieUpdate.getRoot());
+        assertThat(target.getStateStore().get("account7").get("balance").getAsInt()).isEqualTo(7);
+        assertThat(target.getStateStore().getProof("account7").verify(stateTrieUpdate.getRoot())).isTrue();
+        assertThat(target.getBranchStore().getLastExecuteBlockIndex()).isEqualTo(1);
+        assertThat(target.getBranchStore().getBestBlock()).isEqualTo(1);
+        assertThat(target.getBranchStore().getGenesisBlockHash()).isEqualTo(genesisBlock.getHash());
+        assertThat(target.getConsensusBlockStore().getBlockByIndex(0)).isEqualTo(genesisBlock);
+        assertThat(target.getBranchStore().getSnapshotBlockIndex()).isEqualTo(1);
+        assertThat(target.getStateStore().get(VALIDATORS)).isEqualTo(source.getStateStore().get(VALIDATORS));
+    }
+
+    @Test
+    public void shouldNotImportModifiedMetaRow() throws IOException {
+        StateSnapshot trusted = new StateSnapshotExporter(BranchId.NULL, source, 512).export(baseDir);
+        // The peer serves a snapshot with its own validators, the manifest of the peer is consistent with them
+        putState(source, VALIDATORS, "validator", "b");
+        Path peerDir = Files.createTempDirectory("snapshot");
+        try {
+            new StateSnapshotExporter(BranchId.NULL, source, 512).export(peerDir);
+
+            BlockChainStore target = newStore();
+            assertThatThrownBy(() -> newImporter(target).importSnapshot(peerDir.resolve("1"),
+                    genesisBlock.getHash(), checkpoint(trusted)))
+                    .isInstanceOf(FailedOperationException.class);
+            assertThat(target.getStateStore().contains(VALIDATORS)).isFalse();
+        } finally {
+            FileUtils.deleteDirectory(peerDir.toFile());
+        }
+    }
+
+    @Test
+    public void shouldRebuildLocalMetaRows() throws IOException {
+        StateSnapshot trusted = new StateSnapshotExporter(BranchId.NULL, source, 512).export(baseDir);
+        // The local rows of the peer are not covered by the meta hash, they are never imported
+        JsonObject stateRoot = source.getStateStore().get(StateStore.STATE_ROOT);
+        stateRoot.addProperty("blockHeight", 1000);
+        BlockCommit commit = source.newBlockCommit();
+        commit.putStates(Collections.singletonMap(StateStore.STATE_ROOT, stateRoot));
+        commit.commit();
+        putState(source, BranchStore.NAMESPACE + BranchStore.BlockchainMetaInfo.SNAPSHOT_BLOCK_INDEX,
+                "value", "1000");
+        Path peerDir = Files.createTempDirectory("snapshot");
+        try {
+            new StateSnapshotExporter(BranchId.NULL, source, 512).export(peerDir);
+
+            BlockChainStore target = newStore();
+            newImporter(target).importSnapshot(peerDir.resolve("1"), genesisBlock.getHash(), checkpoint(trusted));
+
+            assertThat(target.getStateStore().getStateRootHash()).isEqualTo(stateTrieUpdate.getRoot());
+            assertThat(target.getStateStore().get(StateStore.STATE_ROOT).get("blockHeight").getAsLong())
+                    .isEqualTo(1);
+            assertThat(target.getBranchStore().getSnapshotBlockIndex()).isEqualTo(1);
+        } finally {
+            FileUtils.deleteDirectory(peerDir.toFile());
+        }
+    }
+
+    @Test
+    public void shouldParseCheckpoint() {
+        StateSnapshot snapshot = new StateSnapshotExporter(BranchId.NULL, source, 512).export(baseDir);
+        StateSnapshotImporter.Checkpoint checkpoint = StateSnapshotImporter.Checkpoint.of(
+                snapshot.getHeight() + ":" + snapshot.getBlockHash() + ":" + snapshot.getMetaHash());
+
+        assertThat(checkpoint.getHeight()).isEqualTo(1);
+        assertThat(checkpoint.getBlockHash()).isEqualTo(block.getHash());
+        assertThat(checkpoint.getMetaHash()).isEqualTo(snapshot.getMetaHash());
+        assertThatThrownBy(() -> StateSnapshotImporter.Checkpoint.of("1:" + block.getHash()))
+                .isInstanceOf(FailedOperationException.class);
+    }
+
+    @Test
+    public void shouldNotImportSnapshotOutOfCheckpoint() {
+        Sha3Hash metaHash = new StateSnapshotExporter(BranchId.NULL, source, 512).export(baseDir).getMetaHash();
+        BlockChainStore target = newStore();
+
+        assertThatThrownBy(() -> newImporter(target).importSnapshot(baseDir.resolve("1"),
+                genesisBlock.getHash(), new StateSnapshotImporter.Checkpoint(1, genesisBlock.getHash(), metaHash)))
+                .isInstanceOf(FailedOperationException.class);
+        assertThatThrownBy(() -> newImporter(target).importSnapshot(baseDir.resolve("1"),
+                block.getHash(), new StateSnapshotImporter.Checkpoint(1, block.getHash(), metaHash)))
+                .isInstanceOf(FailedOperationException.class);
+        assertThat(target.getStateStore().getStateRootHash()).isEqualTo(StateTrie.EMPTY_ROOT);
+    }
+
+    @Test(expected = FailedOperationException.class)
+    public void shouldNotImportModifiedChunk() throws IOException {
+        StateSnapshot snapshot = new StateSnapshotExporter(BranchId.NULL, source, 512).export(baseDir);
+        Path dir = baseDir.resolve("1");
+        Path chunk = dir.resolve(snapshot.getChunks().get(0).getName());
+        byte[] data = Files.readAllBytes(chunk);
+        data[data.length - 2] ^= 1;
+        Files.write(chunk, data);
+
+        BlockChainStore target = newStore();
+        try {
+            newImporter(target).importSnapshot(dir, genesisBlock.getHash(), checkpoint(snapshot));
+        } finally {
+            // The state of the failed import is not left in the state store
+            assertThat(target.getStateStore().getStateRootHash()).isEqualTo(StateTrie.EMPTY_ROOT);
+        }
+    }
+
+    @Test
+    public void shouldNotAcceptFileNameOutOfSnapshot() {
+        StateSnapshot snapshot = new StateSnapshotExporter(BranchId.NULL, source, 512).export(baseDir);
+
+        for (String name : new String[] {"../state-00000.bin", "..", "sub/state-00000.bin", "..\\state", ""}) {
+            JsonObject manifest = snapshot.toJsonObject();
+            manifest.getAsJsonArray("chunks").get(0).getAsJsonObject().addProperty("name", name);
+            assertThatThrownBy(() -> StateSnapshot.of(manifest))
+                    .as(name).isInstanceOf(FailedOperationException.class);
+        }
+    }
+
+    @Test(expected = FailedOperationException.class)
+    public void shouldNotImportIntoUsedStore() {
+        StateSnapshot snapshot = new StateSnapshotExporter(BranchId.NULL, source, 512).export(baseDir);
+
+        newImporter(source).importSnapshot(baseDir.resolve("1"), genesisBlock.getHash(), checkpoint(snapshot));
+    }
+
+    private StateSnapshotImporter.Checkpoint checkpoint(StateSnapshot trusted) {
+        return new StateSnapshotImporter.Checkpoint(1, block.getHash(), trusted.getMetaHash());
+    }
+
+    private void putState(BlockChainStore store, String key, String property, String value) {
+        JsonObject row = new JsonObject();
+        row.addProperty(property, value);
+        BlockCommit commit = store.newBlockCommit();
+        commit.putStates(Collections.singletonMap(key, row));
+        commit.commit();
+    }
+
+    private StateSnapshotImporter newImporter(BlockChainStore target) {
+        return new StateSnapshotImporter(target, new StateStore(new HashMapDbSource()), PbftBlockMock::new);
+    }
+
+    private BlockChainStore newStore() {
+        return BlockChainStoreBuilder.newBuilder(BranchId.NULL)
+                .withProductionMode(false)
+                .setConsensusAlgorithm(null)
+                .setBlockStoreFactory(PbftBlockStoreMock::new)
+                .build();
+    }
+}
@@ -18,6 +18,7 @@ package io.yggdrash.core.store;
 
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import io.yggdrash.common.store.StateCache;
 import io.yggdrash.common.store.StateStore;
 import io.yggdrash.common.store.datasource.HashMapDbSource;
 import org.junit.After;
@@ -26,7 +27,12 @@ import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collections;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 public class StateStoreTest {
     private static final Logger log = LoggerFactory.getLogger(StateStoreTest.class);
@@ -60,4 +66,44 @@ public class StateStoreTest {
         log.debug(obj.getClass().toString());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void hotKeyShouldBeServedFromCache() {
+        HashMapDbSource db = new HashMapDbSource();
+        StateStore store = new StateStore(db);
+        JsonObject obj = new JsonParser().parse("{\"balance\":100}").getAsJsonObject();
+        store.put("account", obj);
+        db.delete("account".getBytes());
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(obj, store.get("account"));
+        }
+        StateCache cache = store.getCache();
+        assertEquals(10L, cache.getHitCount());
+        assertEquals(0L, cache.getMissCount());
+    }
+
+    @Test
+    public void cachedValueShouldNotBeChangedByReader() {
+        JsonObject obj = new JsonParser().parse("{\"balance\":100}").getAsJsonObject();
+        stateStore.put("account", obj);
+
+        stateStore.get("account").addProperty("balance", 0);
+        obj.addProperty("balance", 1);
+
+        assertEquals(100, stateStore.get("account").get("balance").getAsInt());
+    }
+
+    @Test
+    public void patchShouldUpdateCache() {
+        assertFalse(stateStore.contains("account")); // absence is cached
+        assertNull(stateStore.get("account"));
+
+        JsonObject obj = new JsonParser().parse("{\"balance\":100}").getAsJsonObject();
+        stateStore.updatePatch(Collections.singletonMap("account", obj));
+
+        assertTrue(stateStore.contains("account"));
+        assertEquals(obj, stateStore.get("account"));
+        assertEquals(1L, stateStore.getCache().getMissCount());
+    }
+
+}
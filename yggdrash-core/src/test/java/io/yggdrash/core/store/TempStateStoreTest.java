@@ -17,7 +17,6 @@
 package io.yggdrash.core.store;
 
 import com.google.gson.JsonObject;
-import io.yggdrash.common.Sha3Hash;
 import io.yggdrash.common.store.StateStore;
 import io.yggdrash.common.store.datasource.HashMapDbSource;
 import org.junit.After;
@@ -25,6 +24,10 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.math.BigInteger;
+import java.util.Map;
+import java.util.Set;
+
 public class TempStateStoreTest {
 
     private StateStore stateStore;
@@ -58,29 +61,101 @@ public class TempStateStoreTest {
     }
 
     @Test
-    public void RevertStateRoot() {
+    public void shouldNotChangeStateStore() {
         TempStateStore store = new TempStateStore(stateStore);
 
-        Sha3Hash initStateRoot = store.getStateRoot();
-
         JsonObject testObj = new JsonObject();
         testObj.addProperty("test", "test");
         store.put("test", testObj);
 
-        Sha3Hash changedStateRoot = store.getStateRoot();
+        Assert.assertEquals(1, store.changeValues().size());
+        Assert.assertFalse(stateStore.contains("test"));
+        Assert.assertFalse(store.contains("stateRoot"));
 
-        Assert.assertNotEquals(initStateRoot, changedStateRoot);
+        store.close();
 
-        store.revertStateRootHash();
+        Assert.assertEquals(0, store.changeValues().size());
+        Assert.assertFalse(store.contains("test"));
+    }
 
-        Sha3Hash backupStateRoot = store.getStateRoot();
+    @Test
+    public void shouldBeConflictedByChangedKeys() {
+        TempStateStore store = new TempStateStore(stateStore);
+        TxStateOverlay overlay = new TxStateOverlay(true);
+        overlay.addRead("second");
+        store.put("first", new JsonObject());
 
-        Assert.assertEquals(initStateRoot, backupStateRoot);
+        Assert.assertFalse(store.isConflicted(overlay));
 
-        store.put("test", testObj);
+        store.put("second", new JsonObject());
+
+        Assert.assertTrue(store.isConflicted(overlay));
+    }
+
+    @Test
+    public void shouldMergeDeltasAtOnce() {
+        JsonObject originObj = new JsonObject();
+        originObj.addProperty("balance", 10);
+        stateStore.put("fee", originObj);
+        TempStateStore store = new TempStateStore(stateStore);
+
+        TxStateOverlay overlay = new TxStateOverlay(true);
+        store.bind(overlay);
+        store.addDelta("fee", "balance", BigInteger.valueOf(5));
+        store.unbind();
+        store.putDeltas(overlay.getDeltaSet());
+        store.addDelta("fee", "balance", BigInteger.valueOf(3));
+
+        Assert.assertTrue(overlay.getWriteSet().isEmpty());
+        Assert.assertTrue(store.changeValues().isEmpty());
+
+        Set<Map.Entry<String, JsonObject>> merged = store.mergeDeltas();
+
+        Assert.assertEquals(1, merged.size());
+        Assert.assertEquals(BigInteger.valueOf(18), store.get("fee").get("balance").getAsBigInteger());
+        Assert.assertEquals(BigInteger.TEN, stateStore.get("fee").get("balance").getAsBigInteger());
+        Assert.assertTrue(store.mergeDeltas().isEmpty());
+    }
+
+    @Test
+    public void shouldReadPendingDeltasInBlock() {
+        JsonObject originObj = new JsonObject();
+        originObj.addProperty("balance", 10);
+        stateStore.put("fee", originObj);
+        TempStateStore store = new TempStateStore(stateStore);
+
+        // A transaction only adding to the counter doesn't conflict with the previous additions
+        TxStateOverlay adder = new TxStateOverlay(true);
+        store.bind(adder);
+        store.addDelta("fee", "balance", BigInteger.valueOf(5));
+        store.unbind();
+        store.addDelta("fee", "balance", BigInteger.valueOf(3));
+        Assert.assertFalse(store.isConflicted(adder));
+        store.putDeltas(adder.getDeltaSet());
+
+        // A transaction reading it sees the additions and is ordered after them
+        TxStateOverlay reader = new TxStateOverlay(false);
+        store.bind(reader);
+        Assert.assertEquals(BigInteger.valueOf(18), store.get("fee").get("balance").getAsBigInteger());
+        store.unbind();
+        Assert.assertTrue(store.isConflicted(reader));
+        Assert.assertEquals(BigInteger.valueOf(18), store.get("fee").get("balance").getAsBigInteger());
+        Assert.assertEquals(BigInteger.TEN, originObj.get("balance").getAsBigInteger());
+    }
+
+    @Test
+    public void shouldReplaceDeltasByPut() {
+        TempStateStore store = new TempStateStore(stateStore);
+        store.addDelta("fee", "balance", BigInteger.valueOf(5));
+        Assert.assertTrue(store.contains("fee"));
 
-        Sha3Hash changedStateRoot2 = store.getStateRoot();
+        // The value written after reading the additions replaces them
+        JsonObject value = store.get("fee");
+        value.addProperty("balance", value.get("balance").getAsBigInteger().subtract(BigInteger.ONE));
+        store.put("fee", value);
+        store.addDelta("fee", "balance", BigInteger.valueOf(2));
+        store.mergeDeltas();
 
-        Assert.assertEquals(changedStateRoot, changedStateRoot2);
+        Assert.assertEquals(BigInteger.valueOf(6), store.get("fee").get("balance").getAsBigInteger());
     }
 }
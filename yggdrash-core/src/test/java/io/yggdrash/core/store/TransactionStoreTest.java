@@ -18,6 +18,7 @@ package io.yggdrash.core.store;
 
 import io.yggdrash.BlockChainTestUtils;
 import io.yggdrash.common.Sha3Hash;
+import io.yggdrash.common.exception.FailedOperationException;
 import io.yggdrash.common.store.datasource.HashMapDbSource;
 import io.yggdrash.core.blockchain.Transaction;
 import org.ehcache.Cache;
@@ -29,11 +30,14 @@ import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.LinkedHashSet;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 public class TransactionStoreTest {
 
@@ -131,6 +135,63 @@ public class TransactionStoreTest {
         assertThat(ts.getUnconfirmedTxs()).isNotEmpty();
     }
 
+    @Test
+    public void shouldBeRejectedWhenPendingPoolIsFull() {
+        int capacity = 2;
+        ts = new TransactionStore(new HashMapDbSource(), 5, capacity);
+
+        for (int i = 0; i < capacity; i++) {
+            ts.addTransaction(BlockChainTestUtils.createTransferTx());
+        }
+        assertThat(ts.getUnconfirmedTxsSize()).isEqualTo(capacity);
+
+        assertThatThrownBy(() -> ts.addTransaction(BlockChainTestUtils.createTransferTx()))
+                .isInstanceOf(FailedOperationException.class);
+        assertThat(ts.getUnconfirmedTxsSize()).isEqualTo(capacity);
+
+        batch();
+        ts.addTransaction(tx);
+        assertThat(ts.getUnconfirmedTxsSize()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldBeBatchedConfirmedTxsWhenPendingPoolIsFull() {
+        ts = new TransactionStore(new HashMapDbSource(), 5, 1);
+        ts.addTransaction(tx);
+        Transaction confirmedTx = BlockChainTestUtils.createTransferTx();
+
+        ts.batch(Collections.emptySet(), Collections.singletonList(confirmedTx), false);
+
+        assertThat(ts.get(confirmedTx.getHash())).isEqualTo(confirmedTx);
+        assertThat(ts.getRecentTxs()).containsExactly(confirmedTx);
+        assertThat(ts.getUnconfirmedTxs()).containsExactly(tx);
+
+        // A confirmed tx that is also pending leaves the pending pool
+        ts.batch(Collections.emptySet(), Collections.singletonList(tx), false);
+        assertThat(ts.getUnconfirmedTxs()).isEmpty();
+        assertThat(ts.getRecentTxs()).containsExactly(confirmedTx, tx);
+    }
+
+    @Test
+    public void unconfirmedTxsShouldBeOrderedByTimestamp() {
+        for (int i = 0; i < 10; i++) {
+            ts.addTransaction(BlockChainTestUtils.createTransferTx());
+        }
+
+        assertThat(new ArrayList<>(ts.getUnconfirmedTxs()))
+                .isSortedAccordingTo(Comparator.comparingLong((Transaction t) -> t.getHeader().getTimestamp()));
+    }
+
+    @Test
+    public void shouldBeGotUnconfirmedTxsWithLimit() {
+        for (int i = 0; i < 10; i++) {
+            ts.addTransaction(BlockChainTestUtils.createTransferTx());
+        }
+
+        assertThat(ts.getUnconfirmedTxsWithLimit(tx.getLength() * 3)).hasSize(3);
+        assertThat(ts.getUnconfirmedTxsWithLimit(Long.MAX_VALUE)).hasSize(10);
+    }
+
 
     private void batch() {
         Set<Sha3Hash> keys = ts.getUnconfirmedTxs().stream().map(Transaction::getHash).collect(Collectors.toSet());
@@ -33,11 +33,21 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.DependsOn;
 import org.springframework.stereotype.Component;
 
-import java.util.HashMap;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 블록체인에서 발생되는 정보들을 외부 저장소에 수집합니다.
+ * 블록은 큐에 쌓인 후 별도의 스레드에서 여러 블록씩 한 번의 bulk 요청으로 저장되므로
+ * 저장소가 느려도 블록 추가가 지연되지 않습니다.
  */
 @Component
 @DependsOn("branchLoader")
@@ -45,10 +55,20 @@ import java.util.Map;
 public class BlockChainCollector implements BranchEventListener {
     private static final Logger log = LoggerFactory.getLogger(BlockChainCollector.class);
 
-    private OutputStore outputStore;
+    private static final int QUEUE_SIZE = 10000;
+    private static final int BATCH_BLOCKS = 100;
+    private static final int BATCH_TXS = 5000;
+    private static final long FLUSH_INTERVAL = 1000; // ms
+    private static final int MAX_RETRY = 5;
+    private static final long RETRY_INTERVAL = 500; // ms, doubled on every retry
+
+    private final OutputStore outputStore;
+    private final BlockingQueue<ConsensusBlock> blockQueue = new LinkedBlockingQueue<>(QUEUE_SIZE);
+    private final ExecutorService indexExecutor = Executors.newSingleThreadExecutor();
 
     public BlockChainCollector(BranchGroup branchGroup, OutputStore outputStore) {
         this.outputStore = outputStore;
+        indexExecutor.execute(this::indexBlocks);
         for (BlockChain bc : branchGroup.getAllBranch()) {
             chainedBlock(bc.getGenesisBlock());
             bc.addListener(this);
@@ -56,21 +76,79 @@ public class BlockChainCollector implements BranchEventListener {
         }
     }
 
+    @PreDestroy
+    public void destroy() {
+        indexExecutor.shutdownNow();
+    }
+
+    /**
+     * Queues the block to be stored. It is called while the block chain is locked, so it doesn't wait.
+     */
     @Override
     public void chainedBlock(ConsensusBlock block) {
-        outputStore.put(BlockDto.createBy(block).toJsonObject());
+        if (!blockQueue.offer(block)) {
+            log.warn("ElasticSearch queue is full. Dropped block [{}] {}", block.getIndex(), block.getHash());
+        }
+    }
+
+    private void indexBlocks() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                List<ConsensusBlock> blockList = takeBatch();
+                List<JsonObject> blockJsonList = new ArrayList<>();
+                Map<String, JsonObject> transactionMap = new LinkedHashMap<>();
+                for (ConsensusBlock block : blockList) {
+                    blockJsonList.add(BlockDto.createBy(block).toJsonObject());
+                    putTransactions(block, transactionMap);
+                }
+                flush(blockJsonList, transactionMap);
+            }
+        } catch (InterruptedException e) {
+            log.debug("ElasticSearch indexing is stopped. queueSize={}", blockQueue.size());
+            Thread.currentThread().interrupt();
+        }
+    }
 
-        Map<String, JsonObject> transactionMap = new HashMap<>();
+    // Collects the blocks queued within the flush interval, up to the batch size
+    private List<ConsensusBlock> takeBatch() throws InterruptedException {
+        List<ConsensusBlock> blockList = new ArrayList<>();
+        ConsensusBlock block = blockQueue.take();
+        long deadline = System.currentTimeMillis() + FLUSH_INTERVAL;
+        int txCount = 0;
+        while (block != null) {
+            blockList.add(block);
+            txCount += block.getBody().getCount();
+            if (blockList.size() >= BATCH_BLOCKS || txCount >= BATCH_TXS) {
+                break;
+            }
+            block = blockQueue.poll(deadline - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+        return blockList;
+    }
 
+    private void putTransactions(ConsensusBlock block, Map<String, JsonObject> transactionMap) {
+        String blockId = block.getHash().toString();
+        // The address was recovered when the block was verified, the transaction keeps it
         for (Transaction tx : block.getBody().getTransactionList()) {
-            EsTransactionDto dto = new EsTransactionDto(tx);
-            JsonObject json = dto.toJsonObject();
+            JsonObject json = new EsTransactionDto(tx).toJsonObject();
+            json.addProperty("blockId", blockId);
+            json.addProperty("blockIndex", block.getIndex());
             transactionMap.put(tx.getHash().toString(), json);
         }
+    }
 
-        outputStore.put(block.getHash().toString(), block.getIndex(), transactionMap);
-        log.trace("ElasticSearch put: {} [{}] tx({})",
-                block.getHash().toString(), block.getIndex(), transactionMap.size());
+    private void flush(List<JsonObject> blockJsonList, Map<String, JsonObject> transactionMap)
+            throws InterruptedException {
+        long retryInterval = RETRY_INTERVAL;
+        for (int retry = 0; retry <= MAX_RETRY; retry++) {
+            if (outputStore.putAll(blockJsonList, transactionMap)) {
+                log.trace("ElasticSearch put: block({}) tx({})", blockJsonList.size(), transactionMap.size());
+                return;
+            }
+            Thread.sleep(retryInterval);
+            retryInterval *= 2;
+        }
+        log.warn("ElasticSearch put is failed. Dropped block({}) tx({})", blockJsonList.size(), transactionMap.size());
     }
 
     @Override
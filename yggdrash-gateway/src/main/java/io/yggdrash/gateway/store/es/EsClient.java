@@ -15,6 +15,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 
 public class EsClient implements OutputStore {
@@ -66,6 +67,35 @@ public class EsClient implements OutputStore {
         put(index, id, block);
     }
 
+    @Override
+    public boolean putAll(List<JsonObject> blockJsonList, Map<String, JsonObject> transactionMap) {
+        BulkRequest bulkRequest = new BulkRequest();
+        for (JsonObject block : blockJsonList) {
+            block.remove("body");
+            bulkRequest.add(new IndexRequest(INDEX_PREFIX + "block")
+                    .id(block.get("index").getAsString())
+                    .source(block.toString(), XContentType.JSON));
+        }
+        transactionMap.forEach((txHash, tx) -> bulkRequest.add(new IndexRequest(INDEX_PREFIX + "tx")
+                .id(txHash)
+                .source(tx.toString(), XContentType.JSON)));
+        if (bulkRequest.numberOfActions() == 0) {
+            return true;
+        }
+
+        try {
+            BulkResponse bulkResponse = client.bulk(bulkRequest, RequestOptions.DEFAULT);
+            if (bulkResponse.hasFailures()) {
+                log.warn("Bulk response has failure={}", bulkResponse.buildFailureMessage());
+                return false;
+            }
+            return true;
+        } catch (IOException e) {
+            log.warn("Failed bulk save to elasticsearch err={}", e.getMessage());
+            return false;
+        }
+    }
+
     @Override
     public void put(String blockId, long blockIndex, Map<String, JsonObject> transactionMap) {
         if (transactionMap == null || transactionMap.size() == 0) {
@@ -31,4 +31,19 @@ public interface ContractApi {
                  @JsonRpcParam(value = "method") String method,
                  @JsonRpcParam(value = "params") Map params);
 
+    /**
+     * Gets the merkle proof of the contract state against the state root of the last executed block
+     *
+     * @param branchId branch id of contract
+     * @param contractVersion contract version that owns the state
+     * @param key state key of the contract
+     * @return proof of the state
+     */
+    @JsonRpcErrors({
+            @JsonRpcError(exception = NonExistObjectException.class, code = NonExistObjectException.CODE),
+            @JsonRpcError(exception = FailedOperationException.class, code = FailedOperationException.CODE)})
+    Map getStateProof(@JsonRpcParam(value = "branchId") String branchId,
+                      @JsonRpcParam(value = "contractVersion") String contractVersion,
+                      @JsonRpcParam(value = "key") String key);
+
 }
@@ -3,6 +3,7 @@ package io.yggdrash.node.api;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.googlecode.jsonrpc4j.spring.AutoJsonRpcServiceImpl;
+import io.yggdrash.common.store.trie.StateProof;
 import io.yggdrash.common.utils.JsonUtil;
 import io.yggdrash.core.blockchain.BranchGroup;
 import io.yggdrash.core.blockchain.BranchId;
@@ -52,4 +53,10 @@ public class ContractApiImpl implements ContractApi {
         return result;
     }
 
+    @Override
+    public Map getStateProof(String branchId, String contractVersion, String key) {
+        StateProof proof = branchGroup.getStateProof(BranchId.of(branchId), contractVersion, key);
+        return JsonUtil.convertJsonToMap(proof.toJsonObject());
+    }
+
 }
@@ -20,6 +20,7 @@ import io.yggdrash.common.Sha3Hash;
 import io.yggdrash.common.config.Constants;
 import io.yggdrash.common.config.Constants.ActiveProfiles;
 import io.yggdrash.common.config.DefaultConfig;
+import io.yggdrash.common.store.StateStore;
 import io.yggdrash.core.blockchain.BlockChain;
 import io.yggdrash.core.blockchain.BlockChainBuilder;
 import io.yggdrash.core.blockchain.BlockChainManager;
@@ -42,7 +43,13 @@ import io.yggdrash.core.net.NodeStatus;
 import io.yggdrash.core.store.BlockChainStore;
 import io.yggdrash.core.store.BlockChainStoreBuilder;
 import io.yggdrash.core.store.ContractStore;
+import io.yggdrash.core.store.StateSnapshot;
+import io.yggdrash.core.store.StateSnapshotImporter;
+import io.yggdrash.core.store.StateSnapshotScheduler;
+import io.yggdrash.core.store.StateTriePruner;
+import io.yggdrash.node.service.SnapshotClient;
 import io.yggdrash.node.service.ValidatorService;
+import org.apache.commons.io.FileUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -50,6 +57,8 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.env.Environment;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Arrays;
 
 @Configuration
@@ -106,12 +115,24 @@ public class BranchConfiguration {
             BlockChainStoreBuilder builder = BlockChainStoreBuilder.newBuilder(branchId)
                     .withDataBasePath(defaultConfig.getDatabasePath())
                     .withProductionMode(defaultConfig.isProductionMode())
+                    .withTxPoolCapacity(defaultConfig.getTxPoolCapacity())
+                    .withSyncWrite(defaultConfig.isDatabaseSync())
+                    .withDatabaseEngine(defaultConfig::getDatabaseEngine)
                     .setBlockStoreFactory(ValidatorService.blockStoreFactory())
                     .setConsensusAlgorithm(consensus.getAlgorithm())
             ;
             BlockChainStore blockChainStore = builder.build();
+            importSnapshot(genesis, consensus, builder, blockChainStore);
             BlockChain blockChain =
                     getBlockChain(defaultConfig, genesis, blockChainStore, branchId, systemProperties);
+            if (defaultConfig.getSnapshotInterval() > 0) {
+                blockChain.addListener(new StateSnapshotScheduler(branchId, blockChainStore,
+                        Paths.get(defaultConfig.getSnapshotPath()), defaultConfig.getSnapshotInterval()));
+            }
+            if (defaultConfig.getDatabasePruneInterval() > 0) {
+                blockChain.addListener(new StateTriePruner(
+                        blockChainStore.getStateStore(), defaultConfig.getDatabasePruneInterval()));
+            }
 
             log.info("Branch is Ready {}", blockChain.getBranchId());
 
@@ -122,6 +143,47 @@ public class BranchConfiguration {
         }
     }
 
+    /**
+     * Bootstraps the empty stores of the branch from the snapshot of the configured peer at the checkpoint.
+     * The node syncs from the genesis block if no checkpoint is configured, or the peer has no snapshot at it
+     * or can not be reached.
+     */
+    private void importSnapshot(GenesisBlock genesis, Consensus consensus, BlockChainStoreBuilder builder,
+                                BlockChainStore blockChainStore) {
+        String peer = defaultConfig.getSnapshotPeer();
+        if (peer.isEmpty() || blockChainStore.getConsensusBlockStore().size() > 0) {
+            return;
+        }
+        if (defaultConfig.getSnapshotCheckpoint().isEmpty()) {
+            log.warn("Snapshot of {} is not imported without the snapshot.checkpoint", peer);
+            return;
+        }
+        StateSnapshotImporter.Checkpoint checkpoint =
+                StateSnapshotImporter.Checkpoint.of(defaultConfig.getSnapshotCheckpoint());
+
+        BranchId branchId = genesis.getBranchId();
+        Path dir = Paths.get(defaultConfig.getSnapshotPath(), branchId.toString(), "download");
+        FileUtils.deleteQuietly(dir.toFile());
+        StateStore stagingStore = builder.buildStagingStateStore();
+        try {
+            StateSnapshot snapshot;
+            try {
+                snapshot = new SnapshotClient(peer).download(branchId, checkpoint.getHeight(), dir);
+            } catch (Exception e) {
+                log.warn("Snapshot download from {} is failed. {}", peer, e.getMessage());
+                return;
+            }
+            if (snapshot != null) {
+                new StateSnapshotImporter(blockChainStore, stagingStore,
+                        ValidatorService.blockParser(consensus.getAlgorithm()))
+                        .importSnapshot(dir, genesis.getBlock().getHash(), checkpoint);
+            }
+        } finally {
+            stagingStore.close();
+            FileUtils.deleteQuietly(dir.toFile());
+        }
+    }
+
     static BlockChain getBlockChain(DefaultConfig config,
                                     GenesisBlock genesis,
                                     BlockChainStore blockChainStore,
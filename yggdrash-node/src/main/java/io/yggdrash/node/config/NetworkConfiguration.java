@@ -17,11 +17,17 @@
 package io.yggdrash.node.config;
 
 import io.grpc.BindableService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import io.yggdrash.common.config.Constants;
 import io.yggdrash.core.blockchain.BlockChain;
 import io.yggdrash.core.blockchain.BlockChainSyncManager;
 import io.yggdrash.core.blockchain.BranchGroup;
 import io.yggdrash.core.blockchain.SyncManager;
+import io.yggdrash.core.net.IngressQueue;
 import io.yggdrash.core.net.KademliaPeerNetwork;
 import io.yggdrash.core.net.NodeStatus;
 import io.yggdrash.core.net.PeerNetwork;
@@ -42,6 +48,7 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Configuration
@@ -72,6 +79,29 @@ public class NetworkConfiguration {
         return peerNetwork;
     }
 
+    /**
+     * Depth, drops and latency of the queues of the peer network
+     */
+    @Bean
+    public MeterBinder peerNetworkMetrics(PeerNetwork peerNetwork) {
+        return registry -> {
+            for (IngressQueue<?> queue : peerNetwork.getIngressQueues()) {
+                Gauge.builder("yggdrash.network.queue.depth", queue, IngressQueue::size)
+                        .tag("queue", queue.getName()).register(registry);
+                Gauge.builder("yggdrash.network.queue.capacity", queue, IngressQueue::getCapacity)
+                        .tag("queue", queue.getName()).register(registry);
+                FunctionCounter.builder("yggdrash.network.queue.dropped", queue, IngressQueue::getDroppedCount)
+                        .tag("queue", queue.getName()).register(registry);
+                FunctionTimer.builder("yggdrash.network.queue.latency", queue, IngressQueue::getTakenCount,
+                        IngressQueue::getTotalLatency, TimeUnit.NANOSECONDS)
+                        .tag("queue", queue.getName()).register(registry);
+                TimeGauge.builder("yggdrash.network.queue.latency.max", queue, TimeUnit.NANOSECONDS,
+                        IngressQueue::getMaxLatency)
+                        .tag("queue", queue.getName()).register(registry);
+            }
+        };
+    }
+
     /**
      * Scheduling Beans
      */
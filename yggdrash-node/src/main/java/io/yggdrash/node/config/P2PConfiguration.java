@@ -21,6 +21,7 @@ import io.yggdrash.core.net.DiscoveryConsumer;
 import io.yggdrash.core.net.DiscoveryServiceConsumer;
 import io.yggdrash.core.p2p.BlockChainDialer;
 import io.yggdrash.core.p2p.Peer;
+import io.yggdrash.core.p2p.PeerChannelPool;
 import io.yggdrash.core.p2p.PeerDialer;
 import io.yggdrash.core.p2p.PeerTableGroup;
 import io.yggdrash.core.p2p.PeerTableGroupBuilder;
@@ -47,9 +48,14 @@ public class P2PConfiguration {
         log.debug("NodeProperties: {}", nodeProperties.toString());
     }
 
+    @Bean(destroyMethod = "shutdown")
+    PeerChannelPool peerChannelPool() {
+        return new PeerChannelPool();
+    }
+
     @Bean
-    PeerDialer peerDialer() {
-        return new BlockChainDialer(PeerHandlerProvider.factory());
+    PeerDialer peerDialer(PeerChannelPool peerChannelPool) {
+        return new BlockChainDialer(PeerHandlerProvider.factory(peerChannelPool));
     }
 
     @Bean
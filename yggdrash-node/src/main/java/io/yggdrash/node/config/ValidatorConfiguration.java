@@ -104,6 +104,9 @@ public class ValidatorConfiguration {
                 BlockChainStoreBuilder builder = BlockChainStoreBuilder.newBuilder(branchId);
                 builder.withDataBasePath(mergedConfig.getDatabasePath())
                         .withProductionMode(mergedConfig.isProductionMode())
+                        .withTxPoolCapacity(mergedConfig.getTxPoolCapacity())
+                        .withSyncWrite(mergedConfig.isDatabaseSync())
+                        .withDatabaseEngine(mergedConfig::getDatabaseEngine)
                         .setBlockStoreFactory(ValidatorService.blockStoreFactory())
                         .setConsensusAlgorithm(consensus.getAlgorithm())
                 ;
@@ -17,6 +17,7 @@
 package io.yggdrash.node.service;
 
 import io.grpc.BindableService;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 import io.yggdrash.core.blockchain.BranchGroup;
 import io.yggdrash.core.blockchain.BranchId;
@@ -35,7 +36,9 @@ import io.yggdrash.validator.data.pbft.PbftBlock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class BlockServiceFactory {
     private static final CommonProto.Empty EMPTY = CommonProto.Empty.getDefaultInstance();
@@ -56,6 +59,25 @@ public class BlockServiceFactory {
         throw new NotValidateException("Algorithm is not valid.");
     }
 
+    /**
+     * Sends the blocks only while the transport is ready, so the blocks are read from the store
+     * as fast as the client consumes them instead of being buffered in the heap.
+     */
+    private static <T> void streamBlocks(Iterator<ConsensusBlock<T>> blocks, StreamObserver<T> responseObserver) {
+        ServerCallStreamObserver<T> serverObserver = (ServerCallStreamObserver<T>) responseObserver;
+        AtomicBoolean completed = new AtomicBoolean(false);
+        Runnable drain = () -> {
+            while (serverObserver.isReady() && !serverObserver.isCancelled() && blocks.hasNext()) {
+                serverObserver.onNext(blocks.next().getInstance());
+            }
+            if (!blocks.hasNext() && !serverObserver.isCancelled() && completed.compareAndSet(false, true)) {
+                serverObserver.onCompleted();
+            }
+        };
+        serverObserver.setOnReadyHandler(drain);
+        drain.run();
+    }
+
     private static class PbftBlockService extends PbftServiceGrpc.PbftServiceImplBase {
         private static final Logger log = LoggerFactory.getLogger(PbftBlockService.class);
         private final BlockConsumer<PbftProto.PbftBlock> blockConsumer;
@@ -87,6 +109,22 @@ public class BlockServiceFactory {
             responseObserver.onCompleted();
         }
 
+        /**
+         * Sync block response as a stream of blocks
+         *
+         * @param request          the start branch id, block index and limit to sync
+         * @param responseObserver the observer response to the blocks
+         */
+        @Override
+        public void streamPbftBlocks(CommonProto.Offset request,
+                                     StreamObserver<PbftProto.PbftBlock> responseObserver) {
+            long offset = request.getIndex();
+            long limit = request.getCount();
+            BranchId branchId = BranchId.of(request.getChain().toByteArray());
+            log.debug("Received streamBlock request branch={} offset={}, limit={}", branchId, offset, limit);
+            streamBlocks(blockConsumer.streamBlock(branchId, offset, limit), responseObserver);
+        }
+
         @Override
         public void broadcastPbftBlock(PbftProto.PbftBlock request,
                                        StreamObserver<CommonProto.Empty> responseObserver) {
@@ -129,6 +167,22 @@ public class BlockServiceFactory {
             responseObserver.onCompleted();
         }
 
+        /**
+         * Sync block response as a stream of blocks
+         *
+         * @param request          the start branch id, block index and limit to sync
+         * @param responseObserver the observer response to the blocks
+         */
+        @Override
+        public void streamEbftBlocks(CommonProto.Offset request,
+                                     StreamObserver<EbftProto.EbftBlock> responseObserver) {
+            long offset = request.getIndex();
+            long limit = request.getCount();
+            BranchId branchId = BranchId.of(request.getChain().toByteArray());
+            log.debug("Received streamBlock request branch={} offset={}, limit={}", branchId, offset, limit);
+            streamBlocks(blockConsumer.streamBlock(branchId, offset, limit), responseObserver);
+        }
+
         @Override
         public void broadcastEbftBlock(EbftProto.EbftBlock request,
                                        StreamObserver<CommonProto.Empty> responseObserver) {
@@ -20,7 +20,10 @@ import com.google.protobuf.ByteString;
 import io.grpc.Context;
 import io.grpc.ManagedChannel;
 import io.grpc.ManagedChannelBuilder;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
 import io.yggdrash.common.config.Constants;
+import io.yggdrash.common.config.Constants.Limit;
 import io.yggdrash.core.blockchain.BranchId;
 import io.yggdrash.core.consensus.ConsensusBlock;
 import io.yggdrash.core.exception.NotValidateException;
@@ -28,6 +31,7 @@ import io.yggdrash.core.p2p.AbstractBlockChainHandler;
 import io.yggdrash.core.p2p.BlockChainHandlerFactory;
 import io.yggdrash.core.p2p.DiscoveryHandler;
 import io.yggdrash.core.p2p.Peer;
+import io.yggdrash.core.p2p.PeerChannelPool;
 import io.yggdrash.proto.CommonProto;
 import io.yggdrash.proto.EbftProto;
 import io.yggdrash.proto.EbftServiceGrpc;
@@ -38,20 +42,80 @@ import io.yggdrash.validator.data.pbft.PbftBlock;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
 
 import static io.yggdrash.common.config.Constants.TIMEOUT_BLOCK;
 import static io.yggdrash.common.config.Constants.TIMEOUT_BLOCKLIST;
 
 public class PeerHandlerProvider {
+    private static final org.slf4j.Logger log = LoggerFactory.getLogger(PeerHandlerProvider.class);
+
+    private static final ScheduledExecutorService idleTimer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "block-stream-idle-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     private PeerHandlerProvider() {
         throw new IllegalStateException("Utility class");
     }
 
+    /**
+     * Passes the blocks of the stream to the consumer as they arrive. The call runs in a child of the current
+     * context, so it is cancelled with the current context. It is also cancelled when no block arrives within
+     * TIMEOUT_BLOCK seconds, instead of a deadline for the whole stream. The blocks received before the stream
+     * fails are kept, the failure is thrown only when the peer doesn't serve the stream.
+     * The stream is cancelled once the received blocks reach the byte budget, so a batch of up to
+     * Limit.BLOCK_STREAM_COUNT blocks is never held at once. The sync continues from the next offset.
+     *
+     * @param call starts the stream
+     * @param consumer consumer of each block
+     * @param sizeOf serialized size of a block
+     * @param budget bytes of the blocks to be received, the block reaching it is the last one
+     */
+    static <B> void readBlockStream(Supplier<Iterator<B>> call, Consumer<B> consumer, ToLongFunction<B> sizeOf,
+                                    long budget) {
+        Context.CancellableContext context = Context.current().withCancellation();
+        Context previous = context.attach();
+        ScheduledFuture<?> idleTimeout = scheduleIdleTimeout(context);
+        try {
+            Iterator<B> blocks = call.get();
+            long received = 0;
+            while (received < budget && blocks.hasNext()) {
+                B block = blocks.next();
+                idleTimeout.cancel(false);
+                consumer.accept(block);
+                received += sizeOf.applyAsLong(block);
+                idleTimeout = scheduleIdleTimeout(context);
+            }
+        } catch (StatusRuntimeException e) {
+            if (e.getStatus().getCode() == Status.Code.UNIMPLEMENTED) {
+                throw e;
+            }
+            log.debug("Block stream is stopped. {}", e.getStatus());
+        } finally {
+            idleTimeout.cancel(false);
+            context.detach(previous);
+            context.cancel(null);
+        }
+    }
+
+    private static ScheduledFuture<?> scheduleIdleTimeout(Context.CancellableContext context) {
+        return idleTimer.schedule(() -> context.cancel(Status.DEADLINE_EXCEEDED
+                .withDescription("No block within " + TIMEOUT_BLOCK + "s").asRuntimeException()),
+                TIMEOUT_BLOCK, TimeUnit.SECONDS);
+    }
+
     public static BlockChainHandlerFactory factory() {
         return (consensusAlgorithm, peer) -> {
 
@@ -68,10 +132,30 @@ public class PeerHandlerProvider {
         };
     }
 
+    /**
+     * The handlers of a peer share the pooled channel to the peer.
+     */
+    public static BlockChainHandlerFactory factory(PeerChannelPool channelPool) {
+        return (consensusAlgorithm, peer) -> {
+
+            switch (consensusAlgorithm) {
+                case "pbft":
+                    return new PbftPeerHandler(channelPool.acquire(peer), peer);
+                case "ebft":
+                    return new EbftPeerHandler(channelPool.acquire(peer), peer);
+                case "discovery":
+                    return new DiscoveryHandler(channelPool.acquire(peer), peer);
+                default:
+            }
+            throw new NotValidateException("Algorithm is not valid.");
+        };
+    }
+
     public static class PbftPeerHandler extends AbstractBlockChainHandler<PbftProto.PbftBlock> {
         private static final org.slf4j.Logger log = LoggerFactory.getLogger(PbftPeerHandler.class);
 
         private final PbftServiceGrpc.PbftServiceBlockingStub blockingStub;
+        private volatile boolean streamSupported = true;
 
         PbftPeerHandler(Peer peer) {
             this(ManagedChannelBuilder.forAddress(peer.getHost(), peer.getPort()).usePlaintext().build(), peer);
@@ -84,23 +168,41 @@ public class PeerHandlerProvider {
 
         @Override
         public Future<List<ConsensusBlock<PbftProto.PbftBlock>>> syncBlock(BranchId branchId, long offset) {
+            return syncBlock(branchId, offset, Constants.BLOCK_SYNC_COUNT);
+        }
+
+        @Override
+        public Future<List<ConsensusBlock<PbftProto.PbftBlock>>> syncBlock(BranchId branchId, long offset,
+                                                                            long count) {
             try {
-                log.debug("Requesting sync block: branchId={}, offset={}, to={}",
-                        branchId, offset, this.getPeer().getYnodeUri());
+                log.debug("Requesting sync block: branchId={}, offset={}, count={}, to={}",
+                        branchId, offset, count, this.getPeer().getYnodeUri());
                 CommonProto.Offset request = CommonProto.Offset.newBuilder()
                         .setIndex(offset)
-                        .setCount(Constants.BLOCK_SYNC_COUNT)
+                        .setCount(count)
                         .setChain(ByteString.copyFrom(branchId.getBytes()))
                         .build();
 
-                PbftProto.PbftBlockList protoPbftBlockList
-                        = blockingStub.withDeadlineAfter(TIMEOUT_BLOCKLIST, TimeUnit.SECONDS).getPbftBlockList(request);
-
                 CompletableFuture<List<ConsensusBlock<PbftProto.PbftBlock>>> futureBlockList =
                         new CompletableFuture<>();
                 List<ConsensusBlock<PbftProto.PbftBlock>> newBlockList = new ArrayList<>();
-                for (PbftProto.PbftBlock block : protoPbftBlockList.getPbftBlockList()) {
-                    newBlockList.add(new PbftBlock(block));
+                if (streamSupported) {
+                    try {
+                        readBlockStream(() -> blockingStub.streamPbftBlocks(request),
+                                block -> newBlockList.add(new PbftBlock(block)),
+                                PbftProto.PbftBlock::getSerializedSize, Limit.BLOCK_STREAM_SIZE);
+                    } catch (StatusRuntimeException e) {
+                        // The peer serves the block list only
+                        streamSupported = false;
+                    }
+                }
+
+                if (!streamSupported) {
+                    PbftProto.PbftBlockList protoPbftBlockList = blockingStub
+                            .withDeadlineAfter(TIMEOUT_BLOCKLIST, TimeUnit.SECONDS).getPbftBlockList(request);
+                    for (PbftProto.PbftBlock block : protoPbftBlockList.getPbftBlockList()) {
+                        newBlockList.add(new PbftBlock(block));
+                    }
                 }
 
                 futureBlockList.complete(newBlockList);
@@ -126,6 +228,7 @@ public class PeerHandlerProvider {
         private static final org.slf4j.Logger log = LoggerFactory.getLogger(EbftPeerHandler.class);
 
         private final EbftServiceGrpc.EbftServiceBlockingStub blockingStub;
+        private volatile boolean streamSupported = true;
 
         EbftPeerHandler(Peer peer) {
             this(ManagedChannelBuilder.forAddress(peer.getHost(), peer.getPort()).usePlaintext()
@@ -139,24 +242,42 @@ public class PeerHandlerProvider {
 
         @Override
         public Future<List<ConsensusBlock<EbftProto.EbftBlock>>> syncBlock(BranchId branchId, long offset) {
-            log.debug("Requesting sync block: branchId={}, offset={}, to={}",
-                    branchId, offset, this.getPeer().getYnodeUri());
+            return syncBlock(branchId, offset, Constants.BLOCK_SYNC_COUNT);
+        }
+
+        @Override
+        public Future<List<ConsensusBlock<EbftProto.EbftBlock>>> syncBlock(BranchId branchId, long offset,
+                                                                            long count) {
+            log.debug("Requesting sync block: branchId={}, offset={}, count={}, to={}",
+                    branchId, offset, count, this.getPeer().getYnodeUri());
 
             CommonProto.Offset request = CommonProto.Offset.newBuilder()
                     .setIndex(offset)
-                    .setCount(Constants.BLOCK_SYNC_COUNT)
+                    .setCount(count)
                     .setChain(ByteString.copyFrom(branchId.getBytes()))
                     .build();
 
-            EbftProto.EbftBlockList protoEbftBlockList = blockingStub
-                    .withDeadlineAfter(TIMEOUT_BLOCKLIST, TimeUnit.SECONDS)
-                    .getEbftBlockList(request);
-
             CompletableFuture<List<ConsensusBlock<EbftProto.EbftBlock>>> futureBlockList = new CompletableFuture<>();
             List<ConsensusBlock<EbftProto.EbftBlock>> newEbftBlockList = new ArrayList<>();
-            if (!Context.current().isCancelled()) {
-                for (EbftProto.EbftBlock block : protoEbftBlockList.getEbftBlockList()) {
-                    newEbftBlockList.add(new EbftBlock(block));
+            if (streamSupported) {
+                try {
+                    readBlockStream(() -> blockingStub.streamEbftBlocks(request),
+                            block -> newEbftBlockList.add(new EbftBlock(block)),
+                            EbftProto.EbftBlock::getSerializedSize, Limit.BLOCK_STREAM_SIZE);
+                } catch (StatusRuntimeException e) {
+                    // The peer serves the block list only
+                    streamSupported = false;
+                }
+            }
+
+            if (!streamSupported) {
+                EbftProto.EbftBlockList protoEbftBlockList = blockingStub
+                        .withDeadlineAfter(TIMEOUT_BLOCKLIST, TimeUnit.SECONDS)
+                        .getEbftBlockList(request);
+                if (!Context.current().isCancelled()) {
+                    for (EbftProto.EbftBlock block : protoEbftBlockList.getEbftBlockList()) {
+                        newEbftBlockList.add(new EbftBlock(block));
+                    }
                 }
             }
 
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.yggdrash.node.service;
+
+import com.google.protobuf.ByteString;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.yggdrash.common.exception.FailedOperationException;
+import io.yggdrash.common.utils.FileUtil;
+import io.yggdrash.common.utils.JsonUtil;
+import io.yggdrash.core.blockchain.BranchId;
+import io.yggdrash.core.store.StateSnapshot;
+import io.yggdrash.proto.SnapshotProto;
+import io.yggdrash.proto.SnapshotServiceGrpc;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Downloads a state snapshot of a branch from a node.
+ */
+public class SnapshotClient {
+    private static final Logger log = LoggerFactory.getLogger(SnapshotClient.class);
+
+    private final String host;
+    private final int port;
+
+    /**
+     * Creates the client.
+     *
+     * @param address host:port of the node serving the snapshot
+     */
+    public SnapshotClient(String address) {
+        int index = address.lastIndexOf(':');
+        if (index < 0) {
+            throw new FailedOperationException("Invalid snapshot peer. " + address);
+        }
+        this.host = address.substring(0, index);
+        this.port = Integer.parseInt(address.substring(index + 1));
+    }
+
+    /**
+     * Downloads the snapshot into the directory. Every file is checked against the hash of the manifest.
+     *
+     * @param branchId branch of the snapshot
+     * @param height height of the snapshot, 0 for the latest
+     * @param dir empty directory to be written
+     * @return the manifest, or null if the node has no snapshot of the branch at the height
+     */
+    public StateSnapshot download(BranchId branchId, long height, Path dir) {
+        ManagedChannel channel = ManagedChannelBuilder.forAddress(host, port).usePlaintext().build();
+        try {
+            SnapshotServiceGrpc.SnapshotServiceBlockingStub stub = SnapshotServiceGrpc.newBlockingStub(channel);
+            ByteString branch = ByteString.copyFrom(branchId.getBytes());
+            ByteString manifest = stub.getSnapshotManifest(SnapshotProto.SnapshotRequest.newBuilder()
+                    .setBranch(branch).setHeight(height).build()).getManifest();
+            if (manifest.isEmpty()) {
+                log.info("No snapshot of the branch {} at {}:{}", branchId, host, port);
+                return null;
+            }
+            StateSnapshot snapshot = StateSnapshot.of(
+                    JsonUtil.parseJsonObject(manifest.toString(FileUtil.DEFAULT_CHARSET)));
+            if (!branchId.equals(snapshot.getBranchId())) {
+                throw new FailedOperationException("Invalid branch of the snapshot. " + snapshot.getBranchId());
+            }
+            if (height > 0 && snapshot.getHeight() != height) {
+                throw new FailedOperationException("Invalid height of the snapshot. " + snapshot.getHeight());
+            }
+
+            Files.createDirectories(dir);
+            Files.write(dir.resolve(StateSnapshot.MANIFEST), manifest.toByteArray());
+            for (StateSnapshot.FileInfo file : snapshot.getFiles()) {
+                SnapshotProto.SnapshotFileRequest request = SnapshotProto.SnapshotFileRequest.newBuilder()
+                        .setBranch(branch).setHeight(snapshot.getHeight()).setName(file.getName()).build();
+                Iterator<SnapshotProto.SnapshotChunk> chunks = stub.getSnapshotFile(request);
+                // Moved to the file of the snapshot only after the hash matches
+                Path target = file.resolve(dir);
+                Path temp = Files.createTempFile(dir, file.getName(), ".tmp");
+                try {
+                    try (OutputStream out = Files.newOutputStream(temp)) {
+                        while (chunks.hasNext()) {
+                            chunks.next().getData().writeTo(out);
+                        }
+                    }
+                    StateSnapshot.checkFile(temp, file);
+                    Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } finally {
+                    Files.deleteIfExists(temp);
+                }
+                log.debug("Snapshot file {} downloaded", file.getName());
+            }
+            log.info("Snapshot downloaded. branch={}, height={}", branchId, snapshot.getHeight());
+            return snapshot;
+        } catch (IOException e) {
+            throw new FailedOperationException(e);
+        } finally {
+            channel.shutdown();
+            try {
+                channel.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2019 Akashic Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.yggdrash.node.service;
+
+import com.google.protobuf.ByteString;
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import io.yggdrash.common.config.Constants;
+import io.yggdrash.common.config.DefaultConfig;
+import io.yggdrash.common.utils.FileUtil;
+import io.yggdrash.core.blockchain.BranchId;
+import io.yggdrash.core.store.StateSnapshot;
+import io.yggdrash.core.store.StateSnapshotScheduler;
+import io.yggdrash.node.springboot.grpc.GrpcService;
+import io.yggdrash.proto.SnapshotProto;
+import io.yggdrash.proto.SnapshotServiceGrpc;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Serves the state snapshots of a branch to the nodes bootstrapping from them.
+ */
+@Profile(Constants.ActiveProfiles.NODE)
+@GrpcService
+public class SnapshotService extends SnapshotServiceGrpc.SnapshotServiceImplBase {
+    private static final Logger log = LoggerFactory.getLogger(SnapshotService.class);
+
+    private static final int CHUNK_SIZE = 1024 * 1024;
+
+    private final Path snapshotPath;
+
+    @Autowired
+    public SnapshotService(DefaultConfig defaultConfig) {
+        this.snapshotPath = Paths.get(defaultConfig.getSnapshotPath());
+    }
+
+    @Override
+    public void getSnapshotManifest(SnapshotProto.SnapshotRequest request,
+                                    StreamObserver<SnapshotProto.SnapshotManifest> responseObserver) {
+        BranchId branchId = BranchId.of(request.getBranch().toByteArray());
+        SnapshotProto.SnapshotManifest.Builder builder = SnapshotProto.SnapshotManifest.newBuilder();
+        try {
+            List<Path> snapshots = StateSnapshotScheduler.listSnapshots(snapshotPath.resolve(branchId.toString()));
+            if (request.getHeight() > 0) {
+                snapshots.removeIf(dir -> !dir.getFileName().toString().equals(String.valueOf(request.getHeight())));
+            }
+            if (!snapshots.isEmpty()) {
+                StateSnapshot snapshot = StateSnapshot.read(snapshots.get(snapshots.size() - 1));
+                builder.setManifest(ByteString.copyFrom(
+                        snapshot.toJsonObject().toString().getBytes(FileUtil.DEFAULT_CHARSET)));
+            }
+            responseObserver.onNext(builder.build());
+            responseObserver.onCompleted();
+        } catch (Exception e) {
+            log.debug("getSnapshotManifest() is failed. {}", e.getMessage());
+            responseObserver.onError(Status.INTERNAL.withDescription(e.getMessage()).asException());
+        }
+    }
+
+    @Override
+    public void getSnapshotFile(SnapshotProto.SnapshotFileRequest request,
+                                StreamObserver<SnapshotProto.SnapshotChunk> responseObserver) {
+        BranchId branchId = BranchId.of(request.getBranch().toByteArray());
+        Path dir = snapshotPath.resolve(branchId.toString()).resolve(String.valueOf(request.getHeight()));
+        try {
+            // Only the files listed in the manifest are served
+            boolean listed = Files.exists(dir.resolve(StateSnapshot.MANIFEST))
+                    && StateSnapshot.read(dir).getFiles().stream()
+                    .anyMatch(file -> file.getName().equals(request.getName()));
+            if (!listed) {
+                responseObserver.onError(Status.NOT_FOUND.withDescription(request.getName()).asException());
+                return;
+            }
+
+            byte[] buffer = new byte[CHUNK_SIZE];
+            try (InputStream in = Files.newInputStream(dir.resolve(request.getName()))) {
+                int read;
+                while ((read = in.read(buffer)) > 0) {
+                    responseObserver.onNext(SnapshotProto.SnapshotChunk.newBuilder()
+                            .setData(ByteString.copyFrom(buffer, 0, read)).build());
+                }
+            }
+            responseObserver.onCompleted();
+        } catch (IOException | RuntimeException e) {
+            log.debug("getSnapshotFile() is failed. {}", e.getMessage());
+            responseObserver.onError(Status.INTERNAL.withDescription(e.getMessage()).asException());
+        }
+    }
+}
@@ -16,9 +16,14 @@
 
 package io.yggdrash.node.service;
 
+import com.google.protobuf.ByteString;
 import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
+import io.yggdrash.common.Sha3Hash;
 import io.yggdrash.common.config.Constants;
+import io.yggdrash.common.util.SignatureVerifier;
+import io.yggdrash.core.blockchain.BlockChainManager;
 import io.yggdrash.core.blockchain.BranchGroup;
 import io.yggdrash.core.blockchain.BranchId;
 import io.yggdrash.core.blockchain.Transaction;
@@ -34,12 +39,26 @@ import org.springframework.context.annotation.Profile;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Profile(Constants.ActiveProfiles.NODE)
 @GrpcService
 public class TransactionService extends TransactionServiceGrpc.TransactionServiceImplBase {
     private static final Logger log = LoggerFactory.getLogger(TransactionService.class);
     private static final CommonProto.Empty EMPTY = CommonProto.Empty.getDefaultInstance();
+    // Transactions of a broadcast stream being processed at once
+    private static final int BROADCAST_TX_WINDOW = 64;
+    // Admits the broadcast transactions to the pool, so the verifier pool only recovers the signatures
+    private static final AtomicInteger admissionThreads = new AtomicInteger();
+    private static final ExecutorService admissionExecutor = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(), r -> {
+                Thread thread = new Thread(r, "tx-admission-" + admissionThreads.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
 
     private final BranchGroup branchGroup;
 
@@ -115,12 +134,83 @@ public class TransactionService extends TransactionServiceGrpc.TransactionServic
         responseObserver.onCompleted();
     }
 
+    /**
+     * Returns the announced transaction hashes which are not in the branch yet
+     *
+     * @param txHashList       the announced transaction hashes
+     * @param responseObserver the observer response to the transaction hashes to request
+     */
+    @Override
+    public void announceTxs(Proto.TransactionHashList txHashList,
+                            StreamObserver<Proto.TransactionHashList> responseObserver) {
+        BranchId branchId = BranchId.of(txHashList.getBranch().toByteArray());
+        Proto.TransactionHashList.Builder builder = Proto.TransactionHashList.newBuilder()
+                .setBranch(txHashList.getBranch());
+        if (branchGroup.getBranch(branchId) != null && branchGroup.getBranch(branchId).isFullSynced()) {
+            BlockChainManager blockChainManager = branchGroup.getBranch(branchId).getBlockChainManager();
+            for (ByteString hash : txHashList.getHashesList()) {
+                if (!blockChainManager.containsTxHash(Sha3Hash.createByHashed(hash.toByteArray()))) {
+                    builder.addHashes(hash);
+                }
+            }
+        } else {
+            log.debug("AnnounceTxs() is ignored. Not yet fullSynced.");
+        }
+
+        responseObserver.onNext(builder.build());
+        responseObserver.onCompleted();
+    }
+
+    /**
+     * Receives the broadcast transactions with manual flow control.
+     * The next transaction is requested only as one is processed, so the sender is pushed back
+     * instead of the transactions piling up.
+     *
+     * @param responseObserver the observer response to the empty message
+     * @return the observer of the transactions
+     */
     @Override
     public StreamObserver<Proto.Transaction> broadcastTx(StreamObserver<CommonProto.Empty> responseObserver) {
+        ServerCallStreamObserver<CommonProto.Empty> serverCallObserver = null;
+        if (responseObserver instanceof ServerCallStreamObserver) {
+            serverCallObserver = (ServerCallStreamObserver<CommonProto.Empty>) responseObserver;
+            serverCallObserver.disableAutoInboundFlowControl();
+            serverCallObserver.request(BROADCAST_TX_WINDOW);
+        }
+        ServerCallStreamObserver<CommonProto.Empty> flowControl = serverCallObserver;
+
         return new StreamObserver<Proto.Transaction>() {
+            // The transactions of a sender depend on their order (nonce), so they are added in the received order
+            private CompletableFuture<Void> lastAdded = CompletableFuture.completedFuture(null);
+
             @Override
             public void onNext(Proto.Transaction protoTx) {
-                Transaction tx = new TransactionImpl(protoTx);
+                // The public keys are recovered on the verifier pool in parallel so that the stream is not blocked.
+                // The transactions are admitted on the admission executor in the received order.
+                CompletableFuture<Transaction> recovered = SignatureVerifier.recoverAsync(new TransactionImpl(protoTx));
+                lastAdded = lastAdded.thenCompose(previous -> recovered).handleAsync((tx, e) -> {
+                    if (e == null) {
+                        addTransaction(tx);
+                    } else {
+                        log.debug("BroadcastTx() is failed. {}", e.getCause() != null ? e.getCause() : e);
+                    }
+                    requestNext();
+                    return null;
+                }, admissionExecutor);
+            }
+
+            private void requestNext() {
+                if (flowControl == null || flowControl.isCancelled()) {
+                    return;
+                }
+                try {
+                    flowControl.request(1);
+                } catch (Exception e) {
+                    log.trace("BroadcastTx() request is failed. {}", e.getMessage());
+                }
+            }
+
+            private void addTransaction(Transaction tx) {
                 try {
                     if (branchGroup.getBranch(tx.getBranchId()).isFullSynced()) {
                         branchGroup.addTransaction(tx);
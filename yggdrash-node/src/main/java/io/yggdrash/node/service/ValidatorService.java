@@ -8,6 +8,7 @@ import io.yggdrash.common.config.DefaultConfig;
 import io.yggdrash.core.blockchain.BlockChainBuilder;
 import io.yggdrash.core.blockchain.BlockChainImpl;
 import io.yggdrash.core.consensus.Consensus;
+import io.yggdrash.core.consensus.ConsensusBlock;
 import io.yggdrash.core.consensus.ConsensusBlockChain;
 import io.yggdrash.core.exception.NotValidateException;
 import io.yggdrash.core.store.BlockStoreFactory;
@@ -31,6 +32,7 @@ import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.scheduling.support.CronTrigger;
 
 import java.io.IOException;
+import java.util.function.Function;
 
 public class ValidatorService {
     private static final String NOT_VALID_MSG = "Algorithm is not valid.";
@@ -135,6 +137,17 @@ public class ValidatorService {
         };
     }
 
+    public static Function<byte[], ConsensusBlock> blockParser(String consensusAlgorithm) {
+        switch (consensusAlgorithm) {
+            case "pbft":
+                return PbftBlock::new;
+            case "ebft":
+                return EbftBlock::new;
+            default:
+        }
+        throw new NotValidateException(NOT_VALID_MSG);
+    }
+
     public void shutdown() {
         grpcServer.shutdown();
     }
@@ -1,12 +1,19 @@
 package io.yggdrash.node;
 
+import com.google.gson.JsonObject;
 import io.yggdrash.BlockChainTestUtils;
+import io.yggdrash.contract.core.store.OutputStore;
 import io.yggdrash.core.blockchain.BlockChain;
 import io.yggdrash.core.consensus.ConsensusBlock;
 import io.yggdrash.gateway.BlockChainCollector;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 
@@ -24,4 +31,26 @@ public class BlockChainCollectorTest {
         verify(mock, Mockito.times(1))
                 .chainedBlock(nextBlock);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldStoreBlocksInBackground() throws InterruptedException {
+        List<JsonObject> storedBlocks = Collections.synchronizedList(new ArrayList<>());
+        OutputStore outputStore = mock(OutputStore.class);
+        Mockito.when(outputStore.putAll(Mockito.anyList(), Mockito.anyMap())).thenAnswer(invocation -> {
+            storedBlocks.addAll(invocation.getArgument(0));
+            return true;
+        });
+
+        BlockChainCollector collector =
+                new BlockChainCollector(BlockChainTestUtils.createBranchGroup(), outputStore);
+        collector.chainedBlock(BlockChainTestUtils.createNextBlock());
+
+        for (int i = 0; i < 50 && storedBlocks.size() < 2; i++) {
+            Thread.sleep(100);
+        }
+        collector.destroy();
+
+        // the genesis block and the next block
+        assertThat(storedBlocks).hasSize(2);
+    }
+}
@@ -16,12 +16,15 @@
 
 package io.yggdrash.node.service;
 
+import io.grpc.Status;
 import io.grpc.stub.StreamObserver;
 import io.grpc.testing.GrpcServerRule;
 import io.yggdrash.BlockChainTestUtils;
 import io.yggdrash.TestConstants;
+import io.yggdrash.common.Sha3Hash;
 import io.yggdrash.core.blockchain.Block;
 import io.yggdrash.core.blockchain.BranchId;
+import io.yggdrash.core.consensus.ConsensusBlock;
 import io.yggdrash.core.p2p.BlockChainHandler;
 import io.yggdrash.core.p2p.Peer;
 import io.yggdrash.proto.CommonProto;
@@ -38,9 +41,18 @@ import org.mockito.Captor;
 import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Future;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -88,6 +100,54 @@ public class PbftPeerHandlerTest extends TestConstants.CiTest {
         assertEquals(1, offsetCaptor.getValue().getIndex());
     }
 
+    @Test
+    public void streamPbftBlocksTest() throws Exception {
+        Block block = BlockChainTestUtils.genesisBlock();
+        PbftProto.PbftBlock protoBlock = PbftProto.PbftBlock.newBuilder().setBlock(block.getProtoBlock()).build();
+        doAnswer((invocationOnMock) -> {
+            StreamObserver<PbftProto.PbftBlock> argument = invocationOnMock.getArgument(1);
+            argument.onNext(protoBlock);
+            argument.onNext(protoBlock);
+            argument.onCompleted();
+            return null;
+        }).when(pbftService).streamPbftBlocks(offsetCaptor.capture(), any());
+
+        Future<List<ConsensusBlock>> futureBlockList = peerHandler.syncBlock(yggdrash, 1, 2);
+
+        assertEquals(2, futureBlockList.get().size());
+        assertEquals(2, offsetCaptor.getValue().getCount());
+        verify(pbftService, never()).getPbftBlockList(any(), any());
+    }
+
+    @Test
+    public void shouldKeepBlocksReceivedBeforeStreamFails() throws Exception {
+        Block block = BlockChainTestUtils.genesisBlock();
+        PbftProto.PbftBlock protoBlock = PbftProto.PbftBlock.newBuilder().setBlock(block.getProtoBlock()).build();
+        doAnswer((invocationOnMock) -> {
+            StreamObserver<PbftProto.PbftBlock> argument = invocationOnMock.getArgument(1);
+            argument.onNext(protoBlock);
+            argument.onError(Status.INTERNAL.asRuntimeException());
+            return null;
+        }).when(pbftService).streamPbftBlocks(offsetCaptor.capture(), any());
+
+        Future<List<ConsensusBlock>> futureBlockList = peerHandler.syncBlock(yggdrash, 1, 2);
+
+        assertEquals(1, futureBlockList.get().size());
+        verify(pbftService, never()).getPbftBlockList(any(), any());
+    }
+
+    @Test
+    public void shouldStopStreamAtByteBudget() {
+        List<String> received = new ArrayList<>();
+        Iterator<String> blocks = Arrays.asList("block0", "block1", "block2", "block3").iterator();
+
+        PeerHandlerProvider.readBlockStream(() -> blocks, received::add, block -> block.length(), 10);
+
+        // The block reaching the budget is the last one, the rest of the stream is not read
+        assertEquals(Arrays.asList("block0", "block1"), received);
+        assertTrue(blocks.hasNext());
+    }
+
     @Test
     public void broadcastPbftBlockTest() {
         doAnswer((invocationOnMock) -> {
@@ -106,4 +166,12 @@ public class PbftPeerHandlerTest extends TestConstants.CiTest {
 
         assertEquals(block.getBody().getCount(), blockCaptor.getValue().getBlock().getBody().getTransactionsCount());
     }
+
+    @Test
+    public void announceTxsShouldFallBackWhenUnimplemented() {
+        List<Sha3Hash> txHashes = Collections.singletonList(BlockChainTestUtils.createTransferTx().getHash());
+
+        // The transaction service is not registered, so the peer answers UNIMPLEMENTED and every tx is requested
+        assertEquals(txHashes, peerHandler.announceTxs(yggdrash, txHashes));
+    }
 }
@@ -20,6 +20,7 @@ import io.yggdrash.core.blockchain.BlockChainManagerImpl;
 import io.yggdrash.core.blockchain.Transaction;
 import io.yggdrash.core.consensus.ConsensusBlock;
 import io.yggdrash.core.store.BlockChainStore;
+import io.yggdrash.core.store.BlockCommit;
 
 import java.util.Collection;
 import java.util.List;
@@ -48,6 +49,16 @@ public class BlockChainManagerMock<T> implements BlockChainManager<T> {
         return blockChainManager.verify(block);
     }
 
+    @Override
+    public int verifyOrder(ConsensusBlock<T> prevBlock, ConsensusBlock<T> nextBlock) {
+        return blockChainManager.verifyOrder(prevBlock, nextBlock);
+    }
+
+    @Override
+    public int verifyContent(ConsensusBlock<T> block) {
+        return blockChainManager.verifyContent(block);
+    }
+
     @Override
     public int verify(Transaction transaction) {
         return blockChainManager.verify(transaction);
@@ -58,6 +69,21 @@ public class BlockChainManagerMock<T> implements BlockChainManager<T> {
         blockChainManager.addBlock(nextBlock);
     }
 
+    @Override
+    public BlockCommit prepareBlock(ConsensusBlock<T> nextBlock) {
+        return blockChainManager.prepareBlock(nextBlock);
+    }
+
+    @Override
+    public void confirmBlock(ConsensusBlock<T> nextBlock) {
+        blockChainManager.confirmBlock(nextBlock);
+    }
+
+    @Override
+    public BlockCommit newBlockCommit() {
+        return blockChainManager.newBlockCommit();
+    }
+
     @Override
     public void batchTxs(ConsensusBlock<T> block) {
         blockChainManager.batchTxs(block);
@@ -0,0 +1,148 @@
+package io.yggdrash.validator.data.pbft;
+
+import com.google.gson.JsonObject;
+import com.google.protobuf.ByteString;
+import io.yggdrash.common.Sha3Hash;
+import io.yggdrash.common.config.Constants;
+import io.yggdrash.common.crypto.zksnark.Bls;
+import io.yggdrash.proto.PbftProto;
+import org.spongycastle.util.encoders.Hex;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Commit certificate of a PbftBlock.
+ * The BLS signatures of the commits are aggregated into one signature, which is verified with one pairing check
+ * against the registered BLS keys of the signers instead of recovering the signer of every commit.
+ */
+public class PbftAggregateCommit {
+
+    private final long viewNumber;
+    private final long seqNumber;
+    private final byte[] hash;
+    private final byte[] signature;
+    // Bit i is set if the i-th validator in the order of the addresses signed the commit
+    private final BitSet signers;
+
+    public PbftAggregateCommit(long viewNumber, long seqNumber, byte[] hash, byte[] signature, BitSet signers) {
+        this.viewNumber = viewNumber;
+        this.seqNumber = seqNumber;
+        this.hash = hash;
+        this.signature = signature;
+        this.signers = (BitSet) signers.clone();
+    }
+
+    public PbftAggregateCommit(JsonObject jsonObject) {
+        this.viewNumber = jsonObject.get("viewNumber").getAsLong();
+        this.seqNumber = jsonObject.get("seqNumber").getAsLong();
+        this.hash = Hex.decode(jsonObject.get("hash").getAsString());
+        this.signature = Hex.decode(jsonObject.get("signature").getAsString());
+        this.signers = BitSet.valueOf(Hex.decode(jsonObject.get("signers").getAsString()));
+    }
+
+    public PbftAggregateCommit(PbftProto.PbftAggregateCommit protoAggregateCommit) {
+        this.viewNumber = protoAggregateCommit.getViewNumber();
+        this.seqNumber = protoAggregateCommit.getSeqNumber();
+        this.hash = protoAggregateCommit.getHash().toByteArray();
+        this.signature = protoAggregateCommit.getSignature().toByteArray();
+        this.signers = BitSet.valueOf(protoAggregateCommit.getSigners().toByteArray());
+    }
+
+    /**
+     * Makes the result of a COMMIT message, the BLS signature of the commit.
+     */
+    public static byte[] signCommit(BigInteger secretKey, long viewNumber, long seqNumber, byte[] hash) {
+        return Bls.sign(secretKey, getHashForSigning(viewNumber, seqNumber, hash));
+    }
+
+    /**
+     * Aggregates the commits for the block of the PREPREPARE message.
+     * The commits for another view or block and the commits of the others than the validators are left out.
+     *
+     * @param validators the addresses of the validators in order
+     * @return the aggregate commit, or null if a commit doesn't carry a BLS signature
+     */
+    public static PbftAggregateCommit aggregate(PbftMessage prePrepare, Collection<PbftMessage> commits,
+                                                List<String> validators) {
+        BitSet signers = new BitSet(validators.size());
+        List<byte[]> signatures = new ArrayList<>();
+        for (PbftMessage commit : commits) {
+            byte[] result = commit.getResult();
+            if (result == null || result.length != Bls.SIGNATURE_LENGTH) {
+                return null;
+            } else if (commit.getViewNumber() != prePrepare.getViewNumber()
+                    || !Arrays.equals(commit.getHash(), prePrepare.getHash())) {
+                continue;
+            }
+            int index = validators.indexOf(commit.getAddressHex());
+            if (index >= 0 && !signers.get(index)) {
+                signers.set(index);
+                signatures.add(result);
+            }
+        }
+
+        byte[] aggregateSignature = Bls.aggregate(signatures);
+        if (aggregateSignature == null) {
+            return null;
+        }
+        return new PbftAggregateCommit(prePrepare.getViewNumber(), prePrepare.getSeqNumber(), prePrepare.getHash(),
+                aggregateSignature, signers);
+    }
+
+    public long getViewNumber() {
+        return viewNumber;
+    }
+
+    public long getSeqNumber() {
+        return seqNumber;
+    }
+
+    public byte[] getHash() {
+        return hash;
+    }
+
+    public byte[] getSignature() {
+        return signature;
+    }
+
+    public BitSet getSigners() {
+        return (BitSet) signers.clone();
+    }
+
+    /**
+     * The message signed by every commit, the hash of the COMMIT message without the result.
+     */
+    public byte[] getHashForSigning() {
+        return getHashForSigning(viewNumber, seqNumber, hash);
+    }
+
+    private static byte[] getHashForSigning(long viewNumber, long seqNumber, byte[] hash) {
+        return new PbftMessage(Constants.PBFT_COMMIT, viewNumber, seqNumber, Sha3Hash.createByHashed(hash),
+                null, (byte[]) null, null).getHashForSigning();
+    }
+
+    public JsonObject toJsonObject() {
+        JsonObject jsonObject = new JsonObject();
+        jsonObject.addProperty("viewNumber", this.viewNumber);
+        jsonObject.addProperty("seqNumber", this.seqNumber);
+        jsonObject.addProperty("hash", Hex.toHexString(this.hash));
+        jsonObject.addProperty("signature", Hex.toHexString(this.signature));
+        jsonObject.addProperty("signers", Hex.toHexString(this.signers.toByteArray()));
+        return jsonObject;
+    }
+
+    public static PbftProto.PbftAggregateCommit toProto(PbftAggregateCommit aggregateCommit) {
+        return PbftProto.PbftAggregateCommit.newBuilder()
+                .setViewNumber(aggregateCommit.getViewNumber())
+                .setSeqNumber(aggregateCommit.getSeqNumber())
+                .setHash(ByteString.copyFrom(aggregateCommit.getHash()))
+                .setSignature(ByteString.copyFrom(aggregateCommit.getSignature()))
+                .setSigners(ByteString.copyFrom(aggregateCommit.signers.toByteArray()))
+                .build();
+    }
+}
@@ -137,6 +137,10 @@ public class PbftMessage implements ConsensusMessage<PbftMessage> {
             bao.write(ByteUtil.longToBytes(this.viewNumber));
             bao.write(ByteUtil.longToBytes(this.seqNumber));
             bao.write(this.hash);
+            // The BLS signature of a commit is bound to the signer
+            if (this.result != null) {
+                bao.write(this.result);
+            }
         } catch (IOException e) {
             throw new NotValidateException();
         }
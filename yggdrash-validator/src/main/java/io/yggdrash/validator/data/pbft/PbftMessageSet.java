@@ -22,9 +22,17 @@ public class PbftMessageSet implements ConsensusMessageSet<PbftMessage> {
     private final Map<String, PbftMessage> prepareMap = new TreeMap<>();
     private final Map<String, PbftMessage> commitMap = new TreeMap<>();
     private final Map<String, PbftMessage> viewChangeMap = new TreeMap<>();
+    // Certificate of the commits instead of the prepareMap and the commitMap
+    private final PbftAggregateCommit aggregateCommit;
 
     public PbftMessageSet(PbftMessage prePrepare, Map<String, PbftMessage> prepareMap,
                           Map<String, PbftMessage> commitMap, Map<String, PbftMessage> viewChangeMap) {
+        this(prePrepare, prepareMap, commitMap, viewChangeMap, null);
+    }
+
+    public PbftMessageSet(PbftMessage prePrepare, Map<String, PbftMessage> prepareMap,
+                          Map<String, PbftMessage> commitMap, Map<String, PbftMessage> viewChangeMap,
+                          PbftAggregateCommit aggregateCommit) {
         if (prePrepare == null) {
             throw new NotValidateException("PrePrepare is not valid");
         }
@@ -41,6 +49,7 @@ public class PbftMessageSet implements ConsensusMessageSet<PbftMessage> {
         if (viewChangeMap != null) {
             this.viewChangeMap.putAll(viewChangeMap);
         }
+        this.aggregateCommit = aggregateCommit;
     }
 
     public PbftMessageSet(JsonObject jsonObject) {
@@ -65,6 +74,12 @@ public class PbftMessageSet implements ConsensusMessageSet<PbftMessage> {
                 this.viewChangeMap.put(pbftMessage.getSignatureHex(), pbftMessage);
             }
         }
+
+        if (jsonObject.get("aggregateCommit") != null) {
+            this.aggregateCommit = new PbftAggregateCommit(jsonObject.get("aggregateCommit").getAsJsonObject());
+        } else {
+            this.aggregateCommit = null;
+        }
     }
 
     public PbftMessageSet(byte[] bytes) {
@@ -94,6 +109,9 @@ public class PbftMessageSet implements ConsensusMessageSet<PbftMessage> {
                         new PbftMessage(pbftMessage));
             }
         }
+
+        this.aggregateCommit = protoPbftMessageSet.hasAggregateCommit()
+                ? new PbftAggregateCommit(protoPbftMessageSet.getAggregateCommit()) : null;
     }
 
     @Override
@@ -116,6 +134,10 @@ public class PbftMessageSet implements ConsensusMessageSet<PbftMessage> {
         return viewChangeMap;
     }
 
+    public PbftAggregateCommit getAggregateCommit() {
+        return aggregateCommit;
+    }
+
     @Override
     public byte[] toBinary() {
         return SerializationUtil.serializeJson(toJsonObject());
@@ -160,6 +182,10 @@ public class PbftMessageSet implements ConsensusMessageSet<PbftMessage> {
             pbftMessageSetJsonObject.add("viewChangeList", viewChangeJsonArray);
         }
 
+        if (this.aggregateCommit != null) {
+            pbftMessageSetJsonObject.add("aggregateCommit", this.aggregateCommit.toJsonObject());
+        }
+
         return pbftMessageSetJsonObject;
     }
 
@@ -197,6 +223,11 @@ public class PbftMessageSet implements ConsensusMessageSet<PbftMessage> {
             protoPbftMessageSetBuilder.setViewChangeList(protoViewChangeMessageList);
         }
 
+        if (pbftMessageSet.getAggregateCommit() != null) {
+            protoPbftMessageSetBuilder.setAggregateCommit(
+                    PbftAggregateCommit.toProto(pbftMessageSet.getAggregateCommit()));
+        }
+
         return protoPbftMessageSetBuilder.build();
     }
 
@@ -27,6 +27,9 @@ public class PbftStatus {
     private final long index;
     private final Map<String, PbftMessage> unConfirmedPbftMessageMap = new TreeMap<>();
     private final long timestamp;
+    // BLS key of the sender to aggregate its commits, null if the aggregation is disabled
+    private final byte[] blsPublicKey;
+    private final byte[] blsProof;
     private final byte[] signature;
 
     public PbftStatus(long index,
@@ -40,6 +43,8 @@ public class PbftStatus {
         } else {
             this.timestamp = timestamp;
         }
+        this.blsPublicKey = null;
+        this.blsProof = null;
 
         this.signature = signature;
     }
@@ -48,6 +53,15 @@ public class PbftStatus {
                       Map<String, PbftMessage> unConfirmedPbftMessageMap,
                       long timestamp,
                       Wallet wallet) {
+        this(index, unConfirmedPbftMessageMap, timestamp, null, null, wallet);
+    }
+
+    public PbftStatus(long index,
+                      Map<String, PbftMessage> unConfirmedPbftMessageMap,
+                      long timestamp,
+                      byte[] blsPublicKey,
+                      byte[] blsProof,
+                      Wallet wallet) {
         this.index = index;
         this.unConfirmedPbftMessageMap.putAll(unConfirmedPbftMessageMap);
         if (timestamp == 0L) {
@@ -55,6 +69,8 @@ public class PbftStatus {
         } else {
             this.timestamp = timestamp;
         }
+        this.blsPublicKey = blsPublicKey;
+        this.blsProof = blsProof;
 
         this.signature = this.sign(wallet);
     }
@@ -69,6 +85,9 @@ public class PbftStatus {
             }
         }
         this.timestamp = pbftStatus.getTimestamp();
+        this.blsPublicKey = pbftStatus.getBlsPublicKey().isEmpty()
+                ? null : pbftStatus.getBlsPublicKey().toByteArray();
+        this.blsProof = pbftStatus.getBlsProof().isEmpty() ? null : pbftStatus.getBlsProof().toByteArray();
         this.signature = pbftStatus.getSignature().toByteArray();
     }
 
@@ -81,6 +100,13 @@ public class PbftStatus {
             }
         }
         this.timestamp = jsonObject.get("timestamp").getAsLong();
+        if (jsonObject.get("blsPublicKey") != null) {
+            this.blsPublicKey = Hex.decode(jsonObject.get("blsPublicKey").getAsString());
+            this.blsProof = Hex.decode(jsonObject.get("blsProof").getAsString());
+        } else {
+            this.blsPublicKey = null;
+            this.blsProof = null;
+        }
         this.signature = Hex.decode(jsonObject.get("signature").getAsString());
     }
 
@@ -100,10 +126,22 @@ public class PbftStatus {
         return timestamp;
     }
 
+    public byte[] getBlsPublicKey() {
+        return blsPublicKey;
+    }
+
+    public byte[] getBlsProof() {
+        return blsProof;
+    }
+
     public byte[] getSignature() {
         return signature;
     }
 
+    public String getAddressHex() {
+        return Hex.toHexString(Wallet.calculateAddress(getHashForSigning(), this.signature, true));
+    }
+
     public byte[] getHashForSigning() {
         ByteArrayOutputStream dataForSigning = new ByteArrayOutputStream();
 
@@ -112,6 +150,10 @@ public class PbftStatus {
             for (Map.Entry<String, PbftMessage> entry : this.unConfirmedPbftMessageMap.entrySet()) {
                 dataForSigning.write(entry.getValue().toBinary());
             }
+            if (blsPublicKey != null) {
+                dataForSigning.write(blsPublicKey);
+                dataForSigning.write(blsProof);
+            }
             dataForSigning.write(ByteUtil.longToBytes(timestamp));
         } catch (Exception e) {
             log.debug(e.getMessage());
@@ -129,7 +171,7 @@ public class PbftStatus {
         return wallet.sign(getHashForSigning(), true);
     }
 
-    public static boolean verify(PbftStatus status) {
+    public static boolean verify(PbftStatus status, PbftVerifier verifier) {
         if (status == null || status.getSignature() == null) {
             log.debug("PbftStatus is null.");
             return false;
@@ -144,7 +186,7 @@ public class PbftStatus {
         }
 
         for (PbftMessage pbftMessage : status.unConfirmedPbftMessageMap.values()) {
-            if (!PbftVerifier.INSTANCE.verify(pbftMessage)) {
+            if (!verifier.verify(pbftMessage)) {
                 log.debug("PbftMessage is not verified. {}", pbftMessage.toJsonObject().toString());
                 return false;
             }
@@ -169,6 +211,10 @@ public class PbftStatus {
                 .setPbftMessageList(protoPbftMessageListBuilder.build())
                 .setTimestamp(pbftStatus.getTimestamp())
                 .setSignature(ByteString.copyFrom(pbftStatus.getSignature()));
+        if (pbftStatus.getBlsPublicKey() != null) {
+            protoPbftStatusBuilder.setBlsPublicKey(ByteString.copyFrom(pbftStatus.getBlsPublicKey()))
+                    .setBlsProof(ByteString.copyFrom(pbftStatus.getBlsProof()));
+        }
         return protoPbftStatusBuilder.build();
     }
 
@@ -185,6 +231,10 @@ public class PbftStatus {
         }
 
         jsonObject.addProperty("timestamp", this.timestamp);
+        if (this.blsPublicKey != null) {
+            jsonObject.addProperty("blsPublicKey", Hex.toHexString(this.blsPublicKey));
+            jsonObject.addProperty("blsProof", Hex.toHexString(this.blsProof));
+        }
         jsonObject.addProperty("signature", Hex.toHexString(this.signature));
 
         return jsonObject;
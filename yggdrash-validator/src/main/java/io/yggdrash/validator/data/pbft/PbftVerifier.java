@@ -12,6 +12,7 @@
 
 package io.yggdrash.validator.data.pbft;
 
+import io.yggdrash.common.crypto.zksnark.Bls;
 import io.yggdrash.common.util.VerifierUtils;
 import io.yggdrash.core.consensus.ConsensusBlock;
 import io.yggdrash.core.consensus.ConsensusMessage;
@@ -19,13 +20,61 @@ import io.yggdrash.core.consensus.ConsensusMessageSet;
 import io.yggdrash.core.consensus.ConsensusVerifier;
 import io.yggdrash.core.wallet.Wallet;
 import io.yggdrash.proto.PbftProto;
+import io.yggdrash.validator.store.pbft.PbftBlsKeyStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
-
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Verifier of the PBFT messages and blocks of a branch.
+ * The aggregate commit of a block is verified with the validators in force at its height and their registered
+ * BLS keys. With a key store, the keys and the validator sets are kept after a restart, so the blocks signed by
+ * an older validator set are verified as well.
+ */
 public class PbftVerifier implements ConsensusVerifier<PbftProto.PbftBlock, PbftMessage> {
+    private static final Logger log = LoggerFactory.getLogger(PbftVerifier.class);
+
+    // Addresses of the validators in order by the height they are in force from,
+    // the signers of an aggregate commit are indexed by the validators of its height
+    private final NavigableMap<Long, List<String>> validatorSets = new ConcurrentSkipListMap<>();
+    // BLS public keys of the validators, registered once with the verified proof of possession
+    private final Map<String, byte[]> blsKeyMap = new ConcurrentHashMap<>();
+    private final PbftBlsKeyStore keyStore;
+
+    public PbftVerifier() {
+        this(null);
+    }
 
-    public static final PbftVerifier INSTANCE = new PbftVerifier();
+    /**
+     * Creates the verifier with the keys and the validator sets of the store.
+     *
+     * @param keyStore store the registered keys and the validator sets are kept in, or null
+     */
+    public PbftVerifier(PbftBlsKeyStore keyStore) {
+        this.keyStore = keyStore;
+        if (keyStore == null) {
+            return;
+        }
+        validatorSets.putAll(keyStore.getValidatorSets());
+        for (Map.Entry<String, byte[][]> entry : keyStore.getBlsKeys().entrySet()) {
+            byte[] publicKey = entry.getValue()[0];
+            if (Bls.verifyProof(publicKey, entry.getValue()[1])) {
+                blsKeyMap.put(entry.getKey(), publicKey);
+            } else {
+                log.warn("Stored BLS key is not valid. {}", entry.getKey());
+            }
+        }
+    }
 
     @Override
     public Boolean verify(ConsensusMessage<PbftMessage> pbftMessage) {
@@ -58,6 +107,8 @@ public class PbftVerifier implements ConsensusVerifier<PbftProto.PbftBlock, Pbft
         PbftMessage prePrepare = pbftMessageSet.getPrePrepare();
         Map<String, PbftMessage> prepareMap = pbftMessageSet.getPrepareMap();
         Map<String, PbftMessage> commitMap = pbftMessageSet.getCommitMap();
+        PbftAggregateCommit aggregateCommit = pbftMessageSet instanceof PbftMessageSet
+                ? ((PbftMessageSet) pbftMessageSet).getAggregateCommit() : null;
 
         if (prePrepare == null || prePrepare.getSignature() == null
                 || prepareMap == null
@@ -69,6 +120,11 @@ public class PbftVerifier implements ConsensusVerifier<PbftProto.PbftBlock, Pbft
             return false;
         }
 
+        // The aggregate commit certifies the block without the prepares and the commits
+        if (aggregateCommit != null && !verify(aggregateCommit, prePrepare)) {
+            return false;
+        }
+
         for (Map.Entry<String, PbftMessage> entry : prepareMap.entrySet()) {
             if (!verify(entry.getValue())) {
                 return false;
@@ -93,6 +149,96 @@ public class PbftVerifier implements ConsensusVerifier<PbftProto.PbftBlock, Pbft
         return true;
     }
 
+    /**
+     * Sets the addresses of the validators in force from the height.
+     * The sets of the lower heights and the BLS keys of the removed validators are kept for the older blocks.
+     *
+     * @param height height of the first block the validators sign
+     * @param validators addresses of the validators
+     */
+    public void setValidators(long height, Collection<String> validators) {
+        List<String> sorted = new ArrayList<>(validators);
+        Collections.sort(sorted);
+        Map.Entry<Long, List<String>> current = validatorSets.floorEntry(height);
+        if (current != null && current.getValue().equals(sorted)) {
+            return;
+        }
+        validatorSets.put(height, Collections.unmodifiableList(sorted));
+        if (keyStore != null) {
+            keyStore.putValidators(height, sorted);
+        }
+    }
+
+    /**
+     * Gets the addresses of the latest validators in order.
+     */
+    public List<String> getValidators() {
+        Map.Entry<Long, List<String>> latest = validatorSets.lastEntry();
+        return latest != null ? latest.getValue() : Collections.emptyList();
+    }
+
+    /**
+     * Gets the addresses of the validators in force at the height in order.
+     * Below the height of the first known set, the first set is used.
+     */
+    public List<String> getValidators(long height) {
+        Map.Entry<Long, List<String>> entry = validatorSets.floorEntry(height);
+        if (entry == null) {
+            entry = validatorSets.firstEntry();
+        }
+        return entry != null ? entry.getValue() : Collections.emptyList();
+    }
+
+    /**
+     * Registers the BLS public key of a validator of a known validator set.
+     * The proof of possession is verified only for a new key, which is stored with the proof.
+     *
+     * @return true if the key is registered
+     */
+    public boolean registerBlsKey(String address, byte[] publicKey, byte[] proof) {
+        if (validatorSets.values().stream().noneMatch(validators -> validators.contains(address))) {
+            return false;
+        } else if (Arrays.equals(blsKeyMap.get(address), publicKey)) {
+            return true;
+        } else if (!Bls.verifyProof(publicKey, proof)) {
+            return false;
+        }
+        blsKeyMap.put(address, publicKey.clone());
+        if (keyStore != null) {
+            keyStore.putBlsKey(address, publicKey, proof);
+        }
+        return true;
+    }
+
+    /**
+     * Verifies the aggregate commit for the block of the PREPREPARE message with one pairing check.
+     * The signers must be a quorum of 2f + 1 validators in force at the height whose BLS keys are registered.
+     */
+    public Boolean verify(PbftAggregateCommit aggregateCommit, PbftMessage prePrepare) {
+        List<String> currentValidators = getValidators(prePrepare.getSeqNumber());
+        BitSet signers = aggregateCommit.getSigners();
+        if (aggregateCommit.getViewNumber() != prePrepare.getViewNumber()
+                || aggregateCommit.getSeqNumber() != prePrepare.getSeqNumber()
+                || !Arrays.equals(aggregateCommit.getHash(), prePrepare.getHash())
+                || currentValidators.isEmpty()
+                || signers.length() > currentValidators.size()) {
+            return false;
+        }
+
+        List<byte[]> publicKeys = new ArrayList<>();
+        for (int i = signers.nextSetBit(0); i >= 0; i = signers.nextSetBit(i + 1)) {
+            byte[] publicKey = blsKeyMap.get(currentValidators.get(i));
+            if (publicKey == null) {
+                return false;
+            }
+            publicKeys.add(publicKey);
+        }
+
+        int consensusCount = (currentValidators.size() - 1) / 3 * 2 + 1;
+        return publicKeys.size() >= consensusCount
+                && Bls.verifyAggregate(publicKeys, aggregateCommit.getHashForSigning(), aggregateCommit.getSignature());
+    }
+
     @Override
     public Boolean verify(ConsensusBlock<PbftProto.PbftBlock> pbftBlock) {
         if (pbftBlock == null || pbftBlock.getBlock() == null) {
@@ -27,12 +27,18 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
 
 public class EbftService implements ConsensusService<EbftProto.EbftBlock, EbftBlock, EbftClientStub> {
 
     private static final org.slf4j.Logger log = LoggerFactory.getLogger(EbftService.class);
 
+    // Timeout of a phase per block of the quorum
+    static final long BLOCK_TIMEOUT_MILLIS = 100;
+
     private final boolean isValidator;
     private final int consensusCount;
 
@@ -45,6 +51,8 @@ public class EbftService implements ConsensusService<EbftProto.EbftBlock, EbftBl
     private final Map<String, EbftClientStub> proxyNodeMap;
 
     private final ReentrantLock lock = new ReentrantLock();
+    // Signaled when a proposed block or a consensus is added
+    private final Condition blockArrived = lock.newCondition();
 
     private boolean isActive;
     private boolean isSynced;
@@ -132,41 +140,46 @@ public class EbftService implements ConsensusService<EbftProto.EbftBlock, EbftBl
         }
     }
 
-    private boolean waitingProposedBlock() {
-        for (int i = 0; i < consensusCount; i++) {
-            if (getUnconfirmedEbftBlockCount(blockChain.getUnConfirmedData(),
-                    blockChain.getBlockChainManager().getLastIndex() + 1)
-                    < consensusCount) {
-                try {
-                    Thread.sleep(100);
-                } catch (InterruptedException e) {
-                    log.trace(e.getMessage());
-                    Thread.currentThread().interrupt();
-                }
-            } else {
-                return true;
-            }
-        }
-        return false;
+    boolean waitingProposedBlock() {
+        return waitingFor(() -> getUnconfirmedEbftBlockCount(blockChain.getUnConfirmedData(),
+                blockChain.getBlockChainManager().getLastIndex() + 1) >= consensusCount);
     }
 
     private boolean waitingConsensusedBlock() {
-        for (int i = 0; i < consensusCount; i++) {
+        return waitingFor(() -> {
             for (EbftBlock unConfirmedEbftBlock : blockChain.getUnConfirmedData().values()) {
                 if (unConfirmedEbftBlock.getIndex()
                         == blockChain.getBlockChainManager().getLastIndex() + 1
-                        && unConfirmedEbftBlock.getConsensusMessages().size() > consensusCount) {
+                        && unConfirmedEbftBlock.getConsensusMessages().size() >= consensusCount) {
                     return true;
                 }
             }
-            try {
-                Thread.sleep(100);
-            } catch (InterruptedException e) {
-                log.trace(e.getMessage());
-                Thread.currentThread().interrupt();
+            return false;
+        });
+    }
+
+    /**
+     * Waits until the condition is met. The arrival of a block signals the waiting thread,
+     * so the phase ends as soon as the quorum is reached.
+     */
+    private boolean waitingFor(BooleanSupplier condition) {
+        long remaining = TimeUnit.MILLISECONDS.toNanos(BLOCK_TIMEOUT_MILLIS * consensusCount);
+        lock.lock();
+        try {
+            while (!condition.getAsBoolean()) {
+                if (remaining <= 0L) {
+                    return false;
+                }
+                remaining = blockArrived.awaitNanos(remaining);
             }
+            return true;
+        } catch (InterruptedException e) {
+            log.trace(e.getMessage());
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            lock.unlock();
         }
-        return false;
     }
 
     private void checkNode() {
@@ -536,6 +549,13 @@ public class EbftService implements ConsensusService<EbftProto.EbftBlock, EbftBl
             // if not exist, add ebftBlock
             this.blockChain.getUnConfirmedData().put(ebftBlock.getHash().toString(), ebftBlock);
         }
+
+        lock.lock();
+        try {
+            blockArrived.signalAll();
+        } finally {
+            lock.unlock();
+        }
     }
 
     EbftStatus getMyNodeStatus() {
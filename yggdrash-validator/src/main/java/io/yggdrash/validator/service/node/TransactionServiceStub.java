@@ -16,8 +16,10 @@
 
 package io.yggdrash.validator.service.node;
 
+import com.google.protobuf.ByteString;
 import io.grpc.Status;
 import io.grpc.stub.StreamObserver;
+import io.yggdrash.common.Sha3Hash;
 import io.yggdrash.core.blockchain.BranchId;
 import io.yggdrash.core.blockchain.Transaction;
 import io.yggdrash.core.blockchain.TransactionImpl;
@@ -64,6 +66,26 @@ public class TransactionServiceStub extends TransactionServiceGrpc.TransactionSe
         responseObserver.onCompleted();
     }
 
+    @Override
+    public void announceTxs(Proto.TransactionHashList txHashList,
+                            StreamObserver<Proto.TransactionHashList> responseObserver) {
+        BranchId branchId = BranchId.of(txHashList.getBranch().toByteArray());
+        Proto.TransactionHashList.Builder builder = Proto.TransactionHashList.newBuilder()
+                .setBranch(txHashList.getBranch());
+        if (branchId.equals(blockChain.getBranchId())) {
+            for (ByteString hash : txHashList.getHashesList()) {
+                if (!blockChain.getBlockChainManager().containsTxHash(Sha3Hash.createByHashed(hash.toByteArray()))) {
+                    builder.addHashes(hash);
+                }
+            }
+        } else {
+            log.warn("Wrong branch request branchId={}, blockChainBranchId={}", branchId, blockChain.getBranchId());
+        }
+
+        responseObserver.onNext(builder.build());
+        responseObserver.onCompleted();
+    }
+
     @Override
     public StreamObserver<Proto.Transaction> broadcastTx(StreamObserver<CommonProto.Empty> responseObserver) {
         return new StreamObserver<Proto.Transaction>() {
@@ -15,7 +15,6 @@ import io.yggdrash.proto.Proto;
 import io.yggdrash.validator.data.pbft.PbftBlock;
 import io.yggdrash.validator.data.pbft.PbftMessage;
 import io.yggdrash.validator.data.pbft.PbftStatus;
-import io.yggdrash.validator.data.pbft.PbftVerifier;
 import org.slf4j.LoggerFactory;
 
 public class PbftServerStub extends PbftServiceGrpc.PbftServiceImplBase {
@@ -76,7 +75,7 @@ public class PbftServerStub extends PbftServiceGrpc.PbftServiceImplBase {
         PbftMessage pbftMessage = new PbftMessage(request);
         try {
 
-            if (!PbftVerifier.INSTANCE.verify(pbftMessage)) {
+            if (!pbftService.getVerifier().verify(pbftMessage)) {
                 log.warn("Verify Fail");
                 pbftMessage.clear();
                 responseObserver.onNext(EMPTY);
@@ -109,7 +108,7 @@ public class PbftServerStub extends PbftServiceGrpc.PbftServiceImplBase {
         PbftBlock newPbftBlock = new PbftBlock(request);
         try {
             log.debug("Received BroadcastPbftBlock [{}] {} ", newPbftBlock.getIndex(), newPbftBlock.getHash());
-            if (!PbftVerifier.INSTANCE.verify(newPbftBlock)) {
+            if (!pbftService.getVerifier().verify(newPbftBlock)) {
                 log.warn("Verify Fail");
                 responseObserver.onNext(EMPTY);
                 responseObserver.onCompleted();
@@ -170,10 +169,11 @@ public class PbftServerStub extends PbftServiceGrpc.PbftServiceImplBase {
     }
 
     private void updateStatus(PbftStatus status) {
-        if (!PbftStatus.verify(status)) {
+        if (!PbftStatus.verify(status, pbftService.getVerifier())) {
             log.trace("PbftStatus verify fail.");
             return;
         }
+        pbftService.registerBlsKey(status);
 
         if (status.getIndex() <= this.blockChain.getBlockChainManager().getLastIndex()) {
             return;
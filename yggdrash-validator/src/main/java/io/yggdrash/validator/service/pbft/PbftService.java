@@ -5,6 +5,9 @@ import io.yggdrash.common.Sha3Hash;
 import io.yggdrash.common.config.Constants;
 import io.yggdrash.common.config.DefaultConfig;
 import io.yggdrash.common.contract.vo.dpoa.Validator;
+import io.yggdrash.common.crypto.zksnark.Bls;
+import io.yggdrash.common.store.datasource.HashMapDbSource;
+import io.yggdrash.common.store.datasource.LevelDbDataSource;
 import io.yggdrash.common.util.TimeUtils;
 import io.yggdrash.contract.core.ExecuteStatus;
 import io.yggdrash.contract.core.Receipt;
@@ -20,13 +23,18 @@ import io.yggdrash.core.p2p.Peer;
 import io.yggdrash.core.runtime.result.BlockRuntimeResult;
 import io.yggdrash.core.wallet.Wallet;
 import io.yggdrash.proto.PbftProto;
+import io.yggdrash.validator.data.pbft.PbftAggregateCommit;
 import io.yggdrash.validator.data.pbft.PbftBlock;
 import io.yggdrash.validator.data.pbft.PbftMessage;
 import io.yggdrash.validator.data.pbft.PbftMessageSet;
 import io.yggdrash.validator.data.pbft.PbftStatus;
 import io.yggdrash.validator.data.pbft.PbftVerifier;
+import io.yggdrash.validator.store.pbft.PbftBlsKeyStore;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
@@ -34,6 +42,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
 
 public class PbftService implements ConsensusService<PbftProto.PbftBlock, PbftMessage, PbftClientStub> {
@@ -41,6 +51,9 @@ public class PbftService implements ConsensusService<PbftProto.PbftBlock, PbftMe
     private static final org.slf4j.Logger log = LoggerFactory.getLogger(PbftService.class);
 
     private static final int FAIL_COUNT = 3;
+    // Timeout of a phase per message of the quorum
+    static final long MESSAGE_TIMEOUT_MILLIS = 200;
+    private static final byte[] BLS_KEY_INFO = "PBFT_BLS_KEY".getBytes(StandardCharsets.UTF_8);
 
     private final DefaultConfig defaultConfig;
     private final Wallet wallet;
@@ -50,6 +63,9 @@ public class PbftService implements ConsensusService<PbftProto.PbftBlock, PbftMe
     private final Map<String, Peer> validatorConfigMap;
     private final Map<String, PbftClientStub> proxyNodeMap;
     private final ReentrantLock lock = new ReentrantLock();
+    // Signaled when a message is added or a block is confirmed
+    private final Condition messageArrived = lock.newCondition();
+    private final PbftVerifier verifier;
     private final String grpcHost;
     private final int grpcPort;
     private Map<String, PbftClientStub> totalValidatorMap;
@@ -68,6 +84,11 @@ public class PbftService implements ConsensusService<PbftProto.PbftBlock, PbftMe
     private long seqNumber;
     private int failCount;
 
+    // BLS key signing the commits to be aggregated, null if the aggregation is disabled
+    private final BigInteger blsSecretKey;
+    private final byte[] blsPublicKey;
+    private final byte[] blsProof;
+
     public PbftService(Wallet wallet,
                        ConsensusBlockChain<PbftProto.PbftBlock, PbftMessage> blockChain,
                        DefaultConfig defaultConfig,
@@ -82,6 +103,9 @@ public class PbftService implements ConsensusService<PbftProto.PbftBlock, PbftMe
         this.myNode = initMyNode();
         this.validatorConfigMap = initValidatorConfigMap();
         this.totalValidatorMap = initTotalValidator();
+        this.verifier = new PbftVerifier(initBlsKeyStore());
+        this.verifier.setValidators(
+                blockChain.getBlockChainManager().getLastIndex() + 1, totalValidatorMap.keySet());
         this.proxyNodeMap = initProxyNode();
         this.bftCount = (totalValidatorMap.size() - 1) / 3;
         this.consensusCount = bftCount * 2 + 1;
@@ -94,6 +118,18 @@ public class PbftService implements ConsensusService<PbftProto.PbftBlock, PbftMe
         this.isViewchanged = false;
         this.failCount = 0;
 
+        if (defaultConfig.isPbftAggregate()) {
+            // Derived from the wallet key, so the BLS key stays the same after a restart
+            this.blsSecretKey = Bls.secretKey(wallet.deriveKey(BLS_KEY_INFO));
+            this.blsPublicKey = Bls.publicKey(blsSecretKey);
+            this.blsProof = Bls.proveKey(blsSecretKey);
+            this.verifier.registerBlsKey(wallet.getHexAddress(), blsPublicKey, blsProof);
+        } else {
+            this.blsSecretKey = null;
+            this.blsPublicKey = null;
+            this.blsProof = null;
+        }
+
         this.viewNumber = this.blockChain.getBlockChainManager().getLastIndex() + 1;
         this.seqNumber = this.blockChain.getBlockChainManager().getLastIndex() + 1;
 
@@ -215,28 +251,45 @@ public class PbftService implements ConsensusService<PbftProto.PbftBlock, PbftMe
         }
     }
 
-    private boolean waitingForMessage(String message) {
-        int messageCount;
-        for (int i = 0; i < consensusCount * 2; i++) {
-            if (Constants.PBFT_PREPREPARE.equals(message)) {
-                messageCount = 1;
-            } else {
-                messageCount = consensusCount;
-            }
+    /**
+     * Waits until the quorum of the message type is reached in the current round.
+     * The arrival of a message signals the waiting thread, so the round goes on as soon as the quorum is reached.
+     *
+     * @param message type of the message
+     * @return true if the quorum is reached, false on timeout or when the round is already finished
+     */
+    boolean waitingForMessage(String message) {
+        int messageCount = Constants.PBFT_PREPREPARE.equals(message) ? 1 : consensusCount;
+        long remaining = TimeUnit.MILLISECONDS.toNanos(MESSAGE_TIMEOUT_MILLIS * consensusCount);
 
-            if (getMsgMap(this.viewNumber, this.seqNumber, message).size()
-                    < messageCount) {
-                try {
-                    Thread.sleep(100);
-                } catch (InterruptedException e) {
-                    log.trace(e.getMessage());
-                    Thread.currentThread().interrupt();
+        lock.lock();
+        try {
+            long seq = this.seqNumber;
+            // VIEWCHANGE messages are made for the next view
+            long view = Constants.PBFT_VIEWCHANGE.equals(message) ? this.viewNumber + 1 : this.viewNumber;
+            while (getMsgMap(view, seq, message).size() < messageCount) {
+                if (remaining <= 0L || seq != this.seqNumber) {
+                    return false;
                 }
-            } else {
-                return true;
+                remaining = messageArrived.awaitNanos(remaining);
             }
+            return true;
+        } catch (InterruptedException e) {
+            log.trace(e.getMessage());
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void signalMessageArrived() {
+        lock.lock();
+        try {
+            messageArrived.signalAll();
+        } finally {
+            lock.unlock();
         }
-        return false;
     }
 
     private void loggingStatus() {
@@ -458,8 +511,10 @@ public class PbftService implements ConsensusService<PbftProto.PbftBlock, PbftMe
             return null;
         }
         byte[] hash = ((PbftMessage) prepareMsgMap.values().toArray()[0]).getHash();
+        byte[] result = blsSecretKey == null
+                ? null : PbftAggregateCommit.signCommit(blsSecretKey, viewNumber, seqNumber, hash);
         PbftMessage commitMsg = new PbftMessage(Constants.PBFT_COMMIT, viewNumber, seqNumber,
-                Sha3Hash.createByHashed(hash), null, wallet, null);
+                Sha3Hash.createByHashed(hash), result, wallet, null);
         if (commitMsg.getSignature() == null) {
             prepareMsgMap.clear();
             commitMsg.clear();
@@ -554,7 +609,7 @@ public class PbftService implements ConsensusService<PbftProto.PbftBlock, PbftMe
             viewChangeMessageMap.clear();
         } else if (prepareMessageMap.size() >= consensusCount
                 && commitMessageMap.size() >= consensusCount) {
-            PbftMessageSet pbftMessageSet = new PbftMessageSet(
+            PbftMessageSet pbftMessageSet = makeMessageSet(
                     prePrepareMsg, prepareMessageMap, commitMessageMap, viewChangeMessageMap);
             PbftBlock pbftBlock = new PbftBlock(prePrepareMsg.getBlock(), pbftMessageSet);
             confirmedBlock(pbftBlock);
@@ -564,6 +619,25 @@ public class PbftService implements ConsensusService<PbftProto.PbftBlock, PbftMe
         return null;
     }
 
+    /**
+     * Makes the message set of a confirmed block.
+     * With the aggregation, the prepares and the commits are replaced by their aggregate certificate.
+     */
+    private PbftMessageSet makeMessageSet(PbftMessage prePrepareMsg,
+                                          Map<String, PbftMessage> prepareMessageMap,
+                                          Map<String, PbftMessage> commitMessageMap,
+                                          Map<String, PbftMessage> viewChangeMessageMap) {
+        if (blsSecretKey != null) {
+            PbftAggregateCommit aggregateCommit = PbftAggregateCommit.aggregate(
+                    prePrepareMsg, commitMessageMap.values(), verifier.getValidators(prePrepareMsg.getSeqNumber()));
+            if (aggregateCommit != null && verifier.verify(aggregateCommit, prePrepareMsg)) {
+                return new PbftMessageSet(prePrepareMsg, null, null, viewChangeMessageMap, aggregateCommit);
+            }
+            log.debug("Commits are not aggregated. [{}]", prePrepareMsg.getSeqNumber());
+        }
+        return new PbftMessageSet(prePrepareMsg, prepareMessageMap, commitMessageMap, viewChangeMessageMap);
+    }
+
     private PbftMessage makeViewChangeMsg() {
         if (this.failCount < FAIL_COUNT
                 || this.isPrePrepared
@@ -618,6 +692,7 @@ public class PbftService implements ConsensusService<PbftProto.PbftBlock, PbftMe
 
         this.viewNumber = (this.viewNumber > index + 1 ? this.viewNumber : index + 1);
         this.seqNumber = index + 1;
+        signalMessageArrived();
     }
 
     private Map<String, PbftMessage> getMsgMap(long viewNumber, long seqNumber, String msg) {
@@ -710,8 +785,9 @@ public class PbftService implements ConsensusService<PbftProto.PbftBlock, PbftMe
     }
 
     private void updateStatus(PbftClientStub client, PbftStatus pbftStatus) {
-        if (PbftStatus.verify(pbftStatus)) {
+        if (PbftStatus.verify(pbftStatus, verifier)) {
             client.setIsRunning(true);
+            registerBlsKey(pbftStatus);
 
             long lastConfirmedBlockIndex = this.blockChain.getBlockChainManager().getLastIndex();
             if (pbftStatus.getIndex() > lastConfirmedBlockIndex) {
@@ -732,7 +808,7 @@ public class PbftService implements ConsensusService<PbftProto.PbftBlock, PbftMe
 
     private void blockSyncing(String addr, long untilBlockIndex) {
         PbftClientStub client = totalValidatorMap.get(addr);
-        if (!client.isRunning()) {
+        if (client == null || !client.isRunning()) {
             return;
         }
 
@@ -754,7 +830,7 @@ public class PbftService implements ConsensusService<PbftProto.PbftBlock, PbftMe
         PbftBlock pbftBlock;
         for (; i < pbftBlockList.size(); i++) {
             pbftBlock = pbftBlockList.get(i);
-            boolean verifyResult = PbftVerifier.INSTANCE.verify(pbftBlock);
+            boolean verifyResult = verifier.verify(pbftBlock);
             if (!verifyResult) {
                 log.debug("Block verify() is failed. [{}] {}", pbftBlock.getIndex(), client.getId());
                 client.setIsRunning(false);
@@ -771,6 +847,8 @@ public class PbftService implements ConsensusService<PbftProto.PbftBlock, PbftMe
                 pbftBlockList.clear();
                 return;
             }
+            // The validators changed by the block sign from the next block
+            verifier.setValidators(pbftBlock.getIndex() + 1, blockChain.getValidators().getValidatorMap().keySet());
         }
 
         pbftBlock = pbftBlockList.get(i - 1);
@@ -797,6 +875,20 @@ public class PbftService implements ConsensusService<PbftProto.PbftBlock, PbftMe
                 && newPbftMessage.getViewNumber() == this.viewNumber) {
             this.isPrePrepared = true;
         }
+        signalMessageArrived();
+    }
+
+    /**
+     * Registers the BLS key of the validator sending the verified status.
+     */
+    public void registerBlsKey(PbftStatus pbftStatus) {
+        if (pbftStatus.getBlsPublicKey() == null) {
+            return;
+        }
+        String address = pbftStatus.getAddressHex();
+        if (!verifier.registerBlsKey(address, pbftStatus.getBlsPublicKey(), pbftStatus.getBlsProof())) {
+            log.debug("BLS key is not registered. {}", address);
+        }
     }
 
     public void updateUnconfirmedMsgMap(Map<String, PbftMessage> newPbftMessageMap) {
@@ -824,7 +916,7 @@ public class PbftService implements ConsensusService<PbftProto.PbftBlock, PbftMe
             }
         }
         long timestamp = TimeUtils.time();
-        return new PbftStatus(index, pbftMessageMap, timestamp, wallet);
+        return new PbftStatus(index, pbftMessageMap, timestamp, blsPublicKey, blsProof, wallet);
     }
 
     private void printInitInfo() {
@@ -880,11 +972,22 @@ public class PbftService implements ConsensusService<PbftProto.PbftBlock, PbftMe
         log.info("New validators: {}", blockChain.getValidators().getValidatorMap().keySet());
 
         this.totalValidatorMap = initTotalValidator();
+        this.verifier.setValidators(
+                blockChain.getBlockChainManager().getLastIndex() + 1, totalValidatorMap.keySet());
 
         this.bftCount = (totalValidatorMap.size() - 1) / 3;
         this.consensusCount = bftCount * 2 + 1;
     }
 
+    private PbftBlsKeyStore initBlsKeyStore() {
+        if (!defaultConfig.isProductionMode()) {
+            return new PbftBlsKeyStore(new HashMapDbSource());
+        }
+        String path = grpcHost + "_" + grpcPort + File.separator + blockChain.getBranchId()
+                + File.separator + "pbftBlsKey";
+        return new PbftBlsKeyStore(new LevelDbDataSource(defaultConfig.getDatabasePath(), path));
+    }
+
     @SuppressWarnings("unchecked")
     private TreeMap<String, PbftClientStub> initProxyNode() {
         TreeMap<String, PbftClientStub> nodeMap = new TreeMap<>();
@@ -968,4 +1071,8 @@ public class PbftService implements ConsensusService<PbftProto.PbftBlock, PbftMe
     public Map<String, PbftClientStub> getTotalValidatorMap() {
         return totalValidatorMap;
     }
+
+    public PbftVerifier getVerifier() {
+        return verifier;
+    }
 }
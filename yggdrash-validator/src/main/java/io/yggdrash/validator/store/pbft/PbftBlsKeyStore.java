@@ -0,0 +1,98 @@
+package io.yggdrash.validator.store.pbft;
+
+import io.yggdrash.common.crypto.zksnark.Bls;
+import io.yggdrash.common.store.datasource.DbSource;
+import io.yggdrash.common.utils.ByteUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Local store of the BLS keys of the validators and the validator sets by the height they are in force from.
+ * The aggregate commit of a block is verified with them, so they are kept after a restart and after a validator
+ * leaves the set.
+ * A BLS key is stored as [publicKey][proof of possession], a validator set as the comma separated addresses.
+ */
+public class PbftBlsKeyStore {
+    private static final Logger log = LoggerFactory.getLogger(PbftBlsKeyStore.class);
+
+    private static final byte[] BLS_KEY_PREFIX = "bls-".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] VALIDATORS_PREFIX = "vs-".getBytes(StandardCharsets.UTF_8);
+
+    private final DbSource<byte[], byte[]> db;
+
+    public PbftBlsKeyStore(DbSource<byte[], byte[]> dbSource) {
+        this.db = dbSource.init();
+    }
+
+    public void putBlsKey(String address, byte[] publicKey, byte[] proof) {
+        db.put(ByteUtil.merge(BLS_KEY_PREFIX, address.getBytes(StandardCharsets.UTF_8)),
+                ByteUtil.merge(publicKey, proof));
+    }
+
+    public void putValidators(long height, List<String> validators) {
+        db.put(ByteUtil.merge(VALIDATORS_PREFIX, ByteUtil.longToBytes(height)),
+                String.join(",", validators).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Loads the BLS keys of the store.
+     *
+     * @return the public key and the proof of possession by the address
+     */
+    public Map<String, byte[][]> getBlsKeys() {
+        Map<String, byte[][]> blsKeys = new TreeMap<>();
+        db.forEach((key, value) -> {
+            if (!startsWith(key, BLS_KEY_PREFIX)) {
+                return;
+            } else if (value.length <= Bls.PUBLIC_KEY_LENGTH) {
+                log.debug("BLS key is not valid. {}", new String(key, StandardCharsets.UTF_8));
+                return;
+            }
+            String address = new String(key, BLS_KEY_PREFIX.length, key.length - BLS_KEY_PREFIX.length,
+                    StandardCharsets.UTF_8);
+            blsKeys.put(address, new byte[][] {
+                    Arrays.copyOfRange(value, 0, Bls.PUBLIC_KEY_LENGTH),
+                    Arrays.copyOfRange(value, Bls.PUBLIC_KEY_LENGTH, value.length)});
+        });
+        return blsKeys;
+    }
+
+    /**
+     * Loads the validator sets of the store.
+     *
+     * @return the sorted addresses of the validators by the height they are in force from
+     */
+    public NavigableMap<Long, List<String>> getValidatorSets() {
+        NavigableMap<Long, List<String>> validatorSets = new TreeMap<>();
+        db.forEach((key, value) -> {
+            if (!startsWith(key, VALIDATORS_PREFIX)) {
+                return;
+            }
+            long height = ByteUtil.byteArrayToLong(
+                    Arrays.copyOfRange(key, VALIDATORS_PREFIX.length, key.length));
+            String validators = new String(value, StandardCharsets.UTF_8);
+            validatorSets.put(height, validators.isEmpty()
+                    ? Collections.emptyList()
+                    : Collections.unmodifiableList(new ArrayList<>(Arrays.asList(validators.split(",")))));
+        });
+        return validatorSets;
+    }
+
+    public void close() {
+        db.close();
+    }
+
+    private static boolean startsWith(byte[] key, byte[] prefix) {
+        return key.length > prefix.length
+                && Arrays.equals(Arrays.copyOfRange(key, 0, prefix.length), prefix);
+    }
+}
@@ -0,0 +1,221 @@
+package io.yggdrash.validator.data.pbft;
+
+import io.yggdrash.common.crypto.zksnark.Bls;
+import io.yggdrash.common.store.datasource.HashMapDbSource;
+import io.yggdrash.common.util.TimeUtils;
+import io.yggdrash.core.blockchain.Block;
+import io.yggdrash.core.wallet.Wallet;
+import io.yggdrash.validator.TestUtils;
+import io.yggdrash.validator.store.pbft.PbftBlsKeyStore;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.spongycastle.crypto.InvalidCipherTextException;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static io.yggdrash.common.config.Constants.PBFT_COMMIT;
+import static io.yggdrash.common.config.Constants.PBFT_PREPREPARE;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class PbftAggregateCommitTest {
+
+    private static final List<Wallet> wallets = new ArrayList<>();
+
+    private final List<BigInteger> secretKeys = new ArrayList<>();
+    private final List<PbftMessage> commitList = new ArrayList<>();
+    private PbftVerifier verifier;
+    private Block block;
+    private PbftMessage prePrepare;
+
+    @BeforeClass
+    public static void createValidators() throws IOException, InvalidCipherTextException {
+        for (int i = 0; i < 4; i++) {
+            wallets.add(new Wallet(null, "tmp/", "test" + i + TimeUtils.time(), "Aa1234567890!"));
+        }
+        // In the order of the validators
+        wallets.sort(Comparator.comparing(Wallet::getHexAddress));
+    }
+
+    @Before
+    public void setUp() {
+        List<String> validators = new ArrayList<>();
+        wallets.forEach(wallet -> validators.add(wallet.getHexAddress()));
+        verifier = new PbftVerifier();
+        verifier.setValidators(1L, validators);
+
+        block = new TestUtils(wallets.get(0)).sampleBlock();
+        prePrepare = new PbftMessage(PBFT_PREPREPARE, 1L, 1L, block.getHash(), null, wallets.get(0), block);
+
+        for (int i = 0; i < 4; i++) {
+            BigInteger secretKey = Bls.secretKey(new byte[] {(byte) i});
+            secretKeys.add(secretKey);
+            assertTrue(verifier.registerBlsKey(validators.get(i), Bls.publicKey(secretKey), Bls.proveKey(secretKey)));
+            commitList.add(signCommit(wallets.get(i), secretKey));
+        }
+    }
+
+    private PbftMessage signCommit(Wallet wallet, BigInteger secretKey) {
+        byte[] result = PbftAggregateCommit.signCommit(secretKey, 1L, 1L, block.getHash().getBytes());
+        return new PbftMessage(PBFT_COMMIT, 1L, 1L, block.getHash(), result, wallet, null);
+    }
+
+    private PbftAggregateCommit aggregate() {
+        return PbftAggregateCommit.aggregate(prePrepare, commitList, verifier.getValidators(1L));
+    }
+
+    @Test
+    public void aggregateTest() {
+        PbftAggregateCommit aggregateCommit = aggregate();
+
+        assertNotNull(aggregateCommit);
+        assertEquals(4, aggregateCommit.getSigners().cardinality());
+        assertTrue(verifier.verify(aggregateCommit, prePrepare));
+    }
+
+    @Test
+    public void aggregateOtherBlockTest() {
+        PbftMessage otherCommit = commitList.get(0);
+        commitList.set(0, new PbftMessage(PBFT_COMMIT, 2L, 1L, block.getHash(), otherCommit.getResult(),
+                otherCommit.getSignature(), null));
+
+        PbftAggregateCommit aggregateCommit = aggregate();
+
+        assertNotNull(aggregateCommit);
+        assertFalse(aggregateCommit.getSigners().get(0));
+        assertEquals(3, aggregateCommit.getSigners().cardinality());
+        assertTrue(verifier.verify(aggregateCommit, prePrepare));
+    }
+
+    @Test
+    public void aggregateWithoutBlsTest() {
+        PbftMessage commit = commitList.get(0);
+        commitList.add(new PbftMessage(PBFT_COMMIT, 1L, 1L, block.getHash(), null, commit.getSignature(), null));
+
+        assertNull(aggregate());
+    }
+
+    @Test
+    public void aggregateOutOfValidatorsTest() throws IOException, InvalidCipherTextException {
+        Wallet other = new Wallet(null, "tmp/", "testOther" + TimeUtils.time(), "Aa1234567890!");
+        // The commit out of the validators is left out
+        commitList.add(signCommit(other, Bls.secretKey(new byte[] {10})));
+        // The validator signing twice is counted once
+        commitList.add(signCommit(wallets.get(0), secretKeys.get(0)));
+
+        PbftAggregateCommit aggregateCommit = aggregate();
+
+        assertEquals(4, aggregateCommit.getSigners().cardinality());
+        assertTrue(verifier.verify(aggregateCommit, prePrepare));
+    }
+
+    @Test
+    public void verifyModifiedTest() {
+        PbftAggregateCommit aggregateCommit = aggregate();
+        BitSet signers = aggregateCommit.getSigners();
+        signers.clear(3);
+
+        PbftAggregateCommit modified = new PbftAggregateCommit(aggregateCommit.getViewNumber(),
+                aggregateCommit.getSeqNumber(), aggregateCommit.getHash(), aggregateCommit.getSignature(), signers);
+        assertFalse(verifier.verify(modified, prePrepare));
+
+        signers.set(3);
+        signers.set(4);
+        PbftAggregateCommit outOfRange = new PbftAggregateCommit(aggregateCommit.getViewNumber(),
+                aggregateCommit.getSeqNumber(), aggregateCommit.getHash(), aggregateCommit.getSignature(), signers);
+        assertFalse(verifier.verify(outOfRange, prePrepare));
+    }
+
+    @Test
+    public void verifyForgedTest() {
+        // Fresh keys of the validators without the registration
+        commitList.clear();
+        for (int i = 0; i < 4; i++) {
+            commitList.add(signCommit(wallets.get(i), Bls.secretKey(new byte[] {(byte) (i + 10)})));
+        }
+        assertFalse(verifier.verify(aggregate(), prePrepare));
+
+        // Less than the quorum of the validators
+        commitList.clear();
+        for (int i = 0; i < 2; i++) {
+            commitList.add(signCommit(wallets.get(i), secretKeys.get(i)));
+        }
+        assertFalse(verifier.verify(aggregate(), prePrepare));
+    }
+
+    @Test
+    public void registerBlsKeyTest() {
+        BigInteger secretKey = Bls.secretKey(new byte[] {10});
+        String validator = wallets.get(0).getHexAddress();
+
+        // The proof of another key
+        assertFalse(verifier.registerBlsKey(validator, Bls.publicKey(secretKey), Bls.proveKey(secretKeys.get(0))));
+        // Not a validator
+        assertFalse(verifier.registerBlsKey("00", Bls.publicKey(secretKey), Bls.proveKey(secretKey)));
+    }
+
+    @Test
+    public void validatorSetTest() {
+        PbftAggregateCommit aggregateCommit = aggregate();
+
+        // The block is verified with the validators of its height after they are changed
+        List<String> validators = new ArrayList<>(verifier.getValidators());
+        validators.remove(wallets.get(3).getHexAddress());
+        verifier.setValidators(2L, validators);
+        assertEquals(3, verifier.getValidators().size());
+        assertEquals(4, verifier.getValidators(1L).size());
+        assertTrue(verifier.verify(aggregateCommit, prePrepare));
+
+        // The same set is not indexed again
+        verifier.setValidators(3L, validators);
+        assertEquals(validators, verifier.getValidators(3L));
+    }
+
+    @Test
+    public void keyStoreTest() {
+        PbftBlsKeyStore keyStore = new PbftBlsKeyStore(new HashMapDbSource());
+        PbftVerifier storedVerifier = new PbftVerifier(keyStore);
+        storedVerifier.setValidators(1L, verifier.getValidators());
+        for (int i = 0; i < 4; i++) {
+            BigInteger secretKey = secretKeys.get(i);
+            storedVerifier.registerBlsKey(
+                    wallets.get(i).getHexAddress(), Bls.publicKey(secretKey), Bls.proveKey(secretKey));
+        }
+        storedVerifier.setValidators(2L, verifier.getValidators().subList(0, 3));
+
+        // The keys and the validator sets are loaded after a restart
+        PbftVerifier restartedVerifier = new PbftVerifier(keyStore);
+        assertEquals(verifier.getValidators(), restartedVerifier.getValidators(1L));
+        assertEquals(3, restartedVerifier.getValidators().size());
+        assertTrue(restartedVerifier.verify(aggregate(), prePrepare));
+    }
+
+    @Test
+    public void messageSetTest() {
+        PbftAggregateCommit aggregateCommit = aggregate();
+        Map<String, PbftMessage> viewChangeMap = new TreeMap<>();
+        PbftMessageSet pbftMessageSet = new PbftMessageSet(prePrepare, null, null, viewChangeMap, aggregateCommit);
+
+        PbftMessageSet fromJson = new PbftMessageSet(pbftMessageSet.toJsonObject());
+        PbftMessageSet fromProto = new PbftMessageSet(PbftMessageSet.toProto(pbftMessageSet));
+
+        assertTrue(pbftMessageSet.equals(fromJson));
+        assertTrue(pbftMessageSet.equals(fromProto));
+        assertArrayEquals(aggregateCommit.getSignature(), fromProto.getAggregateCommit().getSignature());
+        assertEquals(aggregateCommit.getSigners(), fromProto.getAggregateCommit().getSigners());
+        assertTrue(verifier.verify(fromProto));
+        assertFalse(new PbftVerifier().verify(fromProto));
+    }
+}
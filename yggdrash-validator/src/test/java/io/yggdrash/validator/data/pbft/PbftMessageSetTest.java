@@ -29,6 +29,8 @@ public class PbftMessageSetTest {
 
     private static final Logger log = LoggerFactory.getLogger(PbftMessageSetTest.class);
 
+    private final PbftVerifier verifier = new PbftVerifier();
+
     private Wallet wallet;
     private Wallet wallet2;
     private Wallet wallet3;
@@ -431,10 +433,10 @@ public class PbftMessageSetTest {
 
     @Test
     public void verifyTest() {
-        assertTrue(PbftVerifier.INSTANCE.verify(this.pbftMessageSet));
-        assertTrue(PbftVerifier.INSTANCE.verify(this.pbftMessageSet2));
-        assertTrue(PbftVerifier.INSTANCE.verify(this.pbftMessageSet3));
-        assertTrue(PbftVerifier.INSTANCE.verify(this.pbftMessageSet4));
+        assertTrue(verifier.verify(this.pbftMessageSet));
+        assertTrue(verifier.verify(this.pbftMessageSet2));
+        assertTrue(verifier.verify(this.pbftMessageSet3));
+        assertTrue(verifier.verify(this.pbftMessageSet4));
     }
 
     @Test
@@ -442,22 +444,22 @@ public class PbftMessageSetTest {
         PbftMessageSet newPbftMessageSet = this.pbftMessageSet.clone();
         assertTrue(newPbftMessageSet.equals(this.pbftMessageSet));
         newPbftMessageSet.clear();
-        assertTrue(PbftVerifier.INSTANCE.verify(this.pbftMessageSet));
+        assertTrue(verifier.verify(this.pbftMessageSet));
 
         newPbftMessageSet = this.pbftMessageSet2.clone();
         assertTrue(newPbftMessageSet.equals(this.pbftMessageSet2));
         newPbftMessageSet.clear();
-        assertTrue(PbftVerifier.INSTANCE.verify(this.pbftMessageSet2));
+        assertTrue(verifier.verify(this.pbftMessageSet2));
 
         newPbftMessageSet = this.pbftMessageSet3.clone();
         assertTrue(newPbftMessageSet.equals(this.pbftMessageSet3));
         newPbftMessageSet.clear();
-        assertTrue(PbftVerifier.INSTANCE.verify(this.pbftMessageSet3));
+        assertTrue(verifier.verify(this.pbftMessageSet3));
 
         newPbftMessageSet = this.pbftMessageSet4.clone();
         assertTrue(newPbftMessageSet.equals(this.pbftMessageSet4));
         newPbftMessageSet.clear();
-        assertTrue(PbftVerifier.INSTANCE.verify(this.pbftMessageSet4));
+        assertTrue(verifier.verify(this.pbftMessageSet4));
     }
 
 }
@@ -31,6 +31,8 @@ public class PbftMessageTest {
     private static final String COMMIT = "COMMITMS";
     private static final String VIEWCHANGE = "VIEWCHAN";
 
+    private final PbftVerifier verifier = new PbftVerifier();
+
     private Wallet wallet;
     private Block block;
     private PbftMessage prePrepare;
@@ -230,28 +232,28 @@ public class PbftMessageTest {
             PbftMessage message = this.prePrepare;
             byte[] signValue = message.sign(wallet);
             assertArrayEquals(signValue, message.getSignature());
-            assertTrue(PbftVerifier.INSTANCE.verify(message));
+            assertTrue(verifier.verify(message));
         }
 
         {
             PbftMessage message = this.prepare;
             byte[] signValue = message.sign(wallet);
             assertArrayEquals(signValue, message.getSignature());
-            assertTrue(PbftVerifier.INSTANCE.verify(message));
+            assertTrue(verifier.verify(message));
         }
 
         {
             PbftMessage message = this.commit;
             byte[] signValue = message.sign(wallet);
             assertArrayEquals(signValue, message.getSignature());
-            assertTrue(PbftVerifier.INSTANCE.verify(message));
+            assertTrue(verifier.verify(message));
         }
 
         {
             PbftMessage message = this.viewChange;
             byte[] signValue = message.sign(wallet);
             assertArrayEquals(signValue, message.getSignature());
-            assertTrue(PbftVerifier.INSTANCE.verify(message));
+            assertTrue(verifier.verify(message));
         }
     }
 
@@ -280,21 +282,21 @@ public class PbftMessageTest {
         PbftMessage newPbftMessage = this.prePrepare.clone();
         assertEquals(newPbftMessage, this.prePrepare);
         newPbftMessage.clear();
-        assertTrue(PbftVerifier.INSTANCE.verify(this.prePrepare));
+        assertTrue(verifier.verify(this.prePrepare));
 
         newPbftMessage = this.prepare.clone();
         assertEquals(newPbftMessage, this.prepare);
         newPbftMessage.clear();
-        assertTrue(PbftVerifier.INSTANCE.verify(this.prepare));
+        assertTrue(verifier.verify(this.prepare));
 
         newPbftMessage = this.commit.clone();
         assertEquals(newPbftMessage, this.commit);
         newPbftMessage.clear();
-        assertTrue(PbftVerifier.INSTANCE.verify(this.commit));
+        assertTrue(verifier.verify(this.commit));
 
         newPbftMessage = this.viewChange.clone();
         assertEquals(newPbftMessage, this.viewChange);
         newPbftMessage.clear();
-        assertTrue(PbftVerifier.INSTANCE.verify(this.viewChange));
+        assertTrue(verifier.verify(this.viewChange));
     }
 }
@@ -1,5 +1,6 @@
 package io.yggdrash.validator.data.pbft;
 
+import io.yggdrash.common.crypto.zksnark.Bls;
 import io.yggdrash.common.util.TimeUtils;
 import io.yggdrash.core.blockchain.Block;
 import io.yggdrash.core.wallet.Wallet;
@@ -13,6 +14,7 @@ import org.spongycastle.crypto.InvalidCipherTextException;
 import org.spongycastle.util.encoders.Hex;
 
 import java.io.IOException;
+import java.math.BigInteger;
 import java.util.Map;
 import java.util.TreeMap;
 
@@ -20,13 +22,17 @@ import static io.yggdrash.common.config.Constants.PBFT_COMMIT;
 import static io.yggdrash.common.config.Constants.PBFT_PREPARE;
 import static io.yggdrash.common.config.Constants.PBFT_PREPREPARE;
 import static io.yggdrash.common.config.Constants.PBFT_VIEWCHANGE;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 public class PbftStatusTest {
 
     private static final Logger log = LoggerFactory.getLogger(PbftStatusTest.class);
 
+    private final PbftVerifier verifier = new PbftVerifier();
+
     private Wallet wallet;
     private Wallet wallet2;
     private Wallet wallet3;
@@ -240,12 +246,12 @@ public class PbftStatusTest {
 
     @Test
     public void verifyTest() {
-        assertTrue(PbftStatus.verify(this.pbftStatus));
+        assertTrue(PbftStatus.verify(this.pbftStatus, verifier));
         log.debug(Hex.toHexString(this.pbftStatus.getHashForSigning()));
         log.debug(Hex.toHexString(this.pbftStatus.getSignature()));
-        assertTrue(PbftStatus.verify(this.pbftStatus2));
-        assertTrue(PbftStatus.verify(this.pbftStatus3));
-        assertTrue(PbftStatus.verify(this.pbftStatus4));
+        assertTrue(PbftStatus.verify(this.pbftStatus2, verifier));
+        assertTrue(PbftStatus.verify(this.pbftStatus3, verifier));
+        assertTrue(PbftStatus.verify(this.pbftStatus4, verifier));
 
         PbftStatus falsePbftStatus = new PbftStatus(this.pbftStatus.getIndex(),
                 this.pbftStatus.getUnConfirmedPbftMessageMap(),
@@ -254,7 +260,25 @@ public class PbftStatusTest {
         log.debug(Hex.toHexString(falsePbftStatus.getHashForSigning()));
         log.debug(Hex.toHexString(this.pbftStatus.getSignature()));
         // todo: check validation with pubkey
-        //assertFalse(PbftStatus.verify(falsePbftStatus));
+        //assertFalse(PbftStatus.verify(falsePbftStatus, verifier));
+    }
+
+    @Test
+    public void blsKeyTest() {
+        BigInteger secretKey = Bls.secretKey(new byte[] {1});
+        PbftStatus blsStatus = new PbftStatus(1, unConfirmedMessageMap, TimeUtils.time(),
+                Bls.publicKey(secretKey), Bls.proveKey(secretKey), wallet);
+
+        PbftStatus fromProto = new PbftStatus(PbftStatus.toProto(blsStatus));
+        PbftStatus fromBinary = new PbftStatus(blsStatus.toBinary());
+        assertEquals(blsStatus, fromProto);
+        assertEquals(blsStatus, fromBinary);
+        assertArrayEquals(Bls.publicKey(secretKey), fromProto.getBlsPublicKey());
+        assertNull(new PbftStatus(PbftStatus.toProto(pbftStatus)).getBlsPublicKey());
+
+        // The key is signed with the status by the validator
+        assertTrue(PbftStatus.verify(fromProto, verifier));
+        assertEquals(wallet.getHexAddress(), fromProto.getAddressHex());
     }
 
 }
@@ -0,0 +1,102 @@
+package io.yggdrash.validator.service.ebft;
+
+import io.yggdrash.common.config.DefaultConfig;
+import io.yggdrash.common.util.TimeUtils;
+import io.yggdrash.core.blockchain.BlockChainManager;
+import io.yggdrash.core.consensus.ConsensusBlockChain;
+import io.yggdrash.core.wallet.Wallet;
+import io.yggdrash.proto.EbftProto;
+import io.yggdrash.validator.TestUtils;
+import io.yggdrash.validator.data.ebft.EbftBlock;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class EbftServiceTest {
+    // Less than the 100ms the rounds used to poll the blocks with
+    private static final long WAKE_UP_MILLIS = 50;
+    // 5 validators of the default config
+    private static final int CONSENSUS_COUNT = 3;
+
+    private final Map<String, EbftBlock> unConfirmedData = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private EbftService ebftService;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+        BlockChainManager<EbftProto.EbftBlock> blockChainManager = mock(BlockChainManager.class);
+        when(blockChainManager.getLastIndex()).thenReturn(0L);
+        ConsensusBlockChain<EbftProto.EbftBlock, EbftBlock> blockChain = mock(ConsensusBlockChain.class);
+        when(blockChain.getUnConfirmedData()).thenReturn(unConfirmedData);
+        when(blockChain.getBlockChainManager()).thenReturn(blockChainManager);
+
+        ebftService = new EbftService(newWallet(), blockChain, new DefaultConfig(), "", 0);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void waitingShouldEndWhenQuorumArrives() throws Exception {
+        Future<Boolean> waiting = startWaiting();
+
+        for (int i = 1; i < CONSENSUS_COUNT; i++) {
+            ebftService.updateUnconfirmedBlock(proposedBlock());
+        }
+        assertFalse(waiting.isDone());
+
+        ebftService.updateUnconfirmedBlock(proposedBlock());
+        // The block wakes the round up, it doesn't wait for the next poll
+        assertTrue(waiting.get(WAKE_UP_MILLIS, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void waitingShouldTimeOutWithoutQuorum() throws Exception {
+        ebftService.updateUnconfirmedBlock(proposedBlock());
+
+        long start = System.currentTimeMillis();
+        assertFalse(ebftService.waitingProposedBlock());
+        long elapsed = System.currentTimeMillis() - start;
+
+        assertTrue(elapsed >= EbftService.BLOCK_TIMEOUT_MILLIS * CONSENSUS_COUNT);
+    }
+
+    private EbftBlock proposedBlock() throws Exception {
+        return new EbftBlock(new TestUtils(newWallet()).sampleBlock(1L));
+    }
+
+    private static Wallet newWallet() throws Exception {
+        return new Wallet(null, "tmp/", "ebftService" + TimeUtils.time(), "Aa1234567890!");
+    }
+
+    /**
+     * Starts waiting for the proposed blocks in another thread and returns once the thread waits for the signal.
+     */
+    private Future<Boolean> startWaiting() throws InterruptedException {
+        AtomicReference<Thread> waiter = new AtomicReference<>();
+        Future<Boolean> waiting = executor.submit(() -> {
+            waiter.set(Thread.currentThread());
+            return ebftService.waitingProposedBlock();
+        });
+        while (waiter.get() == null || waiter.get().getState() != Thread.State.TIMED_WAITING) {
+            Thread.sleep(1);
+        }
+        return waiting;
+    }
+}
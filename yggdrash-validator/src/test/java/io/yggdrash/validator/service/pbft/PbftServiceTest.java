@@ -0,0 +1,163 @@
+package io.yggdrash.validator.service.pbft;
+
+import io.yggdrash.common.Sha3Hash;
+import io.yggdrash.common.config.Constants;
+import io.yggdrash.common.config.DefaultConfig;
+import io.yggdrash.common.contract.vo.dpoa.Validator;
+import io.yggdrash.common.contract.vo.dpoa.ValidatorSet;
+import io.yggdrash.common.util.TimeUtils;
+import io.yggdrash.core.blockchain.Block;
+import io.yggdrash.core.blockchain.BlockChainManager;
+import io.yggdrash.core.consensus.ConsensusBlock;
+import io.yggdrash.core.consensus.ConsensusBlockChain;
+import io.yggdrash.core.wallet.Wallet;
+import io.yggdrash.proto.PbftProto;
+import io.yggdrash.validator.TestUtils;
+import io.yggdrash.validator.data.pbft.PbftBlock;
+import io.yggdrash.validator.data.pbft.PbftMessage;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PbftServiceTest {
+    // Less than the 100ms the rounds used to poll the messages with
+    private static final long WAKE_UP_MILLIS = 50;
+    private static final int VALIDATOR_COUNT = 4;
+    private static final int CONSENSUS_COUNT = 3;
+
+    private final Map<String, PbftMessage> unConfirmedData = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final List<Wallet> wallets = new ArrayList<>();
+    private final Sha3Hash blockHash = new Sha3Hash("block".getBytes());
+    private ConsensusBlockChain<PbftProto.PbftBlock, PbftMessage> blockChain;
+    private PbftService pbftService;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+        ValidatorSet validatorSet = new ValidatorSet();
+        for (int i = 0; i < VALIDATOR_COUNT; i++) {
+            Wallet wallet = new Wallet(null, "tmp/", "pbftService" + i + TimeUtils.time(), "Aa1234567890!");
+            wallets.add(wallet);
+            validatorSet.getValidatorMap().put(wallet.getHexAddress(), new Validator(wallet.getHexAddress()));
+        }
+        // In the order of the validators, the primary of the first view is the second one
+        wallets.sort(Comparator.comparing(Wallet::getHexAddress));
+
+        BlockChainManager<PbftProto.PbftBlock> blockChainManager = mock(BlockChainManager.class);
+        when(blockChainManager.getLastIndex()).thenReturn(0L);
+        blockChain = mock(ConsensusBlockChain.class);
+        when(blockChain.getUnConfirmedData()).thenReturn(unConfirmedData);
+        when(blockChain.getBlockChainManager()).thenReturn(blockChainManager);
+        when(blockChain.getValidators()).thenReturn(validatorSet);
+
+        pbftService = new PbftService(wallets.get(0), blockChain, new DefaultConfig(), "", 0);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void waitingShouldEndWhenQuorumArrives() throws Exception {
+        Future<Boolean> waiting = startWaiting(Constants.PBFT_PREPARE);
+
+        for (int i = 1; i < CONSENSUS_COUNT; i++) {
+            pbftService.updateUnconfirmedMsg(prepareMsg(wallets.get(i)));
+        }
+        assertFalse(waiting.isDone());
+
+        pbftService.updateUnconfirmedMsg(prepareMsg(wallets.get(CONSENSUS_COUNT)));
+        // The message wakes the round up, it doesn't wait for the next poll
+        assertTrue(waiting.get(WAKE_UP_MILLIS, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void waitingShouldTimeOutWithoutQuorum() {
+        pbftService.updateUnconfirmedMsg(prepareMsg(wallets.get(1)));
+
+        long start = System.currentTimeMillis();
+        assertFalse(pbftService.waitingForMessage(Constants.PBFT_PREPARE));
+        long elapsed = System.currentTimeMillis() - start;
+
+        assertTrue(elapsed >= PbftService.MESSAGE_TIMEOUT_MILLIS * CONSENSUS_COUNT);
+    }
+
+    @Test
+    public void waitingShouldEndWhenBlockIsConfirmed() throws Exception {
+        Future<Boolean> waiting = startWaiting(Constants.PBFT_COMMIT);
+
+        // The block of the sequence is confirmed by a broadcast
+        PbftBlock pbftBlock = mock(PbftBlock.class);
+        when(pbftBlock.getIndex()).thenReturn(1L);
+        pbftService.confirmedBlock(pbftBlock);
+
+        assertFalse(waiting.get(WAKE_UP_MILLIS, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void roundShouldConfirmBlockOfQuorum() {
+        pbftService.getTotalValidatorMap().values().forEach(client -> client.setIsRunning(true));
+        Wallet primary = wallets.get(1);
+        Block block = new TestUtils(primary).sampleBlock(1L);
+        pbftService.updateUnconfirmedMsg(
+                new PbftMessage(Constants.PBFT_PREPREPARE, 1L, 1L, block.getHash(), null, primary, block));
+        for (int i = 1; i < CONSENSUS_COUNT; i++) {
+            Wallet wallet = wallets.get(i);
+            pbftService.updateUnconfirmedMsg(
+                    new PbftMessage(Constants.PBFT_PREPARE, 1L, 1L, block.getHash(), null, wallet, null));
+            pbftService.updateUnconfirmedMsg(
+                    new PbftMessage(Constants.PBFT_COMMIT, 1L, 1L, block.getHash(), null, wallet, null));
+        }
+
+        // The replica prepares and commits the proposed block with the others and confirms it
+        pbftService.run();
+
+        ArgumentCaptor<ConsensusBlock<PbftProto.PbftBlock>> captor = ArgumentCaptor.forClass(ConsensusBlock.class);
+        verify(blockChain).addBlock(captor.capture());
+        PbftBlock pbftBlock = (PbftBlock) captor.getValue();
+        assertEquals(block.getHash(), pbftBlock.getHash());
+        assertEquals(CONSENSUS_COUNT, pbftBlock.getConsensusMessages().getPrepareMap().size());
+        assertEquals(CONSENSUS_COUNT, pbftBlock.getConsensusMessages().getCommitMap().size());
+    }
+
+    private PbftMessage prepareMsg(Wallet wallet) {
+        return new PbftMessage(Constants.PBFT_PREPARE, 1L, 1L, blockHash, null, wallet, null);
+    }
+
+    /**
+     * Starts waiting for the message in another thread and returns once the thread waits for the signal.
+     */
+    private Future<Boolean> startWaiting(String message) throws InterruptedException {
+        AtomicReference<Thread> waiter = new AtomicReference<>();
+        Future<Boolean> waiting = executor.submit(() -> {
+            waiter.set(Thread.currentThread());
+            return pbftService.waitingForMessage(message);
+        });
+        while (waiter.get() == null || waiter.get().getState() != Thread.State.TIMED_WAITING) {
+            Thread.sleep(1);
+        }
+        return waiting;
+    }
+}